@@ -23,6 +23,7 @@ plugins {
     id("pl.allegro.tech.build.axion-release") version "1.17.2"
     id("io.github.gradle-nexus.publish-plugin") version "2.0.0"
     id("com.bmuschko.docker-remote-api") version "9.4.0" apply false
+    id("me.champeau.jmh") version "0.7.2" apply false
 }
 
 project.version = scmVersion.version
@@ -10,6 +10,24 @@ function provision() {
    io.specmesh.cli.Provision "$@"
 }
 
+function provision_mesh() {
+  echo "Provision mesh..."
+  exec java \
+   -Xms64m -Xmx128m \
+   -Dlog4j.configurationFile=/log/log4j2.xml \
+   -cp "/opt/specmesh/service/lib/*" \
+   io.specmesh.cli.ProvisionMesh "$@"
+}
+
+function provision_envs() {
+  echo "Provision envs..."
+  exec java \
+   -Xms64m -Xmx128m \
+   -Dlog4j.configurationFile=/log/log4j2.xml \
+   -cp "/opt/specmesh/service/lib/*" \
+   io.specmesh.cli.ProvisionEnvs "$@"
+}
+
 function consumption() {
   echo "Consumption..."
   exec java \
@@ -27,6 +45,33 @@ function storage() {
    -cp "/opt/specmesh/service/lib/*" \
    io.specmesh.cli.Storage "$@"
 }
+function metrics() {
+  echo "Metrics..."
+  exec java \
+   -Xms64m -Xmx128m \
+   -Dlog4j.configurationFile=/log/log4j2.xml \
+   -cp "/opt/specmesh/service/lib/*" \
+   io.specmesh.cli.Metrics "$@"
+}
+
+function forecast() {
+  echo "Forecast..."
+  exec java \
+   -Xms64m -Xmx64m \
+   -Dlog4j.configurationFile=/log/log4j2.xml \
+   -cp "/opt/specmesh/service/lib/*" \
+   io.specmesh.cli.Forecast "$@"
+}
+
+function diff() {
+  echo "Diff..."
+  exec java \
+   -Xms64m -Xmx64m \
+   -Dlog4j.configurationFile=/log/log4j2.xml \
+   -cp "/opt/specmesh/service/lib/*" \
+   io.specmesh.cli.Diff "$@"
+}
+
 function export() {
   echo "Export..."
   exec java \
@@ -50,7 +95,7 @@ function flatten() {
 
 function usage() {
   echo "Usage "
-  echo " Commands         [provision, consumption, storage, export, flatten]"
+  echo " Commands         [provision, provision-mesh, provision-envs, consumption, storage, metrics, forecast, diff, export, flatten]"
   echo " Common args      --bootstrap-server|-bs, --username,-u, --secret,-p"
   echo " Schema Reg args  --schema-registry, -sr, --sr-api-key,-srKey, --sr-api-secret,-srSecret, --schema-path,-schemaPath "
   echo " Other args       --spec,-spec, --appId,-appId "
@@ -69,6 +114,14 @@ case $1 in
     shift
     provision "$@"
     ;;
+  provision-mesh)
+    shift
+    provision_mesh "$@"
+    ;;
+  provision-envs)
+    shift
+    provision_envs "$@"
+    ;;
   consumption)
     shift
     consumption "$@"
@@ -77,6 +130,18 @@ case $1 in
       shift
       storage "$@"
       ;;
+  metrics)
+      shift
+      metrics "$@"
+      ;;
+  forecast)
+      shift
+      forecast "$@"
+      ;;
+  diff)
+      shift
+      diff "$@"
+      ;;
   export)
       shift
       export "$@"
@@ -80,6 +80,14 @@ public class Consumption implements Callable<Integer> {
             description = "secret credential for the cluster connection")
     private String secret;
 
+    @Option(
+            names = {"-ls", "--lag-sample-ms"},
+            description =
+                    "Sample consumer-group offsets twice, this many millis apart, to estimate"
+                            + " consumption rate and time to catch up with log-end")
+    @Builder.Default
+    private long lagSampleMs = 0;
+
     @Option(
             names = "-D",
             mapFallbackValue = "",
@@ -103,10 +111,15 @@ public class Consumption implements Callable<Integer> {
                         .collect(Collectors.toList());
 
         final var results = new TreeMap<String, ConsumerGroup>();
+        final var earlier = lagSampleMs > 0 ? client.consumerGroupSnapshot() : null;
+        if (earlier != null) {
+            Thread.sleep(lagSampleMs);
+        }
+        final var snapshot = client.consumerGroupSnapshot();
 
         topics.forEach(
                 topic -> {
-                    final var groups = client.groupsForTopicPrefix(topic);
+                    final var groups = snapshot.groupsForTopicPrefix(topic, earlier);
                     groups.forEach(group -> results.put(topic, group));
                 });
 
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.cli;
+
+import static picocli.CommandLine.Command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.specmesh.kafka.KafkaApiSpec;
+import io.specmesh.kafka.provision.SpecDiffPlanner;
+import io.specmesh.kafka.provision.SpecDiffPlanner.SpecDiff;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import picocli.CommandLine;
+import picocli.CommandLine.Option;
+
+/** Offline delta between two versions of a spec */
+@Command(
+        name = "diff",
+        description =
+                "Given two versions of a spec and their schemas, show the topic, acl and schema"
+                        + " changes between them without connecting to a cluster")
+@Getter
+@Accessors(fluent = true)
+@Builder
+@SuppressFBWarnings
+public class Diff implements Callable<Integer> {
+
+    /**
+     * Main method
+     *
+     * @param args args
+     */
+    public static void main(final String[] args) {
+        System.exit(new CommandLine(Diff.builder().build()).execute(args));
+    }
+
+    @Option(
+            names = {"-from", "--from-spec"},
+            description = "current specmesh specification file",
+            required = true)
+    private String fromSpec;
+
+    @Option(
+            names = {"-to", "--to-spec"},
+            description = "proposed specmesh specification file",
+            required = true)
+    private String toSpec;
+
+    @Option(
+            names = {"-fromSchemaPath", "--from-schema-path"},
+            description = "schemas referenced by the current spec, defaults to --to-schema-path")
+    private String fromSchemaPath;
+
+    @Option(
+            names = {"-toSchemaPath", "--to-schema-path"},
+            description = "schemas referenced by the proposed spec")
+    @Builder.Default
+    private String toSchemaPath = ".";
+
+    private SpecDiff state;
+
+    @Override
+    public Integer call() throws Exception {
+        final var diff =
+                SpecDiffPlanner.plan(
+                        load(fromSpec),
+                        fromSchemaPath == null ? toSchemaPath : fromSchemaPath,
+                        load(toSpec),
+                        toSchemaPath);
+
+        final Map<String, List<String>> summary = new LinkedHashMap<>();
+        summary.put("createTopics", describe(diff.createTopics(), t -> t.name() + t.messages()));
+        summary.put("updateTopics", describe(diff.updateTopics(), t -> t.name() + t.messages()));
+        summary.put("deleteTopics", describe(diff.deleteTopics(), t -> t.name()));
+        summary.put("createAcls", describe(diff.createAcls(), a -> a.name()));
+        summary.put("deleteAcls", describe(diff.deleteAcls(), a -> a.name()));
+        summary.put("createSchemas", describe(diff.createSchemas(), s -> s.subject()));
+        summary.put(
+                "updateSchemas", describe(diff.updateSchemas(), s -> s.subject() + s.messages()));
+        summary.put("deleteSchemas", describe(diff.deleteSchemas(), s -> s.subject()));
+
+        final var mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        System.out.println(mapper.writeValueAsString(summary));
+        this.state = diff;
+        return 0;
+    }
+
+    /**
+     * Return processed state
+     *
+     * @return processed state
+     */
+    @SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "meh")
+    public SpecDiff state() {
+        return state;
+    }
+
+    private static <T> List<String> describe(
+            final List<T> items, final Function<T, String> description) {
+        return items.stream().map(description).collect(Collectors.toList());
+    }
+
+    private static KafkaApiSpec load(final String spec) {
+        return KafkaApiSpec.loadFromClassPath(spec, Diff.class.getClassLoader());
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.cli;
+
+import static picocli.CommandLine.Command;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.specmesh.kafka.Clients;
+import io.specmesh.kafka.KafkaApiSpec;
+import io.specmesh.kafka.admin.CapacityForecaster;
+import io.specmesh.kafka.admin.CapacityForecaster.TopicRetention;
+import io.specmesh.kafka.admin.SampleStore;
+import io.specmesh.kafka.admin.SmAdminClient;
+import io.specmesh.kafka.provision.TopicReaders;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import org.apache.kafka.clients.admin.NewTopic;
+import picocli.CommandLine;
+import picocli.CommandLine.Option;
+
+/** Steady-state storage projection for the topics of one or more specs */
+@Command(
+        name = "forecast",
+        description =
+                "Given one or more specs, project steady-state disk use per topic and broker from"
+                        + " retention config and measured ingress")
+@Getter
+@Accessors(fluent = true)
+@Builder
+@SuppressFBWarnings
+public class Forecast implements Callable<Integer> {
+
+    /**
+     * Main method
+     *
+     * @param args args
+     */
+    public static void main(final String[] args) {
+        System.exit(new CommandLine(Forecast.builder().build()).execute(args));
+    }
+
+    @Option(
+            names = {"-bs", "--bootstrap-server"},
+            description = "Kafka bootstrap server url")
+    @Builder.Default
+    private String brokerUrl = "";
+
+    @Option(
+            names = {"-spec", "--spec"},
+            description = "specmesh specification file, repeat for each domain",
+            required = true)
+    @Builder.Default
+    private List<String> specs = new ArrayList<>();
+
+    @Option(
+            names = {"-u", "--username"},
+            description = "username or api key for the cluster connection")
+    private String username;
+
+    @Option(
+            names = {"-s", "--secret"},
+            description = "secret credential for the cluster connection")
+    private String secret;
+
+    @Option(
+            names = {"-si", "--sample-interval"},
+            description = "seconds between the two storage samples used to measure ingress")
+    @Builder.Default
+    private long sampleSeconds = 60;
+
+    @Option(
+            names = {"-ss", "--sample-store"},
+            description =
+                    "ring file to keep storage samples in between runs, created if it does not"
+                            + " exist")
+    private String sampleStore;
+
+    @Option(
+            names = {"-ssc", "--sample-store-capacity"},
+            description = "samples a new sample store holds before overwriting the oldest")
+    @Builder.Default
+    private int sampleStoreCapacity = 1_000_000;
+
+    @Option(
+            names = {"-lb", "--lookback-hours"},
+            description =
+                    "hours of sample store history to measure ingress over, topics without"
+                            + " history use the two samples of this run")
+    @Builder.Default
+    private long lookbackHours = 24;
+
+    @Option(
+            names = {"-hr", "--headroom"},
+            description =
+                    "fraction of broker disk to keep free, warn when projected use exceeds it")
+    @Builder.Default
+    private double headroom = 0.2;
+
+    @Option(
+            names = "-D",
+            mapFallbackValue = "",
+            description =
+                    "Specify Java runtime system properties for Apache Kafka. Note: bulk properties"
+                            + " can be set via '-Dconfig.properties=somefile.properties"
+                            + " ") // allow -Dkey
+    void setProperty(final Map<String, String> props) {
+        props.forEach((k, v) -> System.setProperty(k, v));
+    }
+
+    private CapacityForecaster.Forecast state;
+
+    @Override
+    public Integer call() throws Exception {
+        try (var admin = Clients.adminClient(brokerUrl, username, secret)) {
+            final var client = SmAdminClient.create(admin);
+
+            final Map<String, TopicRetention> retention = new TreeMap<>();
+            for (final var spec : specs) {
+                final var apiSpec =
+                        KafkaApiSpec.loadFromClassPath(spec, Forecast.class.getClassLoader());
+                final var owned =
+                        apiSpec.listDomainOwnedTopics().stream()
+                                .map(NewTopic::name)
+                                .collect(Collectors.toSet());
+                TopicReaders.TopicsReaderBuilder.builder(admin, apiSpec.id())
+                        .build()
+                        .readall()
+                        .stream()
+                        .filter(topic -> owned.contains(topic.name()))
+                        .forEach(
+                                topic ->
+                                        retention.put(
+                                                topic.name(),
+                                                TopicRetention.from(
+                                                        topic.config(),
+                                                        topic.partitions(),
+                                                        topic.replication())));
+            }
+
+            final var earlier = client.storageReport(retention.keySet());
+            final long startMs = System.currentTimeMillis();
+            Thread.sleep(sampleSeconds * 1000);
+            final var later = client.storageReport(retention.keySet());
+            final long endMs = System.currentTimeMillis();
+            final double elapsedSeconds = (endMs - startMs) / 1000.0;
+            final Map<String, Double> measured = new TreeMap<>();
+            if (sampleStore != null) {
+                try (var store = SampleStore.open(Paths.get(sampleStore), sampleStoreCapacity)) {
+                    store.append(earlier, startMs);
+                    store.append(later, endMs);
+                    final long fromMs = endMs - TimeUnit.HOURS.toMillis(lookbackHours);
+                    for (final var topic : retention.keySet()) {
+                        final var growth = store.growth(topic, fromMs, endMs + 1);
+                        if (growth.partitions() > 0) {
+                            measured.put(topic, growth.recordsPerSecond());
+                        }
+                    }
+                }
+            }
+
+            final var forecast =
+                    CapacityForecaster.forecast(
+                            retention, measured, earlier, later, elapsedSeconds, headroom);
+
+            final var mapper =
+                    new ObjectMapper()
+                            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+            System.out.println(mapper.writeValueAsString(forecast));
+            forecast.warnings().forEach(warning -> System.out.println("WARN " + warning));
+            this.state = forecast;
+            return 0;
+        }
+    }
+
+    /**
+     * Return processed state
+     *
+     * @return processed state
+     */
+    @SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "meh")
+    public CapacityForecaster.Forecast state() {
+        return state;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.cli;
+
+import static picocli.CommandLine.Command;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.specmesh.kafka.Clients;
+import io.specmesh.kafka.KafkaApiSpec;
+import io.specmesh.kafka.admin.SmAdminClient;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import org.apache.kafka.clients.admin.NewTopic;
+import picocli.CommandLine;
+import picocli.CommandLine.Option;
+
+/** Long running exporter of spec storage and consumption metrics */
+@Command(
+        name = "metrics",
+        description =
+                "Given a spec, keep a cluster connection open and serve storage and consumption"
+                        + " metrics for its topics in Prometheus text format")
+@Getter
+@Accessors(fluent = true)
+@Builder
+@SuppressFBWarnings
+public class Metrics implements Callable<Integer> {
+
+    private static final int CLOSE_TIMEOUT_SECONDS = 10;
+
+    /**
+     * Main method
+     *
+     * @param args args
+     */
+    public static void main(final String[] args) {
+        System.exit(new CommandLine(Metrics.builder().build()).execute(args));
+    }
+
+    @Option(
+            names = {"-bs", "--bootstrap-server"},
+            description = "Kafka bootstrap server url")
+    @Builder.Default
+    private String brokerUrl = "";
+
+    @Option(
+            names = {"-spec", "--spec"},
+            description = "specmesh specification file")
+    private String spec;
+
+    @Option(
+            names = {"-u", "--username"},
+            description = "username or api key for the cluster connection")
+    private String username;
+
+    @Option(
+            names = {"-s", "--secret"},
+            description = "secret credential for the cluster connection")
+    private String secret;
+
+    @Option(
+            names = {"-port", "--port"},
+            description = "port to serve /metrics on")
+    @Builder.Default
+    private int port = 9400;
+
+    @Option(
+            names = {"-ri", "--refresh-interval"},
+            description = "seconds between refreshes of the cluster state")
+    @Builder.Default
+    private long refreshSeconds = 60;
+
+    @Option(
+            names = "-D",
+            mapFallbackValue = "",
+            description =
+                    "Specify Java runtime system properties for Apache Kafka. Note: bulk properties"
+                            + " can be set via '-Dconfig.properties=somefile.properties"
+                            + " ") // allow -Dkey
+    void setProperty(final Map<String, String> props) {
+        props.forEach((k, v) -> System.setProperty(k, v));
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        final var topics =
+                specMeshSpec().listDomainOwnedTopics().stream()
+                        .map(NewTopic::name)
+                        .collect(Collectors.toList());
+
+        final var admin = Clients.adminClient(brokerUrl, username, secret);
+        final var exporter =
+                new MetricsExporter(SmAdminClient.create(admin), topics, Clock.systemUTC());
+        final var scheduler = Executors.newSingleThreadScheduledExecutor();
+        final var handlers = Executors.newFixedThreadPool(2);
+        final HttpServer server;
+        try {
+            server = HttpServer.create(new InetSocketAddress(port), 0);
+        } catch (IOException e) {
+            scheduler.shutdownNow();
+            handlers.shutdownNow();
+            admin.close();
+            throw e;
+        }
+
+        // the JVM does not wait for the main thread once shutdown hooks finish, so the hook
+        // itself stops serving and closes the cluster connection
+        final var stopped = new CountDownLatch(1);
+        Runtime.getRuntime()
+                .addShutdownHook(
+                        new Thread(
+                                () -> {
+                                    try {
+                                        server.stop(0);
+                                        scheduler.shutdownNow();
+                                        handlers.shutdownNow();
+                                        admin.close(Duration.ofSeconds(CLOSE_TIMEOUT_SECONDS));
+                                    } finally {
+                                        stopped.countDown();
+                                    }
+                                },
+                                "metrics-shutdown"));
+
+        scheduler.scheduleWithFixedDelay(
+                () -> refresh(exporter), 0, refreshSeconds, TimeUnit.SECONDS);
+        server.createContext("/metrics", exchange -> respond(exchange, exporter.render()));
+        server.setExecutor(handlers);
+        server.start();
+        System.out.println("Serving metrics on port " + port + " for " + topics.size() + " topics");
+
+        stopped.await();
+        return 0;
+    }
+
+    private static void refresh(final MetricsExporter exporter) {
+        try {
+            exporter.refresh();
+        } catch (Exception e) {
+            // keep serving the last sample, its age shows it is stale
+            System.out.println("Failed to refresh metrics: " + e);
+        }
+    }
+
+    private static void respond(final HttpExchange exchange, final String body)
+            throws IOException {
+        final var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private KafkaApiSpec specMeshSpec() {
+        return KafkaApiSpec.loadFromClassPath(spec, Metrics.class.getClassLoader());
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.cli;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.specmesh.kafka.admin.SmAdminClient;
+import io.specmesh.kafka.admin.SmAdminClient.ConsumerGroup;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Holds the latest storage and consumption samples for a set of topics and renders them in the
+ * Prometheus text format. Each refresh reads start and end offsets for all topics, but only
+ * re-reads storage for topics whose offsets moved, i.e. that were written to or had segments
+ * deleted by retention. Compaction shrinks a topic without moving either, so storage for every
+ * topic is re-read every {@code fullRefreshEvery} refreshes regardless. Consumer groups are read
+ * once per refresh via a single snapshot.
+ *
+ * <p>Refresh runs on one thread, render on many; each refresh publishes a new immutable sample.
+ */
+public final class MetricsExporter {
+
+    /** Refreshes between re-reads of storage for every topic */
+    public static final int DEFAULT_FULL_REFRESH_EVERY = 10;
+
+    private final SmAdminClient client;
+    private final List<String> topics;
+    private final Clock clock;
+    private final int fullRefreshEvery;
+    private volatile Sample sample = new Sample(Map.of(), Map.of(), 0);
+    private int refreshes;
+
+    /**
+     * Exporter
+     *
+     * @param client - long lived admin client
+     * @param topics - topics to report
+     * @param clock - source of sample times
+     */
+    public MetricsExporter(
+            final SmAdminClient client, final List<String> topics, final Clock clock) {
+        this(client, topics, clock, DEFAULT_FULL_REFRESH_EVERY);
+    }
+
+    /**
+     * Exporter
+     *
+     * @param client - long lived admin client
+     * @param topics - topics to report
+     * @param clock - source of sample times
+     * @param fullRefreshEvery - refreshes between re-reads of storage for every topic
+     */
+    @SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "client is shared")
+    public MetricsExporter(
+            final SmAdminClient client,
+            final List<String> topics,
+            final Clock clock,
+            final int fullRefreshEvery) {
+        this.client = client;
+        this.topics = List.copyOf(topics);
+        this.clock = clock;
+        this.fullRefreshEvery = Math.max(1, fullRefreshEvery);
+    }
+
+    /** Re-read changed topics and consumer groups */
+    public void refresh() {
+        final var previous = sample;
+        final var startOffsets = client.topicStartOffsets(topics);
+        final var endOffsets = client.topicEndOffsets(topics);
+        final boolean full = refreshes++ % fullRefreshEvery == 0;
+        final var changed = new ArrayList<String>();
+        topics.forEach(
+                topic -> {
+                    final var was = previous.topics.get(topic);
+                    if (full
+                            || was == null
+                            || !Objects.equals(was.startOffset, startOffsets.get(topic))
+                            || !Objects.equals(was.endOffset, endOffsets.get(topic))) {
+                        changed.add(topic);
+                    }
+                });
+
+        final long now = clock.millis();
+        final var topicSamples = new TreeMap<>(previous.topics);
+        if (!changed.isEmpty()) {
+            final var report = client.storageReport(changed);
+            changed.forEach(
+                    topic -> {
+                        final var storage = report.topic(topic);
+                        topicSamples.put(
+                                topic,
+                                new TopicSample(
+                                        startOffsets.get(topic),
+                                        endOffsets.get(topic),
+                                        storage.bytes(),
+                                        storage.offsetTotal(),
+                                        Map.copyOf(storage.bytesByBroker()),
+                                        now));
+                    });
+        }
+
+        final var snapshot = client.consumerGroupSnapshot();
+        final var groups = new TreeMap<String, List<ConsumerGroup>>();
+        topics.forEach(topic -> groups.put(topic, snapshot.groupsForTopicPrefix(topic)));
+        sample = new Sample(topicSamples, groups, now);
+    }
+
+    /**
+     * Render the latest sample
+     *
+     * @return Prometheus text exposition
+     */
+    public String render() {
+        final var current = sample;
+        final long now = clock.millis();
+        final var out = new StringBuilder();
+
+        header(out, "specmesh_topic_storage_bytes", "Topic bytes on disk, including replicas");
+        current.topics.forEach(
+                (topic, s) -> line(out, "specmesh_topic_storage_bytes", topic, s.bytes));
+
+        header(out, "specmesh_topic_offset_total", "Records retained in the topic");
+        current.topics.forEach(
+                (topic, s) -> line(out, "specmesh_topic_offset_total", topic, s.offsetTotal));
+
+        header(out, "specmesh_topic_broker_storage_bytes", "Topic bytes on disk per broker");
+        current.topics.forEach(
+                (topic, s) ->
+                        s.bytesByBroker.forEach(
+                                (broker, bytes) ->
+                                        out.append("specmesh_topic_broker_storage_bytes{topic=\"")
+                                                .append(escape(topic))
+                                                .append("\",broker=\"")
+                                                .append(broker)
+                                                .append("\"} ")
+                                                .append(bytes)
+                                                .append('\n')));
+
+        header(out, "specmesh_topic_sample_age_seconds", "Seconds since topic storage was read");
+        current.topics.forEach(
+                (topic, s) ->
+                        line(
+                                out,
+                                "specmesh_topic_sample_age_seconds",
+                                topic,
+                                (now - s.sampledAtMs) / 1000.0));
+
+        header(out, "specmesh_consumer_group_lag", "Records the group is behind log-end");
+        current.groups.forEach(
+                (topic, groups) ->
+                        groups.forEach(
+                                group ->
+                                        out.append("specmesh_consumer_group_lag{topic=\"")
+                                                .append(escape(topic))
+                                                .append("\",group=\"")
+                                                .append(escape(group.id()))
+                                                .append("\"} ")
+                                                .append(lag(group, topic))
+                                                .append('\n')));
+
+        header(
+                out,
+                "specmesh_consumer_group_sample_age_seconds",
+                "Seconds since consumer groups were read");
+        out.append("specmesh_consumer_group_sample_age_seconds ")
+                .append(current.sampledAtMs == 0 ? 0 : (now - current.sampledAtMs) / 1000.0)
+                .append('\n');
+        return out.toString();
+    }
+
+    private static long lag(final ConsumerGroup group, final String topic) {
+        final var byTopic = group.lagByTopic();
+        return byTopic == null ? group.lag() : byTopic.getOrDefault(topic, 0L);
+    }
+
+    private static void header(final StringBuilder out, final String name, final String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" gauge\n");
+    }
+
+    private static void line(
+            final StringBuilder out, final String name, final String topic, final Object value) {
+        out.append(name)
+                .append("{topic=\"")
+                .append(escape(topic))
+                .append("\"} ")
+                .append(value)
+                .append('\n');
+    }
+
+    private static String escape(final String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static final class TopicSample {
+        private final Long startOffset;
+        private final Long endOffset;
+        private final long bytes;
+        private final long offsetTotal;
+        private final Map<Integer, Long> bytesByBroker;
+        private final long sampledAtMs;
+
+        TopicSample(
+                final Long startOffset,
+                final Long endOffset,
+                final long bytes,
+                final long offsetTotal,
+                final Map<Integer, Long> bytesByBroker,
+                final long sampledAtMs) {
+            this.startOffset = startOffset;
+            this.endOffset = endOffset;
+            this.bytes = bytes;
+            this.offsetTotal = offsetTotal;
+            this.bytesByBroker = bytesByBroker;
+            this.sampledAtMs = sampledAtMs;
+        }
+    }
+
+    private static final class Sample {
+        private final Map<String, TopicSample> topics;
+        private final Map<String, List<ConsumerGroup>> groups;
+        private final long sampledAtMs;
+
+        Sample(
+                final Map<String, TopicSample> topics,
+                final Map<String, List<ConsumerGroup>> groups,
+                final long sampledAtMs) {
+            this.topics = topics;
+            this.groups = groups;
+            this.sampledAtMs = sampledAtMs;
+        }
+    }
+}
@@ -193,6 +193,59 @@ public final class Provision implements Callable<Integer> {
         builder.cleanUnspecified(enabled);
     }
 
+    @Option(
+            names = {"-planOut", "--plan-out"},
+            description =
+                    "Calculate the changes and write them to this file, along with a fingerprint"
+                            + " of the cluster and schema registry state they were calculated"
+                            + " from. Nothing is changed. Apply it later with '--apply-plan'")
+    public void planOut(final String path) {
+        builder.planOut(path);
+    }
+
+    @Option(
+            names = {"-applyPlan", "--apply-plan"},
+            description =
+                    "Apply exactly the changes in a file written by '--plan-out' without"
+                            + " recalculating them. Fails without changing anything if the"
+                            + " cluster or schema registry state has drifted since the plan was"
+                            + " written. With '--dry-run' the plan is only checked. Can not be"
+                            + " combined with '--plan-out' or '--resume'")
+    public void applyPlan(final String path) {
+        builder.applyPlan(path);
+    }
+
+    @Option(
+            names = {"-journal", "--journal"},
+            description =
+                    "Record each intended and completed change in this file, so a run that dies"
+                            + " part way through can be finished with '--resume'")
+    public void journal(final String path) {
+        builder.journalPath(path);
+    }
+
+    @Option(
+            names = {"-resume", "--resume"},
+            fallbackValue = "false",
+            description =
+                    "Apply only the changes in '--journal' that the earlier run did not complete,"
+                            + " confirming those that did with targeted reads instead of a full"
+                            + " read and diff. With '--dry-run' the outstanding changes are only"
+                            + " reported")
+    public void resume(final boolean enabled) {
+        builder.resume(enabled);
+    }
+
+    @Option(
+            names = {"-schemaLedger", "--schema-ledger"},
+            description =
+                    "Record a fingerprint of each applied schema in this file, so later runs skip"
+                            + " subjects whose schema is unchanged after one metadata call,"
+                            + " instead of reading and comparing them")
+    public void schemaLedger(final String path) {
+        builder.schemaLedgerPath(path);
+    }
+
     @Option(
             names = {"-D", "--property"},
             mapFallbackValue = "",
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.cli;
+
+import static picocli.CommandLine.Command;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.specmesh.kafka.provision.EnvironmentCatalogue;
+import io.specmesh.kafka.provision.EnvironmentProvisioner;
+import io.specmesh.kafka.provision.Status;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import picocli.CommandLine;
+import picocli.CommandLine.Option;
+
+/** SpecMesh Kafka Provisioner for every environment a spec names */
+@SuppressWarnings("unused")
+@Command(
+        name = "provision-envs",
+        description =
+                "Apply a specification.yaml to every environment named in its channels' kafka"
+                        + " binding 'envs', concurrently. Each environment only gets the channels"
+                        + " that list it. Cluster details per environment are read from"
+                        + " --environments")
+public final class ProvisionEnvs implements Callable<Integer> {
+
+    private final EnvironmentProvisioner.EnvironmentProvisionerBuilder builder =
+            EnvironmentProvisioner.builder();
+
+    @VisibleForTesting
+    ProvisionEnvs() {}
+
+    /**
+     * Main method
+     *
+     * @param args args
+     */
+    public static void main(final String[] args) {
+        System.exit(new CommandLine(new ProvisionEnvs()).execute(args));
+    }
+
+    @Option(
+            names = {"-environments", "--environments"},
+            description =
+                    "properties file of env.<name>.bootstrap-server, schema-registry,"
+                            + " sr-api-key, sr-api-secret, username and secret",
+            required = true)
+    public void environments(final String path) {
+        builder.catalogue(EnvironmentCatalogue.load(Paths.get(path)));
+    }
+
+    @Option(
+            names = {"-env", "--env"},
+            split = ",",
+            description =
+                    "only provision these environments, defaults to all the spec names, or all"
+                            + " catalogued environments if it names none")
+    public void envs(final List<String> envs) {
+        builder.envs(envs);
+    }
+
+    @Option(
+            names = {"-spec", "--spec"},
+            description = "specmesh specification file",
+            required = true)
+    public void spec(final String path) {
+        builder.specPath(path);
+    }
+
+    @Option(
+            names = {"-schemaPath", "--schema-path"},
+            description = "schemaPath where the set of referenced schemas will be loaded")
+    public void schemaPath(final String path) {
+        builder.schemaPath(path);
+    }
+
+    @Option(
+            names = {"-du", "--domain-user"},
+            description = "optional custom domain user, to be used when creating ACLs")
+    public void domainUserAlias(final String alias) {
+        builder.domainUserAlias(alias);
+    }
+
+    @Option(
+            names = {"-srDisabled", "--sr-disabled"},
+            description = "Ignore schema related operations")
+    public void srDisabled(final boolean disable) {
+        builder.srDisabled(disable);
+    }
+
+    @Option(
+            names = {"-aclDisabled", "--acl-disabled"},
+            description = "Ignore ACL related operations")
+    public void aclDisabled(final boolean disable) {
+        builder.aclDisabled(disable);
+    }
+
+    @Option(
+            names = {"-dry", "--dry-run"},
+            fallbackValue = "false",
+            description =
+                    "Compare each environment against its view of the spec, changing nothing")
+    public void dryRun(final boolean enabled) {
+        builder.dryRun(enabled);
+    }
+
+    @Option(
+            names = {"-clean", "--clean-unspecified"},
+            fallbackValue = "false",
+            description = "Remove resources in each environment that its view of the spec omits")
+    public void cleanUnspecified(final boolean enabled) {
+        builder.cleanUnspecified(enabled);
+    }
+
+    @Option(
+            names = {"-parallelism", "--parallelism"},
+            description = "number of environments provisioned at once")
+    public void parallelism(final int parallelism) {
+        builder.parallelism(parallelism);
+    }
+
+    @Option(
+            names = {"-D", "--property"},
+            mapFallbackValue = "",
+            description = "Specify Java runtime properties for Apache Kafka." + " ") // allow -Dkey
+    void setProperty(final Map<String, String> props) {
+        props.forEach(System::setProperty);
+    }
+
+    public Integer call() {
+        final var results = run();
+        results.forEach((env, status) -> System.out.println(env + ": " + status));
+        return results.values().stream().anyMatch(Status::failed) ? 1 : 0;
+    }
+
+    @VisibleForTesting
+    Map<String, Status> run() {
+        return builder.build().provision();
+    }
+}
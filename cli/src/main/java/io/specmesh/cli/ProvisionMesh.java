@@ -0,0 +1,165 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.cli;
+
+import static picocli.CommandLine.Command;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.specmesh.kafka.provision.MeshProvisioner;
+import io.specmesh.kafka.provision.Status;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import picocli.CommandLine;
+import picocli.CommandLine.Option;
+
+/** SpecMesh Kafka Provisioner for a directory of specs */
+@SuppressWarnings("unused")
+@Command(
+        name = "provision-mesh",
+        description =
+                "Apply every specification.yaml in a directory, reading the cluster and schema"
+                        + " registry once for all of them. Each domain succeeds or fails on its"
+                        + " own")
+public final class ProvisionMesh implements Callable<Integer> {
+
+    private final MeshProvisioner.MeshProvisionerBuilder builder = MeshProvisioner.builder();
+
+    @VisibleForTesting
+    ProvisionMesh() {}
+
+    /**
+     * Main method
+     *
+     * @param args args
+     */
+    public static void main(final String[] args) {
+        System.exit(new CommandLine(new ProvisionMesh()).execute(args));
+    }
+
+    @Option(
+            names = {"-specDir", "--spec-dir"},
+            description = "directory of specmesh specification files",
+            required = true)
+    public void specDir(final String path) {
+        builder.specDir(path);
+    }
+
+    @Option(
+            names = {"-bs", "--bootstrap-server"},
+            description = "Kafka bootstrap server url")
+    public void brokerUrl(final String brokerUrl) {
+        builder.brokerUrl(brokerUrl);
+    }
+
+    @Option(
+            names = {"-srDisabled", "--sr-disabled"},
+            description = "Ignore schema related operations")
+    public void srDisabled(final boolean disable) {
+        builder.srDisabled(disable);
+    }
+
+    @Option(
+            names = {"-aclDisabled", "--acl-disabled"},
+            description = "Ignore ACL related operations")
+    public void aclDisabled(final boolean disable) {
+        builder.aclDisabled(disable);
+    }
+
+    @Option(
+            names = {"-sr", "--schema-registry"},
+            description = "schemaRegistryUrl")
+    public void schemaRegistryUrl(final String url) {
+        builder.schemaRegistryUrl(url);
+    }
+
+    @Option(
+            names = {"-srKey", "--sr-api-key"},
+            description = "srApiKey for schema registry")
+    public void srApiKey(final String key) {
+        builder.srApiKey(key);
+    }
+
+    @Option(
+            names = {"-srSecret", "--sr-api-secret"},
+            description = "srApiSecret for schema secret")
+    public void srApiSecret(final String secret) {
+        builder.srApiSecret(secret);
+    }
+
+    @Option(
+            names = {"-schemaPath", "--schema-path"},
+            description = "schemaPath where referenced schemas are loaded, defaults to --spec-dir")
+    public void schemaPath(final String path) {
+        builder.schemaPath(path);
+    }
+
+    @Option(
+            names = {"-u", "--username"},
+            description = "username or api key for the Kafka cluster connection")
+    public void username(final String username) {
+        builder.username(username);
+    }
+
+    @Option(
+            names = {"-s", "--secret"},
+            description = "secret credential for the Kafka cluster connection")
+    public void secret(final String secret) {
+        builder.secret(secret);
+    }
+
+    @Option(
+            names = {"-dry", "--dry-run"},
+            fallbackValue = "false",
+            description = "Compares the cluster resources against each spec, changing nothing")
+    public void dryRun(final boolean enabled) {
+        builder.dryRun(enabled);
+    }
+
+    @Option(
+            names = {"-clean", "--clean-unspecified"},
+            fallbackValue = "false",
+            description = "Remove resources under each domain that its spec does not specify")
+    public void cleanUnspecified(final boolean enabled) {
+        builder.cleanUnspecified(enabled);
+    }
+
+    @Option(
+            names = {"-parallelism", "--parallelism"},
+            description = "number of domains provisioned at once")
+    public void parallelism(final int parallelism) {
+        builder.parallelism(parallelism);
+    }
+
+    @Option(
+            names = {"-D", "--property"},
+            mapFallbackValue = "",
+            description = "Specify Java runtime properties for Apache Kafka." + " ") // allow -Dkey
+    void setProperty(final Map<String, String> props) {
+        props.forEach(System::setProperty);
+    }
+
+    public Integer call() {
+        final var results = run();
+        results.forEach((domain, status) -> System.out.println(domain + ": " + status));
+        return results.values().stream().anyMatch(Status::failed) ? 1 : 0;
+    }
+
+    @VisibleForTesting
+    Map<String, Status> run() {
+        return builder.build().provision();
+    }
+}
@@ -103,17 +103,22 @@ public class Storage implements Callable<Integer> {
                         .map(NewTopic::name)
                         .collect(Collectors.toList());
 
+        final var report = client.storageReport(topics);
         final var results = new TreeMap<String, Map<String, Long>>();
 
         topics.forEach(
-                topic ->
-                        results.put(
-                                topic,
-                                Map.of(
-                                        "storage-bytes",
-                                        client.topicVolumeUsingLogDirs(topic),
-                                        "offset-total",
-                                        client.topicVolumeOffsets(topic))));
+                topic -> {
+                    final var storage = report.topic(topic);
+                    final Map<String, Long> stats = new TreeMap<>();
+                    stats.put("storage-bytes", storage.bytes());
+                    stats.put("offset-total", storage.offsetTotal());
+                    storage.bytesByBroker()
+                            .forEach(
+                                    (broker, bytes) ->
+                                            stats.put(
+                                                    "broker." + broker + ".storage-bytes", bytes));
+                    results.put(topic, stats);
+                });
 
         final var mapper =
                 new ObjectMapper()
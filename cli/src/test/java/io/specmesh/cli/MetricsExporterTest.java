@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.cli;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.specmesh.kafka.admin.ConsumerGroupSnapshot;
+import io.specmesh.kafka.admin.SmAdminClient;
+import io.specmesh.kafka.admin.StorageReport;
+import io.specmesh.kafka.admin.StorageReport.TopicStorage;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class MetricsExporterTest {
+
+    private static final String TOPIC = "acme._public.orders";
+
+    @Mock SmAdminClient client;
+    @Mock StorageReport report;
+    @Mock TopicStorage storage;
+    @Mock ConsumerGroupSnapshot snapshot;
+
+    @Test
+    void shouldOnlyReReadStorageForTopicsWhoseOffsetsMoved() {
+        // Given:
+        final var clock = Clock.fixed(Instant.ofEpochMilli(10_000), ZoneOffset.UTC);
+        when(client.topicEndOffsets(any())).thenReturn(Map.of(TOPIC, 42L));
+        when(client.storageReport(any())).thenReturn(report);
+        when(report.topic(TOPIC)).thenReturn(storage);
+        when(storage.bytes()).thenReturn(1024L);
+        when(storage.offsetTotal()).thenReturn(42L);
+        when(storage.bytesByBroker()).thenReturn(Map.of(1, 512L, 2, 512L));
+        when(client.consumerGroupSnapshot()).thenReturn(snapshot);
+        when(snapshot.groupsForTopicPrefix(TOPIC))
+                .thenReturn(
+                        List.of(
+                                SmAdminClient.ConsumerGroup.builder()
+                                        .id("app")
+                                        .lag(7)
+                                        .lagByTopic(Map.of(TOPIC, 7L))
+                                        .build()));
+
+        final var exporter = new MetricsExporter(client, List.of(TOPIC), clock);
+
+        // When:
+        exporter.refresh();
+        exporter.refresh();
+
+        // Then:
+        verify(client, times(1)).storageReport(List.of(TOPIC));
+        verify(client, times(2)).consumerGroupSnapshot();
+        final var text = exporter.render();
+        final var topicLabel = "{topic=\"" + TOPIC + "\"";
+        assertThat(text, containsString("specmesh_topic_storage_bytes" + topicLabel + "} 1024"));
+        assertThat(text, containsString("specmesh_topic_offset_total" + topicLabel + "} 42"));
+        assertThat(
+                text,
+                containsString(
+                        "specmesh_topic_broker_storage_bytes" + topicLabel + ",broker=\"1\"} 512"));
+        assertThat(
+                text,
+                containsString("specmesh_consumer_group_lag" + topicLabel + ",group=\"app\"} 7"));
+        assertThat(text, containsString("# TYPE specmesh_topic_sample_age_seconds gauge"));
+    }
+
+    @Test
+    void shouldReReadStorageWhenRetentionMovesStartOrOnFullRefresh() {
+        // Given:
+        final var clock = Clock.fixed(Instant.ofEpochMilli(10_000), ZoneOffset.UTC);
+        when(client.topicStartOffsets(any()))
+                .thenReturn(Map.of(TOPIC, 0L), Map.of(TOPIC, 5L), Map.of(TOPIC, 5L));
+        when(client.topicEndOffsets(any())).thenReturn(Map.of(TOPIC, 42L));
+        when(client.storageReport(any())).thenReturn(report);
+        when(report.topic(TOPIC)).thenReturn(storage);
+        when(client.consumerGroupSnapshot()).thenReturn(snapshot);
+
+        final var exporter = new MetricsExporter(client, List.of(TOPIC), clock, 3);
+
+        // When: initial, start moved, unchanged, full
+        exporter.refresh();
+        exporter.refresh();
+        exporter.refresh();
+        exporter.refresh();
+
+        // Then:
+        verify(client, times(3)).storageReport(List.of(TOPIC));
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+plugins {
+    id("me.champeau.jmh")
+}
+
+val kafkaVersion : String by extra
+val confluentVersion : String by extra
+
+dependencies {
+    jmhImplementation(project(":parser"))
+    jmhImplementation(project(":kafka"))
+    jmhImplementation("org.apache.kafka:kafka-clients:$kafkaVersion")
+    jmhImplementation("io.confluent:kafka-schema-registry-client:$confluentVersion")
+}
+
+// Run with: ./gradlew :jmh:jmh [-PjmhIncludes=ChangeSetBenchmark]
+// Results land in jmh/build/results/jmh/results.json; the gc profiler adds gc.alloc.rate.norm,
+// the bytes allocated per operation, alongside throughput.
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    jvmArgs.add("-Xmx4g")
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    if (project.hasProperty("jmhIncludes")) {
+        includes.add(project.property("jmhIncludes").toString())
+    }
+}
+
+// Benchmarks are not a library, so are never published
+tasks.withType<PublishToMavenRepository>().configureEach {
+    enabled = false
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.jmh;
+
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.specmesh.kafka.KafkaApiSpec;
+import io.specmesh.kafka.provision.AclProvisioner;
+import io.specmesh.kafka.provision.AclProvisioner.Acl;
+import io.specmesh.kafka.provision.Status;
+import io.specmesh.kafka.provision.TopicProvisioner;
+import io.specmesh.kafka.provision.TopicProvisioner.Topic;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner.Schema;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.acl.AclBinding;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Topic, ACL and schema change set calculation against a cluster that already holds every other
+ * resource in the spec, half of those topics with fewer partitions or different config, plus a
+ * tenth as many topics and subjects again that the spec does not name.
+ *
+ * <p>The calculators annotate the required resources they are given, so each operation builds
+ * fresh ones. {@link #baseline} measures that copy alone, to subtract from the others.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ChangeSetBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int channels;
+
+    @Param({"false", "true"})
+    public boolean cleanUnspecified;
+
+    private KafkaApiSpec apiSpec;
+    private List<AclBinding> requiredAcls;
+    private List<Topic> existingTopics;
+    private List<Acl> existingAcls;
+    private List<Schema> existingSchemas;
+    private SchemaRegistryClient client;
+
+    @Setup
+    public void setUp() {
+        apiSpec = new KafkaApiSpec(SyntheticSpec.spec(channels));
+        requiredAcls = new ArrayList<>(apiSpec.requiredAcls());
+        client = new MockSchemaRegistryClient();
+
+        existingTopics = new ArrayList<>();
+        final List<Topic> required = new ArrayList<>(TopicProvisioner.requiredTopics(apiSpec));
+        for (int i = 0; i < required.size(); i += 2) {
+            final Topic topic = required.get(i);
+            existingTopics.add(
+                    Topic.builder()
+                            .name(topic.name())
+                            .state(Status.STATE.READ)
+                            .partitions(i % 4 == 0 ? topic.partitions() : 1)
+                            .replication(topic.replication())
+                            .config(i % 4 == 0 ? topic.config() : Map.of("retention.ms", "1"))
+                            .build());
+        }
+        for (int i = 0; i < unspecified(); i++) {
+            existingTopics.add(
+                    Topic.builder()
+                            .name(SyntheticSpec.DOMAIN + "._public.stale_" + i)
+                            .state(Status.STATE.READ)
+                            .partitions(1)
+                            .replication((short) 1)
+                            .build());
+        }
+
+        existingAcls = new ArrayList<>();
+        for (int i = 0; i < requiredAcls.size(); i += 2) {
+            existingAcls.add(acl(requiredAcls.get(i), Status.STATE.READ));
+        }
+
+        existingSchemas = new ArrayList<>();
+        for (int i = 0; i < channels; i += 2) {
+            existingSchemas.add(schema(i, Status.STATE.READ));
+        }
+        for (int i = 0; i < unspecified(); i++) {
+            existingSchemas.add(
+                    Schema.builder()
+                            .subject(SyntheticSpec.DOMAIN + "._public.stale_" + i + "-value")
+                            .type(SyntheticSpec.schema(i).schemaType())
+                            .state(Status.STATE.READ)
+                            .schemas(List.of(SyntheticSpec.schema(i)))
+                            .build());
+        }
+    }
+
+    @Benchmark
+    public void baseline(final Blackhole bh) {
+        bh.consume(requiredTopics());
+        bh.consume(requiredAcls());
+        bh.consume(requiredSchemas());
+    }
+
+    @Benchmark
+    public Collection<Topic> topics() {
+        return TopicProvisioner.changeSet(cleanUnspecified, existingTopics, requiredTopics());
+    }
+
+    @Benchmark
+    public Collection<Acl> acls() {
+        return AclProvisioner.changeSet(cleanUnspecified, existingAcls, requiredAcls());
+    }
+
+    /** Existing schemas match the spec, so the registry is never asked about compatibility. */
+    @Benchmark
+    public Collection<Schema> schemas() {
+        return SchemaProvisioner.changeSet(
+                cleanUnspecified, existingSchemas, requiredSchemas(), client);
+    }
+
+    private int unspecified() {
+        return Math.max(1, channels / 10);
+    }
+
+    private Collection<Topic> requiredTopics() {
+        return TopicProvisioner.requiredTopics(apiSpec);
+    }
+
+    private List<Acl> requiredAcls() {
+        final List<Acl> acls = new ArrayList<>(requiredAcls.size());
+        requiredAcls.forEach(binding -> acls.add(acl(binding, Status.STATE.CREATE)));
+        return acls;
+    }
+
+    private List<Schema> requiredSchemas() {
+        final List<Schema> schemas = new ArrayList<>(channels);
+        for (int i = 0; i < channels; i++) {
+            schemas.add(schema(i, Status.STATE.CREATE));
+        }
+        return schemas;
+    }
+
+    private static Acl acl(final AclBinding binding, final Status.STATE state) {
+        return Acl.builder().name(binding.toString()).aclBinding(binding).state(state).build();
+    }
+
+    private static Schema schema(final int channel, final Status.STATE state) {
+        return Schema.builder()
+                .subject(
+                        SyntheticSpec.DOMAIN + "." + SyntheticSpec.channelName(channel) + "-value")
+                .type(SyntheticSpec.schema(channel).schemaType())
+                .state(state)
+                .schemas(List.of(SyntheticSpec.schema(channel)))
+                .build();
+    }
+}
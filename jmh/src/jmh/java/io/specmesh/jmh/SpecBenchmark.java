@@ -0,0 +1,65 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.jmh;
+
+import io.specmesh.apiparser.model.ApiSpec;
+import io.specmesh.kafka.KafkaApiSpec;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.acl.AclBinding;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Topic and ACL derivation from a parsed spec.
+ *
+ * <p>{@link KafkaApiSpec} caches both views, so each operation wraps the parsed spec afresh to
+ * measure the derivation rather than the cache hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SpecBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int channels;
+
+    private ApiSpec apiSpec;
+
+    @Setup
+    public void setUp() {
+        apiSpec = SyntheticSpec.spec(channels);
+    }
+
+    @Benchmark
+    public Set<AclBinding> requiredAcls() {
+        return new KafkaApiSpec(apiSpec).requiredAcls();
+    }
+
+    @Benchmark
+    public List<NewTopic> listDomainOwnedTopics() {
+        return new KafkaApiSpec(apiSpec).listDomainOwnedTopics();
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.jmh;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.json.JsonSchema;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import io.specmesh.apiparser.AsyncApiParser;
+import io.specmesh.apiparser.model.ApiSpec;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Generates specs of any size for the benchmarks.
+ *
+ * <p>Channels cycle through public, protected and private, and separately through Avro, Protobuf
+ * and JSON schema payloads. Protected channels carry {@code grant-access:} tags for a handful of
+ * other domains, so every ACL derivation path is exercised. Output is deterministic for a given
+ * channel count.
+ */
+final class SyntheticSpec {
+
+    static final String DOMAIN = "bench.synthetic";
+
+    private static final String[] ACCESS = {"_public", "_protected", "_private"};
+    private static final String[] SCHEMA_EXT = {".avsc", ".proto", ".yml"};
+    private static final String[] SCHEMA_FORMAT = {
+        "application/vnd.apache.avro+json;version=1.9.0",
+        "application/json;version=1.9.0",
+        "application/json;version=1.9.0"
+    };
+    private static final int GRANTEES = 5;
+
+    private static final ParsedSchema[] SCHEMAS = {
+        new AvroSchema(
+                "{\"type\":\"record\",\"name\":\"Event\",\"namespace\":\""
+                        + DOMAIN
+                        + "\",\"fields\":[{\"name\":\"id\",\"type\":\"long\"},"
+                        + "{\"name\":\"name\",\"type\":\"string\"}]}"),
+        new ProtobufSchema(
+                "syntax = \"proto3\";\n"
+                        + "package bench.synthetic;\n"
+                        + "message Event {\n"
+                        + "  int64 id = 1;\n"
+                        + "  string name = 2;\n"
+                        + "}\n"),
+        new JsonSchema(
+                "{\"$schema\":\"http://json-schema.org/draft-07/schema#\",\"title\":\"Event\","
+                        + "\"type\":\"object\",\"properties\":{\"id\":{\"type\":\"integer\"},"
+                        + "\"name\":{\"type\":\"string\"}}}")
+    };
+
+    private SyntheticSpec() {}
+
+    /**
+     * @param channels number of channels
+     * @return the spec as yaml
+     */
+    static String yaml(final int channels) {
+        final StringBuilder yaml = new StringBuilder(channels * 640);
+        yaml.append("asyncapi: '2.4.0'\n")
+                .append("id: 'urn:")
+                .append(DOMAIN)
+                .append("'\n")
+                .append("info:\n")
+                .append("  title: Synthetic benchmark spec\n")
+                .append("  version: '1.0.0'\n")
+                .append("channels:\n");
+
+        for (int i = 0; i < channels; i++) {
+            appendChannel(yaml, i);
+        }
+        return yaml.toString();
+    }
+
+    /**
+     * @param yaml spec yaml
+     * @return the parsed spec
+     */
+    static ApiSpec parse(final byte[] yaml) {
+        try {
+            return new AsyncApiParser().loadResource(new ByteArrayInputStream(yaml));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param channels number of channels
+     * @return the parsed spec
+     */
+    static ApiSpec spec(final int channels) {
+        return parse(yaml(channels).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param channel channel index
+     * @return the schema the channel's payload refers to
+     */
+    static ParsedSchema schema(final int channel) {
+        return SCHEMAS[channel % SCHEMAS.length];
+    }
+
+    /**
+     * @param channel channel index
+     * @return the channel name, relative to the domain
+     */
+    static String channelName(final int channel) {
+        return ACCESS[(channel / SCHEMAS.length) % ACCESS.length]
+                + ".channel_"
+                + String.format("%06d", channel);
+    }
+
+    private static void appendChannel(final StringBuilder yaml, final int i) {
+        final String name = channelName(i);
+        final int format = i % SCHEMAS.length;
+
+        yaml.append("  ")
+                .append(name)
+                .append(":\n")
+                .append("    bindings:\n")
+                .append("      kafka:\n")
+                .append("        partitions: ")
+                .append(1 + i % 12)
+                .append('\n')
+                .append("        replicas: 1\n")
+                .append("        configs:\n")
+                .append("          cleanup.policy: delete\n")
+                .append("          retention.ms: ")
+                .append(3_600_000L * (1 + i % 24))
+                .append('\n')
+                .append("    publish:\n")
+                .append("      operationId: on_")
+                .append(i)
+                .append('\n');
+
+        if (name.startsWith("_protected")) {
+            yaml.append("      tags:\n");
+            for (int g = 0; g < 1 + i % GRANTEES; g++) {
+                yaml.append("        - name: \"grant-access:bench.consumer_")
+                        .append(g)
+                        .append("\"\n");
+            }
+        }
+
+        yaml.append("      message:\n")
+                .append("        bindings:\n")
+                .append("          kafka:\n")
+                .append("            key:\n")
+                .append("              type: long\n")
+                .append("            schemaIdLocation: \"payload\"\n")
+                .append("        schemaFormat: \"")
+                .append(SCHEMA_FORMAT[format])
+                .append("\"\n")
+                .append("        payload:\n")
+                .append("          $ref: \"/schema/")
+                .append(DOMAIN)
+                .append('.')
+                .append(name)
+                .append(SCHEMA_EXT[format])
+                .append("\"\n");
+    }
+}
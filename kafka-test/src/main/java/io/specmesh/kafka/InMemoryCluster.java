@@ -0,0 +1,622 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminResults;
+import org.apache.kafka.clients.admin.AlterConfigOp;
+import org.apache.kafka.clients.admin.AlterConfigsOptions;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.clients.admin.ConsumerGroupListing;
+import org.apache.kafka.clients.admin.CreatePartitionsOptions;
+import org.apache.kafka.clients.admin.CreateTopicsOptions;
+import org.apache.kafka.clients.admin.CreateTopicsResult.TopicMetadataAndConfig;
+import org.apache.kafka.clients.admin.ListConsumerGroupOffsetsSpec;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.MemberAssignment;
+import org.apache.kafka.clients.admin.MemberDescription;
+import org.apache.kafka.clients.admin.NewPartitions;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.admin.TopicListing;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.ConsumerGroupState;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicCollection;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.Uuid;
+import org.apache.kafka.common.acl.AclBinding;
+import org.apache.kafka.common.acl.AclBindingFilter;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.errors.GroupIdNotFoundException;
+import org.apache.kafka.common.errors.InvalidPartitionsException;
+import org.apache.kafka.common.errors.InvalidReplicationFactorException;
+import org.apache.kafka.common.errors.InvalidRequestException;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
+import org.apache.kafka.common.internals.Topic;
+
+/**
+ * The state of a Kafka cluster held in memory: topics with their partitions, replication and
+ * configs, ACLs, and consumer groups with committed offsets.
+ *
+ * <p>{@link #adminClient()} serves the cluster through the {@link Admin} interface, answering the
+ * calls the provisioners and admin client make, with the errors a broker would return. Calls it
+ * does not model throw {@link UnsupportedOperationException}. ACLs are stored, not enforced.
+ *
+ * <p>Topic configs are described as a broker would: the explicit entries, then the defaults of a
+ * stock broker for the common topic configs, marked {@code DEFAULT_CONFIG}. Broker level overrides
+ * and the less common topic configs are not modelled.
+ *
+ * <p>There are no producers or consumers, so log end offsets and consumer groups are set directly
+ * with {@link #endOffset} and {@link #consumerGroup}.
+ */
+public final class InMemoryCluster {
+
+    private static final int DEFAULT_PARTITIONS = 1;
+    private static final short DEFAULT_REPLICATION = 1;
+    private static final Map<String, String> DEFAULT_CONFIGS =
+            Map.ofEntries(
+                    Map.entry(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_DELETE),
+                    Map.entry(TopicConfig.COMPRESSION_TYPE_CONFIG, "producer"),
+                    Map.entry(TopicConfig.DELETE_RETENTION_MS_CONFIG, "86400000"),
+                    Map.entry(TopicConfig.MAX_MESSAGE_BYTES_CONFIG, "1048588"),
+                    Map.entry(TopicConfig.MESSAGE_TIMESTAMP_TYPE_CONFIG, "CreateTime"),
+                    Map.entry(TopicConfig.MIN_CLEANABLE_DIRTY_RATIO_CONFIG, "0.5"),
+                    Map.entry(TopicConfig.MIN_COMPACTION_LAG_MS_CONFIG, "0"),
+                    Map.entry(TopicConfig.MIN_IN_SYNC_REPLICAS_CONFIG, "1"),
+                    Map.entry(TopicConfig.RETENTION_BYTES_CONFIG, "-1"),
+                    Map.entry(TopicConfig.RETENTION_MS_CONFIG, "604800000"),
+                    Map.entry(TopicConfig.SEGMENT_BYTES_CONFIG, "1073741824"),
+                    Map.entry(TopicConfig.SEGMENT_MS_CONFIG, "604800000"),
+                    Map.entry(TopicConfig.UNCLEAN_LEADER_ELECTION_ENABLE_CONFIG, "false"));
+
+    private final List<Node> nodes;
+    private final String clusterId = Uuid.randomUuid().toString();
+    private final Set<AclBinding> initialAcls;
+
+    private final Map<String, TopicState> topics = new TreeMap<>();
+    private final Set<AclBinding> acls = new LinkedHashSet<>();
+    private final Map<String, GroupState> groups = new TreeMap<>();
+
+    /**
+     * @param brokers number of brokers, the upper bound on replication
+     * @param initialAcls acls present after every {@link #reset()}
+     */
+    public InMemoryCluster(final int brokers, final Collection<AclBinding> initialAcls) {
+        if (brokers < 1) {
+            throw new IllegalArgumentException("brokers must be positive");
+        }
+        this.nodes =
+                IntStream.range(0, brokers)
+                        .mapToObj(id -> new Node(id, "in-memory-" + id, 9092))
+                        .collect(Collectors.toList());
+        this.initialAcls = Set.copyOf(initialAcls);
+        reset();
+    }
+
+    /** Drop every topic, acl and group, then restore the initial acls. */
+    public synchronized void reset() {
+        topics.clear();
+        acls.clear();
+        acls.addAll(initialAcls);
+        groups.clear();
+    }
+
+    /**
+     * @return an admin client for the cluster. Closing it does not affect the cluster.
+     */
+    public Admin adminClient() {
+        return (Admin)
+                Proxy.newProxyInstance(
+                        Admin.class.getClassLoader(), new Class<?>[] {Admin.class}, new Handler());
+    }
+
+    /**
+     * Set the log end offset of a partition, as if records had been produced to it.
+     *
+     * @param partition the partition
+     * @param offset the log end offset
+     */
+    public synchronized void endOffset(final TopicPartition partition, final long offset) {
+        final var topic = topics.get(partition.topic());
+        if (topic == null || partition.partition() >= topic.endOffsets.size()) {
+            throw new UnknownTopicOrPartitionException(partition.toString());
+        }
+        topic.endOffsets.set(partition.partition(), offset);
+    }
+
+    /**
+     * Create or replace a consumer group.
+     *
+     * @param groupId the group
+     * @param state the group state, e.g. STABLE for a group with an active member
+     * @param committed committed offsets
+     */
+    public synchronized void consumerGroup(
+            final String groupId,
+            final ConsumerGroupState state,
+            final Map<TopicPartition, Long> committed) {
+        groups.put(groupId, new GroupState(state, committed));
+    }
+
+    /**
+     * @return number of topics
+     */
+    public synchronized int topicCount() {
+        return topics.size();
+    }
+
+    private synchronized Object listTopics() {
+        return AdminResults.listTopics(
+                topics.entrySet().stream()
+                        .map(e -> new TopicListing(e.getKey(), e.getValue().id, false))
+                        .collect(Collectors.toList()));
+    }
+
+    private synchronized Object describeTopics(final Collection<String> names) {
+        final Map<String, KafkaFuture<TopicDescription>> results = new LinkedHashMap<>();
+        for (final String name : names) {
+            final var topic = topics.get(name);
+            results.put(
+                    name,
+                    topic == null
+                            ? unknownTopic(name)
+                            : KafkaFuture.completedFuture(describe(name, topic)));
+        }
+        return AdminResults.describeTopics(results);
+    }
+
+    private TopicDescription describe(final String name, final TopicState topic) {
+        final var partitions =
+                IntStream.range(0, topic.endOffsets.size())
+                        .mapToObj(
+                                p -> {
+                                    final var replicas =
+                                            IntStream.range(0, topic.replication)
+                                                    .mapToObj(
+                                                            r -> nodes.get((p + r) % nodes.size()))
+                                                    .collect(Collectors.toList());
+                                    return new TopicPartitionInfo(
+                                            p, replicas.get(0), replicas, replicas);
+                                })
+                        .collect(Collectors.toList());
+        return new TopicDescription(name, false, partitions, Set.of(), topic.id);
+    }
+
+    private synchronized Object createTopics(
+            final Collection<NewTopic> newTopics, final boolean validateOnly) {
+        final Map<String, KafkaFuture<TopicMetadataAndConfig>> results = new LinkedHashMap<>();
+        for (final NewTopic newTopic : newTopics) {
+            try {
+                final var topic = create(newTopic);
+                if (!validateOnly) {
+                    topics.put(newTopic.name(), topic);
+                }
+                results.put(
+                        newTopic.name(),
+                        KafkaFuture.completedFuture(
+                                new TopicMetadataAndConfig(
+                                        topic.id,
+                                        topic.endOffsets.size(),
+                                        topic.replication,
+                                        config(topic))));
+            } catch (RuntimeException e) {
+                results.put(newTopic.name(), failed(e));
+            }
+        }
+        return AdminResults.createTopics(results);
+    }
+
+    private TopicState create(final NewTopic newTopic) {
+        Topic.validate(newTopic.name());
+        if (topics.containsKey(newTopic.name())) {
+            throw new TopicExistsException("Topic '" + newTopic.name() + "' already exists.");
+        }
+        final int partitions;
+        final short replication;
+        if (newTopic.replicasAssignments() != null && !newTopic.replicasAssignments().isEmpty()) {
+            partitions = newTopic.replicasAssignments().size();
+            replication = (short) newTopic.replicasAssignments().values().iterator().next().size();
+        } else {
+            partitions =
+                    newTopic.numPartitions() > 0 ? newTopic.numPartitions() : DEFAULT_PARTITIONS;
+            replication =
+                    newTopic.replicationFactor() > 0
+                            ? newTopic.replicationFactor()
+                            : DEFAULT_REPLICATION;
+        }
+        if (replication > nodes.size()) {
+            throw new InvalidReplicationFactorException(
+                    "Replication factor: "
+                            + replication
+                            + " larger than available brokers: "
+                            + nodes.size()
+                            + ".");
+        }
+        return new TopicState(
+                partitions,
+                replication,
+                newTopic.configs() == null ? Map.of() : newTopic.configs());
+    }
+
+    private synchronized Object deleteTopics(final Collection<String> names) {
+        final Map<String, KafkaFuture<Void>> results = new LinkedHashMap<>();
+        for (final String name : names) {
+            results.put(
+                    name,
+                    topics.remove(name) == null
+                            ? unknownTopic(name)
+                            : KafkaFuture.completedFuture(null));
+        }
+        return AdminResults.deleteTopics(results);
+    }
+
+    private synchronized Object createPartitions(
+            final Map<String, NewPartitions> increases, final boolean validateOnly) {
+        final Map<String, KafkaFuture<Void>> results = new LinkedHashMap<>();
+        increases.forEach(
+                (name, increase) -> {
+                    final var topic = topics.get(name);
+                    if (topic == null) {
+                        results.put(name, unknownTopic(name));
+                    } else if (increase.totalCount() <= topic.endOffsets.size()) {
+                        results.put(
+                                name,
+                                failed(
+                                        new InvalidPartitionsException(
+                                                "Topic currently has "
+                                                        + topic.endOffsets.size()
+                                                        + " partitions, which is higher than or"
+                                                        + " equal to the requested "
+                                                        + increase.totalCount()
+                                                        + ".")));
+                    } else {
+                        if (!validateOnly) {
+                            while (topic.endOffsets.size() < increase.totalCount()) {
+                                topic.endOffsets.add(0L);
+                            }
+                        }
+                        results.put(name, KafkaFuture.completedFuture(null));
+                    }
+                });
+        return AdminResults.createPartitions(results);
+    }
+
+    private synchronized Object describeConfigs(final Collection<ConfigResource> resources) {
+        final Map<ConfigResource, KafkaFuture<Config>> results = new LinkedHashMap<>();
+        for (final ConfigResource resource : resources) {
+            if (resource.type() != ConfigResource.Type.TOPIC) {
+                results.put(resource, KafkaFuture.completedFuture(new Config(List.of())));
+                continue;
+            }
+            final var topic = topics.get(resource.name());
+            results.put(
+                    resource,
+                    topic == null
+                            ? unknownTopic(resource.name())
+                            : KafkaFuture.completedFuture(config(topic)));
+        }
+        return AdminResults.describeConfigs(results);
+    }
+
+    private synchronized Object alterConfigs(
+            final Map<ConfigResource, Collection<AlterConfigOp>> changes,
+            final boolean validateOnly) {
+        final Map<ConfigResource, KafkaFuture<Void>> results = new LinkedHashMap<>();
+        changes.forEach(
+                (resource, ops) -> {
+                    final var topic =
+                            resource.type() == ConfigResource.Type.TOPIC
+                                    ? topics.get(resource.name())
+                                    : null;
+                    if (topic == null) {
+                        results.put(resource, unknownTopic(resource.name()));
+                        return;
+                    }
+                    final Map<String, String> updated = new TreeMap<>(topic.configs);
+                    for (final AlterConfigOp op : ops) {
+                        switch (op.opType()) {
+                            case SET:
+                                updated.put(op.configEntry().name(), op.configEntry().value());
+                                break;
+                            case DELETE:
+                                updated.remove(op.configEntry().name());
+                                break;
+                            default:
+                                results.put(
+                                        resource,
+                                        failed(
+                                                new InvalidRequestException(
+                                                        "Unsupported op:" + op.opType())));
+                                return;
+                        }
+                    }
+                    if (!validateOnly) {
+                        topic.configs = updated;
+                    }
+                    results.put(resource, KafkaFuture.completedFuture(null));
+                });
+        return AdminResults.alterConfigs(results);
+    }
+
+    private synchronized Object describeAcls(final AclBindingFilter filter) {
+        return AdminResults.describeAcls(
+                acls.stream().filter(filter::matches).collect(Collectors.toList()));
+    }
+
+    private synchronized Object createAcls(final Collection<AclBinding> bindings) {
+        final Map<AclBinding, KafkaFuture<Void>> results = new LinkedHashMap<>();
+        for (final AclBinding binding : bindings) {
+            if (binding.isUnknown()) {
+                results.put(binding, failed(new InvalidRequestException("Unknown acl:" + binding)));
+            } else {
+                acls.add(binding);
+                results.put(binding, KafkaFuture.completedFuture(null));
+            }
+        }
+        return AdminResults.createAcls(results);
+    }
+
+    private synchronized Object deleteAcls(final Collection<AclBindingFilter> filters) {
+        final Map<AclBindingFilter, List<AclBinding>> results = new LinkedHashMap<>();
+        for (final AclBindingFilter filter : filters) {
+            final var matched =
+                    acls.stream().filter(filter::matches).collect(Collectors.toList());
+            acls.removeAll(matched);
+            results.put(filter, matched);
+        }
+        return AdminResults.deleteAcls(results);
+    }
+
+    private synchronized Object listConsumerGroups() {
+        return AdminResults.listConsumerGroups(
+                groups.entrySet().stream()
+                        .map(
+                                e ->
+                                        new ConsumerGroupListing(
+                                                e.getKey(), false, Optional.of(e.getValue().state)))
+                        .collect(Collectors.toList()));
+    }
+
+    private synchronized Object describeConsumerGroups(final Collection<String> groupIds) {
+        final Map<String, KafkaFuture<ConsumerGroupDescription>> results = new LinkedHashMap<>();
+        for (final String groupId : groupIds) {
+            final var group = groups.get(groupId);
+            if (group == null) {
+                results.put(groupId, failed(new GroupIdNotFoundException(groupId)));
+                continue;
+            }
+            final List<MemberDescription> members =
+                    group.state == ConsumerGroupState.STABLE
+                            ? List.of(
+                                    new MemberDescription(
+                                            groupId + "-member",
+                                            groupId + "-client",
+                                            "/127.0.0.1",
+                                            new MemberAssignment(group.committed.keySet())))
+                            : List.of();
+            results.put(
+                    groupId,
+                    KafkaFuture.completedFuture(
+                            new ConsumerGroupDescription(
+                                    groupId, false, members, "range", group.state, nodes.get(0))));
+        }
+        return AdminResults.describeConsumerGroups(results);
+    }
+
+    private synchronized Object listConsumerGroupOffsets(
+            final Map<String, ListConsumerGroupOffsetsSpec> specs) {
+        final Map<String, KafkaFuture<Map<TopicPartition, OffsetAndMetadata>>> results =
+                new LinkedHashMap<>();
+        specs.forEach(
+                (groupId, spec) -> {
+                    final var group = groups.get(groupId);
+                    if (group == null) {
+                        results.put(groupId, KafkaFuture.completedFuture(Map.of()));
+                        return;
+                    }
+                    final Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                    group.committed.forEach(
+                            (tp, offset) -> {
+                                if (spec.topicPartitions() == null
+                                        || spec.topicPartitions().contains(tp)) {
+                                    offsets.put(tp, new OffsetAndMetadata(offset));
+                                }
+                            });
+                    results.put(groupId, KafkaFuture.completedFuture(offsets));
+                });
+        return AdminResults.listConsumerGroupOffsets(results);
+    }
+
+    private synchronized Object listOffsets(final Map<TopicPartition, OffsetSpec> query) {
+        final Map<TopicPartition, KafkaFuture<ListOffsetsResultInfo>> results =
+                new LinkedHashMap<>();
+        query.forEach(
+                (tp, spec) -> {
+                    final var topic = topics.get(tp.topic());
+                    if (topic == null || tp.partition() >= topic.endOffsets.size()) {
+                        results.put(tp, unknownTopic(tp.toString()));
+                        return;
+                    }
+                    final long offset =
+                            spec instanceof OffsetSpec.EarliestSpec
+                                    ? 0L
+                                    : topic.endOffsets.get(tp.partition());
+                    results.put(
+                            tp,
+                            KafkaFuture.completedFuture(
+                                    new ListOffsetsResultInfo(offset, -1L, Optional.empty())));
+                });
+        return AdminResults.listOffsets(results);
+    }
+
+    private static Config config(final TopicState topic) {
+        final List<ConfigEntry> entries = new ArrayList<>();
+        topic.configs.forEach(
+                (name, value) ->
+                        entries.add(
+                                entry(name, value, ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG)));
+        DEFAULT_CONFIGS.forEach(
+                (name, value) -> {
+                    if (!topic.configs.containsKey(name)) {
+                        entries.add(entry(name, value, ConfigEntry.ConfigSource.DEFAULT_CONFIG));
+                    }
+                });
+        return new Config(entries);
+    }
+
+    private static ConfigEntry entry(
+            final String name, final String value, final ConfigEntry.ConfigSource source) {
+        return new ConfigEntry(
+                name, value, source, false, false, List.of(), ConfigEntry.ConfigType.UNKNOWN, null);
+    }
+
+    private static <T> KafkaFuture<T> unknownTopic(final String topic) {
+        return failed(
+                new UnknownTopicOrPartitionException(
+                        "This server does not host this topic-partition: " + topic));
+    }
+
+    private static <T> KafkaFuture<T> failed(final Throwable cause) {
+        final var future = new KafkaFutureImpl<T>();
+        future.completeExceptionally(cause);
+        return future;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<String> topicNames(final Object topics) {
+        if (topics instanceof TopicCollection.TopicNameCollection) {
+            return ((TopicCollection.TopicNameCollection) topics).topicNames();
+        }
+        if (topics instanceof TopicCollection) {
+            throw new UnsupportedOperationException("Topic ids are not supported");
+        }
+        return (Collection<String>) topics;
+    }
+
+    /** Routes admin calls, including default methods, to the cluster */
+    private final class Handler implements InvocationHandler {
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) {
+            final Object[] a = args == null ? new Object[0] : args;
+            switch (method.getName()) {
+                case "close":
+                    return null;
+                case "metrics":
+                    return Map.of();
+                case "toString":
+                    return "InMemoryAdmin(" + clusterId + ")";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == a[0];
+                case "listTopics":
+                    return listTopics();
+                case "describeTopics":
+                    return describeTopics(topicNames(a[0]));
+                case "createTopics":
+                    return createTopics(
+                            (Collection<NewTopic>) a[0],
+                            a.length > 1 && ((CreateTopicsOptions) a[1]).shouldValidateOnly());
+                case "deleteTopics":
+                    return deleteTopics(topicNames(a[0]));
+                case "createPartitions":
+                    return createPartitions(
+                            (Map<String, NewPartitions>) a[0],
+                            a.length > 1 && ((CreatePartitionsOptions) a[1]).validateOnly());
+                case "describeConfigs":
+                    return describeConfigs((Collection<ConfigResource>) a[0]);
+                case "incrementalAlterConfigs":
+                    return alterConfigs(
+                            (Map<ConfigResource, Collection<AlterConfigOp>>) a[0],
+                            a.length > 1 && ((AlterConfigsOptions) a[1]).shouldValidateOnly());
+                case "describeAcls":
+                    return describeAcls((AclBindingFilter) a[0]);
+                case "createAcls":
+                    return createAcls((Collection<AclBinding>) a[0]);
+                case "deleteAcls":
+                    return deleteAcls((Collection<AclBindingFilter>) a[0]);
+                case "listConsumerGroups":
+                    return listConsumerGroups();
+                case "describeConsumerGroups":
+                    return describeConsumerGroups((Collection<String>) a[0]);
+                case "listConsumerGroupOffsets":
+                    return listConsumerGroupOffsets(
+                            a[0] instanceof String
+                                    ? Map.of((String) a[0], new ListConsumerGroupOffsetsSpec())
+                                    : (Map<String, ListConsumerGroupOffsetsSpec>) a[0]);
+                case "listOffsets":
+                    return listOffsets((Map<TopicPartition, OffsetSpec>) a[0]);
+                case "describeCluster":
+                    return AdminResults.describeCluster(nodes, clusterId);
+                default:
+                    throw new UnsupportedOperationException(
+                            "Not supported by the in-memory cluster: " + method.getName());
+            }
+        }
+    }
+
+    private static final class TopicState {
+        private final Uuid id = Uuid.randomUuid();
+        private final short replication;
+        private final List<Long> endOffsets;
+        private Map<String, String> configs;
+
+        TopicState(
+                final int partitions, final short replication, final Map<String, String> configs) {
+            this.replication = replication;
+            this.endOffsets = new ArrayList<>(Collections.nCopies(partitions, 0L));
+            this.configs = new TreeMap<>(configs);
+        }
+    }
+
+    private static final class GroupState {
+        private final ConsumerGroupState state;
+        private final Map<TopicPartition, Long> committed;
+
+        GroupState(final ConsumerGroupState state, final Map<TopicPartition, Long> committed) {
+            this.state = state;
+            this.committed = Map.copyOf(committed);
+        }
+    }
+}
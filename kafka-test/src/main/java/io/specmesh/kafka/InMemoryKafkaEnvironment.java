@@ -0,0 +1,189 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka;
+
+import io.confluent.kafka.schemaregistry.avro.AvroSchemaProvider;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.json.JsonSchemaProvider;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaProvider;
+import io.confluent.kafka.schemaregistry.testutil.MockSchemaRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.common.acl.AclBinding;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * A {@link KafkaEnvironment} held in memory, for tests and benchmarks that exercise provisioning
+ * logic rather than the broker, and would otherwise spend most of their time starting containers.
+ *
+ * <p>Kafka is an {@link InMemoryCluster} and Schema Registry a {@code MockSchemaRegistryClient}
+ * registered under a {@code mock://} scope, so serializers configured with {@link
+ * #schemeRegistryServer()} share its subjects. Nothing listens on {@link
+ * #kafkaBootstrapServers()}: pass {@link #adminClient()} and {@link #srClient()} to the code
+ * under test.
+ *
+ * <p>Used in the same way as {@link DockerKafkaEnvironment}:
+ *
+ * <pre>{@code
+ * @RegisterExtension
+ * private static final KafkaEnvironment KAFKA_ENV = InMemoryKafkaEnvironment.builder().build();
+ * }</pre>
+ *
+ * State lives for the test class when registered statically, otherwise for each test.
+ */
+public final class InMemoryKafkaEnvironment
+        implements KafkaEnvironment,
+                BeforeAllCallback,
+                BeforeEachCallback,
+                AfterEachCallback,
+                AfterAllCallback {
+
+    private final InMemoryCluster cluster;
+    private final String srScope = "in-memory-" + UUID.randomUUID();
+    private boolean invokedStatically = false;
+
+    private InMemoryKafkaEnvironment(final int brokers, final Collection<AclBinding> aclBindings) {
+        this.cluster = new InMemoryCluster(brokers, aclBindings);
+    }
+
+    /**
+     * @return returns a {@link Builder} instance to allow customisation of the environment.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void beforeAll(final ExtensionContext context) {
+        invokedStatically = true;
+        tearDown();
+    }
+
+    @Override
+    public void beforeEach(final ExtensionContext context) {
+        if (invokedStatically) {
+            return;
+        }
+
+        tearDown();
+    }
+
+    @Override
+    public void afterEach(final ExtensionContext context) {
+        if (invokedStatically) {
+            return;
+        }
+
+        tearDown();
+    }
+
+    @Override
+    public void afterAll(final ExtensionContext context) {
+        tearDown();
+        invokedStatically = false;
+    }
+
+    @Override
+    public String kafkaBootstrapServers() {
+        return "in-memory:9092";
+    }
+
+    @Override
+    public String schemeRegistryServer() {
+        return "mock://" + srScope;
+    }
+
+    @Override
+    public Admin adminClient() {
+        return cluster.adminClient();
+    }
+
+    @Override
+    public SchemaRegistryClient srClient() {
+        return MockSchemaRegistry.getClientForScope(
+                srScope,
+                List.of(
+                        new ProtobufSchemaProvider(),
+                        new AvroSchemaProvider(),
+                        new JsonSchemaProvider()));
+    }
+
+    /**
+     * @return the cluster, to set offsets and consumer groups
+     */
+    public InMemoryCluster cluster() {
+        return cluster;
+    }
+
+    private void tearDown() {
+        cluster.reset();
+        MockSchemaRegistry.dropScope(srScope);
+    }
+
+    /** Builder of {@link InMemoryKafkaEnvironment}. */
+    public static final class Builder {
+
+        private int brokers = 1;
+        private final List<AclBinding> aclBindings = new ArrayList<>();
+
+        private Builder() {}
+
+        /**
+         * @param brokers number of brokers, which bounds the replication factor.
+         * @return self.
+         */
+        public Builder withBrokers(final int brokers) {
+            this.brokers = brokers;
+            return this;
+        }
+
+        /**
+         * ACLs present at the start of each run. They are stored, not enforced.
+         *
+         * @param aclBindings ACL bindings to set.
+         * @return self.
+         */
+        public Builder withKafkaAcls(final AclBinding... aclBindings) {
+            return withKafkaAcls(List.of(aclBindings));
+        }
+
+        /**
+         * ACLs present at the start of each run. They are stored, not enforced.
+         *
+         * @param aclBindings ACL bindings to set.
+         * @return self.
+         */
+        public Builder withKafkaAcls(final Collection<? extends AclBinding> aclBindings) {
+            this.aclBindings.addAll(aclBindings);
+            return this;
+        }
+
+        /**
+         * @return the new {@link InMemoryKafkaEnvironment} instance.
+         */
+        public InMemoryKafkaEnvironment build() {
+            return new InMemoryKafkaEnvironment(brokers, aclBindings);
+        }
+    }
+}
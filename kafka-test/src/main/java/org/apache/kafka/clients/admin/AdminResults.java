@@ -0,0 +1,206 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.kafka.clients.admin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.kafka.clients.admin.internals.CoordinatorKey;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.acl.AclBinding;
+import org.apache.kafka.common.acl.AclBindingFilter;
+import org.apache.kafka.common.acl.AclOperation;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.errors.ApiException;
+
+/**
+ * Builds {@link Admin} results for an in-memory admin. Most result constructors are package
+ * private, which is why this lives in the client's package, as Kafka's own {@code
+ * MockAdminClient} does.
+ */
+public final class AdminResults {
+
+    private AdminResults() {}
+
+    /**
+     * @param listings topics
+     * @return result
+     */
+    public static ListTopicsResult listTopics(final Collection<TopicListing> listings) {
+        final Map<String, TopicListing> byName =
+                listings.stream().collect(Collectors.toMap(TopicListing::name, l -> l));
+        return new ListTopicsResult(KafkaFuture.completedFuture(byName));
+    }
+
+    /**
+     * @param futures description per topic
+     * @return result
+     */
+    public static DescribeTopicsResult describeTopics(
+            final Map<String, KafkaFuture<TopicDescription>> futures) {
+        return DescribeTopicsResult.ofTopicNames(futures);
+    }
+
+    /**
+     * @param futures outcome per topic
+     * @return result
+     */
+    public static CreateTopicsResult createTopics(
+            final Map<String, KafkaFuture<CreateTopicsResult.TopicMetadataAndConfig>> futures) {
+        return new CreateTopicsResult(futures);
+    }
+
+    /**
+     * @param futures outcome per topic
+     * @return result
+     */
+    public static DeleteTopicsResult deleteTopics(final Map<String, KafkaFuture<Void>> futures) {
+        return DeleteTopicsResult.ofTopicNames(futures);
+    }
+
+    /**
+     * @param futures config per resource
+     * @return result
+     */
+    public static DescribeConfigsResult describeConfigs(
+            final Map<ConfigResource, KafkaFuture<Config>> futures) {
+        return new DescribeConfigsResult(futures);
+    }
+
+    /**
+     * @param futures outcome per resource
+     * @return result
+     */
+    public static AlterConfigsResult alterConfigs(
+            final Map<ConfigResource, KafkaFuture<Void>> futures) {
+        return new AlterConfigsResult(futures);
+    }
+
+    /**
+     * @param futures outcome per topic
+     * @return result
+     */
+    public static CreatePartitionsResult createPartitions(
+            final Map<String, KafkaFuture<Void>> futures) {
+        return new CreatePartitionsResult(futures);
+    }
+
+    /**
+     * @param bindings matching acls
+     * @return result
+     */
+    public static DescribeAclsResult describeAcls(final Collection<AclBinding> bindings) {
+        return new DescribeAclsResult(KafkaFuture.completedFuture(bindings));
+    }
+
+    /**
+     * @param futures outcome per acl
+     * @return result
+     */
+    public static CreateAclsResult createAcls(final Map<AclBinding, KafkaFuture<Void>> futures) {
+        return new CreateAclsResult(futures);
+    }
+
+    /**
+     * @param deleted acls removed per filter
+     * @return result
+     */
+    public static DeleteAclsResult deleteAcls(
+            final Map<AclBindingFilter, List<AclBinding>> deleted) {
+        return new DeleteAclsResult(
+                deleted.entrySet().stream()
+                        .collect(
+                                Collectors.toMap(
+                                        Map.Entry::getKey,
+                                        e -> KafkaFuture.completedFuture(filterResults(e)))));
+    }
+
+    /**
+     * @param listings groups
+     * @return result
+     */
+    public static ListConsumerGroupsResult listConsumerGroups(
+            final Collection<ConsumerGroupListing> listings) {
+        final Collection<Object> all = new ArrayList<>(listings);
+        return new ListConsumerGroupsResult(KafkaFuture.completedFuture(all));
+    }
+
+    /**
+     * @param futures description per group
+     * @return result
+     */
+    public static DescribeConsumerGroupsResult describeConsumerGroups(
+            final Map<String, KafkaFuture<ConsumerGroupDescription>> futures) {
+        return new DescribeConsumerGroupsResult(futures);
+    }
+
+    /**
+     * @param futures committed offsets per group
+     * @return result
+     */
+    public static ListConsumerGroupOffsetsResult listConsumerGroupOffsets(
+            final Map<String, KafkaFuture<Map<TopicPartition, OffsetAndMetadata>>> futures) {
+        return new ListConsumerGroupOffsetsResult(
+                futures.entrySet().stream()
+                        .collect(
+                                Collectors.toMap(
+                                        e -> CoordinatorKey.byGroupId(e.getKey()),
+                                        Map.Entry::getValue)));
+    }
+
+    /**
+     * @param futures offset per partition
+     * @return result
+     */
+    public static ListOffsetsResult listOffsets(
+            final Map<TopicPartition, KafkaFuture<ListOffsetsResult.ListOffsetsResultInfo>>
+                    futures) {
+        return new ListOffsetsResult(futures);
+    }
+
+    /**
+     * @param nodes brokers, the first being the controller
+     * @param clusterId cluster id
+     * @return result
+     */
+    public static DescribeClusterResult describeCluster(
+            final List<Node> nodes, final String clusterId) {
+        final Collection<Node> all = List.copyOf(nodes);
+        return new DescribeClusterResult(
+                KafkaFuture.completedFuture(all),
+                KafkaFuture.completedFuture(nodes.get(0)),
+                KafkaFuture.completedFuture(clusterId),
+                KafkaFuture.completedFuture(Set.<AclOperation>of()));
+    }
+
+    private static DeleteAclsResult.FilterResults filterResults(
+            final Map.Entry<AclBindingFilter, List<AclBinding>> deleted) {
+        return new DeleteAclsResult.FilterResults(
+                deleted.getValue().stream()
+                        .map(
+                                binding ->
+                                        new DeleteAclsResult.FilterResult(
+                                                binding, (ApiException) null))
+                        .collect(Collectors.toList()));
+    }
+}
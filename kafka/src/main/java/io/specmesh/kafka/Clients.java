@@ -16,13 +16,10 @@
 
 package io.specmesh.kafka;
 
-import static java.util.Objects.requireNonNull;
-
-import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
-import io.confluent.kafka.schemaregistry.client.SchemaRegistryClientConfig;
 import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
 import io.confluent.kafka.serializers.KafkaAvroSerializerConfig;
+import io.specmesh.kafka.schema.SchemaRegistryClientFactory;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -173,16 +170,18 @@ public final class Clients {
         }
     }
 
+    /**
+     * Schema registry client from a {@link SchemaRegistryClientFactory#defaults()} factory
+     *
+     * @param schemaRegistryUrl registry url
+     * @param srApiKey api key, or null if the registry is not secured
+     * @param srApiSecret api secret
+     * @return the client
+     */
     public static SchemaRegistryClient schemaRegistryClient(
             final String schemaRegistryUrl, final String srApiKey, final String srApiSecret) {
-        final Map<String, Object> properties = new HashMap<>();
-        if (srApiKey != null && !srApiKey.isBlank()) {
-            properties.put(SchemaRegistryClientConfig.BASIC_AUTH_CREDENTIALS_SOURCE, "USER_INFO");
-            properties.put(
-                    SchemaRegistryClientConfig.USER_INFO_CONFIG, srApiKey + ":" + srApiSecret);
-        }
-        return new CachedSchemaRegistryClient(
-                requireNonNull(schemaRegistryUrl, "schemaRegistryUrl"), 5, properties);
+        return SchemaRegistryClientFactory.defaults()
+                .create(schemaRegistryUrl, srApiKey, srApiSecret);
     }
 
     /**
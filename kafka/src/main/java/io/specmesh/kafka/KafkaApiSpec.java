@@ -42,11 +42,16 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.kafka.clients.admin.NewTopic;
@@ -58,12 +63,21 @@ import org.apache.kafka.common.resource.PatternType;
 import org.apache.kafka.common.resource.ResourcePattern;
 import org.apache.kafka.common.resource.ResourceType;
 
-/** Kafka entity mappings from the AsyncAPISpec */
+/**
+ * Kafka entity mappings from the AsyncAPISpec.
+ *
+ * <p>Derived views (canonical channels, owned topics, required acls) are computed once, on first
+ * use, and cached. The underlying {@link ApiSpec} must not be mutated after construction. Instances
+ * are safe to share between threads.
+ */
 public final class KafkaApiSpec {
 
     private static final String GRANT_ACCESS_TAG = "grant-access:";
 
     private final ApiSpec apiSpec;
+    private final ConcurrentMap<String, Set<AclBinding>> requiredAclsByUser =
+            new ConcurrentHashMap<>();
+    private volatile Index index;
 
     /**
      * KafkaAPISpec
@@ -91,16 +105,7 @@ public final class KafkaApiSpec {
      * @return the owned topics.
      */
     public List<NewTopic> listDomainOwnedTopics() {
-        return apiSpec.channels().entrySet().stream()
-                .filter(e -> e.getKey().startsWith(id()))
-                .map(
-                        e ->
-                                new NewTopic(
-                                                e.getKey(),
-                                                e.getValue().bindings().kafka().partitions(),
-                                                (short) e.getValue().bindings().kafka().replicas())
-                                        .configs(e.getValue().bindings().kafka().configs()))
-                .collect(Collectors.toList());
+        return index().ownedTopics();
     }
 
     /**
@@ -170,11 +175,15 @@ public final class KafkaApiSpec {
      * @return returns the set of required acls.
      */
     public Set<AclBinding> requiredAcls(final String userName) {
+        return requiredAclsByUser.computeIfAbsent(userName, this::buildRequiredAcls);
+    }
+
+    private Set<AclBinding> buildRequiredAcls(final String userName) {
         final Set<AclBinding> acls = new HashSet<>();
         acls.addAll(ownGroupAcls(userName));
         acls.addAll(listACLsForDomainOwnedTopics(userName));
         acls.addAll(grantAccessControlUsingGrantTagOnly());
-        return acls;
+        return Collections.unmodifiableSet(acls);
     }
 
     /**
@@ -198,7 +207,7 @@ public final class KafkaApiSpec {
      * @return stream of the schema info.
      */
     public Optional<SchemaInfo> ownedTopicSchemas(final String topicName) {
-        final Channel channel = apiSpec.channels().get(topicName);
+        final Channel channel = channels().get(topicName);
         if (channel == null) {
             throw new APIException("Unknown topic:" + topicName);
         }
@@ -216,7 +225,7 @@ public final class KafkaApiSpec {
      * @return stream of the schema info.
      */
     public Stream<SchemaInfo> topicSchemas(final String topicName) {
-        final Channel channel = apiSpec.channels().get(topicName);
+        final Channel channel = channels().get(topicName);
         if (channel == null) {
             throw new APIException("Unknown topic:" + topicName);
         }
@@ -232,7 +241,7 @@ public final class KafkaApiSpec {
     }
 
     private void validateTopicConfig() {
-        apiSpec.channels()
+        channels()
                 .forEach(
                         (name, channel) -> {
                             if (name.startsWith(id())
@@ -272,7 +281,7 @@ public final class KafkaApiSpec {
     }
 
     private List<AclBinding> protectedTopicAcls() {
-        return apiSpec.channels().entrySet().stream()
+        return channels().entrySet().stream()
                 .filter(e -> e.getKey().startsWith(id() + DELIMITER + PROTECTED + DELIMITER))
                 .filter(e -> e.getValue().publish().tags().toString().contains(GRANT_ACCESS_TAG))
                 .flatMap(
@@ -302,7 +311,7 @@ public final class KafkaApiSpec {
      */
     @SuppressWarnings("checkstyle:BooleanExpressionComplexity")
     private List<AclBinding> grantAccessControlUsingGrantTagOnly() {
-        return apiSpec.channels().entrySet().stream()
+        return channels().entrySet().stream()
                 .filter(
                         e ->
                                 e.getValue().publish() != null
@@ -409,6 +418,82 @@ public final class KafkaApiSpec {
         return apiSpec;
     }
 
+    /**
+     * The spec as provisioned in one environment
+     *
+     * @param env environment name
+     * @return spec holding only the channels whose kafka binding applies to the env
+     */
+    public KafkaApiSpec forEnvironment(final String env) {
+        return new KafkaApiSpec(apiSpec.forEnvironment(env));
+    }
+
+    private Map<String, Channel> channels() {
+        return index().channels;
+    }
+
+    private Index index() {
+        Index result = index;
+        if (result == null) {
+            synchronized (this) {
+                result = index;
+                if (result == null) {
+                    result = new Index(apiSpec);
+                    index = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Immutable views derived from the spec */
+    private static final class Index {
+        private final String id;
+        private final Map<String, Channel> channels;
+        private volatile List<NewTopic> ownedTopics;
+
+        Index(final ApiSpec apiSpec) {
+            this.id = apiSpec.id();
+            this.channels = Collections.unmodifiableMap(new LinkedHashMap<>(apiSpec.channels()));
+        }
+
+        /**
+         * Built separately to the channels as it needs kafka bindings on every owned channel
+         *
+         * @return owned topics
+         */
+        List<NewTopic> ownedTopics() {
+            List<NewTopic> result = ownedTopics;
+            if (result == null) {
+                synchronized (this) {
+                    result = ownedTopics;
+                    if (result == null) {
+                        result = Collections.unmodifiableList(buildOwnedTopics());
+                        ownedTopics = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        private List<NewTopic> buildOwnedTopics() {
+            return channels.entrySet().stream()
+                    .filter(e -> e.getKey().startsWith(id))
+                    .map(
+                            e ->
+                                    new NewTopic(
+                                                    e.getKey(),
+                                                    e.getValue().bindings().kafka().partitions(),
+                                                    (short)
+                                                            e.getValue()
+                                                                    .bindings()
+                                                                    .kafka()
+                                                                    .replicas())
+                                            .configs(e.getValue().bindings().kafka().configs()))
+                    .collect(Collectors.toList());
+        }
+    }
+
     private static class APIException extends RuntimeException {
         APIException(final String message, final Exception cause) {
             super(message, cause);
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.admin;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * Projects steady-state disk use from retention config and ingress measured between two storage
+ * reports, or over a longer sample history where the caller has one.
+ *
+ * <p>For a delete policy topic the projection is the smaller of ingress x {@code retention.ms}
+ * and {@code retention.bytes} x partitions x replicas; either may be unlimited. Ingress is the
+ * movement of log-end offsets, which retention does not hide, priced at the current on-disk bytes
+ * per retained record, so it already includes replication. Compacted topics are projected
+ * at their current size, since their steady state depends on key cardinality rather than ingress.
+ * The projection is spread over brokers by each broker's current share of the topic. Headroom is
+ * checked against the projection plus whatever else is on the broker's disks now: the report's
+ * used bytes less the current size of the projected topics.
+ */
+public final class CapacityForecaster {
+
+    /** Projection for a topic whose retention never removes data */
+    public static final long UNBOUNDED = -1L;
+
+    private static final String RETENTION_MS = "retention.ms";
+    private static final String RETENTION_BYTES = "retention.bytes";
+    private static final String CLEANUP_POLICY = "cleanup.policy";
+
+    private CapacityForecaster() {}
+
+    /**
+     * Forecast
+     *
+     * @param retention - retention per topic
+     * @param earlier - first sample
+     * @param later - second sample
+     * @param elapsedSeconds - time between the samples
+     * @param headroom - fraction of broker capacity to keep free, e.g. 0.2
+     * @return projection per topic and broker, with warnings
+     */
+    public static Forecast forecast(
+            final Map<String, TopicRetention> retention,
+            final StorageReport earlier,
+            final StorageReport later,
+            final double elapsedSeconds,
+            final double headroom) {
+        return forecast(retention, Map.of(), earlier, later, elapsedSeconds, headroom);
+    }
+
+    /**
+     * Forecast, taking ingress from rates measured over a longer window, e.g. from a {@link
+     * SampleStore}, where there is one
+     *
+     * @param retention - retention per topic
+     * @param measured - records per second per topic, topics without one use the two samples
+     * @param earlier - first sample
+     * @param later - second sample
+     * @param elapsedSeconds - time between the samples
+     * @param headroom - fraction of broker capacity to keep free, e.g. 0.2
+     * @return projection per topic and broker, with warnings
+     */
+    public static Forecast forecast(
+            final Map<String, TopicRetention> retention,
+            final Map<String, Double> measured,
+            final StorageReport earlier,
+            final StorageReport later,
+            final double elapsedSeconds,
+            final double headroom) {
+        final var forecast = new Forecast();
+        final Map<Integer, Long> currentByBroker = new TreeMap<>();
+        retention.forEach(
+                (topic, config) -> {
+                    final var projection =
+                            project(
+                                    topic,
+                                    config,
+                                    earlier.topic(topic),
+                                    later.topic(topic),
+                                    measured.containsKey(topic)
+                                            ? measured.get(topic)
+                                            : recordsPerSecond(
+                                                    earlier.topic(topic),
+                                                    later.topic(topic),
+                                                    elapsedSeconds));
+                    forecast.topics.put(topic, projection);
+                    spread(forecast, projection, later.topic(topic), later.brokerCapacity());
+                    later.topic(topic)
+                            .bytesByBroker()
+                            .forEach(
+                                    (broker, bytes) ->
+                                            currentByBroker.merge(broker, bytes, Long::sum));
+                });
+
+        final var used = later.brokerUsed();
+        later.brokerCapacity()
+                .forEach(
+                        (broker, capacity) -> {
+                            final long projected = forecast.brokers.getOrDefault(broker, 0L);
+                            final long other =
+                                    Math.max(
+                                            0,
+                                            used.getOrDefault(broker, 0L)
+                                                    - currentByBroker.getOrDefault(broker, 0L));
+                            final double limit = capacity * (1.0 - headroom);
+                            if (projected + other > limit) {
+                                forecast.warnings.add(
+                                        "broker "
+                                                + broker
+                                                + " projected "
+                                                + projected
+                                                + " bytes plus "
+                                                + other
+                                                + " bytes of other data exceeds "
+                                                + (long) limit
+                                                + " ("
+                                                + Math.round(headroom * 100)
+                                                + "% headroom on "
+                                                + capacity
+                                                + ")");
+                            }
+                        });
+        forecast.topics.values().stream()
+                .filter(p -> p.projectedBytes() == UNBOUNDED)
+                .forEach(
+                        p ->
+                                forecast.warnings.add(
+                                        "topic "
+                                                + p.topic()
+                                                + " has unlimited retention and is growing at "
+                                                + Math.round(p.ingressBytesPerSecond())
+                                                + " bytes/s"));
+        return forecast;
+    }
+
+    private static TopicForecast project(
+            final String topic,
+            final TopicRetention config,
+            final StorageReport.TopicStorage before,
+            final StorageReport.TopicStorage after,
+            final double recordsPerSecond) {
+        final double bytesPerSecond = recordsPerSecond * bytesPerRecord(before, after);
+        final var builder =
+                TopicForecast.builder()
+                        .topic(topic)
+                        .currentBytes(after.bytes())
+                        .ingressBytesPerSecond(bytesPerSecond)
+                        .ingressRecordsPerSecond(recordsPerSecond);
+
+        if (config.compacted() && !config.deleted()) {
+            return builder.projectedBytes(after.bytes()).boundBy("compaction").build();
+        }
+
+        long projected = UNBOUNDED;
+        String boundBy = "unbounded";
+        if (config.retentionMs() >= 0) {
+            projected = (long) (bytesPerSecond * config.retentionMs() / 1000.0);
+            boundBy = RETENTION_MS;
+        }
+        if (config.retentionBytes() >= 0) {
+            final long bySize =
+                    config.retentionBytes() * config.partitions() * config.replication();
+            if (projected == UNBOUNDED || bySize < projected) {
+                projected = bySize;
+                boundBy = RETENTION_BYTES;
+            }
+        }
+        return builder.projectedBytes(projected).boundBy(boundBy).build();
+    }
+
+    private static double recordsPerSecond(
+            final StorageReport.TopicStorage before,
+            final StorageReport.TopicStorage after,
+            final double elapsedSeconds) {
+        return elapsedSeconds <= 0
+                ? 0
+                : Math.max(0, after.endOffsets() - before.endOffsets()) / elapsedSeconds;
+    }
+
+    private static double bytesPerRecord(
+            final StorageReport.TopicStorage before, final StorageReport.TopicStorage after) {
+        if (after.offsetTotal() > 0) {
+            return (double) after.bytes() / after.offsetTotal();
+        }
+        final long records = after.endOffsets() - before.endOffsets();
+        return records > 0 ? (double) Math.max(0, after.bytes() - before.bytes()) / records : 0;
+    }
+
+    private static void spread(
+            final Forecast forecast,
+            final TopicForecast projection,
+            final StorageReport.TopicStorage current,
+            final Map<Integer, Long> brokers) {
+        if (projection.projectedBytes() == UNBOUNDED) {
+            return;
+        }
+        final Map<Integer, Long> shares =
+                current.bytes() > 0 ? current.bytesByBroker() : evenly(brokers);
+        final long total = shares.values().stream().mapToLong(Long::longValue).sum();
+        if (total == 0) {
+            return;
+        }
+        shares.forEach(
+                (broker, share) ->
+                        forecast.brokers.merge(
+                                broker,
+                                (long) ((double) projection.projectedBytes() * share / total),
+                                Long::sum));
+    }
+
+    private static Map<Integer, Long> evenly(final Map<Integer, Long> brokers) {
+        final Map<Integer, Long> shares = new TreeMap<>();
+        brokers.keySet().forEach(broker -> shares.put(broker, 1L));
+        return shares;
+    }
+
+    /** Retention settings that drive the projection */
+    @Builder
+    @Data
+    @Accessors(fluent = true)
+    public static final class TopicRetention {
+        private final long retentionMs;
+        private final long retentionBytes;
+        private final boolean compacted;
+        private final boolean deleted;
+        private final int partitions;
+        private final int replication;
+
+        /**
+         * From topic config, as read from the cluster
+         *
+         * @param config - topic config, missing keys use broker defaults
+         * @param partitions - partition count
+         * @param replication - replication factor
+         * @return retention
+         */
+        public static TopicRetention from(
+                final Map<String, String> config, final int partitions, final int replication) {
+            final var policy = config.getOrDefault(CLEANUP_POLICY, "delete");
+            return TopicRetention.builder()
+                    .retentionMs(Long.parseLong(config.getOrDefault(RETENTION_MS, "604800000")))
+                    .retentionBytes(Long.parseLong(config.getOrDefault(RETENTION_BYTES, "-1")))
+                    .compacted(policy.contains("compact"))
+                    .deleted(policy.contains("delete"))
+                    .partitions(partitions)
+                    .replication(replication)
+                    .build();
+        }
+    }
+
+    /** Projection for a topic */
+    @Builder
+    @Data
+    @Accessors(fluent = true)
+    public static final class TopicForecast {
+        private final String topic;
+        private final long currentBytes;
+        private final double ingressBytesPerSecond;
+        private final double ingressRecordsPerSecond;
+        private final long projectedBytes;
+        private final String boundBy;
+    }
+
+    /** Projection for a set of topics */
+    @Data
+    @Accessors(fluent = true)
+    @SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "result holder")
+    public static final class Forecast {
+        private final Map<String, TopicForecast> topics = new TreeMap<>();
+        private final Map<Integer, Long> brokers = new TreeMap<>();
+        private final List<String> warnings = new ArrayList<>();
+    }
+}
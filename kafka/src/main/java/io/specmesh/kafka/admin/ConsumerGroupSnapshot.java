@@ -0,0 +1,230 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.admin;
+
+import io.specmesh.kafka.admin.SmAdminClient.ConsumerGroup;
+import io.specmesh.kafka.admin.SmAdminClient.Member;
+import io.specmesh.kafka.admin.SmAdminClient.Partition;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * Point in time view of the stable consumer groups on a cluster, read once and indexed by topic.
+ * Prefix lookups walk a sorted topic index, so answering for every topic in a spec costs groups +
+ * topics rather than a full group scan per topic.
+ *
+ * <p>Committed offsets are joined with log-end offsets to give lag. Comparing with an earlier
+ * snapshot gives the consumption rate and an estimate of the time to catch up.
+ */
+public final class ConsumerGroupSnapshot {
+
+    private final Map<String, ConsumerGroupDescription> descriptions;
+    private final Map<String, List<Partition>> partitions;
+    private final NavigableMap<String, Set<String>> groupsByAssignedTopic;
+    private final NavigableMap<String, Set<String>> groupsByOffsetTopic;
+    private final long takenAtMs;
+
+    private ConsumerGroupSnapshot(
+            final Map<String, ConsumerGroupDescription> descriptions,
+            final Map<String, List<Partition>> partitions,
+            final NavigableMap<String, Set<String>> groupsByAssignedTopic,
+            final NavigableMap<String, Set<String>> groupsByOffsetTopic,
+            final long takenAtMs) {
+        this.descriptions = descriptions;
+        this.partitions = partitions;
+        this.groupsByAssignedTopic = groupsByAssignedTopic;
+        this.groupsByOffsetTopic = groupsByOffsetTopic;
+        this.takenAtMs = takenAtMs;
+    }
+
+    /**
+     * Index group descriptions and committed offsets
+     *
+     * @param descriptions - stable group descriptions
+     * @param offsets - committed offsets keyed by group id
+     * @param endOffsets - log-end offsets, partitions without one report no lag
+     * @param takenAtMs - when the offsets were read
+     * @return the snapshot
+     */
+    static ConsumerGroupSnapshot of(
+            final Collection<ConsumerGroupDescription> descriptions,
+            final Map<String, Map<TopicPartition, OffsetAndMetadata>> offsets,
+            final Map<TopicPartition, Long> endOffsets,
+            final long takenAtMs) {
+        final var byId = new LinkedHashMap<String, ConsumerGroupDescription>();
+        final var byAssignedTopic = new TreeMap<String, Set<String>>();
+        for (final var description : descriptions) {
+            byId.put(description.groupId(), description);
+            for (final var member : description.members()) {
+                for (final var tp : member.assignment().topicPartitions()) {
+                    index(byAssignedTopic, tp.topic(), description.groupId());
+                }
+            }
+        }
+
+        final var partitions = new LinkedHashMap<String, List<Partition>>();
+        final var byOffsetTopic = new TreeMap<String, Set<String>>();
+        offsets.forEach(
+                (groupId, groupOffsets) -> {
+                    final var groupPartitions = new ArrayList<Partition>(groupOffsets.size());
+                    groupOffsets.forEach(
+                            (tp, offset) -> {
+                                index(byOffsetTopic, tp.topic(), groupId);
+                                final long committed = offset == null ? 0 : offset.offset();
+                                final long end = endOffsets.getOrDefault(tp, -1L);
+                                groupPartitions.add(
+                                        Partition.builder()
+                                                .id(tp.partition())
+                                                .topic(tp.topic())
+                                                .offset(committed)
+                                                .endOffset(end)
+                                                .lag(end < 0 ? 0 : Math.max(0, end - committed))
+                                                .build());
+                            });
+                    partitions.put(groupId, groupPartitions);
+                });
+        return new ConsumerGroupSnapshot(
+                byId, partitions, byAssignedTopic, byOffsetTopic, takenAtMs);
+    }
+
+    /**
+     * Groups with a member assigned to a topic matching the prefix. A group's partitions are its
+     * committed offsets, provided any of them match the prefix.
+     *
+     * @param topicPrefix to match against
+     * @return matched groups
+     */
+    public List<ConsumerGroup> groupsForTopicPrefix(final String topicPrefix) {
+        return groupsForTopicPrefix(topicPrefix, null);
+    }
+
+    /**
+     * As {@link #groupsForTopicPrefix(String)}, with consumption rate and catch-up time estimated
+     * from the movement of committed and log-end offsets since an earlier snapshot.
+     *
+     * @param topicPrefix to match against
+     * @param earlier - an earlier snapshot of the same cluster, or null to skip rates
+     * @return matched groups
+     */
+    public List<ConsumerGroup> groupsForTopicPrefix(
+            final String topicPrefix, final ConsumerGroupSnapshot earlier) {
+        final var withOffsets = groupIds(groupsByOffsetTopic, topicPrefix);
+        return groupIds(groupsByAssignedTopic, topicPrefix).stream()
+                .map(
+                        groupId -> {
+                            final var group =
+                                    group(
+                                            descriptions.get(groupId),
+                                            withOffsets.contains(groupId)
+                                                    ? partitions.getOrDefault(groupId, List.of())
+                                                    : List.of());
+                            if (earlier != null) {
+                                estimateCatchUp(group, earlier);
+                            }
+                            return group;
+                        })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Group ids in the snapshot
+     *
+     * @return all stable group ids
+     */
+    public Set<String> groupIds() {
+        return Set.copyOf(descriptions.keySet());
+    }
+
+    private static ConsumerGroup group(
+            final ConsumerGroupDescription description, final List<Partition> partitions) {
+        final var group =
+                ConsumerGroup.builder()
+                        .id(description.groupId())
+                        .members(
+                                description.members().stream()
+                                        .map(
+                                                member ->
+                                                        Member.builder()
+                                                                .id(member.consumerId())
+                                                                .host(member.host())
+                                                                .clientId(member.clientId())
+                                                                .build())
+                                        .collect(Collectors.toList()))
+                        .partitions(List.copyOf(partitions))
+                        .build();
+        group.calculateTotalOffset();
+        group.calculateLag();
+        return group;
+    }
+
+    private void estimateCatchUp(final ConsumerGroup group, final ConsumerGroupSnapshot earlier) {
+        final double elapsedSeconds = (takenAtMs - earlier.takenAtMs) / 1000.0;
+        if (elapsedSeconds <= 0) {
+            return;
+        }
+        final var before = new HashMap<TopicPartition, Partition>();
+        earlier.partitions
+                .getOrDefault(group.id(), List.of())
+                .forEach(p -> before.put(new TopicPartition(p.topic(), p.id()), p));
+        long consumed = 0;
+        long produced = 0;
+        for (final var partition : group.partitions()) {
+            final var was = before.get(new TopicPartition(partition.topic(), partition.id()));
+            if (was != null && was.endOffset() >= 0 && partition.endOffset() >= 0) {
+                consumed += partition.offset() - was.offset();
+                produced += partition.endOffset() - was.endOffset();
+            }
+        }
+        final double consumeRate = consumed / elapsedSeconds;
+        final double netRate = consumeRate - produced / elapsedSeconds;
+        group.consumptionRate(consumeRate);
+        if (group.lag() == 0) {
+            group.catchUpSeconds(0.0);
+        } else if (netRate > 0) {
+            group.catchUpSeconds(group.lag() / netRate);
+        }
+    }
+
+    private static Set<String> groupIds(
+            final NavigableMap<String, Set<String>> index, final String topicPrefix) {
+        final var matched = new LinkedHashSet<String>();
+        for (final var entry : index.tailMap(topicPrefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(topicPrefix)) {
+                break;
+            }
+            matched.addAll(entry.getValue());
+        }
+        return matched;
+    }
+
+    private static void index(
+            final Map<String, Set<String>> index, final String topic, final String groupId) {
+        index.computeIfAbsent(topic, k -> new LinkedHashSet<>()).add(groupId);
+    }
+}
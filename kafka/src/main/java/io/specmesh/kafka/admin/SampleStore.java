@@ -0,0 +1,360 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.admin;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * Local history of storage and offset samples, held in a memory-mapped ring file so samples never
+ * live on the heap.
+ *
+ * <p>The file is a 64 byte header (magic, version, capacity, total appended) followed by {@code
+ * capacity} fixed 40 byte records: topic id, partition, bytes, start offset, end offset and
+ * timestamp. Once full, the oldest records are overwritten. Topic names are held in a sidecar
+ * {@code .topics} file, one per line, the line number being the id.
+ *
+ * <p>Samples must be appended in timestamp order, so the ring is sorted by time and range queries
+ * binary search to the window rather than scanning. A small per-topic index of the first and last
+ * sequence bounds the scan further, but only to that span: where topics are sampled together, as
+ * {@link #append(StorageReport, long)} does, their records interleave and a query still steps over
+ * every record in the window, skipping those of other topics.
+ */
+public final class SampleStore implements Closeable {
+
+    private static final int MAGIC = 0x534d5453;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 40;
+    private static final int COUNT_POSITION = 12;
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final Path topicsFile;
+    private final List<String> topicNames = new ArrayList<>();
+    private final Map<String, Integer> topicIds = new HashMap<>();
+    private final Map<Integer, long[]> topicRange = new HashMap<>();
+    private long count;
+
+    private SampleStore(final Path file, final int capacity) throws IOException {
+        this.topicsFile = file.resolveSibling(file.getFileName() + ".topics");
+        this.channel =
+                FileChannel.open(
+                        file,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+        final boolean fresh = channel.size() == 0;
+        final int size = fresh ? capacity : readCapacity(channel);
+        this.capacity = size;
+        this.buffer =
+                channel.map(
+                        FileChannel.MapMode.READ_WRITE,
+                        0,
+                        HEADER_SIZE + (long) size * RECORD_SIZE);
+        if (fresh) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, size);
+            buffer.putLong(COUNT_POSITION, 0);
+        }
+        this.count = buffer.getLong(COUNT_POSITION);
+        loadTopics();
+        rebuildIndex();
+    }
+
+    /**
+     * Open, or create, a store
+     *
+     * @param file - the ring file
+     * @param capacity - records to keep, ignored if the file exists
+     * @return the store
+     * @throws IOException if the file cannot be mapped or is not a sample store
+     */
+    public static SampleStore open(final Path file, final int capacity) throws IOException {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException(
+                    "capacity must be between 1 and " + MAX_CAPACITY + ": " + capacity);
+        }
+        return new SampleStore(file, capacity);
+    }
+
+    /**
+     * Append a sample
+     *
+     * @param topic - topic name
+     * @param partition - partition
+     * @param bytes - bytes on disk
+     * @param startOffset - log start offset
+     * @param endOffset - log end offset
+     * @param timestampMs - sample time, must not go backwards
+     */
+    public synchronized void append(
+            final String topic,
+            final int partition,
+            final long bytes,
+            final long startOffset,
+            final long endOffset,
+            final long timestampMs) {
+        if (count > 0 && timestampMs < timestamp(count - 1)) {
+            throw new IllegalArgumentException(
+                    "Samples must be appended in time order, got "
+                            + timestampMs
+                            + " after "
+                            + timestamp(count - 1));
+        }
+        final int topicId = topicId(topic);
+        final int position = position(count);
+        buffer.putInt(position, topicId);
+        buffer.putInt(position + 4, partition);
+        buffer.putLong(position + 8, bytes);
+        buffer.putLong(position + 16, startOffset);
+        buffer.putLong(position + 24, endOffset);
+        buffer.putLong(position + 32, timestampMs);
+        topicRange.computeIfAbsent(topicId, k -> new long[] {count, count})[1] = count;
+        count++;
+        buffer.putLong(COUNT_POSITION, count);
+    }
+
+    /**
+     * Append a sample of every partition in a storage report
+     *
+     * @param report - storage report
+     * @param timestampMs - time the report was taken, must not go backwards
+     */
+    public synchronized void append(final StorageReport report, final long timestampMs) {
+        for (final var storage : report.topics().values()) {
+            storage.endOffsetByPartition()
+                    .forEach(
+                            (partition, endOffset) ->
+                                    append(
+                                            storage.topic(),
+                                            partition,
+                                            storage.bytesByPartition().getOrDefault(partition, 0L),
+                                            storage.startOffsetByPartition()
+                                                    .getOrDefault(partition, 0L),
+                                            endOffset,
+                                            timestampMs));
+        }
+    }
+
+    /**
+     * Visit the samples of a topic within a time window, oldest first
+     *
+     * @param topic - topic name
+     * @param fromMs - inclusive start
+     * @param toMs - exclusive end
+     * @param visitor - receives each sample
+     */
+    public synchronized void forEach(
+            final String topic, final long fromMs, final long toMs, final SampleVisitor visitor) {
+        final var topicId = topicIds.get(topic);
+        final long[] range = topicId == null ? null : topicRange.get(topicId);
+        if (range == null) {
+            return;
+        }
+        final long oldest = oldest();
+        final long first = Math.max(lowerBound(fromMs), Math.max(oldest, range[0]));
+        final long last = Math.min(range[1], count - 1);
+        for (long seq = first; seq <= last; seq++) {
+            final int position = position(seq);
+            final long timestampMs = buffer.getLong(position + 32);
+            if (timestampMs >= toMs) {
+                break;
+            }
+            if (buffer.getInt(position) == topicId) {
+                visitor.accept(
+                        buffer.getInt(position + 4),
+                        buffer.getLong(position + 8),
+                        buffer.getLong(position + 16),
+                        buffer.getLong(position + 24),
+                        timestampMs);
+            }
+        }
+    }
+
+    /**
+     * Growth of a topic over a window, from the first and last sample of each partition
+     *
+     * @param topic - topic name
+     * @param fromMs - inclusive start
+     * @param toMs - exclusive end
+     * @return the growth, zero if there are fewer than two samples for any partition
+     */
+    public Growth growth(final String topic, final long fromMs, final long toMs) {
+        // bytes, end offset and time of the first then the last sample, one array per partition
+        final Map<Integer, long[]> firstAndLast = new HashMap<>();
+        forEach(
+                topic,
+                fromMs,
+                toMs,
+                (partition, bytes, startOffset, endOffset, timestampMs) -> {
+                    var seen = firstAndLast.get(partition);
+                    if (seen == null) {
+                        seen = new long[] {bytes, endOffset, timestampMs, 0, 0, 0};
+                        firstAndLast.put(partition, seen);
+                    }
+                    seen[3] = bytes;
+                    seen[4] = endOffset;
+                    seen[5] = timestampMs;
+                });
+
+        final var growth = new Growth();
+        firstAndLast.values().stream()
+                .filter(s -> s[5] > s[2])
+                .forEach(
+                        s -> {
+                            final double seconds = (s[5] - s[2]) / 1000.0;
+                            growth.bytesPerSecond += (s[3] - s[0]) / seconds;
+                            growth.recordsPerSecond += (s[4] - s[1]) / seconds;
+                            growth.partitions++;
+                        });
+        return growth;
+    }
+
+    /**
+     * Samples currently held
+     *
+     * @return number of readable samples
+     */
+    public synchronized long size() {
+        return count - oldest();
+    }
+
+    /** Flush the mapped file to disk */
+    public synchronized void flush() {
+        buffer.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    /** Receives samples without allocating per sample */
+    @FunctionalInterface
+    public interface SampleVisitor {
+        /**
+         * One sample
+         *
+         * @param partition - partition
+         * @param bytes - bytes on disk
+         * @param startOffset - log start offset
+         * @param endOffset - log end offset
+         * @param timestampMs - sample time
+         */
+        void accept(int partition, long bytes, long startOffset, long endOffset, long timestampMs);
+    }
+
+    /** Rates summed over partitions */
+    @Data
+    @Accessors(fluent = true)
+    public static final class Growth {
+        private double bytesPerSecond;
+        private double recordsPerSecond;
+        private int partitions;
+    }
+
+    private long oldest() {
+        return Math.max(0, count - capacity);
+    }
+
+    private int position(final long seq) {
+        return HEADER_SIZE + (int) (seq % capacity) * RECORD_SIZE;
+    }
+
+    private long timestamp(final long seq) {
+        return buffer.getLong(position(seq) + 32);
+    }
+
+    /** first sequence with timestamp >= fromMs */
+    private long lowerBound(final long fromMs) {
+        long low = oldest();
+        long high = count;
+        while (low < high) {
+            final long mid = (low + high) >>> 1;
+            if (timestamp(mid) < fromMs) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int topicId(final String topic) {
+        final var existing = topicIds.get(topic);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            Files.write(
+                    topicsFile,
+                    List.of(topic),
+                    StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to record topic: " + topic, e);
+        }
+        final int id = topicNames.size();
+        topicNames.add(topic);
+        topicIds.put(topic, id);
+        return id;
+    }
+
+    private void loadTopics() throws IOException {
+        if (!Files.exists(topicsFile)) {
+            return;
+        }
+        for (final var topic : Files.readAllLines(topicsFile, StandardCharsets.UTF_8)) {
+            topicIds.put(topic, topicNames.size());
+            topicNames.add(topic);
+        }
+    }
+
+    private void rebuildIndex() {
+        for (long seq = oldest(); seq < count; seq++) {
+            final int topicId = buffer.getInt(position(seq));
+            final long current = seq;
+            topicRange.computeIfAbsent(topicId, k -> new long[] {current, current})[1] = current;
+        }
+    }
+
+    private static int readCapacity(final FileChannel channel) throws IOException {
+        final var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException("Not a sample store, or unsupported version");
+        }
+        return header.getInt(8);
+    }
+}
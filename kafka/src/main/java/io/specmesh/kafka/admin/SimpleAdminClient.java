@@ -16,12 +16,11 @@
 
 package io.specmesh.kafka.admin;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -31,9 +30,8 @@ import org.apache.kafka.clients.admin.Admin;
 import org.apache.kafka.clients.admin.ConsumerGroupDescription;
 import org.apache.kafka.clients.admin.ConsumerGroupListing;
 import org.apache.kafka.clients.admin.ListConsumerGroupOffsetsSpec;
-import org.apache.kafka.clients.admin.MemberAssignment;
-import org.apache.kafka.clients.admin.MemberDescription;
 import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.common.ConsumerGroupState;
 import org.apache.kafka.common.Node;
@@ -59,130 +57,94 @@ public class SimpleAdminClient implements SmAdminClient {
      */
     @Override
     public List<ConsumerGroup> groupsForTopicPrefix(final String topicPrefix) {
-        try {
-            final List<ConsumerGroupDescription> groupDescriptions =
-                    groupsDescriptions(topicPrefix);
-
-            final Map<String, List<Partition>> groupOffsets =
-                    groupOffsets(groupDescriptions, topicPrefix);
-
-            return groupDescriptions.stream()
-                    .map(
-                            groupDescription -> {
-                                final var groupBuilder = ConsumerGroup.builder();
-                                groupBuilder.id(groupDescription.groupId());
-                                groupBuilder.members(
-                                        groupDescription.members().stream()
-                                                .map(
-                                                        member ->
-                                                                Member.builder()
-                                                                        .id(member.consumerId())
-                                                                        .host(member.host())
-                                                                        .clientId(member.clientId())
-                                                                        .build())
-                                                .collect(Collectors.toList()));
-                                groupBuilder.partitions(
-                                        groupOffsets.getOrDefault(
-                                                groupDescription.groupId(), List.of()));
-                                final var group = groupBuilder.build();
-                                group.calculateTotalOffset();
-                                return group;
-                            })
-                    .collect(Collectors.toList());
-
-        } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            throw new ClientException("Failed to list consumer-groups for:" + topicPrefix, e);
-        }
+        return consumerGroupSnapshot().groupsForTopicPrefix(topicPrefix);
     }
 
     /**
-     * Set of groups for a prefix
+     * Read all stable groups and their offsets in one pass: a single list, a single describe, a
+     * single batched committed offsets request and a single batched log-end listOffsets across
+     * every partition involved, regardless of how many topics are later queried.
      *
-     * @param topicPrefix to match against
-     * @return matched descriptions
+     * @return the snapshot
      */
-    private List<ConsumerGroupDescription> groupsDescriptions(final String topicPrefix)
-            throws InterruptedException, ExecutionException, TimeoutException {
-        final Collection<ConsumerGroupListing> allGroups =
-                adminClient.listConsumerGroups().all().get(TIMEOUT, TimeUnit.SECONDS);
+    @Override
+    public ConsumerGroupSnapshot consumerGroupSnapshot() {
+        try {
+            final Collection<ConsumerGroupListing> allGroups =
+                    adminClient.listConsumerGroups().all().get(TIMEOUT, TimeUnit.SECONDS);
 
-        final List<String> allGroupIds =
-                allGroups.stream()
-                        .filter(
-                                listing ->
-                                        !listing.isSimpleConsumerGroup()
-                                                && listing.state().isPresent()
-                                                && listing.state()
-                                                        .get()
-                                                        .equals(ConsumerGroupState.STABLE))
-                        .map(ConsumerGroupListing::groupId)
-                        .collect(Collectors.toList());
+            final List<String> stableGroupIds =
+                    allGroups.stream()
+                            .filter(
+                                    listing ->
+                                            !listing.isSimpleConsumerGroup()
+                                                    && listing.state().isPresent()
+                                                    && listing.state()
+                                                            .get()
+                                                            .equals(ConsumerGroupState.STABLE))
+                            .map(ConsumerGroupListing::groupId)
+                            .collect(Collectors.toList());
 
-        final Map<String, ConsumerGroupDescription> allDescriptions =
-                adminClient
-                        .describeConsumerGroups(allGroupIds)
-                        .all()
-                        .get(TIMEOUT, TimeUnit.SECONDS);
+            if (stableGroupIds.isEmpty()) {
+                return ConsumerGroupSnapshot.of(
+                        List.of(), Map.of(), Map.of(), System.currentTimeMillis());
+            }
 
-        return allDescriptions.values().stream()
-                .filter(description -> isConsumingFromTopicPrefix(description, topicPrefix))
-                .collect(Collectors.toList());
-    }
+            final Map<String, ConsumerGroupDescription> descriptions =
+                    adminClient
+                            .describeConsumerGroups(stableGroupIds)
+                            .all()
+                            .get(TIMEOUT, TimeUnit.SECONDS);
 
-    private Map<String, List<Partition>> groupOffsets(
-            final List<ConsumerGroupDescription> groupDescriptions, final String topicPrefix)
-            throws InterruptedException, ExecutionException, TimeoutException {
-        final Map<String, ListConsumerGroupOffsetsSpec> specs =
-                groupDescriptions.stream()
-                        .map(ConsumerGroupDescription::groupId)
-                        .collect(
-                                Collectors.toMap(
-                                        Function.identity(),
-                                        id -> new ListConsumerGroupOffsetsSpec()));
+            final Map<String, ListConsumerGroupOffsetsSpec> specs =
+                    descriptions.keySet().stream()
+                            .collect(
+                                    Collectors.toMap(
+                                            Function.identity(),
+                                            id -> new ListConsumerGroupOffsetsSpec()));
 
-        final Map<String, Map<TopicPartition, OffsetAndMetadata>> offsets =
-                adminClient.listConsumerGroupOffsets(specs).all().get(TIMEOUT, TimeUnit.SECONDS);
+            final Map<String, Map<TopicPartition, OffsetAndMetadata>> offsets =
+                    adminClient
+                            .listConsumerGroupOffsets(specs)
+                            .all()
+                            .get(TIMEOUT, TimeUnit.SECONDS);
 
-        return offsets.entrySet().stream()
-                .filter(
-                        e ->
-                                e.getValue().keySet().stream()
-                                        .anyMatch(tp -> tp.topic().startsWith(topicPrefix)))
-                .collect(
-                        Collectors.toMap(
-                                Map.Entry::getKey,
-                                e ->
-                                        e.getValue().entrySet().stream()
-                                                .map(
-                                                        o ->
-                                                                Partition.builder()
-                                                                        .id(o.getKey().partition())
-                                                                        .topic(o.getKey().topic())
-                                                                        .offset(
-                                                                                o.getValue()
-                                                                                        .offset())
-                                                                        .build())
-                                                .collect(Collectors.toList())));
+            final long takenAtMs = System.currentTimeMillis();
+            return ConsumerGroupSnapshot.of(
+                    descriptions.values(), offsets, endOffsets(offsets), takenAtMs);
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            throw new ClientException("Failed to snapshot consumer-groups", e);
+        }
     }
 
     /**
-     * Check if a cgroup is consuming from a topic prefix
-     *
-     * @param groupDescription - group desc
-     * @param prefix to match against
-     * @return true when it is
+     * Log-end offsets for every committed partition, in one listOffsets request. Partitions that
+     * fail, e.g. because the topic was deleted, are left out.
      */
-    private boolean isConsumingFromTopicPrefix(
-            final ConsumerGroupDescription groupDescription, final String prefix) {
-        return groupDescription.members().stream()
-                .map(MemberDescription::assignment)
-                .map(MemberAssignment::topicPartitions)
-                .flatMap(Set::stream)
-                .anyMatch(tp -> tp.topic().startsWith(prefix));
+    private Map<TopicPartition, Long> endOffsets(
+            final Map<String, Map<TopicPartition, OffsetAndMetadata>> offsets)
+            throws InterruptedException, TimeoutException {
+        final Map<TopicPartition, OffsetSpec> query = new HashMap<>();
+        offsets.values()
+                .forEach(group -> group.keySet().forEach(tp -> query.put(tp, OffsetSpec.latest())));
+        if (query.isEmpty()) {
+            return Map.of();
+        }
+        final var result = adminClient.listOffsets(query);
+        final Map<TopicPartition, Long> endOffsets = new HashMap<>();
+        for (final var tp : query.keySet()) {
+            try {
+                final var info = result.partitionResult(tp).get(TIMEOUT, TimeUnit.SECONDS);
+                endOffsets.put(tp, info.offset());
+            } catch (ExecutionException e) {
+                // no lag reported for this partition
+            }
+        }
+        return endOffsets;
     }
 
     /**
-     * Retrieve topic volume in bytes
+     * Retrieve topic volume in bytes using one describeLogDirs
      *
      * @param topic to query
      * @return total volume (including replica)
@@ -190,27 +152,15 @@ public class SimpleAdminClient implements SmAdminClient {
     @Override
     public long topicVolumeUsingLogDirs(final String topic) {
         try {
-            final var brokers = brokerIds();
-            final var logDirsResult = adminClient.describeLogDirs(brokers);
-            final var logDirsByBroker =
-                    logDirsResult.allDescriptions().get(TIMEOUT, TimeUnit.SECONDS);
-
-            long totalSize = 0;
-
-            for (final var logDirs : logDirsByBroker.values()) {
-                for (final var logDirInfo : logDirs.values()) {
-                    for (final var replicaInfoEntry : logDirInfo.replicaInfos().entrySet()) {
-                        final var tp = replicaInfoEntry.getKey();
-                        if (topic.equals(tp.topic())) {
-                            totalSize += replicaInfoEntry.getValue().size();
-                        }
-                    }
-                }
-            }
-
-            return totalSize;
+            final var report = new StorageReport(List.of(topic));
+            adminClient
+                    .describeLogDirs(brokerIds())
+                    .allDescriptions()
+                    .get(TIMEOUT, TimeUnit.SECONDS)
+                    .forEach(report::addLogDirs);
+            return report.topic(topic).bytes();
         } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            throw new ClientException("Failed to get topicVolumeUsingLogDirs:" + topic, e);
+            throw new ClientException("Failed to get log dirs for topic:" + topic, e);
         }
     }
 
@@ -232,49 +182,130 @@ public class SimpleAdminClient implements SmAdminClient {
     }
 
     /**
-     * Get topic offset total
+     * Get topic offset total using one describeTopics and one round of earliest/latest listOffsets
      *
      * @param topic to query
      * @return total offset count
      */
     @Override
     public long topicVolumeOffsets(final String topic) {
+        try {
+            final var report = new StorageReport(List.of(topic));
+            addOffsets(report, List.of(topic));
+            return report.topic(topic).offsetTotal();
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            throw new ClientException("Failed to get offsets for topic:" + topic, e);
+        }
+    }
 
+    /**
+     * Storage for a set of topics using one describeTopics, one describeLogDirs and one round of
+     * earliest/latest listOffsets. Topics that do not exist report zero.
+     *
+     * @param topics to query
+     * @return the report
+     */
+    @Override
+    public StorageReport storageReport(final Collection<String> topics) {
         try {
-            final var describeTopicsResult =
-                    adminClient.describeTopics(Collections.singleton(topic));
-            final var topicDescription =
-                    describeTopicsResult.allTopicNames().get(TIMEOUT, TimeUnit.SECONDS).get(topic);
+            final var report = new StorageReport(topics);
+            final var logDirs = adminClient.describeLogDirs(brokerIds()).allDescriptions();
+            addOffsets(report, topics);
+            logDirs.get(TIMEOUT, TimeUnit.SECONDS).forEach(report::addLogDirs);
+            return report;
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            throw new ClientException("Failed to get storage report for topics:" + topics, e);
+        }
+    }
 
-            // Get the start and end offsets for each partition
-            final Map<TopicPartition, OffsetSpec> endOffsetsQuery = new HashMap<>();
-            final Map<TopicPartition, OffsetSpec> startOffsetsQuery = new HashMap<>();
-            for (TopicPartitionInfo partitionInfo : topicDescription.partitions()) {
-                final var partition = new TopicPartition(topic, partitionInfo.partition());
-                endOffsetsQuery.put(partition, OffsetSpec.latest());
-                startOffsetsQuery.put(partition, OffsetSpec.earliest());
+    /** Earliest and latest offsets of every partition of the topics, one listOffsets each */
+    private void addOffsets(final StorageReport report, final Collection<String> topics)
+            throws InterruptedException, TimeoutException, ExecutionException {
+        final Map<TopicPartition, OffsetSpec> earliest = new HashMap<>();
+        final Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+        for (final var description : describeTopics(topics)) {
+            for (final TopicPartitionInfo partitionInfo : description.partitions()) {
+                final var tp = new TopicPartition(description.name(), partitionInfo.partition());
+                earliest.put(tp, OffsetSpec.earliest());
+                latest.put(tp, OffsetSpec.latest());
             }
+        }
+
+        if (!earliest.isEmpty()) {
+            final var startOffsets = adminClient.listOffsets(earliest).all();
+            final var endOffsets = adminClient.listOffsets(latest).all();
+            final var starts = startOffsets.get(TIMEOUT, TimeUnit.SECONDS);
+            final var ends = endOffsets.get(TIMEOUT, TimeUnit.SECONDS);
+            earliest.keySet()
+                    .forEach(
+                            tp ->
+                                    report.addOffsets(
+                                            tp, starts.get(tp).offset(), ends.get(tp).offset()));
+        }
+    }
+
+    /**
+     * Sum of log-end offsets per topic using one describeTopics and one listOffsets
+     *
+     * @param topics to query
+     * @return end offset sum keyed by topic
+     */
+    @Override
+    public Map<String, Long> topicEndOffsets(final Collection<String> topics) {
+        return sumOffsets(topics, OffsetSpec.latest(), "end");
+    }
 
-            final var endOffsetsResult = adminClient.listOffsets(endOffsetsQuery);
-            final var startOffsetsResult = adminClient.listOffsets(startOffsetsQuery);
+    /**
+     * Sum of log-start offsets per topic using one describeTopics and one listOffsets
+     *
+     * @param topics to query
+     * @return start offset sum keyed by topic
+     */
+    @Override
+    public Map<String, Long> topicStartOffsets(final Collection<String> topics) {
+        return sumOffsets(topics, OffsetSpec.earliest(), "start");
+    }
 
-            long totalVolume = 0;
-            for (TopicPartition partition : endOffsetsQuery.keySet()) {
-                final long endOffset = endOffsetsResult.partitionResult(partition).get().offset();
-                final long startOffset =
-                        startOffsetsResult.partitionResult(partition).get().offset();
-                totalVolume += endOffset - startOffset;
+    private Map<String, Long> sumOffsets(
+            final Collection<String> topics, final OffsetSpec spec, final String which) {
+        try {
+            final Map<TopicPartition, OffsetSpec> query = new HashMap<>();
+            for (final var description : describeTopics(topics)) {
+                for (final TopicPartitionInfo partitionInfo : description.partitions()) {
+                    query.put(
+                            new TopicPartition(description.name(), partitionInfo.partition()),
+                            spec);
+                }
             }
+            final Map<String, Long> offsets = new HashMap<>();
+            if (query.isEmpty()) {
+                return offsets;
+            }
+            adminClient
+                    .listOffsets(query)
+                    .all()
+                    .get(TIMEOUT, TimeUnit.SECONDS)
+                    .forEach((tp, info) -> offsets.merge(tp.topic(), info.offset(), Long::sum));
+            return offsets;
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            throw new ClientException(
+                    "Failed to get " + which + " offsets for topics:" + topics, e);
+        }
+    }
 
-            return totalVolume;
-        } catch (ExecutionException e) {
-            if (e.toString().contains(UnknownTopicOrPartitionException.class.getName())) {
-                return 0;
-            } else {
-                throw new ClientException("Failed to get topicVolumeOffsets for topic:" + topic, e);
+    private List<TopicDescription> describeTopics(final Collection<String> topics)
+            throws InterruptedException, TimeoutException, ExecutionException {
+        final var futures = adminClient.describeTopics(topics).topicNameValues();
+        final List<TopicDescription> descriptions = new ArrayList<>(futures.size());
+        for (final var future : futures.values()) {
+            try {
+                descriptions.add(future.get(TIMEOUT, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof UnknownTopicOrPartitionException)) {
+                    throw e;
+                }
             }
-        } catch (InterruptedException | TimeoutException e) {
-            throw new ClientException("Failed to get topicVolumeOffsets for topic:" + topic, e);
         }
+        return descriptions;
     }
 }
@@ -17,7 +17,10 @@
 package io.specmesh.kafka.admin;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -37,6 +40,13 @@ public interface SmAdminClient {
      */
     List<ConsumerGroup> groupsForTopicPrefix(String topicPrefix);
 
+    /**
+     * Read all stable consumer groups and their offsets once, for answering many topic queries
+     *
+     * @return the snapshot
+     */
+    ConsumerGroupSnapshot consumerGroupSnapshot();
+
     /**
      * Report the volume of data in bytes for a topic
      *
@@ -60,6 +70,30 @@ public interface SmAdminClient {
      */
     long topicVolumeOffsets(String topic);
 
+    /**
+     * Storage for many topics in a single pass
+     *
+     * @param topics to query against
+     * @return bytes and offsets per topic, partition, broker and log dir
+     */
+    StorageReport storageReport(Collection<String> topics);
+
+    /**
+     * Sum of log-end offsets per topic, a cheap way to see which topics have changed
+     *
+     * @param topics to query against
+     * @return end offset sum keyed by topic, missing topics are left out
+     */
+    Map<String, Long> topicEndOffsets(Collection<String> topics);
+
+    /**
+     * Sum of log-start offsets per topic, which move when retention deletes segments
+     *
+     * @param topics to query against
+     * @return start offset sum keyed by topic, missing topics are left out
+     */
+    Map<String, Long> topicStartOffsets(Collection<String> topics);
+
     static SmAdminClient create(final Admin client) {
         return new SimpleAdminClient(client);
     }
@@ -85,9 +119,29 @@ public interface SmAdminClient {
         private List<Partition> partitions;
         private long offsetTotal;
 
+        /** committed offsets behind log-end, summed over partitions */
+        private long lag;
+
+        private Map<String, Long> lagByTopic;
+
+        /** records per second consumed between two snapshots, when sampled */
+        private Double consumptionRate;
+
+        /** estimated seconds to reach log-end at the sampled rates, null if not converging */
+        private Double catchUpSeconds;
+
         void calculateTotalOffset() {
             partitions.forEach(p -> offsetTotal += p.offset());
         }
+
+        void calculateLag() {
+            lagByTopic = new TreeMap<>();
+            partitions.forEach(
+                    p -> {
+                        lag += p.lag();
+                        lagByTopic.merge(p.topic(), p.lag(), Long::sum);
+                    });
+        }
     }
 
     @Builder
@@ -114,5 +168,10 @@ public interface SmAdminClient {
         @EqualsAndHashCode.Include private int id;
         private String topic;
         private long offset;
+
+        /** log-end offset, -1 if unknown */
+        private long endOffset;
+
+        private long lag;
     }
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.admin;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.apache.kafka.clients.admin.LogDirDescription;
+import org.apache.kafka.clients.admin.ReplicaInfo;
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * Storage for a set of topics, gathered in a single pass: one describeLogDirs across all brokers
+ * and one round of earliest/latest listOffsets. Bytes include replicas and are broken down per
+ * topic, partition, broker and log dir.
+ */
+public final class StorageReport {
+
+    private final Map<String, TopicStorage> topics = new TreeMap<>();
+    private final Map<Integer, Long> brokerCapacity = new TreeMap<>();
+    private final Map<Integer, Long> brokerUsed = new TreeMap<>();
+
+    StorageReport(final Collection<String> topics) {
+        topics.forEach(topic -> this.topics.put(topic, new TopicStorage(topic)));
+    }
+
+    /**
+     * Storage for one topic
+     *
+     * @param topic - name
+     * @return storage, empty if the topic does not exist or was not requested
+     */
+    public TopicStorage topic(final String topic) {
+        return topics.getOrDefault(topic, new TopicStorage(topic));
+    }
+
+    /**
+     * All topics in the report
+     *
+     * @return topic storage keyed by name
+     */
+    public Map<String, TopicStorage> topics() {
+        return Map.copyOf(topics);
+    }
+
+    /**
+     * Total disk capacity per broker, summed over its log dirs, where the broker reports it
+     *
+     * @return capacity in bytes keyed by broker id
+     */
+    public Map<Integer, Long> brokerCapacity() {
+        return Map.copyOf(brokerCapacity);
+    }
+
+    /**
+     * Disk in use per broker, summed over its log dirs, including topics not in the report. Taken
+     * from the log dir's total less usable bytes where the broker reports both, otherwise the size
+     * of every replica in the log dir.
+     *
+     * @return used bytes keyed by broker id
+     */
+    public Map<Integer, Long> brokerUsed() {
+        return Map.copyOf(brokerUsed);
+    }
+
+    void addLogDirs(final int brokerId, final Map<String, LogDirDescription> logDirs) {
+        logDirs.forEach(
+                (path, logDir) -> {
+                    logDir.totalBytes()
+                            .ifPresent(total -> brokerCapacity.merge(brokerId, total, Long::sum));
+                    final long used =
+                            logDir.totalBytes().isPresent() && logDir.usableBytes().isPresent()
+                                    ? logDir.totalBytes().getAsLong()
+                                            - logDir.usableBytes().getAsLong()
+                                    : logDir.replicaInfos().values().stream()
+                                            .mapToLong(ReplicaInfo::size)
+                                            .sum();
+                    brokerUsed.merge(brokerId, used, Long::sum);
+                    logDir.replicaInfos()
+                            .forEach(
+                                    (tp, replica) -> {
+                                        final var storage = topics.get(tp.topic());
+                                        if (storage != null) {
+                                            storage.addReplica(tp, brokerId, path, replica.size());
+                                        }
+                                    });
+                });
+    }
+
+    void addOffsets(final TopicPartition tp, final long earliest, final long latest) {
+        final var storage = topics.get(tp.topic());
+        if (storage != null) {
+            storage.offsetTotal += latest - earliest;
+            storage.endOffsets += latest;
+            storage.startOffsetByPartition.put(tp.partition(), earliest);
+            storage.endOffsetByPartition.put(tp.partition(), latest);
+        }
+    }
+
+    /** Storage for a single topic */
+    @Data
+    @Accessors(fluent = true)
+    @SuppressFBWarnings
+    public static final class TopicStorage {
+        private final String topic;
+        private long bytes;
+        private long offsetTotal;
+
+        /** sum of log-end offsets, only ever grows so gives ingress between reports */
+        private long endOffsets;
+        private final Map<Integer, Long> bytesByPartition = new TreeMap<>();
+        private final Map<Integer, Long> startOffsetByPartition = new TreeMap<>();
+        private final Map<Integer, Long> endOffsetByPartition = new TreeMap<>();
+        private final Map<Integer, Long> bytesByBroker = new TreeMap<>();
+        private final Map<String, Long> bytesByLogDir = new TreeMap<>();
+
+        void addReplica(
+                final TopicPartition tp, final int brokerId, final String path, final long size) {
+            bytes += size;
+            bytesByPartition.merge(tp.partition(), size, Long::sum);
+            bytesByBroker.merge(brokerId, size, Long::sum);
+            bytesByLogDir.merge(brokerId + ":" + path, size, Long::sum);
+        }
+    }
+}
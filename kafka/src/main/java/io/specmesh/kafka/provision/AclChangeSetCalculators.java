@@ -17,9 +17,7 @@
 package io.specmesh.kafka.provision;
 
 import io.specmesh.kafka.provision.AclProvisioner.Acl;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -41,8 +39,7 @@ public class AclChangeSetCalculators {
         @Override
         public Collection<Acl> calculate(
                 final Collection<Acl> existingAcls, final Collection<Acl> requiredAcls) {
-            existingAcls.removeAll(requiredAcls);
-            return existingAcls;
+            return ChangeSetDiff.of(existingAcls, requiredAcls, Acl::name).unspecified();
         }
     }
 
@@ -60,16 +57,14 @@ public class AclChangeSetCalculators {
         public Collection<Acl> calculate(
                 final Collection<Acl> existingAcls, final Collection<Acl> requiredAcls) {
 
+            final var diff = ChangeSetDiff.of(existingAcls, requiredAcls, Acl::name);
             final var createAcls =
-                    requiredAcls.stream()
-                            .filter(neededAcl -> !existingAcls.contains(neededAcl))
+                    diff.missing().stream()
                             .map(neededAcl -> neededAcl.state(Status.STATE.CREATE))
                             .collect(Collectors.toList());
 
-            final var existingAcls1 = new ArrayList<>(existingAcls);
             createAcls.addAll(
-                    requiredAcls.stream()
-                            .filter(neededAcl -> hasChanged(neededAcl, existingAcls1))
+                    diff.changed(CreateOrUpdateCalculator::hasChanged).stream()
                             .map(neededAcl -> neededAcl.state(Status.STATE.UPDATE))
                             .collect(Collectors.toList()));
 
@@ -79,19 +74,12 @@ public class AclChangeSetCalculators {
         /**
          * Is it different?
          *
-         * @param neededAcl - need this one
-         * @param existingAcls - but has this
+         * @param existingAcl - has this
+         * @param neededAcl - but needs this one
          * @return true if it is different
          */
-        private boolean hasChanged(final Acl neededAcl, final List<Acl> existingAcls) {
-            final var indexOfExisting = existingAcls.indexOf(neededAcl);
-            if (indexOfExisting != -1) {
-                return !existingAcls
-                        .get(indexOfExisting)
-                        .aclBinding()
-                        .equals(neededAcl.aclBinding());
-            }
-            return false;
+        private static boolean hasChanged(final Acl existingAcl, final Acl neededAcl) {
+            return !existingAcl.aclBinding().equals(neededAcl.aclBinding());
         }
     }
 
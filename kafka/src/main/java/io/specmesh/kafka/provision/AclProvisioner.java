@@ -76,14 +76,128 @@ public final class AclProvisioner {
             final String userName,
             final Admin adminClient) {
 
-        final var requiredAcls = bindingsToAcls(apiSpec.requiredAcls(userName));
-        final var existing = reader(adminClient).read(apiSpec.id(), requiredAcls);
+        final var requiredAcls = requiredAcls(apiSpec, userName);
+        final var existing = read(apiSpec, requiredAcls, cleanUnspecified, adminClient);
 
-        final var required = calculator(cleanUnspecified).calculate(existing, requiredAcls);
+        final var required = changeSet(cleanUnspecified, existing, requiredAcls);
 
         return writer(dryRun, cleanUnspecified, adminClient).mutate(required);
     }
 
+    /**
+     * Provision acls against acls already read, e.g. from a snapshot shared by many domains
+     *
+     * @param dryRun for mode of operation
+     * @param cleanUnspecified remove unwanted
+     * @param apiSpec respect the spec
+     * @param userName user name
+     * @param adminClient cluster connection
+     * @param existing the domain's acls as read from the cluster
+     * @return status of provisioning
+     */
+    public static Collection<Acl> provision(
+            final boolean dryRun,
+            final boolean cleanUnspecified,
+            final KafkaApiSpec apiSpec,
+            final String userName,
+            final Admin adminClient,
+            final Collection<Acl> existing) {
+        final var required =
+                changeSet(cleanUnspecified, existing, requiredAcls(apiSpec, userName));
+        return writer(dryRun, cleanUnspecified, adminClient).mutate(required);
+    }
+
+    /**
+     * Read the acls relevant to the domain from the cluster
+     *
+     * @param apiSpec respect the spec
+     * @param requiredAcls acls the spec requires, used to scope the read
+     * @param adminClient cluster connection
+     * @return existing acls
+     */
+    public static Collection<Acl> read(
+            final KafkaApiSpec apiSpec,
+            final Collection<Acl> requiredAcls,
+            final Admin adminClient) {
+        return read(apiSpec, requiredAcls, true, adminClient);
+    }
+
+    /**
+     * Read the acls relevant to the domain from the cluster, only looking up the required ones
+     * unless unspecified acls are to be cleaned
+     *
+     * @param apiSpec respect the spec
+     * @param requiredAcls acls the spec requires, used to scope the read
+     * @param cleanUnspecified whether unspecified acls must be read too
+     * @param adminClient cluster connection
+     * @return existing acls
+     */
+    public static Collection<Acl> read(
+            final KafkaApiSpec apiSpec,
+            final Collection<Acl> requiredAcls,
+            final boolean cleanUnspecified,
+            final Admin adminClient) {
+        return reader(cleanUnspecified, adminClient).read(apiSpec.id(), requiredAcls);
+    }
+
+    /**
+     * Calculate the change set without touching the cluster
+     *
+     * @param cleanUnspecified remove unwanted
+     * @param existing acls read from the cluster
+     * @param required acls from the spec
+     * @return acls flagged with the action to take
+     */
+    public static Collection<Acl> changeSet(
+            final boolean cleanUnspecified,
+            final Collection<Acl> existing,
+            final Collection<Acl> required) {
+        return calculator(cleanUnspecified).calculate(existing, required);
+    }
+
+    /**
+     * Apply a previously calculated change set
+     *
+     * @param cleanUnspecified whether the change set removes unwanted acls
+     * @param changeSet acls flagged with the action to take
+     * @param adminClient cluster connection
+     * @return status of provisioning
+     */
+    public static Collection<Acl> apply(
+            final boolean cleanUnspecified,
+            final Collection<Acl> changeSet,
+            final Admin adminClient) {
+        return apply(false, cleanUnspecified, changeSet, adminClient);
+    }
+
+    /**
+     * Apply a previously calculated change set, or only report it on a dry run
+     *
+     * @param dryRun for mode of operation
+     * @param cleanUnspecified whether the change set removes unwanted acls
+     * @param changeSet acls flagged with the action to take
+     * @param adminClient cluster connection
+     * @return status of provisioning
+     */
+    public static Collection<Acl> apply(
+            final boolean dryRun,
+            final boolean cleanUnspecified,
+            final Collection<Acl> changeSet,
+            final Admin adminClient) {
+        return writer(dryRun, cleanUnspecified, adminClient).mutate(changeSet);
+    }
+
+    /**
+     * Acls from the api spec
+     *
+     * @param apiSpec - spec
+     * @param userName - user the domain runs as
+     * @return acls the spec requires
+     */
+    public static Collection<Acl> requiredAcls(final KafkaApiSpec apiSpec, final String userName) {
+        return bindingsToAcls(apiSpec.requiredAcls(userName));
+    }
+
     /**
      * changeset calculator
      *
@@ -97,11 +211,16 @@ public final class AclProvisioner {
     /**
      * acl reader
      *
+     * @param cleanUnspecified - whether unspecified acls must be read
      * @param adminClient - cluster connection
      * @return reader inastance
      */
-    private static AclReaders.AclReader reader(final Admin adminClient) {
-        return AclReaders.AclReaderBuilder.builder().adminClient(adminClient).build();
+    private static AclReaders.AclReader reader(
+            final boolean cleanUnspecified, final Admin adminClient) {
+        return AclReaders.AclReaderBuilder.builder()
+                .adminClient(adminClient)
+                .unspecified(cleanUnspecified)
+                .build();
     }
 
     /**
@@ -19,15 +19,99 @@ package io.specmesh.kafka.provision;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.specmesh.kafka.provision.AclProvisioner.Acl;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.common.acl.AccessControlEntryFilter;
+import org.apache.kafka.common.acl.AclBinding;
 import org.apache.kafka.common.acl.AclBindingFilter;
+import org.apache.kafka.common.acl.AclOperation;
+import org.apache.kafka.common.acl.AclPermissionType;
+import org.apache.kafka.common.resource.PatternType;
+import org.apache.kafka.common.resource.ResourcePattern;
+import org.apache.kafka.common.resource.ResourcePatternFilter;
+import org.apache.kafka.common.resource.ResourceType;
 
 /** AclReaders for reading Acls */
 public class AclReaders {
 
+    private static boolean isSecurityDisabled(final Exception e) {
+        return e.getCause() != null
+                && e.getCause()
+                        .toString()
+                        .contains("org.apache.kafka.common.errors.SecurityDisabledException");
+    }
+
+    /**
+     * Read every ACL in the cluster, e.g. once for a whole mesh
+     *
+     * @param adminClient - cluster connection
+     * @return all bindings, empty if security is disabled
+     * @throws ProvisioningException if the read fails
+     */
+    public static Collection<AclBinding> readAll(final Admin adminClient) {
+        try {
+            return adminClient
+                    .describeAcls(AclBindingFilter.ANY)
+                    .values()
+                    .get(Provisioner.REQUEST_TIMEOUT, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            if (isSecurityDisabled(e)) {
+                return List.of();
+            }
+            throw new ProvisioningException("Failed to read ACLs", e);
+        }
+    }
+
+    /**
+     * Pick the ACLs of a full scan that belong to a domain: those whose resource name contains
+     * the prefix, plus any required by the spec, e.g. CLUSTER acls
+     *
+     * @param allAcls - every ACL in the cluster
+     * @param prefixPattern - domain prefix
+     * @param specAclsBindingsNeeded - acls the spec requires
+     * @return existing ACLs with status set to READ
+     */
+    public static Collection<Acl> select(
+            final Collection<AclBinding> allAcls,
+            final String prefixPattern,
+            final Collection<Acl> specAclsBindingsNeeded) {
+        // will include ACLs that may have been removed
+        final var existingAclsSuperSet =
+                allAcls.stream()
+                        .filter(
+                                aclBinding ->
+                                        aclBinding
+                                                .toFilter()
+                                                .patternFilter()
+                                                .name()
+                                                .contains(prefixPattern))
+                        .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        // now look for any in the spec that didnt get discovered in the 'filtering' - will
+        // be 'CLUSTER' type
+        final var aclNeededAsStringSet =
+                specAclsBindingsNeeded.stream()
+                        .map(acl -> acl.aclBinding().toString())
+                        .collect(Collectors.toSet());
+        allAcls.stream()
+                .filter(anAcl -> aclNeededAsStringSet.contains(anAcl.toString()))
+                .forEach(existingAclsSuperSet::add);
+
+        return existingAclsSuperSet.stream()
+                .map(
+                        aclBinding ->
+                                Acl.builder()
+                                        .name(aclBinding.toString())
+                                        .aclBinding(aclBinding)
+                                        .state(Status.STATE.READ)
+                                        .build())
+                .collect(Collectors.toList());
+    }
+
     /** Read Acls for given prefix */
     public static final class SimpleAclReader implements AclReader {
 
@@ -51,61 +135,136 @@ public class AclReaders {
         @Override
         public Collection<Acl> read(
                 final String prefixPattern, final Collection<Acl> specAclsBindingsNeeded) {
+            // crappy admin client for reading 'ALL' ACLs to pickup removed ACLs
+            return select(readAll(adminClient), prefixPattern, specAclsBindingsNeeded);
+        }
+    }
+
+    /**
+     * Read Acls for given prefix with filters rather than fetching every ACL in the cluster.
+     *
+     * <p>Without clean unspecified only the required bindings matter, so the filters are built
+     * from them and what is fetched scales with the domain:
+     *
+     * <ul>
+     *   <li>an exact pattern filter for each required resource pattern, literal or prefixed
+     *   <li>a prefixed filter on the domain prefix for each resource type a domain can own:
+     *       topics, groups and transactional ids
+     *   <li>a principal filter for the domain's own principal, the one granted the required
+     *       CLUSTER bindings
+     * </ul>
+     *
+     * <p>When cleaning unspecified ACLs every binding under the prefix must be seen, whoever it is
+     * granted to. Kafka can not filter server side on a name prefix, so then one ANY pattern
+     * filter is sent per domain resource type, plus an exact filter for each required CLUSTER
+     * binding, and the domain's bindings are narrowed client side.
+     *
+     * <p>Either way the filters are sent together and the results selected as for a full scan,
+     * see {@link #select(Collection, String, Collection)}.
+     */
+    public static final class FilteredAclReader implements AclReader {
+
+        private static final List<ResourceType> DOMAIN_RESOURCE_TYPES =
+                List.of(ResourceType.TOPIC, ResourceType.GROUP, ResourceType.TRANSACTIONAL_ID);
 
+        private final Admin adminClient;
+        private final boolean cleanUnspecified;
+
+        /**
+         * defensive
+         *
+         * @param adminClient - cluster connection
+         * @param cleanUnspecified - whether unspecified acls must be found
+         */
+        private FilteredAclReader(final Admin adminClient, final boolean cleanUnspecified) {
+            this.adminClient = adminClient;
+            this.cleanUnspecified = cleanUnspecified;
+        }
+
+        /**
+         * Read set of acls that exist for this Spec (and those that dont) - i.e. removed
+         *
+         * @param prefixPattern domain prefix
+         * @param specAclsBindingsNeeded to filter against
+         * @return existing ACLs with status set to READ
+         */
+        @Override
+        public Collection<Acl> read(
+                final String prefixPattern, final Collection<Acl> specAclsBindingsNeeded) {
             try {
-                // crappy admin client for reading 'ALL' ACLs to pickup removed ACLs
-                final var allAcls =
-                        adminClient
-                                .describeAcls(AclBindingFilter.ANY)
-                                .values()
-                                .get(Provisioner.REQUEST_TIMEOUT, TimeUnit.SECONDS);
-
-                // will include ACLs that may have been removed
-                final var existingAclsSuperSet =
-                        allAcls.stream()
-                                .filter(
-                                        aclBinding ->
-                                                aclBinding
-                                                        .toFilter()
-                                                        .patternFilter()
-                                                        .name()
-                                                        .contains(prefixPattern))
-                                .collect(Collectors.toSet());
-
-                // now look for any in the spec that didnt get discovered in the 'filtering' - will
-                // be 'CLUSTER' type
-                final var aclNeededAsStringSet =
-                        specAclsBindingsNeeded.stream()
-                                .map(acl -> acl.aclBinding().toString())
-                                .collect(Collectors.toSet());
-                final var allAclsSpecifiedAndFound =
-                        allAcls.stream()
-                                .filter(anAcl -> aclNeededAsStringSet.contains(anAcl.toString()))
+                final var results =
+                        filters(prefixPattern, specAclsBindingsNeeded, cleanUnspecified).stream()
+                                .map(filter -> adminClient.describeAcls(filter).values())
                                 .collect(Collectors.toList());
 
-                // add them  to the list
-                existingAclsSuperSet.addAll(allAclsSpecifiedAndFound);
-
-                return existingAclsSuperSet.stream()
-                        .map(
-                                aclBinding ->
-                                        Acl.builder()
-                                                .name(aclBinding.toString())
-                                                .aclBinding(aclBinding)
-                                                .state(Status.STATE.READ)
-                                                .build())
-                        .collect(Collectors.toList());
+                final var found = new LinkedHashSet<AclBinding>();
+                for (final var result : results) {
+                    found.addAll(result.get(Provisioner.REQUEST_TIMEOUT, TimeUnit.SECONDS));
+                }
+                return select(found, prefixPattern, specAclsBindingsNeeded);
             } catch (Exception e) {
-                if (e.getCause() != null
-                        && e.getCause()
-                                .toString()
-                                .contains(
-                                        "org.apache.kafka.common.errors.SecurityDisabledException")) {
+                if (isSecurityDisabled(e)) {
                     return List.of();
                 }
                 throw new ProvisioningException("Failed to read ACLs", e);
             }
         }
+
+        /**
+         * Build the filters
+         *
+         * @param prefixPattern domain prefix
+         * @param required required acls
+         * @param cleanUnspecified whether unspecified acls must be found
+         * @return distinct filters
+         */
+        static Set<AclBindingFilter> filters(
+                final String prefixPattern,
+                final Collection<Acl> required,
+                final boolean cleanUnspecified) {
+            final var filters = new LinkedHashSet<AclBindingFilter>();
+            final var patterns =
+                    required.stream()
+                            .map(acl -> acl.aclBinding().pattern())
+                            .collect(Collectors.toCollection(LinkedHashSet::new));
+            if (cleanUnspecified) {
+                DOMAIN_RESOURCE_TYPES.forEach(
+                        type ->
+                                filters.add(
+                                        new AclBindingFilter(
+                                                new ResourcePatternFilter(
+                                                        type, null, PatternType.ANY),
+                                                AccessControlEntryFilter.ANY)));
+                patterns.removeIf(pattern -> pattern.resourceType() != ResourceType.CLUSTER);
+            } else {
+                DOMAIN_RESOURCE_TYPES.forEach(
+                        type ->
+                                patterns.add(
+                                        new ResourcePattern(
+                                                type, prefixPattern, PatternType.PREFIXED)));
+                required.stream()
+                        .map(Acl::aclBinding)
+                        .filter(binding -> binding.pattern().resourceType() == ResourceType.CLUSTER)
+                        .map(binding -> binding.entry().principal())
+                        .distinct()
+                        .forEach(
+                                principal ->
+                                        filters.add(
+                                                new AclBindingFilter(
+                                                        ResourcePatternFilter.ANY,
+                                                        new AccessControlEntryFilter(
+                                                                principal,
+                                                                null,
+                                                                AclOperation.ANY,
+                                                                AclPermissionType.ANY))));
+            }
+            patterns.forEach(
+                    pattern ->
+                            filters.add(
+                                    new AclBindingFilter(
+                                            pattern.toFilter(), AccessControlEntryFilter.ANY)));
+            return filters;
+        }
     }
 
     /** Read Acls API */
@@ -126,6 +285,8 @@ public class AclReaders {
             justification = "adminClient() passed as param to prevent API pollution")
     public static final class AclReaderBuilder {
         private Admin adminClient;
+        private boolean fullScan;
+        private boolean unspecified = true;
 
         /** defensive */
         private AclReaderBuilder() {}
@@ -150,13 +311,39 @@ public class AclReaders {
             return this;
         }
 
+        /**
+         * read every ACL in the cluster and filter client side
+         *
+         * @param fullScan - true to scan all ACLs
+         * @return builder
+         */
+        public AclReaderBuilder fullScan(final boolean fullScan) {
+            this.fullScan = fullScan;
+            return this;
+        }
+
+        /**
+         * whether unspecified acls must be read so they can be cleaned, otherwise only the
+         * required bindings are looked up
+         *
+         * @param unspecified - true when cleaning unspecified acls, the default
+         * @return builder
+         */
+        public AclReaderBuilder unspecified(final boolean unspecified) {
+            this.unspecified = unspecified;
+            return this;
+        }
+
         /**
          * build it
          *
          * @return the specified reader impl
          */
         public AclReader build() {
-            return new SimpleAclReader(adminClient);
+            if (fullScan) {
+                return new SimpleAclReader(adminClient);
+            }
+            return new FilteredAclReader(adminClient, unspecified);
         }
     }
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision;
+
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.specmesh.kafka.provision.AclProvisioner.Acl;
+import io.specmesh.kafka.provision.TopicProvisioner.Topic;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner.Schema;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.common.acl.AclBinding;
+
+/**
+ * Topics, ACLs and subjects for a set of domains, read once: one listTopics with one
+ * describeTopics and describeConfigs for every matching topic, one full describeAcls, and one
+ * subject listing with a shared fetch pool. Each domain then takes its own view, so N domains cost
+ * one cluster and registry read rather than N.
+ *
+ * <p>Views are copies, so a domain's change set calculation can not disturb another's.
+ */
+public final class ClusterSnapshot {
+
+    private static final int READS = 3;
+
+    private final Collection<Topic> topics;
+    private final Collection<AclBinding> acls;
+    private final Collection<Schema> schemas;
+
+    private ClusterSnapshot(
+            final Collection<Topic> topics,
+            final Collection<AclBinding> acls,
+            final Collection<Schema> schemas) {
+        this.topics = List.copyOf(topics);
+        this.acls = acls == null ? null : List.copyOf(acls);
+        this.schemas = schemas == null ? null : List.copyOf(schemas);
+    }
+
+    /**
+     * Read the snapshot, the three reads running concurrently
+     *
+     * @param adminClient - cluster connection
+     * @param srClient - registry connection, null to skip schemas
+     * @param domainIds - domains to read for, used as topic and subject prefixes
+     * @param readAcls - false to skip acls
+     * @return snapshot
+     * @throws ProvisioningException if any read fails
+     */
+    public static ClusterSnapshot read(
+            final Admin adminClient,
+            final SchemaRegistryClient srClient,
+            final Collection<String> domainIds,
+            final boolean readAcls) {
+        final var graph = new TaskGraph("snapshot", READS);
+        final var topics =
+                graph.add(
+                        "topics",
+                        () ->
+                                TopicReaders.TopicsReaderBuilder.builder(adminClient, domainIds)
+                                        .build()
+                                        .readall());
+        final var acls = readAcls ? graph.add("acls", () -> AclReaders.readAll(adminClient)) : null;
+        final var schemas =
+                srClient == null
+                        ? null
+                        : graph.add("schemas", () -> SchemaProvisioner.read(domainIds, srClient));
+        graph.run();
+
+        return new ClusterSnapshot(
+                topics.result(),
+                acls == null ? null : acls.result(),
+                schemas == null ? null : schemas.result());
+    }
+
+    /**
+     * The domain's topics
+     *
+     * @param domainId - domain
+     * @return copies of the topics whose name starts with the domain id
+     */
+    public List<Topic> topics(final String domainId) {
+        return topics.stream()
+                .filter(topic -> topic.name().startsWith(domainId))
+                .map(
+                        topic ->
+                                Topic.builder()
+                                        .name(topic.name())
+                                        .state(topic.state())
+                                        .partitions(topic.partitions())
+                                        .replication(topic.replication())
+                                        .config(topic.config())
+                                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The domain's acls, selected as a full scan would
+     *
+     * @param domainId - domain
+     * @param required - acls the domain's spec requires
+     * @return acls in READ state
+     * @throws IllegalStateException if acls were not read
+     */
+    public Collection<Acl> acls(final String domainId, final Collection<Acl> required) {
+        if (acls == null) {
+            throw new IllegalStateException("ACLs were not read");
+        }
+        return AclReaders.select(acls, domainId, required);
+    }
+
+    /**
+     * The domain's subjects
+     *
+     * @param domainId - domain
+     * @return copies of the schemas whose subject starts with the domain id
+     * @throws IllegalStateException if schemas were not read
+     */
+    public List<Schema> schemas(final String domainId) {
+        if (schemas == null) {
+            throw new IllegalStateException("Schemas were not read");
+        }
+        return schemas.stream()
+                .filter(schema -> schema.subject().startsWith(domainId))
+                .map(
+                        schema -> {
+                            final var copy =
+                                    Schema.builder()
+                                            .subject(schema.subject())
+                                            .type(schema.type())
+                                            .state(schema.state())
+                                            .schemas(schema.schemas())
+                                            .messages(schema.messages())
+                                            .build();
+                            return schema.exception() == null
+                                    ? copy
+                                    : copy.exception(schema.exception());
+                        })
+                .collect(Collectors.toList());
+    }
+}
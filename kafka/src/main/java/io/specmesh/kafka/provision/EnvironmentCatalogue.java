@@ -0,0 +1,158 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import lombok.Builder;
+import lombok.Data;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+/**
+ * The clusters a spec can be provisioned into, keyed by the environment names used in a channel's
+ * kafka binding {@code envs}. Loaded from properties in the same style as {@code
+ * provision.properties}, one group per environment:
+ *
+ * <pre>
+ * env.staging.bootstrap-server=staging:9092
+ * env.staging.schema-registry=http://staging:8081
+ * env.staging.sr-api-key=...
+ * env.staging.sr-api-secret=...
+ * env.staging.username=...
+ * env.staging.secret=...
+ * </pre>
+ */
+public final class EnvironmentCatalogue {
+
+    private static final String PREFIX = "env.";
+
+    private final Map<String, Environment> environments;
+
+    private EnvironmentCatalogue(final Map<String, Environment> environments) {
+        this.environments = Collections.unmodifiableMap(new TreeMap<>(environments));
+    }
+
+    /**
+     * Load the catalogue from a properties file
+     *
+     * @param path properties file
+     * @return the catalogue
+     * @throws ProvisioningException if the file can not be read
+     */
+    public static EnvironmentCatalogue load(final Path path) {
+        final var properties = new Properties();
+        try (InputStream in = Files.newInputStream(path)) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new ProvisioningException("Failed to read environments:" + path, e);
+        }
+        return of(properties);
+    }
+
+    /**
+     * Build the catalogue from properties
+     *
+     * @param properties {@code env.<name>.<key>} entries, others are ignored
+     * @return the catalogue
+     * @throws ProvisioningException on an unknown key or an env without a bootstrap server
+     */
+    public static EnvironmentCatalogue of(final Properties properties) {
+        final Map<String, Environment.EnvironmentBuilder> builders = new TreeMap<>();
+        for (final String property : properties.stringPropertyNames()) {
+            final int split = property.lastIndexOf('.');
+            if (!property.startsWith(PREFIX) || split <= PREFIX.length()) {
+                continue;
+            }
+            final var name = property.substring(PREFIX.length(), split);
+            final var value = properties.getProperty(property);
+            final var builder =
+                    builders.computeIfAbsent(name, n -> Environment.builder().name(n));
+            switch (property.substring(split + 1)) {
+                case "bootstrap-server":
+                    builder.brokerUrl(value);
+                    break;
+                case "schema-registry":
+                    builder.schemaRegistryUrl(value);
+                    break;
+                case "sr-api-key":
+                    builder.srApiKey(value);
+                    break;
+                case "sr-api-secret":
+                    builder.srApiSecret(value);
+                    break;
+                case "username":
+                    builder.username(value);
+                    break;
+                case "secret":
+                    builder.secret(value);
+                    break;
+                default:
+                    throw new ProvisioningException("Unknown environment property:" + property);
+            }
+        }
+
+        final Map<String, Environment> environments = new TreeMap<>();
+        builders.forEach(
+                (name, builder) -> {
+                    final var env = builder.build();
+                    if (env.brokerUrl().isBlank()) {
+                        throw new ProvisioningException(
+                                "Environment has no bootstrap-server:" + name);
+                    }
+                    environments.put(name, env);
+                });
+        return new EnvironmentCatalogue(environments);
+    }
+
+    /**
+     * @param name environment name
+     * @return the environment, if catalogued
+     */
+    public Optional<Environment> get(final String name) {
+        return Optional.ofNullable(environments.get(name));
+    }
+
+    /**
+     * @return catalogued environment names
+     */
+    public Set<String> names() {
+        return environments.keySet();
+    }
+
+    /** Connection details for one environment's cluster and schema registry */
+    @Builder
+    @Data
+    @Accessors(fluent = true)
+    public static final class Environment {
+        private final String name;
+        @Builder.Default private final String brokerUrl = "";
+        @Builder.Default private final String schemaRegistryUrl = "";
+        private final String srApiKey;
+        @ToString.Exclude private final String srApiSecret;
+        private final String username;
+        @ToString.Exclude private final String secret;
+    }
+}
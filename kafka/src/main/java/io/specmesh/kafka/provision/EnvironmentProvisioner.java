@@ -0,0 +1,172 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision;
+
+import com.google.common.annotations.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.specmesh.kafka.KafkaApiSpec;
+import io.specmesh.kafka.provision.EnvironmentCatalogue.Environment;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner;
+import io.specmesh.kafka.provision.schema.SchemaWorkspace;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+/**
+ * Provisions one spec into every environment it names, concurrently. Each environment gets the
+ * spec filtered to the channels whose kafka binding lists it (or lists no envs at all), and its
+ * connection details from the {@link EnvironmentCatalogue}. Environments succeed or fail on their
+ * own, so promoting a domain is one operation with a {@link Status} per environment.
+ */
+@Getter
+@Accessors(fluent = true)
+@Builder
+@SuppressFBWarnings
+public final class EnvironmentProvisioner {
+
+    /** Environments provisioned at once */
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private EnvironmentCatalogue catalogue;
+    @Builder.Default private String specPath = "";
+    private KafkaApiSpec apiSpec;
+    private String schemaPath;
+    @Builder.Default private String domainUserAlias = "";
+
+    /**
+     * environments to provision, defaults to every environment the spec names, or every
+     * catalogued environment if it names none
+     */
+    @Builder.Default private List<String> envs = List.of();
+
+    private boolean srDisabled;
+    private boolean aclDisabled;
+    private boolean dryRun;
+    private boolean cleanUnspecified;
+    @Builder.Default private int parallelism = DEFAULT_PARALLELISM;
+
+    /**
+     * Provision every target environment
+     *
+     * @return status keyed by environment name
+     */
+    public Map<String, Status> provision() {
+        return provision(Provisioner::provision);
+    }
+
+    @VisibleForTesting
+    Map<String, Status> provision(final Function<Provisioner, Status> runner) {
+        if (catalogue == null) {
+            throw new IllegalStateException("Please set the environment catalogue");
+        }
+        if (apiSpec == null) {
+            apiSpec =
+                    KafkaApiSpec.loadFromClassPath(
+                            specPath, EnvironmentProvisioner.class.getClassLoader());
+        }
+
+        final Set<String> targets = targets();
+        // environments share the spec's schemas, so parse them once for the run
+        final var workspace = SchemaProvisioner.workspace(schemaPath);
+        final var threads = new AtomicInteger();
+        final ExecutorService executor =
+                Executors.newFixedThreadPool(
+                        Math.max(1, Math.min(parallelism, targets.size())),
+                        runnable -> {
+                            final var thread =
+                                    new Thread(
+                                            runnable,
+                                            "env-provision-" + threads.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        try {
+            final Map<String, CompletableFuture<Status>> running = new TreeMap<>();
+            targets.forEach(
+                    env ->
+                            running.put(
+                                    env,
+                                    CompletableFuture.supplyAsync(
+                                            () -> provision(env, workspace, runner),
+                                            executor)));
+            final Map<String, Status> results = new TreeMap<>();
+            running.forEach((env, status) -> results.put(env, status.join()));
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Set<String> targets() {
+        if (!envs.isEmpty()) {
+            return new TreeSet<>(envs);
+        }
+        final Set<String> named = apiSpec.apiSpec().environments();
+        final Set<String> targets = named.isEmpty() ? catalogue.names() : named;
+        if (targets.isEmpty()) {
+            throw new IllegalStateException(
+                    "No environments to provision: none are set, named by the spec or catalogued");
+        }
+        return targets;
+    }
+
+    private Status provision(
+            final String env,
+            final SchemaWorkspace workspace,
+            final Function<Provisioner, Status> runner) {
+        try {
+            final Environment target =
+                    catalogue
+                            .get(env)
+                            .orElseThrow(
+                                    () ->
+                                            new ProvisioningException(
+                                                    "Environment is not catalogued:" + env));
+            return runner.apply(
+                    Provisioner.builder()
+                            .apiSpec(apiSpec.forEnvironment(env))
+                            .schemaPath(schemaPath)
+                            .schemaWorkspace(workspace)
+                            .domainUserAlias(domainUserAlias)
+                            .brokerUrl(target.brokerUrl())
+                            .username(target.username())
+                            .secret(target.secret())
+                            .srDisabled(srDisabled)
+                            .schemaRegistryUrl(target.schemaRegistryUrl())
+                            .srApiKey(target.srApiKey())
+                            .srApiSecret(target.srApiSecret())
+                            .aclDisabled(aclDisabled)
+                            .dryRun(dryRun)
+                            .cleanUnspecified(cleanUnspecified)
+                            .build());
+        } catch (Exception e) {
+            return Status.builder()
+                    .exception(new ProvisioningException("Failed to provision env:" + env, e))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.specmesh.kafka.Clients;
+import io.specmesh.kafka.KafkaApiSpec;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner;
+import io.specmesh.kafka.provision.schema.SchemaWorkspace;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import org.apache.kafka.clients.admin.Admin;
+
+/**
+ * Provisions every spec in a directory as one run: specs are loaded in parallel, the cluster and
+ * registry are read once into a {@link ClusterSnapshot}, and each domain's change set is
+ * calculated against its view of the snapshot and applied concurrently. A domain that fails,
+ * including one whose spec does not load, is reported in its own {@link Status} and does not stop
+ * the others.
+ */
+@Getter
+@Accessors(fluent = true)
+@Builder
+@SuppressFBWarnings
+public final class MeshProvisioner {
+
+    /** Domains provisioned at once */
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    @Builder.Default private String specDir = "";
+    @Builder.Default private String brokerUrl = "";
+    private boolean srDisabled;
+    private boolean aclDisabled;
+    @Builder.Default private String schemaRegistryUrl = "";
+    private String srApiKey;
+    private String srApiSecret;
+    private SchemaRegistryClient schemaRegistryClient;
+
+    /** defaults to the spec dir */
+    private String schemaPath;
+
+    private String username;
+    private String secret;
+    private Admin adminClient;
+    private boolean dryRun;
+    private boolean cleanUnspecified;
+    @Builder.Default private int parallelism = DEFAULT_PARALLELISM;
+
+    /**
+     * Provision the mesh
+     *
+     * @return status keyed by domain id, or by spec file name for specs that failed to load
+     */
+    public Map<String, Status> provision() {
+        if (specDir.isBlank()) {
+            throw new IllegalStateException("Please set the spec directory");
+        }
+        final boolean closeAdmin = adminClient == null;
+        final boolean closeSr = !srDisabled && schemaRegistryClient == null;
+        final var threads = new AtomicInteger();
+        final ExecutorService executor =
+                Executors.newFixedThreadPool(
+                        Math.max(1, parallelism),
+                        runnable -> {
+                            final var thread =
+                                    new Thread(
+                                            runnable,
+                                            "mesh-provision-" + threads.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        try {
+            final Map<String, Status> results = new TreeMap<>();
+            final Map<String, KafkaApiSpec> specs = new TreeMap<>();
+            loadSpecs(executor)
+                    .forEach(
+                            (file, loaded) -> {
+                                if (loaded.spec != null) {
+                                    specs.put(loaded.spec.id(), loaded.spec);
+                                } else {
+                                    results.put(
+                                            file, Status.builder().exception(loaded.error).build());
+                                }
+                            });
+            if (specs.isEmpty()) {
+                return results;
+            }
+
+            ensureClients();
+            final var snapshot =
+                    ClusterSnapshot.read(
+                            adminClient,
+                            srDisabled ? null : schemaRegistryClient,
+                            specs.keySet(),
+                            !aclDisabled);
+            // one workspace for the run, so schemas shared by domains are parsed once
+            final var workspace =
+                    SchemaProvisioner.workspace(schemaPath == null ? specDir : schemaPath);
+
+            final Map<String, CompletableFuture<Status>> running = new TreeMap<>();
+            specs.forEach(
+                    (id, spec) ->
+                            running.put(
+                                    id,
+                                    CompletableFuture.supplyAsync(
+                                            () -> provision(spec, snapshot, workspace),
+                                            executor)));
+            running.forEach((id, status) -> results.put(id, status.join()));
+            return results;
+        } finally {
+            executor.shutdownNow();
+            if (closeAdmin && adminClient != null) {
+                adminClient.close();
+                adminClient = null;
+            }
+            if (closeSr && schemaRegistryClient != null) {
+                try {
+                    schemaRegistryClient.close();
+                } catch (IOException e) {
+                    e.printStackTrace(System.err);
+                }
+                schemaRegistryClient = null;
+            }
+        }
+    }
+
+    private Status provision(
+            final KafkaApiSpec spec,
+            final ClusterSnapshot snapshot,
+            final SchemaWorkspace workspace) {
+        final var id = spec.id();
+        try {
+            spec.apiSpec().validate();
+            final var status =
+                    Status.builder()
+                            .topics(
+                                    TopicProvisioner.provision(
+                                            dryRun,
+                                            cleanUnspecified,
+                                            spec,
+                                            adminClient,
+                                            snapshot.topics(id)));
+            if (!srDisabled) {
+                status.schemas(
+                        SchemaProvisioner.provision(
+                                dryRun,
+                                cleanUnspecified,
+                                spec,
+                                workspace,
+                                schemaRegistryClient,
+                                snapshot.schemas(id)));
+            }
+            if (!aclDisabled) {
+                status.acls(
+                        AclProvisioner.provision(
+                                dryRun,
+                                cleanUnspecified,
+                                spec,
+                                id,
+                                adminClient,
+                                snapshot.acls(id, AclProvisioner.requiredAcls(spec, id))));
+            }
+            return status.build();
+        } catch (Exception e) {
+            return Status.builder()
+                    .exception(new ProvisioningException("Failed to provision:" + id, e))
+                    .build();
+        }
+    }
+
+    private Map<String, Loaded> loadSpecs(final ExecutorService executor) {
+        final List<Path> files;
+        try (Stream<Path> listing = Files.list(Paths.get(specDir))) {
+            files =
+                    listing.filter(Files::isRegularFile)
+                            .filter(
+                                    file ->
+                                            file.toString().endsWith(".yaml")
+                                                    || file.toString().endsWith(".yml"))
+                            .sorted()
+                            .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new ProvisioningException("Failed to list specs in:" + specDir, e);
+        }
+
+        final Map<String, CompletableFuture<Loaded>> loading = new TreeMap<>();
+        files.forEach(
+                file ->
+                        loading.put(
+                                file.getFileName().toString(),
+                                CompletableFuture.supplyAsync(() -> load(file), executor)));
+        final Map<String, Loaded> loaded = new TreeMap<>();
+        loading.forEach((file, future) -> loaded.put(file, future.join()));
+        return loaded;
+    }
+
+    private static Loaded load(final Path file) {
+        try {
+            return new Loaded(KafkaApiSpec.loadFromFileSystem(file.toString()), null);
+        } catch (Exception e) {
+            return new Loaded(null, e);
+        }
+    }
+
+    private void ensureClients() {
+        if (adminClient == null) {
+            if (brokerUrl.isBlank()) {
+                throw new IllegalStateException("Please set a broker url");
+            }
+            adminClient = Clients.adminClient(brokerUrl, username, secret);
+        }
+        if (!srDisabled && schemaRegistryClient == null) {
+            if (schemaRegistryUrl.isBlank()) {
+                throw new IllegalStateException("Please set a schema registry url");
+            }
+            schemaRegistryClient =
+                    Clients.schemaRegistryClient(schemaRegistryUrl, srApiKey, srApiSecret);
+        }
+    }
+
+    /** A spec, or why it failed to load */
+    private static final class Loaded {
+        private final KafkaApiSpec spec;
+        private final Exception error;
+
+        Loaded(final KafkaApiSpec spec, final Exception error) {
+            this.spec = spec;
+            this.error = error;
+        }
+    }
+}
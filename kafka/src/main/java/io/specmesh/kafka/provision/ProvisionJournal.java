@@ -0,0 +1,454 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.specmesh.kafka.provision.AclProvisioner.Acl;
+import io.specmesh.kafka.provision.ProvisionPlan.AclStep;
+import io.specmesh.kafka.provision.ProvisionPlan.SchemaStep;
+import io.specmesh.kafka.provision.ProvisionPlan.TopicStep;
+import io.specmesh.kafka.provision.TopicProvisioner.Topic;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner.Schema;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * Append-only record of the mutations a provision run intends to make and those it completed, one
+ * JSON entry per line.
+ *
+ * <p>Every change is written as an INTENT before the phase that applies it starts, and as DONE once
+ * the mutator reports it created, updated or deleted; topic creates are marked DONE as each
+ * createTopics chunk completes, rather than when the whole phase ends. Entries are buffered and
+ * fsynced every {@code syncEvery} lines and at the end of each call, so a change set of thousands
+ * of topics costs a handful of syncs rather than one per topic. After a crash, {@link
+ * #resume(Path, int)} reloads the file and {@link #outstandingTopics()} and friends return the
+ * intents that never completed. Failed mutations are not marked DONE, so they are retried on
+ * resume as well.
+ */
+@SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "steps are copied on read")
+public final class ProvisionJournal implements AutoCloseable {
+
+    /** Lines written between fsyncs */
+    public static final int DEFAULT_SYNC_EVERY = 500;
+
+    static final String TOPIC = "topic";
+    static final String ACL = "acl";
+    static final String SCHEMA = "schema";
+
+    private static final Set<Status.STATE> COMPLETE =
+            Set.of(Status.STATE.CREATED, Status.STATE.UPDATED, Status.STATE.DELETED);
+
+    private static final ObjectMapper MAPPER =
+            new ObjectMapper()
+                    .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                    .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                    .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int syncEvery;
+    private final String domainId;
+    private final boolean cleanUnspecified;
+    private final Map<String, Entry> outstanding = new LinkedHashMap<>();
+    private final StringBuilder pending = new StringBuilder();
+    private int unsynced;
+
+    private ProvisionJournal(
+            final Path path,
+            final FileChannel channel,
+            final int syncEvery,
+            final String domainId,
+            final boolean cleanUnspecified) {
+        this.path = path;
+        this.channel = channel;
+        this.syncEvery = Math.max(1, syncEvery);
+        this.domainId = domainId;
+        this.cleanUnspecified = cleanUnspecified;
+    }
+
+    /**
+     * Start a new journal, replacing any existing file
+     *
+     * @param path - journal file
+     * @param domainId - the spec being provisioned
+     * @param cleanUnspecified - whether the run removes unspecified resources
+     * @param syncEvery - lines written between fsyncs
+     * @return the journal
+     * @throws ProvisioningException if the file can not be created
+     */
+    public static ProvisionJournal create(
+            final Path path,
+            final String domainId,
+            final boolean cleanUnspecified,
+            final int syncEvery) {
+        try {
+            final var channel =
+                    FileChannel.open(
+                            path,
+                            StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE,
+                            StandardOpenOption.TRUNCATE_EXISTING);
+            final var journal =
+                    new ProvisionJournal(path, channel, syncEvery, domainId, cleanUnspecified);
+            journal.append(new Entry(Entry.BEGIN, null, domainId, cleanUnspecified, null, null));
+            journal.sync();
+            return journal;
+        } catch (IOException e) {
+            throw new ProvisioningException("Failed to create journal:" + path, e);
+        }
+    }
+
+    /**
+     * Reopen a journal left by an earlier run, to replay what it did not complete
+     *
+     * @param path - journal file
+     * @param syncEvery - lines written between fsyncs
+     * @return the journal, positioned to append
+     * @throws ProvisioningException if the file can not be read
+     */
+    public static ProvisionJournal resume(final Path path, final int syncEvery) {
+        return open(path, syncEvery, true);
+    }
+
+    /**
+     * Read a journal left by an earlier run without changing the file, e.g. for a dry run. The
+     * journal can not record anything.
+     *
+     * @param path - journal file
+     * @return the journal
+     * @throws ProvisioningException if the file can not be read
+     */
+    public static ProvisionJournal read(final Path path) {
+        return open(path, DEFAULT_SYNC_EVERY, false);
+    }
+
+    private static ProvisionJournal open(
+            final Path path, final int syncEvery, final boolean writable) {
+        try {
+            final var bytes = Files.readAllBytes(path);
+            // a crashed run may leave a partially written last line, drop it
+            int complete = bytes.length;
+            while (complete > 0 && bytes[complete - 1] != '\n') {
+                complete--;
+            }
+            final var lines =
+                    new String(bytes, 0, complete, StandardCharsets.UTF_8).split("\n");
+            final var begin = MAPPER.readValue(lines[0], Entry.class);
+            if (!Entry.BEGIN.equals(begin.type)) {
+                throw new ProvisioningException("Not a provision journal:" + path);
+            }
+            final var channel =
+                    FileChannel.open(
+                            path, writable ? StandardOpenOption.WRITE : StandardOpenOption.READ);
+            if (writable) {
+                channel.truncate(complete);
+                channel.position(complete);
+            }
+            final var journal =
+                    new ProvisionJournal(
+                            path, channel, syncEvery, begin.key, begin.cleanUnspecified);
+            for (int i = 1; i < lines.length; i++) {
+                if (!lines[i].isBlank()) {
+                    journal.replay(MAPPER.readValue(lines[i], Entry.class));
+                }
+            }
+            return journal;
+        } catch (IOException e) {
+            throw new ProvisioningException("Failed to read journal:" + path, e);
+        }
+    }
+
+    /**
+     * The spec this journal was started for
+     *
+     * @return domain id
+     */
+    public String domainId() {
+        return domainId;
+    }
+
+    /**
+     * Whether the journalled run removes unspecified resources
+     *
+     * @return flag
+     */
+    public boolean cleanUnspecified() {
+        return cleanUnspecified;
+    }
+
+    /**
+     * Record topic changes about to be applied
+     *
+     * @param changeSet - topics flagged with the action to take
+     */
+    public synchronized void intendTopics(final Collection<Topic> changeSet) {
+        changeSet.forEach(
+                topic ->
+                        append(Entry.intent(TOPIC, topic.name(), TopicStep.of(topic), null, null)));
+        sync();
+    }
+
+    /**
+     * Record acl changes about to be applied
+     *
+     * @param changeSet - acls flagged with the action to take
+     */
+    public synchronized void intendAcls(final Collection<Acl> changeSet) {
+        changeSet.forEach(
+                acl -> append(Entry.intent(ACL, acl.name(), null, AclStep.of(acl), null)));
+        sync();
+    }
+
+    /**
+     * Record schema changes about to be applied
+     *
+     * @param changeSet - schemas flagged with the action to take
+     */
+    public synchronized void intendSchemas(final Collection<Schema> changeSet) {
+        changeSet.forEach(
+                schema ->
+                        append(
+                                Entry.intent(
+                                        SCHEMA,
+                                        schema.subject(),
+                                        null,
+                                        null,
+                                        SchemaStep.of(schema))));
+        sync();
+    }
+
+    /**
+     * Record applied topics, only those that completed and are not yet done are marked done
+     *
+     * @param results - topics as returned by the mutators
+     */
+    public synchronized void completeTopics(final Collection<Topic> results) {
+        complete(TOPIC, results, Topic::name, Topic::state);
+    }
+
+    /**
+     * Record applied acls, only those that completed are marked done
+     *
+     * @param results - acls as returned by the mutators
+     */
+    public synchronized void completeAcls(final Collection<Acl> results) {
+        complete(ACL, results, Acl::name, Acl::state);
+    }
+
+    /**
+     * Record applied schemas, only those that completed are marked done
+     *
+     * @param results - schemas as returned by the mutators
+     */
+    public synchronized void completeSchemas(final Collection<Schema> results) {
+        complete(SCHEMA, results, Schema::subject, Schema::state);
+    }
+
+    /**
+     * Mark a change done without applying it, e.g. one confirmed by describing the cluster
+     *
+     * @param kind - topic, acl or schema
+     * @param key - topic name, acl binding or subject
+     * @param state - the completed state
+     */
+    public synchronized void confirm(
+            final String kind, final String key, final Status.STATE state) {
+        done(kind, key, state);
+        sync();
+    }
+
+    /**
+     * Topic changes intended but never completed
+     *
+     * @return topics in the order they were intended
+     */
+    public synchronized List<Topic> outstandingTopics() {
+        final List<Topic> topics = new ArrayList<>();
+        outstanding.values().stream()
+                .filter(entry -> TOPIC.equals(entry.kind))
+                .forEach(entry -> topics.add(entry.topic.toTopic()));
+        return topics;
+    }
+
+    /**
+     * Acl changes intended but never completed
+     *
+     * @return acls in the order they were intended
+     */
+    public synchronized List<Acl> outstandingAcls() {
+        final List<Acl> acls = new ArrayList<>();
+        outstanding.values().stream()
+                .filter(entry -> ACL.equals(entry.kind))
+                .forEach(entry -> acls.add(entry.acl.toAcl()));
+        return acls;
+    }
+
+    /**
+     * Schema changes intended but never completed
+     *
+     * @param local - schemas loaded from the spec's schema files, which must be unchanged
+     * @return schemas in the order they were intended
+     * @throws ProvisioningException if a local schema changed since it was journalled
+     */
+    public synchronized List<Schema> outstandingSchemas(final Collection<Schema> local) {
+        final Map<String, Schema> bySubject = new LinkedHashMap<>();
+        local.forEach(schema -> bySubject.put(schema.subject(), schema));
+        final List<Schema> schemas = new ArrayList<>();
+        outstanding.values().stream()
+                .filter(entry -> SCHEMA.equals(entry.kind))
+                .forEach(
+                        entry -> schemas.add(entry.schema.toSchema(bySubject.get(entry.key))));
+        return schemas;
+    }
+
+    /**
+     * Whether anything is left to do
+     *
+     * @return true if every intent completed
+     */
+    public synchronized boolean isComplete() {
+        return outstanding.isEmpty();
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            sync();
+            channel.close();
+        } catch (IOException e) {
+            throw new ProvisioningException("Failed to close journal:" + path, e);
+        }
+    }
+
+    private <T> void complete(
+            final String kind,
+            final Collection<T> results,
+            final Function<T, String> key,
+            final Function<T, Status.STATE> state) {
+        results.stream()
+                .filter(result -> COMPLETE.contains(state.apply(result)))
+                .filter(result -> outstanding.containsKey(kind + ":" + key.apply(result)))
+                .forEach(result -> done(kind, key.apply(result), state.apply(result)));
+        sync();
+    }
+
+    private void done(final String kind, final String key, final Status.STATE state) {
+        final var entry = new Entry(Entry.DONE, kind, key, false, null, null);
+        entry.state = state;
+        append(entry);
+    }
+
+    private void replay(final Entry entry) {
+        if (Entry.INTENT.equals(entry.type)) {
+            outstanding.put(entry.kind + ":" + entry.key, entry);
+        } else if (Entry.DONE.equals(entry.type)) {
+            outstanding.remove(entry.kind + ":" + entry.key);
+        }
+    }
+
+    private void append(final Entry entry) {
+        try {
+            pending.append(MAPPER.writeValueAsString(entry)).append('\n');
+        } catch (IOException e) {
+            throw new ProvisioningException("Failed to encode journal entry:" + entry.key, e);
+        }
+        replay(entry);
+        if (++unsynced >= syncEvery) {
+            sync();
+        }
+    }
+
+    private void sync() {
+        if (pending.length() == 0) {
+            return;
+        }
+        try {
+            final var buffer =
+                    ByteBuffer.wrap(pending.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            pending.setLength(0);
+            unsynced = 0;
+        } catch (IOException e) {
+            throw new ProvisioningException("Failed to write journal:" + path, e);
+        }
+    }
+
+    /** One journal line */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Accessors(fluent = true)
+    @SuppressFBWarnings
+    static final class Entry {
+        static final String BEGIN = "BEGIN";
+        static final String INTENT = "INTENT";
+        static final String DONE = "DONE";
+
+        private String type;
+        private String kind;
+
+        /** topic name, acl binding or subject, or the domain id for BEGIN */
+        private String key;
+        private boolean cleanUnspecified;
+        private TopicStep topic;
+        private AclStep acl;
+        private SchemaStep schema;
+        private Status.STATE state;
+
+        Entry(
+                final String type,
+                final String kind,
+                final String key,
+                final boolean cleanUnspecified,
+                final TopicStep topic,
+                final AclStep acl) {
+            this(type, kind, key, cleanUnspecified, topic, acl, null, null);
+        }
+
+        static Entry intent(
+                final String kind,
+                final String key,
+                final TopicStep topic,
+                final AclStep acl,
+                final SchemaStep schema) {
+            return new Entry(INTENT, kind, key, false, topic, acl, schema, null);
+        }
+    }
+}
@@ -0,0 +1,448 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.specmesh.kafka.provision.AclProvisioner.Acl;
+import io.specmesh.kafka.provision.TopicProvisioner.Topic;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner.Schema;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import org.apache.kafka.common.acl.AccessControlEntry;
+import org.apache.kafka.common.acl.AclBinding;
+import org.apache.kafka.common.acl.AclOperation;
+import org.apache.kafka.common.acl.AclPermissionType;
+import org.apache.kafka.common.resource.PatternType;
+import org.apache.kafka.common.resource.ResourcePattern;
+import org.apache.kafka.common.resource.ResourceType;
+
+/**
+ * A change set computed by a provision run, written as versioned JSON so a later run can apply
+ * exactly those changes without recalculating them.
+ *
+ * <p>Alongside the changes the plan records a fingerprint of the cluster and registry state it
+ * was calculated from, one per resource type. Applying re-reads that state and refuses to run if
+ * any fingerprint has drifted. Schema content is not copied into the plan: create and update
+ * steps carry a hash of the local schema files instead, which must still match when applied.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(fluent = true)
+@SuppressFBWarnings
+public final class ProvisionPlan {
+
+    /** Current plan format */
+    public static final int VERSION = 1;
+
+    private static final ObjectMapper MAPPER =
+            new ObjectMapper()
+                    .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                    .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                    .enable(SerializationFeature.INDENT_OUTPUT)
+                    .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                    .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    @Builder.Default private int version = VERSION;
+    private String domainId;
+    private boolean cleanUnspecified;
+
+    /** fingerprint of the existing topics, acls and schemas, null if that phase is disabled */
+    private String topicState;
+
+    private String aclState;
+    private String schemaState;
+    @Builder.Default private List<TopicStep> topics = new ArrayList<>();
+    @Builder.Default private List<AclStep> acls = new ArrayList<>();
+    @Builder.Default private List<SchemaStep> schemas = new ArrayList<>();
+
+    /**
+     * Start an empty plan
+     *
+     * @param domainId - the spec the plan is for
+     * @param cleanUnspecified - whether the plan removes unspecified resources
+     * @return plan
+     */
+    public static ProvisionPlan of(final String domainId, final boolean cleanUnspecified) {
+        return ProvisionPlan.builder()
+                .domainId(domainId)
+                .cleanUnspecified(cleanUnspecified)
+                .build();
+    }
+
+    /**
+     * Record the topic change set and the state it was calculated from
+     *
+     * @param existing - topics read from the cluster
+     * @param changeSet - topics flagged with the action to take
+     * @return this
+     */
+    public ProvisionPlan withTopics(
+            final Collection<Topic> existing, final Collection<Topic> changeSet) {
+        topicState = topicFingerprint(existing);
+        topics = changeSet.stream().map(TopicStep::of).collect(Collectors.toList());
+        return this;
+    }
+
+    /**
+     * Record the acl change set and the state it was calculated from
+     *
+     * @param existing - acls read from the cluster
+     * @param changeSet - acls flagged with the action to take
+     * @return this
+     */
+    public ProvisionPlan withAcls(final Collection<Acl> existing, final Collection<Acl> changeSet) {
+        aclState = aclFingerprint(existing);
+        acls = changeSet.stream().map(AclStep::of).collect(Collectors.toList());
+        return this;
+    }
+
+    /**
+     * Record the schema change set and the state it was calculated from
+     *
+     * @param existing - schemas read from the registry
+     * @param changeSet - schemas flagged with the action to take
+     * @return this
+     */
+    public ProvisionPlan withSchemas(
+            final Collection<Schema> existing, final Collection<Schema> changeSet) {
+        schemaState = schemaFingerprint(existing);
+        schemas = changeSet.stream().map(SchemaStep::of).collect(Collectors.toList());
+        return this;
+    }
+
+    /**
+     * The planned topic changes
+     *
+     * @param existing - topics as they are now
+     * @return topics flagged with the action to take
+     * @throws ProvisioningException if the topics changed since the plan was made
+     */
+    public List<Topic> topicChangeSet(final Collection<Topic> existing) {
+        checkState("topic", topicState, topicFingerprint(existing));
+        return topics.stream().map(TopicStep::toTopic).collect(Collectors.toList());
+    }
+
+    /**
+     * The planned acl changes
+     *
+     * @param existing - acls as they are now
+     * @return acls flagged with the action to take
+     * @throws ProvisioningException if the acls changed since the plan was made
+     */
+    public List<Acl> aclChangeSet(final Collection<Acl> existing) {
+        checkState("acl", aclState, aclFingerprint(existing));
+        return acls.stream().map(AclStep::toAcl).collect(Collectors.toList());
+    }
+
+    /**
+     * The planned schema changes
+     *
+     * @param existing - schemas as they are now
+     * @param local - schemas loaded from the spec's schema files
+     * @return schemas flagged with the action to take
+     * @throws ProvisioningException if the registry or local schema files changed since the plan
+     *     was made
+     */
+    public List<Schema> schemaChangeSet(
+            final Collection<Schema> existing, final Collection<Schema> local) {
+        checkState("schema", schemaState, schemaFingerprint(existing));
+        final Map<String, Schema> bySubject =
+                local.stream()
+                        .filter(schema -> schema.subject() != null)
+                        .collect(
+                                Collectors.toMap(
+                                        Schema::subject,
+                                        Function.identity(),
+                                        ProvisionPlan::sameSchema));
+        return schemas.stream()
+                .map(step -> step.toSchema(bySubject.get(step.subject)))
+                .collect(Collectors.toList());
+    }
+
+    private static Schema sameSchema(final Schema first, final Schema second) {
+        if (!content(first).equals(content(second))) {
+            throw new ProvisioningException(
+                    "Subject:" + first.subject() + " is declared with different schemas");
+        }
+        return first;
+    }
+
+    /**
+     * Whether the plan covers acls
+     *
+     * @return true if acls were read when planning
+     */
+    public boolean hasAcls() {
+        return aclState != null;
+    }
+
+    /**
+     * Whether the plan covers schemas
+     *
+     * @return true if schemas were read when planning
+     */
+    public boolean hasSchemas() {
+        return schemaState != null;
+    }
+
+    /**
+     * Write the plan, replacing the file atomically so an interrupted write never leaves a
+     * partial plan to be applied
+     *
+     * @param path - file to write
+     * @throws ProvisioningException if the file can not be written
+     */
+    public void write(final Path path) {
+        try {
+            StateFiles.writeAtomically(MAPPER, path, this);
+        } catch (IOException e) {
+            throw new ProvisioningException("Failed to write plan:" + path, e);
+        }
+    }
+
+    /**
+     * Read a plan
+     *
+     * @param path - file to read
+     * @return the plan
+     * @throws ProvisioningException if the file can not be read or is an unsupported version
+     */
+    public static ProvisionPlan read(final Path path) {
+        final ProvisionPlan plan;
+        try {
+            plan = MAPPER.readValue(path.toFile(), ProvisionPlan.class);
+        } catch (IOException e) {
+            throw new ProvisioningException("Failed to read plan:" + path, e);
+        }
+        if (plan.version != VERSION) {
+            throw new ProvisioningException(
+                    "Unsupported plan version:" + plan.version + " expected:" + VERSION);
+        }
+        return plan;
+    }
+
+    private static void checkState(
+            final String resource, final String planned, final String current) {
+        if (!current.equals(planned)) {
+            throw new ProvisioningException(
+                    "The "
+                            + resource
+                            + " state has changed since the plan was made, re-run the plan."
+                            + " planned:"
+                            + planned
+                            + " current:"
+                            + current);
+        }
+    }
+
+    static String topicFingerprint(final Collection<Topic> topics) {
+        return fingerprint(
+                topics.stream()
+                        .map(
+                                topic ->
+                                        topic.name()
+                                                + "|"
+                                                + topic.partitions()
+                                                + "|"
+                                                + topic.replication()
+                                                + "|"
+                                                + new TreeMap<>(topic.config())));
+    }
+
+    static String aclFingerprint(final Collection<Acl> acls) {
+        return fingerprint(acls.stream().map(acl -> String.valueOf(acl.aclBinding())));
+    }
+
+    static String schemaFingerprint(final Collection<Schema> schemas) {
+        return fingerprint(
+                schemas.stream()
+                        .map(
+                                schema -> {
+                                    if (schema.state() == Status.STATE.FAILED) {
+                                        throw new ProvisioningException(
+                                                "Unable to read subject:" + schema.subject(),
+                                                schema.exception());
+                                    }
+                                    return schema.subject()
+                                            + "|"
+                                            + schema.type()
+                                            + "|"
+                                            + content(schema);
+                                }));
+    }
+
+    /** Stable across runs: entries are sorted before hashing */
+    private static String fingerprint(final Stream<String> entries) {
+        return StateFiles.sha256(entries.sorted().collect(Collectors.joining("\n")));
+    }
+
+    private static String content(final Schema schema) {
+        if (schema.schemas() == null) {
+            return "";
+        }
+        return StateFiles.sha256(
+                schema.schemas().stream()
+                        .flatMap(
+                                parsed ->
+                                        Stream.concat(
+                                                Stream.of(parsed.canonicalString()),
+                                                parsed.references().stream()
+                                                        .map(Object::toString)))
+                        .collect(Collectors.joining("\n")));
+    }
+
+    /** A planned topic change */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Accessors(fluent = true)
+    @SuppressFBWarnings
+    public static final class TopicStep {
+        private String name;
+        private Status.STATE state;
+        private int partitions;
+        private short replication;
+        private Map<String, String> config;
+        private String messages;
+
+        static TopicStep of(final Topic topic) {
+            return new TopicStep(
+                    topic.name(),
+                    topic.state(),
+                    topic.partitions(),
+                    topic.replication(),
+                    new TreeMap<>(topic.config()),
+                    topic.messages());
+        }
+
+        Topic toTopic() {
+            return Topic.builder()
+                    .name(name)
+                    .state(state)
+                    .partitions(partitions)
+                    .replication(replication)
+                    .config(config == null ? Map.of() : config)
+                    .messages(messages == null ? "" : messages)
+                    .build();
+        }
+    }
+
+    /** A planned acl change */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Accessors(fluent = true)
+    @SuppressFBWarnings
+    public static final class AclStep {
+        private Status.STATE state;
+        private ResourceType resourceType;
+        private String resourceName;
+        private PatternType patternType;
+        private String principal;
+        private String host;
+        private AclOperation operation;
+        private AclPermissionType permission;
+
+        static AclStep of(final Acl acl) {
+            final var binding = acl.aclBinding();
+            return new AclStep(
+                    acl.state(),
+                    binding.pattern().resourceType(),
+                    binding.pattern().name(),
+                    binding.pattern().patternType(),
+                    binding.entry().principal(),
+                    binding.entry().host(),
+                    binding.entry().operation(),
+                    binding.entry().permissionType());
+        }
+
+        Acl toAcl() {
+            final var binding =
+                    new AclBinding(
+                            new ResourcePattern(resourceType, resourceName, patternType),
+                            new AccessControlEntry(principal, host, operation, permission));
+            return Acl.builder().name(binding.toString()).aclBinding(binding).state(state).build();
+        }
+    }
+
+    /** A planned schema change */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Accessors(fluent = true)
+    @SuppressFBWarnings
+    public static final class SchemaStep {
+        private String subject;
+        private Status.STATE state;
+        private String type;
+
+        /** hash of the local schema, null for steps that do not register anything */
+        private String contentHash;
+
+        static SchemaStep of(final Schema schema) {
+            return new SchemaStep(
+                    schema.subject(),
+                    schema.state(),
+                    schema.type(),
+                    registers(schema.state()) ? content(schema) : null);
+        }
+
+        Schema toSchema(final Schema local) {
+            if (!registers(state)) {
+                return Schema.builder().subject(subject).type(type).state(state).build();
+            }
+            if (local == null || !content(local).equals(contentHash)) {
+                throw new ProvisioningException(
+                        "Local schema for subject:"
+                                + subject
+                                + " has changed since the plan was made, re-run the plan.");
+            }
+            final List<ParsedSchema> parsed = new ArrayList<>(local.schemas());
+            return Schema.builder()
+                    .subject(subject)
+                    .type(type)
+                    .state(state)
+                    .schemas(parsed)
+                    .build();
+        }
+
+        private static boolean registers(final Status.STATE state) {
+            return state == Status.STATE.CREATE || state == Status.STATE.UPDATE;
+        }
+    }
+}
@@ -19,14 +19,33 @@ package io.specmesh.kafka.provision;
 import com.google.common.annotations.VisibleForTesting;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 import io.specmesh.kafka.Clients;
 import io.specmesh.kafka.KafkaApiSpec;
+import io.specmesh.kafka.provision.AclProvisioner.Acl;
+import io.specmesh.kafka.provision.TopicProvisioner.Topic;
+import io.specmesh.kafka.provision.schema.SchemaLedger;
 import io.specmesh.kafka.provision.schema.SchemaProvisioner;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner.Schema;
+import io.specmesh.kafka.provision.schema.SchemaWorkspace;
+import io.specmesh.kafka.schema.SchemaRegistryClientFactory;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.experimental.Accessors;
 import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
 
 /** SpecMesh Kafka Provisioner */
 @Getter
@@ -37,6 +56,11 @@ public final class Provisioner {
 
     static final int REQUEST_TIMEOUT = 60;
 
+    private static final int SUBJECT_NOT_FOUND = 40401;
+
+    /** topics, schemas, acls */
+    private static final int PHASES = 3;
+
     @Builder.Default private String brokerUrl = "";
     private boolean srDisabled;
     private boolean aclDisabled;
@@ -56,14 +80,74 @@ public final class Provisioner {
     private boolean dryRun;
     private boolean cleanUnspecified;
 
+    /** write the calculated change set here instead of applying it */
+    private String planOut;
+
+    /** apply the change set in this plan file instead of calculating one */
+    private String applyPlan;
+
+    /** record intended and completed changes in this journal */
+    private String journalPath;
+
+    /** replay the outstanding changes in {@link #journalPath} */
+    private boolean resume;
+
+    /** skip schemas unchanged since the last apply recorded in this ledger */
+    private String schemaLedgerPath;
+
+    /** parsed schemas under {@link #schemaPath}, shared with other runs; one per run if not set */
+    private SchemaWorkspace schemaWorkspace;
+
+    /** creates the schema registry client, if one is not supplied */
+    @Builder.Default
+    private SchemaRegistryClientFactory schemaRegistryClientFactory =
+            SchemaRegistryClientFactory.defaults();
+
     public Status provision() {
         return provision(
                 Clients::adminClient,
-                Clients::schemaRegistryClient,
+                schemaRegistryClientFactory::create,
                 KafkaApiSpec::loadFromClassPath,
                 TopicProvisioner::provision,
-                SchemaProvisioner::provision,
-                AclProvisioner::provision);
+                schemaLedgerPath == null ? this::provisionSchemas : this::provisionWithLedger,
+                new ClusterAclProvision());
+    }
+
+    private Collection<Schema> provisionSchemas(
+            final boolean dryRun,
+            final boolean cleanUnspecified,
+            final KafkaApiSpec apiSpec,
+            final String baseResourcePath,
+            final SchemaRegistryClient client) {
+        return SchemaProvisioner.provision(
+                dryRun, cleanUnspecified, apiSpec, workspace(baseResourcePath), client);
+    }
+
+    private Collection<Schema> provisionWithLedger(
+            final boolean dryRun,
+            final boolean cleanUnspecified,
+            final KafkaApiSpec apiSpec,
+            final String baseResourcePath,
+            final SchemaRegistryClient client) {
+        return SchemaProvisioner.provision(
+                dryRun,
+                cleanUnspecified,
+                apiSpec,
+                workspace(baseResourcePath),
+                client,
+                SchemaLedger.load(Paths.get(schemaLedgerPath)));
+    }
+
+    /**
+     * The shared workspace if one was set, else a new one for this run
+     *
+     * @param baseResourcePath the path under which external schemas are stored
+     * @return the workspace
+     */
+    private SchemaWorkspace workspace(final String baseResourcePath) {
+        return schemaWorkspace != null
+                ? schemaWorkspace
+                : SchemaProvisioner.workspace(baseResourcePath);
     }
 
     @VisibleForTesting
@@ -74,12 +158,27 @@ public final class Provisioner {
             final TopicProvision topicProvision,
             final SchemaProvision schemaProvision,
             final AclProvision aclProvision) {
+        checkModes();
         try {
             ensureApiSpec(specLoader);
             ensureAdminClient(adminFactory);
             ensureSrClient(srClientFactory);
 
-            final Status status = provision(topicProvision, schemaProvision, aclProvision);
+            final Status status;
+            if (resume) {
+                status = resumeJournal();
+            } else if (applyPlan != null) {
+                status = applyPlanFile();
+            } else if (planOut != null) {
+                status = writePlan();
+            } else if (journalPath != null && !dryRun) {
+                status =
+                        journalled(
+                                calculate(ProvisionPlan.of(apiSpec.id(), cleanUnspecified)),
+                                cleanUnspecified);
+            } else {
+                status = provision(topicProvision, schemaProvision, aclProvision);
+            }
 
             System.out.println(status);
             return status;
@@ -104,33 +203,466 @@ public final class Provisioner {
         }
     }
 
+    /**
+     * Resuming a journal, applying a plan and writing a plan each decide what to change in their
+     * own way, so at most one of them can be requested.
+     */
+    private void checkModes() {
+        final int modes =
+                (resume ? 1 : 0) + (applyPlan != null ? 1 : 0) + (planOut != null ? 1 : 0);
+        if (modes > 1) {
+            throw new IllegalStateException(
+                    "Please set only one of resume, applyPlan and planOut."
+                            + " resume:"
+                            + resume
+                            + " applyPlan:"
+                            + applyPlan
+                            + " planOut:"
+                            + planOut);
+        }
+    }
+
+    /**
+     * Schemas are registered by subject and do not need the topics, so that phase runs alongside
+     * the topics, as does reading the acls and calculating their change set. Only applying the
+     * acls waits for the topics, so a topic phase that throws leaves no acls granted on a
+     * half-created domain; schemas registered by then are not rolled back.
+     */
     private Status provision(
             final TopicProvision topicProvision,
             final SchemaProvision schemaProvision,
             final AclProvision aclProvision) {
-        final String userName = domainUserAlias.isBlank() ? apiSpec.id() : domainUserAlias;
+        final String userName = userName();
 
         apiSpec.apiSpec().validate();
 
-        final Status.StatusBuilder status =
-                Status.builder()
-                        .topics(
+        final var graph = new TaskGraph("provision-" + apiSpec.id(), PHASES);
+        final var topics =
+                graph.add(
+                        "topics",
+                        () ->
                                 topicProvision.provision(
                                         dryRun, cleanUnspecified, apiSpec, adminClient));
-        if (!srDisabled) {
-            status.schemas(
-                    schemaProvision.provision(
-                            dryRun, cleanUnspecified, apiSpec, schemaPath, schemaRegistryClient));
-        }
+        final var schemas =
+                srDisabled
+                        ? null
+                        : graph.add(
+                                "schemas",
+                                () ->
+                                        schemaProvision.provision(
+                                                dryRun,
+                                                cleanUnspecified,
+                                                apiSpec,
+                                                schemaPath,
+                                                schemaRegistryClient));
+        final var aclChanges =
+                aclDisabled
+                        ? null
+                        : graph.add(
+                                "acl-changes",
+                                () ->
+                                        aclProvision.changeSet(
+                                                cleanUnspecified, apiSpec, userName, adminClient));
+        final var acls =
+                aclChanges == null
+                        ? null
+                        : graph.add(
+                                "acls",
+                                () ->
+                                        aclProvision.apply(
+                                                dryRun,
+                                                cleanUnspecified,
+                                                aclChanges.result(),
+                                                adminClient),
+                                topics,
+                                aclChanges);
+        graph.run();
 
-        if (!aclDisabled) {
-            status.acls(
-                    aclProvision.provision(
-                            dryRun, cleanUnspecified, apiSpec, userName, adminClient));
+        final Status.StatusBuilder status = Status.builder().topics(topics.result());
+        if (schemas != null) {
+            status.schemas(schemas.result());
+        }
+        if (acls != null) {
+            status.acls(acls.result());
         }
         return status.build();
     }
 
+    /**
+     * Read, calculate and write the change set to {@link #planOut} without mutating anything. The
+     * plan is not written if any part of the change set failed to calculate.
+     */
+    private Status writePlan() {
+        final var plan = ProvisionPlan.of(apiSpec.id(), cleanUnspecified);
+        final var status = calculate(plan).status();
+        if (!status.failed()) {
+            plan.write(Paths.get(planOut));
+        }
+        return status;
+    }
+
+    /**
+     * Apply the change set in {@link #applyPlan}. The state each phase was planned against is
+     * re-read and checked before anything is mutated, so a stale plan changes nothing. On a dry
+     * run the checked change set is returned without being applied.
+     */
+    private Status applyPlanFile() {
+        final var plan = ProvisionPlan.read(Paths.get(applyPlan));
+        if (!plan.domainId().equals(apiSpec.id())) {
+            throw new ProvisioningException(
+                    "Plan is for domain:" + plan.domainId() + " not:" + apiSpec.id());
+        }
+        final boolean withSchemas = plan.hasSchemas() && !srDisabled;
+        final boolean withAcls = plan.hasAcls() && !aclDisabled;
+
+        final var check = new TaskGraph("check-" + apiSpec.id(), PHASES);
+        final var topics =
+                check.add(
+                        "topics",
+                        () -> plan.topicChangeSet(TopicProvisioner.read(apiSpec, adminClient)));
+        final var schemas =
+                withSchemas
+                        ? check.add(
+                                "schemas",
+                                () ->
+                                        plan.schemaChangeSet(
+                                                SchemaProvisioner.read(
+                                                        apiSpec, schemaRegistryClient),
+                                                SchemaProvisioner.requiredSchemas(
+                                                        apiSpec, workspace(schemaPath))))
+                        : null;
+        final var acls =
+                withAcls
+                        ? check.add(
+                                "acls",
+                                () ->
+                                        plan.aclChangeSet(
+                                                AclProvisioner.read(
+                                                        apiSpec,
+                                                        AclProvisioner.requiredAcls(
+                                                                apiSpec, userName()),
+                                                        plan.cleanUnspecified(),
+                                                        adminClient)))
+                        : null;
+        check.run();
+
+        final var changes =
+                new ChangeSets(
+                        topics.result(),
+                        schemas == null ? null : schemas.result(),
+                        acls == null ? null : acls.result());
+        return dryRun ? changes.status() : journalled(changes, plan.cleanUnspecified());
+    }
+
+    /**
+     * Replay the changes a journalled run intended but did not complete. Outstanding topic
+     * creates and deletes are first confirmed with one describe of just those topics, and
+     * subject deletes with a version lookup per subject; whatever already happened is marked
+     * done rather than repeated. Acl changes and schema registrations are idempotent, so they are
+     * simply replayed. On a dry run the journal is only read: the confirmed outstanding changes
+     * are returned, and neither applied nor recorded.
+     */
+    private Status resumeJournal() {
+        if (journalPath == null) {
+            throw new IllegalStateException("Please set the journal to resume");
+        }
+        final var path = Paths.get(journalPath);
+        try (var journal =
+                dryRun
+                        ? ProvisionJournal.read(path)
+                        : ProvisionJournal.resume(path, ProvisionJournal.DEFAULT_SYNC_EVERY)) {
+            if (!journal.domainId().equals(apiSpec.id())) {
+                throw new ProvisioningException(
+                        "Journal is for domain:" + journal.domainId() + " not:" + apiSpec.id());
+            }
+            final var changes =
+                    new ChangeSets(
+                            unconfirmedTopics(journal),
+                            srDisabled
+                                    ? null
+                                    : unconfirmedSchemas(
+                                            journal,
+                                            journal.outstandingSchemas(
+                                                    SchemaProvisioner.requiredSchemas(
+                                                            apiSpec, workspace(schemaPath)))),
+                            aclDisabled ? null : journal.outstandingAcls());
+            return dryRun ? changes.status() : apply(changes, journal.cleanUnspecified(), journal);
+        }
+    }
+
+    /**
+     * Read the current state and calculate the change set for each enabled phase, recording
+     * both in the plan
+     *
+     * @param plan - to record into
+     * @return change sets
+     */
+    private ChangeSets calculate(final ProvisionPlan plan) {
+        apiSpec.apiSpec().validate();
+
+        final var graph = new TaskGraph("plan-" + apiSpec.id(), PHASES);
+        final var topics =
+                graph.add(
+                        "topics",
+                        () -> {
+                            final var existing = TopicProvisioner.read(apiSpec, adminClient);
+                            final var changeSet =
+                                    TopicProvisioner.changeSet(
+                                            cleanUnspecified,
+                                            existing,
+                                            TopicProvisioner.requiredTopics(apiSpec));
+                            plan.withTopics(existing, changeSet);
+                            return changeSet;
+                        });
+        final var schemas =
+                srDisabled
+                        ? null
+                        : graph.add(
+                                "schemas",
+                                () -> {
+                                    final var required =
+                                            SchemaProvisioner.requiredSchemas(
+                                                    apiSpec, workspace(schemaPath));
+                                    if (required.stream()
+                                            .anyMatch(
+                                                    schema ->
+                                                            schema.state()
+                                                                    == Status.STATE.FAILED)) {
+                                        throw new ProvisioningException(
+                                                "Required Schemas Failed to load:" + required);
+                                    }
+                                    final var existing =
+                                            SchemaProvisioner.read(apiSpec, schemaRegistryClient);
+                                    final var unreadable =
+                                            existing.stream()
+                                                    .filter(
+                                                            schema ->
+                                                                    schema.state()
+                                                                            == Status.STATE.FAILED)
+                                                    .map(Schema::subject)
+                                                    .collect(Collectors.toList());
+                                    if (!unreadable.isEmpty()) {
+                                        throw new ProvisioningException(
+                                                "Existing Schemas Failed to load:" + unreadable);
+                                    }
+                                    final var changeSet =
+                                            SchemaProvisioner.changeSet(
+                                                    cleanUnspecified,
+                                                    existing,
+                                                    required,
+                                                    schemaRegistryClient);
+                                    plan.withSchemas(existing, changeSet);
+                                    return changeSet;
+                                });
+        final var acls =
+                aclDisabled
+                        ? null
+                        : graph.add(
+                                "acls",
+                                () -> {
+                                    final var required =
+                                            AclProvisioner.requiredAcls(apiSpec, userName());
+                                    final var existing =
+                                            AclProvisioner.read(
+                                                    apiSpec,
+                                                    required,
+                                                    cleanUnspecified,
+                                                    adminClient);
+                                    final var changeSet =
+                                            AclProvisioner.changeSet(
+                                                    cleanUnspecified, existing, required);
+                                    plan.withAcls(existing, changeSet);
+                                    return changeSet;
+                                });
+        graph.run();
+
+        return new ChangeSets(
+                topics.result(),
+                schemas == null ? null : schemas.result(),
+                acls == null ? null : acls.result());
+    }
+
+    /**
+     * Apply, recording each change in a new journal at {@link #journalPath} if one is set
+     *
+     * @param changes - to apply
+     * @param clean - whether the changes remove unspecified resources
+     * @return status
+     */
+    private Status journalled(final ChangeSets changes, final boolean clean) {
+        if (journalPath == null) {
+            return apply(changes, clean, null);
+        }
+        try (var journal =
+                ProvisionJournal.create(
+                        Paths.get(journalPath),
+                        apiSpec.id(),
+                        clean,
+                        ProvisionJournal.DEFAULT_SYNC_EVERY)) {
+            return apply(changes, clean, journal);
+        }
+    }
+
+    /**
+     * Apply calculated change sets, schemas alongside topics and acls once topics are done
+     *
+     * @param changes - to apply
+     * @param clean - whether the changes remove unspecified resources
+     * @param journal - records intent before each phase and completion after it, or after each
+     *     chunk of topic creates, may be null
+     * @return status
+     */
+    private Status apply(
+            final ChangeSets changes, final boolean clean, final ProvisionJournal journal) {
+        if (journal != null) {
+            journal.intendTopics(changes.topics);
+            if (changes.schemas != null) {
+                journal.intendSchemas(changes.schemas);
+            }
+            if (changes.acls != null) {
+                journal.intendAcls(changes.acls);
+            }
+        }
+
+        final var graph = new TaskGraph("apply-" + apiSpec.id(), PHASES);
+        final var topics =
+                graph.add(
+                        "topics",
+                        () -> {
+                            if (journal == null) {
+                                return TopicProvisioner.apply(clean, changes.topics, adminClient);
+                            }
+                            final var result =
+                                    TopicProvisioner.apply(
+                                            clean,
+                                            changes.topics,
+                                            adminClient,
+                                            journal::completeTopics);
+                            journal.completeTopics(result);
+                            return result;
+                        });
+        final var schemas =
+                changes.schemas == null
+                        ? null
+                        : graph.add(
+                                "schemas",
+                                () -> {
+                                    final var result =
+                                            SchemaProvisioner.apply(
+                                                    clean, changes.schemas, schemaRegistryClient);
+                                    if (journal != null) {
+                                        journal.completeSchemas(result);
+                                    }
+                                    return result;
+                                });
+        final var acls =
+                changes.acls == null
+                        ? null
+                        : graph.add(
+                                "acls",
+                                () -> {
+                                    final var result =
+                                            AclProvisioner.apply(clean, changes.acls, adminClient);
+                                    if (journal != null) {
+                                        journal.completeAcls(result);
+                                    }
+                                    return result;
+                                },
+                                topics);
+        graph.run();
+
+        return new ChangeSets(
+                        topics.result(),
+                        schemas == null ? null : schemas.result(),
+                        acls == null ? null : acls.result())
+                .status();
+    }
+
+    private List<Topic> unconfirmedTopics(final ProvisionJournal journal) {
+        final var outstanding = journal.outstandingTopics();
+        final var toConfirm =
+                outstanding.stream()
+                        .filter(topic -> topic.state() != Status.STATE.UPDATE)
+                        .map(Topic::name)
+                        .collect(Collectors.toList());
+        final Map<String, KafkaFuture<TopicDescription>> described =
+                toConfirm.isEmpty()
+                        ? Map.of()
+                        : adminClient.describeTopics(toConfirm).topicNameValues();
+
+        final List<Topic> remaining = new ArrayList<>();
+        for (final var topic : outstanding) {
+            final var description = described.get(topic.name());
+            if (description == null) {
+                remaining.add(topic);
+            } else if (topic.state() == Status.STATE.CREATE && exists(description)) {
+                confirm(journal, ProvisionJournal.TOPIC, topic.name(), Status.STATE.CREATED);
+            } else if (topic.state() != Status.STATE.CREATE && !exists(description)) {
+                confirm(journal, ProvisionJournal.TOPIC, topic.name(), Status.STATE.DELETED);
+            } else {
+                remaining.add(topic);
+            }
+        }
+        return remaining;
+    }
+
+    /** Mark a change confirmed by a read as done, unless this is a dry run */
+    private void confirm(
+            final ProvisionJournal journal,
+            final String kind,
+            final String key,
+            final Status.STATE state) {
+        if (!dryRun) {
+            journal.confirm(kind, key, state);
+        }
+    }
+
+    private static boolean exists(final KafkaFuture<TopicDescription> description) {
+        try {
+            description.get(REQUEST_TIMEOUT, TimeUnit.SECONDS);
+            return true;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UnknownTopicOrPartitionException) {
+                return false;
+            }
+            throw new ProvisioningException("Failed to confirm journalled topic", e);
+        } catch (InterruptedException | TimeoutException e) {
+            throw new ProvisioningException("Failed to confirm journalled topic", e);
+        }
+    }
+
+    private List<Schema> unconfirmedSchemas(
+            final ProvisionJournal journal, final List<Schema> outstanding) {
+        final List<Schema> remaining = new ArrayList<>();
+        for (final var schema : outstanding) {
+            if (schema.state() == Status.STATE.CREATE || schema.state() == Status.STATE.UPDATE) {
+                remaining.add(schema);
+            } else if (subjectExists(schema.subject())) {
+                remaining.add(schema);
+            } else {
+                confirm(journal, ProvisionJournal.SCHEMA, schema.subject(), Status.STATE.DELETED);
+            }
+        }
+        return remaining;
+    }
+
+    private boolean subjectExists(final String subject) {
+        try {
+            return !schemaRegistryClient.getAllVersions(subject).isEmpty();
+        } catch (RestClientException e) {
+            if (e.getErrorCode() == SUBJECT_NOT_FOUND) {
+                return false;
+            }
+            throw new ProvisioningException("Failed to confirm journalled subject:" + subject, e);
+        } catch (IOException e) {
+            throw new ProvisioningException("Failed to confirm journalled subject:" + subject, e);
+        }
+    }
+
+    private String userName() {
+        return domainUserAlias.isBlank() ? apiSpec.id() : domainUserAlias;
+    }
+
     private void ensureSrClient(final SrClientFactory srClientFactory) {
         if (srDisabled || schemaRegistryClient != null) {
             return;
@@ -170,6 +702,33 @@ public final class Provisioner {
         apiSpec = specLoader.loadFromClassPath(specPath, Provisioner.class.getClassLoader());
     }
 
+    /** Change sets per phase, schemas and acls are null when that phase is disabled */
+    private static final class ChangeSets {
+        private final Collection<Topic> topics;
+        private final Collection<Schema> schemas;
+        private final Collection<Acl> acls;
+
+        ChangeSets(
+                final Collection<Topic> topics,
+                final Collection<Schema> schemas,
+                final Collection<Acl> acls) {
+            this.topics = topics;
+            this.schemas = schemas;
+            this.acls = acls;
+        }
+
+        Status status() {
+            final Status.StatusBuilder status = Status.builder().topics(topics);
+            if (schemas != null) {
+                status.schemas(schemas);
+            }
+            if (acls != null) {
+                status.acls(acls);
+            }
+            return status.build();
+        }
+    }
+
     @VisibleForTesting
     interface AdminFactory {
         Admin adminClient(String brokerUrl, String username, String secret);
@@ -204,11 +763,37 @@ public final class Provisioner {
 
     @VisibleForTesting
     interface AclProvision {
-        Collection<AclProvisioner.Acl> provision(
+        Collection<AclProvisioner.Acl> changeSet(
+                boolean cleanUnspecified, KafkaApiSpec apiSpec, String userName, Admin adminClient);
+
+        Collection<AclProvisioner.Acl> apply(
                 boolean dryRun,
                 boolean cleanUnspecified,
-                KafkaApiSpec apiSpec,
-                String userName,
+                Collection<AclProvisioner.Acl> changeSet,
                 Admin adminClient);
     }
+
+    /** Reads and applies acls against the cluster */
+    private static final class ClusterAclProvision implements AclProvision {
+        @Override
+        public Collection<AclProvisioner.Acl> changeSet(
+                final boolean cleanUnspecified,
+                final KafkaApiSpec apiSpec,
+                final String userName,
+                final Admin adminClient) {
+            final var required = AclProvisioner.requiredAcls(apiSpec, userName);
+            final var existing =
+                    AclProvisioner.read(apiSpec, required, cleanUnspecified, adminClient);
+            return AclProvisioner.changeSet(cleanUnspecified, existing, required);
+        }
+
+        @Override
+        public Collection<AclProvisioner.Acl> apply(
+                final boolean dryRun,
+                final boolean cleanUnspecified,
+                final Collection<AclProvisioner.Acl> changeSet,
+                final Admin adminClient) {
+            return AclProvisioner.apply(dryRun, cleanUnspecified, changeSet, adminClient);
+        }
+    }
 }
@@ -18,6 +18,10 @@ package io.specmesh.kafka.provision;
 
 public final class ProvisioningException extends RuntimeException {
 
+    public ProvisioningException(final String msg) {
+        super(msg);
+    }
+
     public ProvisioningException(final String msg, final Throwable cause) {
         super(msg, cause);
     }
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.specmesh.kafka.KafkaApiSpec;
+import io.specmesh.kafka.provision.AclProvisioner.Acl;
+import io.specmesh.kafka.provision.TopicProvisioner.Topic;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner.Schema;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * Computes the topic, ACL and schema delta between two versions of a spec, using only the
+ * resources derived from each spec and its schema files. Nothing is read from the cluster or the
+ * registry, so a CI run can show the exact change without credentials.
+ */
+public final class SpecDiffPlanner {
+
+    private SpecDiffPlanner() {}
+
+    /**
+     * Diff two spec versions
+     *
+     * @param from - the current spec
+     * @param fromSchemaPath - schema dir for the current spec
+     * @param to - the proposed spec
+     * @param toSchemaPath - schema dir for the proposed spec
+     * @return the delta
+     * @throws ProvisioningException if a schema referenced by either spec cannot be loaded
+     */
+    public static SpecDiff plan(
+            final KafkaApiSpec from,
+            final String fromSchemaPath,
+            final KafkaApiSpec to,
+            final String toSchemaPath) {
+        final var topics =
+                ChangeSetDiff.of(
+                        TopicProvisioner.requiredTopics(from),
+                        TopicProvisioner.requiredTopics(to),
+                        Topic::name);
+        final var acls =
+                ChangeSetDiff.of(
+                        AclProvisioner.requiredAcls(from, from.id()),
+                        AclProvisioner.requiredAcls(to, to.id()),
+                        Acl::aclBinding);
+        final var schemas =
+                ChangeSetDiff.of(
+                        loadSchemas(from, fromSchemaPath),
+                        loadSchemas(to, toSchemaPath),
+                        Schema::subject);
+
+        return SpecDiff.builder()
+                .createTopics(mark(topics.missing(), t -> t.state(Status.STATE.CREATE)))
+                .updateTopics(
+                        mark(
+                                topics.changed(SpecDiffPlanner::topicChanged),
+                                t -> t.state(Status.STATE.UPDATE)))
+                .deleteTopics(mark(topics.unspecified(), t -> t.state(Status.STATE.DELETE)))
+                .createAcls(mark(acls.missing(), a -> a.state(Status.STATE.CREATE)))
+                .deleteAcls(mark(acls.unspecified(), a -> a.state(Status.STATE.DELETE)))
+                .createSchemas(mark(schemas.missing(), s -> s.state(Status.STATE.CREATE)))
+                .updateSchemas(
+                        mark(
+                                schemas.changed(SpecDiffPlanner::schemaChanged),
+                                s -> s.state(Status.STATE.UPDATE)))
+                .deleteSchemas(mark(schemas.unspecified(), s -> s.state(Status.STATE.DELETE)))
+                .build();
+    }
+
+    private static List<Schema> loadSchemas(final KafkaApiSpec spec, final String schemaPath) {
+        final var schemas = SchemaProvisioner.requiredSchemas(spec, schemaPath);
+        final var failed =
+                schemas.stream()
+                        .filter(schema -> schema.state() == Status.STATE.FAILED)
+                        .findFirst();
+        if (failed.isPresent()) {
+            throw new ProvisioningException(
+                    "Failed to load schema for spec: " + spec.id(), failed.get().exception());
+        }
+        return schemas;
+    }
+
+    private static boolean topicChanged(final Topic was, final Topic now) {
+        final var messages = new StringBuilder();
+        if (was.partitions() != now.partitions()) {
+            messages.append("\nUpdate partitions:")
+                    .append(was.partitions())
+                    .append(" -> ")
+                    .append(now.partitions());
+        }
+        if (was.replication() != now.replication()) {
+            messages.append("\nUpdate replication:")
+                    .append(was.replication())
+                    .append(" -> ")
+                    .append(now.replication());
+        }
+        final var keys = new TreeSet<>(was.config().keySet());
+        keys.addAll(now.config().keySet());
+        keys.stream()
+                .filter(key -> !Objects.equals(was.config().get(key), now.config().get(key)))
+                .forEach(
+                        key ->
+                                messages.append("\nUpdate config ")
+                                        .append(key)
+                                        .append(':')
+                                        .append(was.config().get(key))
+                                        .append(" -> ")
+                                        .append(now.config().get(key)));
+        now.messages(now.messages() + messages);
+        return messages.length() > 0;
+    }
+
+    private static boolean schemaChanged(final Schema was, final Schema now) {
+        final var changed =
+                !Objects.equals(canonical(was.schemas()), canonical(now.schemas()))
+                        || !Objects.equals(was.type(), now.type());
+        if (changed) {
+            now.messages(now.messages() + "\nUpdate schema: " + was.type() + " -> " + now.type());
+        }
+        return changed;
+    }
+
+    private static List<String> canonical(final Collection<ParsedSchema> schemas) {
+        return schemas.stream()
+                .flatMap(
+                        schema ->
+                                Stream.concat(
+                                        Stream.of(schema.canonicalString()),
+                                        schema.references().stream().map(Object::toString)))
+                .collect(Collectors.toList());
+    }
+
+    private static <T> List<T> mark(final List<T> items, final Consumer<T> state) {
+        items.forEach(state);
+        return items;
+    }
+
+    /** Delta between two spec versions */
+    @Builder
+    @Data
+    @Accessors(fluent = true)
+    @SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "result holder")
+    public static final class SpecDiff {
+        private final List<Topic> createTopics;
+        private final List<Topic> updateTopics;
+        private final List<Topic> deleteTopics;
+        private final List<Acl> createAcls;
+        private final List<Acl> deleteAcls;
+        private final List<Schema> createSchemas;
+        private final List<Schema> updateSchemas;
+        private final List<Schema> deleteSchemas;
+
+        /**
+         * Whether the specs produce the same resources
+         *
+         * @return true when there is nothing to do
+         */
+        public boolean isEmpty() {
+            return Stream.of(
+                            createTopics,
+                            updateTopics,
+                            deleteTopics,
+                            createAcls,
+                            deleteAcls,
+                            createSchemas,
+                            updateSchemas,
+                            deleteSchemas)
+                    .allMatch(List::isEmpty);
+        }
+
+        /**
+         * Names of the topics touched, i.e. the only topics a live provision needs to read
+         *
+         * @return topic names
+         */
+        public Set<String> changedTopics() {
+            return Stream.of(createTopics, updateTopics, deleteTopics)
+                    .flatMap(List::stream)
+                    .map(Topic::name)
+                    .collect(Collectors.toCollection(TreeSet::new));
+        }
+
+        /**
+         * Subjects touched, i.e. the only subjects a live provision needs to read
+         *
+         * @return subjects
+         */
+        public Set<String> changedSubjects() {
+            return Stream.of(createSchemas, updateSchemas, deleteSchemas)
+                    .flatMap(List::stream)
+                    .map(Schema::subject)
+                    .collect(Collectors.toCollection(TreeSet::new));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/** Writing and fingerprinting the state files kept between runs, i.e. plans and ledgers */
+public final class StateFiles {
+
+    /** defensive */
+    private StateFiles() {}
+
+    /**
+     * Write a value as json, replacing the file atomically so an interrupted write never leaves a
+     * partial file to be read
+     *
+     * @param mapper - to serialise with
+     * @param path - file to write
+     * @param value - to write
+     * @throws IOException if the file can not be written
+     */
+    public static void writeAtomically(
+            final ObjectMapper mapper, final Path path, final Object value) throws IOException {
+        final var tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        mapper.writeValue(tmp.toFile(), value);
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Hex encoded SHA-256 of a value
+     *
+     * @param value - to hash, as UTF-8
+     * @return the digest
+     */
+    public static String sha256(final String value) {
+        try {
+            final var digest =
+                    MessageDigest.getInstance("SHA-256")
+                            .digest(value.getBytes(StandardCharsets.UTF_8));
+            final var hex = new StringBuilder(digest.length * 2);
+            for (final byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
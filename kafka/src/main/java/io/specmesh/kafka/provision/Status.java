@@ -45,6 +45,9 @@ public class Status {
     @Builder.Default private Collection<SchemaProvisioner.Schema> schemas = List.of();
     @Builder.Default private Collection<AclProvisioner.Acl> acls = List.of();
 
+    /** failure that stopped the run before its resources could be reported, if any */
+    private Exception exception;
+
     /** Operation result */
     public enum STATE {
         /** represents READ state */
@@ -71,13 +74,15 @@ public class Status {
      * @return true if any operation failed.
      */
     public boolean failed() {
-        return all().anyMatch(e -> e.state() == STATE.FAILED);
+        return exception != null || all().anyMatch(e -> e.state() == STATE.FAILED);
     }
 
     /** Throws exception if any errors occurred. */
     public void check() {
         final List<Exception> exceptions =
-                all().flatMap(e -> Optional.ofNullable(e.exception()).stream())
+                Stream.concat(
+                                Optional.ofNullable(exception).stream(),
+                                all().flatMap(e -> Optional.ofNullable(e.exception()).stream()))
                         .collect(Collectors.toList());
 
         if (!exceptions.isEmpty()) {
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dependency aware executor for provisioning phases. Each task starts as soon as the tasks it
+ * depends on have completed, so independent phases overlap and wall-clock time tends towards the
+ * slowest path through the graph. A task whose dependency failed is not started.
+ */
+public final class TaskGraph {
+
+    private final String name;
+    private final int parallelism;
+    private final List<Task<?>> tasks = new ArrayList<>();
+    private ExecutorService executor;
+
+    /**
+     * Graph with its own pool
+     *
+     * @param name - used to name threads
+     * @param parallelism - max tasks running at once
+     */
+    public TaskGraph(final String name, final int parallelism) {
+        this.name = name;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Add a task
+     *
+     * @param taskName - for errors and threads
+     * @param work - the work
+     * @param dependsOn - tasks that must complete first
+     * @param <T> result type
+     * @return the task handle
+     */
+    public <T> Task<T> add(
+            final String taskName, final Supplier<T> work, final Task<?>... dependsOn) {
+        final var task = new Task<>(taskName, work, Arrays.asList(dependsOn));
+        tasks.add(task);
+        return task;
+    }
+
+    /**
+     * Run all tasks and wait for them to finish
+     *
+     * @throws RuntimeException the first task failure, in the order tasks were added
+     */
+    public void run() {
+        executor = Executors.newFixedThreadPool(parallelism, threadFactory());
+        try {
+            tasks.forEach(Task::start);
+            RuntimeException failure = null;
+            for (final var task : tasks) {
+                try {
+                    task.future.get();
+                } catch (ExecutionException e) {
+                    if (failure == null && !task.skipped) {
+                        failure = unwrap(task.name, e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ProvisioningException("Interrupted waiting for: " + task.name, e);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ThreadFactory threadFactory() {
+        final var count = new AtomicInteger();
+        return runnable -> {
+            final var thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static RuntimeException unwrap(final String taskName, final Throwable cause) {
+        final var root = cause instanceof CompletionException ? cause.getCause() : cause;
+        if (root instanceof RuntimeException) {
+            return (RuntimeException) root;
+        }
+        return new ProvisioningException("Task failed: " + taskName, root);
+    }
+
+    /**
+     * Handle on a task in the graph
+     *
+     * @param <T> result type
+     */
+    public final class Task<T> {
+        private final String name;
+        private final Supplier<T> work;
+        private final List<Task<?>> dependsOn;
+        private CompletableFuture<T> future;
+        private volatile boolean skipped;
+
+        private Task(final String name, final Supplier<T> work, final List<Task<?>> dependsOn) {
+            this.name = name;
+            this.work = work;
+            this.dependsOn = List.copyOf(dependsOn);
+        }
+
+        private void start() {
+            final var deps =
+                    dependsOn.stream().map(dep -> dep.future).toArray(CompletableFuture<?>[]::new);
+            future =
+                    CompletableFuture.allOf(deps)
+                            .whenComplete(
+                                    (ignored, error) -> {
+                                        if (error != null) {
+                                            skipped = true;
+                                        }
+                                    })
+                            .thenApplyAsync(ignored -> work.get(), executor);
+        }
+
+        /**
+         * Result, only valid once the graph has run
+         *
+         * @return the task result
+         */
+        public T result() {
+            return future.join();
+        }
+    }
+}
@@ -17,7 +17,6 @@
 package io.specmesh.kafka.provision;
 
 import io.specmesh.kafka.provision.TopicProvisioner.Topic;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -75,46 +74,37 @@ public class TopicChangeSetCalculators {
          */
         public Collection<Topic> calculate(
                 final Collection<Topic> existing, final Collection<Topic> required) {
-
-            final var existTopicsList = new ArrayList<>(existing);
-
-            return required.stream()
-                    .filter(
-                            rtopic -> {
-                                boolean plannedUpdates = false;
-                                if (existing.contains(rtopic)) {
-                                    final var existingTopic =
-                                            existTopicsList.get(existTopicsList.indexOf(rtopic));
-                                    if (isPartitionChange(rtopic, existingTopic)) {
-                                        rtopic.messages(
-                                                rtopic.messages()
-                                                        + "\nUpdate partitions:"
-                                                        + existingTopic.partitions()
-                                                        + " -> "
-                                                        + rtopic.partitions());
-                                        plannedUpdates = true;
-                                    }
-                                    final var configChanges = configChanges(rtopic, existingTopic);
-                                    configChanges.forEach(
-                                            change ->
-                                                    rtopic.messages(
-                                                            rtopic.messages()
-                                                                    + "\nUpdate config "
-                                                                    + change.getKey()
-                                                                    + ":"
-                                                                    + existingTopic
-                                                                            .config()
-                                                                            .get(change.getKey())
-                                                                    + " -> "
-                                                                    + change.getValue()));
-                                    plannedUpdates = plannedUpdates || !configChanges.isEmpty();
-                                }
-                                return plannedUpdates;
-                            })
+            final var diff = ChangeSetDiff.of(existing, required, Topic::name);
+            return diff.changed(UpdateCalculator::plannedUpdates).stream()
                     .map(dTopic -> dTopic.state(Status.STATE.UPDATE))
                     .collect(Collectors.toList());
         }
 
+        private static boolean plannedUpdates(final Topic existingTopic, final Topic rtopic) {
+            boolean plannedUpdates = false;
+            if (isPartitionChange(rtopic, existingTopic)) {
+                rtopic.messages(
+                        rtopic.messages()
+                                + "\nUpdate partitions:"
+                                + existingTopic.partitions()
+                                + " -> "
+                                + rtopic.partitions());
+                plannedUpdates = true;
+            }
+            final var configChanges = configChanges(rtopic, existingTopic);
+            configChanges.forEach(
+                    change ->
+                            rtopic.messages(
+                                    rtopic.messages()
+                                            + "\nUpdate config "
+                                            + change.getKey()
+                                            + ":"
+                                            + existingTopic.config().get(change.getKey())
+                                            + " -> "
+                                            + change.getValue()));
+            return plannedUpdates || !configChanges.isEmpty();
+        }
+
         private static boolean isPartitionChange(final Topic requested, final Topic existing) {
             return requested.partitions() > existing.partitions();
         }
@@ -144,8 +134,8 @@ public class TopicChangeSetCalculators {
          */
         public Collection<Topic> calculate(
                 final Collection<Topic> existingTopics, final Collection<Topic> requiredTopics) {
-            return requiredTopics.stream()
-                    .filter(dTopic -> !existingTopics.contains(dTopic))
+            final var diff = ChangeSetDiff.of(existingTopics, requiredTopics, Topic::name);
+            return diff.missing().stream()
                     .map(dTopic -> dTopic.state(Status.STATE.CREATE))
                     .collect(Collectors.toList());
         }
@@ -162,8 +152,7 @@ public class TopicChangeSetCalculators {
          */
         public Collection<Topic> calculate(
                 final Collection<Topic> existingTopics, final Collection<Topic> requiredTopics) {
-            existingTopics.removeAll(requiredTopics);
-            return existingTopics;
+            return ChangeSetDiff.of(existingTopics, requiredTopics, Topic::name).unspecified();
         }
     }
     /** Main API */
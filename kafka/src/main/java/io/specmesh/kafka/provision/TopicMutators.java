@@ -16,18 +16,23 @@
 
 package io.specmesh.kafka.provision;
 
-import static org.apache.kafka.common.config.TopicConfig.RETENTION_MS_CONFIG;
-
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.specmesh.kafka.provision.Status.STATE;
 import io.specmesh.kafka.provision.TopicProvisioner.Topic;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.kafka.clients.admin.Admin;
@@ -35,14 +40,25 @@ import org.apache.kafka.clients.admin.AlterConfigOp;
 import org.apache.kafka.clients.admin.AlterConfigsOptions;
 import org.apache.kafka.clients.admin.ConfigEntry;
 import org.apache.kafka.clients.admin.CreatePartitionsOptions;
+import org.apache.kafka.clients.admin.CreateTopicsOptions;
 import org.apache.kafka.clients.admin.NewPartitions;
 import org.apache.kafka.clients.admin.NewTopic;
-import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.errors.ThrottlingQuotaExceededException;
 
 /** Write topics using provided input set */
 public class TopicMutators {
 
+    /** topics per createTopics request */
+    public static final int DEFAULT_CREATE_CHUNK_SIZE = 200;
+
+    /** concurrent createTopics requests */
+    public static final int DEFAULT_MAX_IN_FLIGHT_CREATES = 4;
+
+    /** retries of a topic throttled by the controller mutation quota */
+    public static final int DEFAULT_MAX_THROTTLE_RETRIES = 10;
+
     /** collection based */
     public static final class CollectiveMutator implements TopicMutator {
 
@@ -72,9 +88,15 @@ public class TopicMutators {
         }
     }
 
-    /** updates */
+    /**
+     * updates - partition increases and config changes are each sent as one batched request for
+     * all topics, and every per-topic result is awaited so the reported state reflects the broker
+     */
     public static final class UpdateMutator implements TopicMutator {
 
+        private static final int ALTER_TIMEOUT_MS =
+                (int) TimeUnit.SECONDS.toMillis(Provisioner.REQUEST_TIMEOUT);
+
         private final Admin adminClient;
 
         /**
@@ -101,33 +123,80 @@ public class TopicMutators {
                             .filter(topic -> topic.state().equals(STATE.UPDATE))
                             .collect(Collectors.toList());
 
-            final var topicNames = toTopicNames(topicsToUpdate);
-            final var describeTopics = adminClient.describeTopics(topicNames).topicNameValues();
+            if (topicsToUpdate.isEmpty()) {
+                return topicsToUpdate;
+            }
 
+            final var partitionIncreases = partitionIncreases(topicsToUpdate);
+            final var configChanges = configChanges(topicsToUpdate);
+
+            // issue both batches before waiting on either
+            final Map<String, KafkaFuture<Void>> partitionResults =
+                    partitionIncreases.isEmpty()
+                            ? Map.of()
+                            : adminClient
+                                    .createPartitions(
+                                            partitionIncreases,
+                                            new CreatePartitionsOptions()
+                                                    .retryOnQuotaViolation(false))
+                                    .values();
+            final Map<ConfigResource, KafkaFuture<Void>> configResults =
+                    configChanges.isEmpty()
+                            ? Map.of()
+                            : adminClient
+                                    .incrementalAlterConfigs(
+                                            configChanges,
+                                            new AlterConfigsOptions().timeoutMs(ALTER_TIMEOUT_MS))
+                                    .values();
+
+            topicsToUpdate.stream()
+                    .filter(topic -> !topic.state().equals(STATE.FAILED))
+                    .forEach(
+                            topic -> {
+                                awaitPartitions(topic, partitionResults.get(topic.name()));
+                                awaitConfigs(topic, configResults.get(resource(topic)));
+                                if (!topic.state().equals(STATE.FAILED)) {
+                                    topic.state(STATE.UPDATED);
+                                }
+                            });
+            return topicsToUpdate;
+        }
+
+        /**
+         * Describe all topics in one request and work out which need more partitions
+         *
+         * @param topicsToUpdate the topics
+         * @return partition increases keyed by topic name
+         */
+        private Map<String, NewPartitions> partitionIncreases(final List<Topic> topicsToUpdate) {
+            final var descriptions =
+                    adminClient.describeTopics(toTopicNames(topicsToUpdate)).topicNameValues();
+            final var increases = new LinkedHashMap<String, NewPartitions>();
             topicsToUpdate.forEach(
                     topic -> {
                         try {
                             final var description =
-                                    describeTopics
+                                    descriptions
                                             .get(topic.name())
                                             .get(Provisioner.REQUEST_TIMEOUT, TimeUnit.SECONDS);
-                            updatePartitions(topic, description);
-                            updateConfigs(topic);
+                            if (description.partitions().size() < topic.partitions()) {
+                                increases.put(
+                                        topic.name(), NewPartitions.increaseTo(topic.partitions()));
+                            } else {
+                                topic.messages(
+                                        topic.messages()
+                                                + "\n"
+                                                + " Ignoring partition increase because new count"
+                                                + " is not higher");
+                            }
                         } catch (InterruptedException | ExecutionException | TimeoutException ex) {
-                            throw new ProvisioningException("Failed to update configs", ex);
+                            topic.state(STATE.FAILED)
+                                    .exception(
+                                            new ProvisioningException(
+                                                    "Failed to update partitions", ex));
                         }
                     });
-            return topicsToUpdate;
-        }
-
-        /**
-         * convert to names
-         *
-         * @param topicsToUpdate source list
-         * @return just the names
-         */
-        private List<String> toTopicNames(final List<Topic> topicsToUpdate) {
-            return topicsToUpdate.stream().map(Topic::name).collect(Collectors.toList());
+            return increases;
         }
 
         /**
@@ -135,68 +204,76 @@ public class TopicMutators {
          * href="https://cwiki.apache.org/confluence/display/KAFKA/KIP-339%3A+Create+a+new+IncrementalAlterConfigs+API">...</a>
          * for more details update topic.config retention without a change ij value is a noop
          *
-         * @param topic to update
+         * @param topicsToUpdate the topics
+         * @return config ops keyed by topic resource
          */
-        private void updateConfigs(final Topic topic) {
+        private Map<ConfigResource, Collection<AlterConfigOp>> configChanges(
+                final List<Topic> topicsToUpdate) {
+            final var changes = new LinkedHashMap<ConfigResource, Collection<AlterConfigOp>>();
+            topicsToUpdate.stream()
+                    .filter(topic -> !topic.state().equals(STATE.FAILED))
+                    .filter(topic -> !topic.config().isEmpty())
+                    .forEach(topic -> changes.put(resource(topic), alterConfigOps(topic)));
+            return changes;
+        }
 
+        private static Collection<AlterConfigOp> alterConfigOps(final Topic topic) {
+            return topic.config().entrySet().stream()
+                    .map(
+                            entry ->
+                                    new AlterConfigOp(
+                                            new ConfigEntry(entry.getKey(), entry.getValue()),
+                                            AlterConfigOp.OpType.SET))
+                    .collect(Collectors.toList());
+        }
+
+        private void awaitPartitions(final Topic topic, final KafkaFuture<Void> result) {
+            if (result == null) {
+                return;
+            }
             try {
-                final var alterConfigOps =
-                        topic.config().entrySet().stream()
-                                .map(
-                                        entry ->
-                                                new AlterConfigOp(
-                                                        new ConfigEntry(
-                                                                entry.getKey(), entry.getValue()),
-                                                        AlterConfigOp.OpType.SET))
-                                .collect(Collectors.toList());
-
-                final Map<ConfigResource, Collection<AlterConfigOp>> configs =
-                        Map.of(
-                                new ConfigResource(ConfigResource.Type.TOPIC, topic.name()),
-                                alterConfigOps);
-                adminClient.incrementalAlterConfigs(
-                        configs, new AlterConfigsOptions().timeoutMs(Provisioner.REQUEST_TIMEOUT));
-                topic.messages(
-                        topic.messages()
-                                + "\nUpdated config: "
-                                + RETENTION_MS_CONFIG
-                                + " -> "
-                                + topic.config().get(RETENTION_MS_CONFIG));
-                topic.state(STATE.UPDATED);
-
-            } catch (Exception ex) {
+                result.get(Provisioner.REQUEST_TIMEOUT, TimeUnit.SECONDS);
+                topic.messages(topic.messages() + "\n" + " Updated partitionCount");
+            } catch (InterruptedException | ExecutionException | TimeoutException ex) {
                 topic.state(STATE.FAILED)
-                        .exception(new ProvisioningException("Failed to update config ", ex));
+                        .exception(new ProvisioningException("Failed to update partitions", ex));
             }
         }
 
-        private void updatePartitions(final Topic topic, final TopicDescription description) {
-
+        private void awaitConfigs(final Topic topic, final KafkaFuture<Void> result) {
+            if (result == null || topic.state().equals(STATE.FAILED)) {
+                return;
+            }
             try {
-                if (description.partitions().size() < topic.partitions()) {
-
-                    final var parts =
-                            adminClient.createPartitions(
-                                    Map.of(
-                                            topic.name(),
-                                            NewPartitions.increaseTo(topic.partitions())),
-                                    new CreatePartitionsOptions().retryOnQuotaViolation(false));
-
-                    parts.all().get(Provisioner.REQUEST_TIMEOUT, TimeUnit.SECONDS);
-                    topic.state(STATE.UPDATED);
-                    topic.messages(topic.messages() + "\n" + " Updated partitionCount");
-                } else {
-                    topic.messages(
-                            topic.messages()
-                                    + "\n"
-                                    + " Ignoring partition increase because new count is not"
-                                    + " higher");
-                }
-            } catch (Exception ex) {
+                result.get(Provisioner.REQUEST_TIMEOUT, TimeUnit.SECONDS);
+                topic.config()
+                        .forEach(
+                                (key, value) ->
+                                        topic.messages(
+                                                topic.messages()
+                                                        + "\nUpdated config: "
+                                                        + key
+                                                        + " -> "
+                                                        + value));
+            } catch (InterruptedException | ExecutionException | TimeoutException ex) {
                 topic.state(STATE.FAILED)
-                        .exception(new ProvisioningException("Failed to update partitions", ex));
+                        .exception(new ProvisioningException("Failed to update config ", ex));
             }
         }
+
+        private static ConfigResource resource(final Topic topic) {
+            return new ConfigResource(ConfigResource.Type.TOPIC, topic.name());
+        }
+
+        /**
+         * convert to names
+         *
+         * @param topicsToUpdate source list
+         * @return just the names
+         */
+        private List<String> toTopicNames(final List<Topic> topicsToUpdate) {
+            return topicsToUpdate.stream().map(Topic::name).collect(Collectors.toList());
+        }
     }
 
     /** delete non-spec resources */
@@ -266,18 +343,41 @@ public class TopicMutators {
         }
     }
 
-    /** creations */
+    /**
+     * creations - topics are sent in chunks, with a bounded number of requests in flight, and
+     * state is taken from each topic's own future. Topics rejected by the controller mutation
+     * quota are retried after the throttle time returned by the broker. The topics each chunk
+     * created are passed to {@code onCreated} as soon as the chunk completes, so a journal can
+     * record them before later chunks are sent.
+     */
     public static final class CreateMutator implements TopicMutator {
 
         private final Admin adminClient;
+        private final int chunkSize;
+        private final int maxInFlight;
+        private final int maxThrottleRetries;
+        private final Consumer<Collection<Topic>> onCreated;
 
         /**
          * Needs the admin client
          *
          * @param adminClient - cluster connection
+         * @param chunkSize - max topics per createTopics request
+         * @param maxInFlight - max concurrent createTopics requests
+         * @param maxThrottleRetries - max retries of a throttled topic
+         * @param onCreated - called with the topics each chunk created
          */
-        private CreateMutator(final Admin adminClient) {
+        private CreateMutator(
+                final Admin adminClient,
+                final int chunkSize,
+                final int maxInFlight,
+                final int maxThrottleRetries,
+                final Consumer<Collection<Topic>> onCreated) {
             this.adminClient = adminClient;
+            this.chunkSize = Math.max(1, chunkSize);
+            this.maxInFlight = Math.max(1, maxInFlight);
+            this.maxThrottleRetries = Math.max(0, maxThrottleRetries);
+            this.onCreated = onCreated;
         }
 
         /**
@@ -294,23 +394,140 @@ public class TopicMutators {
                     topics.stream()
                             .filter(topic -> topic.state().equals(STATE.CREATE))
                             .collect(Collectors.toList());
+
+            final var pending = new ArrayDeque<>(topicsToCreate);
+            final var retries = new HashMap<String, Integer>();
+            while (!pending.isEmpty()) {
+                final var throttled = new ArrayList<Topic>();
+                long throttleMs = 0;
+                for (final var chunk : send(pending)) {
+                    final var created = new ArrayList<Topic>();
+                    for (final var entry : chunk.entrySet()) {
+                        final var throttleTime = await(entry.getKey(), entry.getValue());
+                        if (throttleTime.isPresent()) {
+                            throttled.add(entry.getKey());
+                            throttleMs = Math.max(throttleMs, throttleTime.get());
+                        } else if (entry.getKey().state() == STATE.CREATED) {
+                            created.add(entry.getKey());
+                        }
+                    }
+                    if (!created.isEmpty()) {
+                        onCreated.accept(created);
+                    }
+                }
+                requeue(throttled, retries, pending);
+                if (!backOff(throttled.isEmpty() ? 0 : throttleMs, pending)) {
+                    break;
+                }
+            }
+            return topicsToCreate;
+        }
+
+        /**
+         * Send up to maxInFlight chunks of the pending topics
+         *
+         * @param pending topics waiting to be sent
+         * @return per-topic futures, one map per chunk
+         */
+        private List<Map<Topic, KafkaFuture<Void>>> send(final Deque<Topic> pending) {
+            final var inFlight = new ArrayList<Map<Topic, KafkaFuture<Void>>>();
+            for (int i = 0; i < maxInFlight && !pending.isEmpty(); i++) {
+                final var chunk = new ArrayList<Topic>();
+                while (chunk.size() < chunkSize && !pending.isEmpty()) {
+                    chunk.add(pending.poll());
+                }
+                final var results =
+                        adminClient
+                                .createTopics(
+                                        asNewTopic(chunk),
+                                        new CreateTopicsOptions().retryOnQuotaViolation(false))
+                                .values();
+                final var futures = new LinkedHashMap<Topic, KafkaFuture<Void>>();
+                chunk.forEach(topic -> futures.put(topic, results.get(topic.name())));
+                inFlight.add(futures);
+            }
+            return inFlight;
+        }
+
+        /**
+         * Wait for the topic's own result
+         *
+         * @param topic the topic
+         * @param result its future
+         * @return the throttle time when the topic was throttled, otherwise empty
+         */
+        private Optional<Long> await(final Topic topic, final KafkaFuture<Void> result) {
             try {
-                adminClient
-                        .createTopics(asNewTopic(topicsToCreate))
-                        .all()
-                        .get(Provisioner.REQUEST_TIMEOUT, TimeUnit.SECONDS);
-                return topicsToCreate.stream()
-                        .map(topic -> topic.state(STATE.CREATED))
-                        .collect(Collectors.toList());
-            } catch (InterruptedException | ExecutionException | TimeoutException e) {
-                topicsToCreate.forEach(
+                result.get(Provisioner.REQUEST_TIMEOUT, TimeUnit.SECONDS);
+                topic.state(STATE.CREATED);
+                return Optional.empty();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof ThrottlingQuotaExceededException) {
+                    return Optional.of(
+                            (long) ((ThrottlingQuotaExceededException) e.getCause())
+                                    .throttleTimeMs());
+                }
+                topic.exception(new ProvisioningException("failed to write topic", e))
+                        .state(STATE.FAILED);
+            } catch (InterruptedException | TimeoutException e) {
+                topic.exception(new ProvisioningException("failed to write topic", e))
+                        .state(STATE.FAILED);
+            }
+            return Optional.empty();
+        }
+
+        /**
+         * Put throttled topics back at the front of the queue, or fail them when out of retries
+         *
+         * @param throttled topics that hit the quota
+         * @param retries retry counts by topic name
+         * @param pending the queue
+         */
+        private void requeue(
+                final List<Topic> throttled,
+                final Map<String, Integer> retries,
+                final Deque<Topic> pending) {
+            for (int i = throttled.size() - 1; i >= 0; i--) {
+                final var topic = throttled.get(i);
+                final int attempt = retries.merge(topic.name(), 1, Integer::sum);
+                if (attempt > maxThrottleRetries) {
+                    topic.exception(
+                                    new ProvisioningException(
+                                            "failed to write topic, throttled "
+                                                    + maxThrottleRetries
+                                                    + " times",
+                                            null))
+                            .state(STATE.FAILED);
+                } else {
+                    pending.addFirst(topic);
+                }
+            }
+        }
+
+        /**
+         * Honour the broker throttle time before sending more
+         *
+         * @param throttleMs time to wait
+         * @param pending topics that have not been sent, failed if interrupted
+         * @return false if interrupted
+         */
+        private boolean backOff(final long throttleMs, final Deque<Topic> pending) {
+            if (throttleMs <= 0 || pending.isEmpty()) {
+                return true;
+            }
+            try {
+                Thread.sleep(throttleMs);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.forEach(
                         topic ->
                                 topic.exception(
                                                 new ProvisioningException(
-                                                        "failed to write topics", e))
+                                                        "failed to write topic", e))
                                         .state(STATE.FAILED));
+                return false;
             }
-            return topics;
         }
 
         /**
@@ -367,6 +584,10 @@ public class TopicMutators {
         private boolean noop;
         private boolean cleanUnspecified;
         private boolean dryRun;
+        private int createChunkSize = DEFAULT_CREATE_CHUNK_SIZE;
+        private int maxInFlightCreates = DEFAULT_MAX_IN_FLIGHT_CREATES;
+        private int maxThrottleRetries = DEFAULT_MAX_THROTTLE_RETRIES;
+        private Consumer<Collection<Topic>> onCreated = created -> {};
 
         /** defensive */
         private TopicMutatorBuilder() {}
@@ -406,6 +627,50 @@ public class TopicMutators {
             return this;
         }
 
+        /**
+         * max topics sent in a single createTopics request
+         *
+         * @param createChunkSize - chunk size
+         * @return the builder
+         */
+        public TopicMutatorBuilder createChunkSize(final int createChunkSize) {
+            this.createChunkSize = createChunkSize;
+            return this;
+        }
+
+        /**
+         * max createTopics requests in flight at once
+         *
+         * @param maxInFlightCreates - request count
+         * @return the builder
+         */
+        public TopicMutatorBuilder maxInFlightCreates(final int maxInFlightCreates) {
+            this.maxInFlightCreates = maxInFlightCreates;
+            return this;
+        }
+
+        /**
+         * max times a topic is retried after hitting the controller mutation quota
+         *
+         * @param maxThrottleRetries - retry count
+         * @return the builder
+         */
+        public TopicMutatorBuilder maxThrottleRetries(final int maxThrottleRetries) {
+            this.maxThrottleRetries = maxThrottleRetries;
+            return this;
+        }
+
+        /**
+         * called with the topics each createTopics chunk created, as it completes
+         *
+         * @param onCreated - callback
+         * @return the builder
+         */
+        public TopicMutatorBuilder onCreated(final Consumer<Collection<Topic>> onCreated) {
+            this.onCreated = onCreated;
+            return this;
+        }
+
         /**
          * main builder
          *
@@ -427,7 +692,13 @@ public class TopicMutators {
                 return new NoopMutator();
             } else {
                 return new CollectiveMutator(
-                        new CreateMutator(adminClient), new UpdateMutator(adminClient));
+                        new CreateMutator(
+                                adminClient,
+                                createChunkSize,
+                                maxInFlightCreates,
+                                maxThrottleRetries,
+                                onCreated),
+                        new UpdateMutator(adminClient));
             }
         }
     }
@@ -20,6 +20,7 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.specmesh.kafka.KafkaApiSpec;
 import java.util.Collection;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -50,12 +51,96 @@ public final class TopicProvisioner {
             final boolean cleanUnspecified,
             final KafkaApiSpec apiSpec,
             final Admin adminClient) {
-        final var domain = domainTopicsFromApiSpec(apiSpec);
-        final var existing = reader(apiSpec, adminClient).readall();
-        final var changeSet = comparator(cleanUnspecified).calculate(existing, domain);
+        return provision(
+                dryRun, cleanUnspecified, apiSpec, adminClient, read(apiSpec, adminClient));
+    }
+
+    /**
+     * Provision topics against topics already read, e.g. from a snapshot shared by many domains
+     *
+     * @param dryRun test or execute
+     * @param cleanUnspecified remove unwanted resources
+     * @param apiSpec the api spec.
+     * @param adminClient admin client for the Kafka cluster.
+     * @param existing the domain's topics as read from the cluster
+     * @return status of the topics
+     * @throws ProvisioningException on provision failure
+     */
+    public static Collection<Topic> provision(
+            final boolean dryRun,
+            final boolean cleanUnspecified,
+            final KafkaApiSpec apiSpec,
+            final Admin adminClient,
+            final Collection<Topic> existing) {
+        final var changeSet = changeSet(cleanUnspecified, existing, requiredTopics(apiSpec));
         return mutate(dryRun, cleanUnspecified, adminClient).mutate(changeSet);
     }
 
+    /**
+     * Read the domain's topics from the cluster
+     *
+     * @param apiSpec the api spec.
+     * @param adminClient admin client for the Kafka cluster.
+     * @return existing topics
+     */
+    public static Collection<Topic> read(final KafkaApiSpec apiSpec, final Admin adminClient) {
+        return reader(apiSpec, adminClient).readall();
+    }
+
+    /**
+     * Calculate the change set without touching the cluster
+     *
+     * @param cleanUnspecified remove unwanted resources
+     * @param existing topics read from the cluster
+     * @param required topics from the spec
+     * @return topics flagged with the action to take
+     */
+    public static Collection<Topic> changeSet(
+            final boolean cleanUnspecified,
+            final Collection<Topic> existing,
+            final Collection<Topic> required) {
+        return comparator(cleanUnspecified).calculate(existing, required);
+    }
+
+    /**
+     * Apply a previously calculated change set
+     *
+     * @param cleanUnspecified whether the change set removes unwanted resources
+     * @param changeSet topics flagged with the action to take
+     * @param adminClient admin client for the Kafka cluster.
+     * @return status of the topics
+     * @throws ProvisioningException on provision failure
+     */
+    public static Collection<Topic> apply(
+            final boolean cleanUnspecified,
+            final Collection<Topic> changeSet,
+            final Admin adminClient) {
+        return apply(cleanUnspecified, changeSet, adminClient, created -> {});
+    }
+
+    /**
+     * Apply a previously calculated change set, reporting creates as each chunk completes
+     *
+     * @param cleanUnspecified whether the change set removes unwanted resources
+     * @param changeSet topics flagged with the action to take
+     * @param adminClient admin client for the Kafka cluster.
+     * @param onCreated called with the topics each createTopics request created
+     * @return status of the topics
+     * @throws ProvisioningException on provision failure
+     */
+    public static Collection<Topic> apply(
+            final boolean cleanUnspecified,
+            final Collection<Topic> changeSet,
+            final Admin adminClient,
+            final Consumer<Collection<Topic>> onCreated) {
+        return TopicMutators.TopicMutatorBuilder.builder()
+                .cleanUnspecified(cleanUnspecified, false)
+                .onCreated(onCreated)
+                .adminClient(adminClient)
+                .build()
+                .mutate(changeSet);
+    }
+
     /**
      * gets the comparator
      *
@@ -101,7 +186,7 @@ public final class TopicProvisioner {
      * @param apiSpec - spec
      * @return set of topics from the spec
      */
-    private static Collection<Topic> domainTopicsFromApiSpec(final KafkaApiSpec apiSpec) {
+    public static Collection<Topic> requiredTopics(final KafkaApiSpec apiSpec) {
         return apiSpec.listDomainOwnedTopics().stream()
                 .map(
                         newTopic ->
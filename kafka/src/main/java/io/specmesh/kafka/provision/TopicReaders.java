@@ -39,17 +39,17 @@ public final class TopicReaders {
     public static final class SimpleTopicReader implements TopicReader {
 
         private final Admin adminClient;
-        private final String prefix;
+        private final List<String> prefixes;
 
         /**
          * Main ctor
          *
          * @param adminClient for cluster connection
-         * @param prefix to march against
+         * @param prefixes to match against, a topic matching any is read
          */
-        private SimpleTopicReader(final Admin adminClient, final String prefix) {
+        private SimpleTopicReader(final Admin adminClient, final List<String> prefixes) {
             this.adminClient = adminClient;
-            this.prefix = prefix;
+            this.prefixes = List.copyOf(prefixes);
         }
 
         /**
@@ -58,7 +58,7 @@ public final class TopicReaders {
          * @return the matched topics
          */
         public Collection<TopicProvisioner.Topic> readall() {
-            final var topicList = topicsForPrefix(adminClient, prefix);
+            final var topicList = topicsForPrefixes(adminClient, prefixes);
 
             final var topicDescriptions = topicDescriptions(topicList);
 
@@ -149,14 +149,15 @@ public final class TopicReaders {
         }
 
         /**
-         * Read the set of topics that have this 'prefix'
+         * Read the set of topics that have any of these prefixes, with a single listTopics
          *
          * @param adminClient = cluster connection
-         * @param prefix - filter against
+         * @param prefixes - filter against
          * @return the set of topics that match
          * @throws ProvisioningException when cluster connection failed
          */
-        private static List<String> topicsForPrefix(final Admin adminClient, final String prefix) {
+        private static List<String> topicsForPrefixes(
+                final Admin adminClient, final List<String> prefixes) {
             try {
                 return adminClient
                         .listTopics()
@@ -164,7 +165,7 @@ public final class TopicReaders {
                         .get(Provisioner.REQUEST_TIMEOUT, TimeUnit.SECONDS)
                         .stream()
                         .map(TopicListing::name)
-                        .filter(name -> name.startsWith(prefix))
+                        .filter(name -> prefixes.stream().anyMatch(name::startsWith))
                         .collect(Collectors.toList());
             } catch (InterruptedException | ExecutionException | TimeoutException e) {
                 throw new ProvisioningException("Failed to list topics", e);
@@ -180,7 +181,7 @@ public final class TopicReaders {
     /** Builder for readers */
     public static final class TopicsReaderBuilder {
         private Admin adminClient;
-        private String prefix;
+        private List<String> prefixes;
 
         /** defensive */
         private TopicsReaderBuilder() {}
@@ -193,18 +194,30 @@ public final class TopicReaders {
          * @return topic reader
          */
         public static TopicsReaderBuilder builder(final Admin adminClient, final String prefix) {
-            return new TopicsReaderBuilder(adminClient, prefix);
+            return new TopicsReaderBuilder(adminClient, List.of(prefix));
+        }
+
+        /**
+         * Reader for several domains at once, e.g. a whole mesh, in one cluster read
+         *
+         * @param adminClient - cluster connection
+         * @param prefixes - matching filters
+         * @return topic reader
+         */
+        public static TopicsReaderBuilder builder(
+                final Admin adminClient, final Collection<String> prefixes) {
+            return new TopicsReaderBuilder(adminClient, List.copyOf(prefixes));
         }
 
         /**
          * Main builder
          *
          * @param adminClient - required for default impl
-         * @param prefix - required to filter topics against
+         * @param prefixes - required to filter topics against
          */
-        private TopicsReaderBuilder(final Admin adminClient, final String prefix) {
+        private TopicsReaderBuilder(final Admin adminClient, final List<String> prefixes) {
             this.adminClient = adminClient;
-            this.prefix = prefix;
+            this.prefixes = prefixes;
         }
 
         /**
@@ -213,7 +226,7 @@ public final class TopicReaders {
          * @return topic reader
          */
         public TopicReader build() {
-            return new SimpleTopicReader(adminClient, prefix);
+            return new SimpleTopicReader(adminClient, prefixes);
         }
     }
 }
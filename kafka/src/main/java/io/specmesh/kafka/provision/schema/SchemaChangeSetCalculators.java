@@ -18,13 +18,12 @@ package io.specmesh.kafka.provision.schema;
 
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.specmesh.kafka.provision.ChangeSetDiff;
 import io.specmesh.kafka.provision.Status;
 import io.specmesh.kafka.provision.schema.SchemaProvisioner.Schema;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -81,18 +80,24 @@ public final class SchemaChangeSetCalculators {
         @Override
         public Collection<Schema> calculate(
                 final Collection<Schema> existing, final Collection<Schema> required) {
-            existing.removeAll(required);
-            return existing;
+            return ChangeSetDiff.of(existing, required, Schema::subject).unspecified();
         }
     }
 
-    /** Returns those schemas to create and ignores existing */
+    /**
+     * Returns changed schemas, flagged UPDATE, or FAILED if incompatible. Compatibility is checked
+     * locally, under the subject's configured level, where the local check can decide it; the
+     * registry is asked otherwise.
+     */
     public static final class UpdateCalculator implements ChangeSetCalculator {
 
         private final SchemaRegistryClient client;
+        private final SchemaCompatibility compatibility;
 
-        private UpdateCalculator(final SchemaRegistryClient client) {
+        private UpdateCalculator(
+                final SchemaRegistryClient client, final SchemaCompatibility compatibility) {
             this.client = client;
+            this.compatibility = compatibility;
         }
 
         /**
@@ -105,42 +110,42 @@ public final class SchemaChangeSetCalculators {
         @Override
         public Collection<Schema> calculate(
                 final Collection<Schema> existing, final Collection<Schema> required) {
-            final var existingList = new ArrayList<>(existing);
-            return required.stream()
-                    .filter(needs -> existing.contains(needs) && hasChanged(needs, existingList))
-                    .peek(
-                            schema -> {
-                                schema.messages(schema.messages() + "\n Update");
-                                try {
-                                    final var compatibilityMessages =
-                                            client.testCompatibilityVerbose(
-                                                    schema.subject(), schema.getSchema());
-                                    schema.messages(
-                                            schema.messages()
-                                                    + "\nCompatibility test output:"
-                                                    + compatibilityMessages);
-                                    if (!compatibilityMessages.isEmpty()) {
-                                        schema.state(Status.STATE.FAILED);
-                                    } else {
-                                        schema.state(Status.STATE.UPDATE);
-                                    }
-
-                                } catch (IOException | RestClientException ex) {
-                                    schema.state(Status.STATE.FAILED);
-                                    schema.messages(schema.messages() + "\nException:" + ex);
-                                }
-                            })
+            final var diff = ChangeSetDiff.of(existing, required, Schema::subject);
+            return diff.changed(UpdateCalculator::hasChanged).stream()
+                    .peek(schema -> checkCompatibility(diff.existing(schema), schema))
                     .collect(Collectors.toList());
         }
 
-        private boolean hasChanged(final Schema needs, final List<Schema> existingList) {
-            final var foundAt = existingList.indexOf(needs);
-            if (foundAt != -1) {
-                final var existing = existingList.get(foundAt);
-                return !existing.getSchema().equals(needs.getSchema());
-            } else {
-                return false;
+        private void checkCompatibility(final Schema existing, final Schema schema) {
+            schema.messages(schema.messages() + "\n Update");
+
+            final var local = compatibility.check(existing, schema.getSchema());
+            if (local.isPresent()) {
+                schema.messages(
+                        schema.messages() + "\nCompatibility test output (local):" + local.get());
+                schema.state(local.get().isEmpty() ? Status.STATE.UPDATE : Status.STATE.FAILED);
+                return;
             }
+
+            try {
+                final var compatibilityMessages =
+                        client.testCompatibilityVerbose(schema.subject(), schema.getSchema());
+                schema.messages(
+                        schema.messages() + "\nCompatibility test output:" + compatibilityMessages);
+                if (!compatibilityMessages.isEmpty()) {
+                    schema.state(Status.STATE.FAILED);
+                } else {
+                    schema.state(Status.STATE.UPDATE);
+                }
+
+            } catch (IOException | RestClientException ex) {
+                schema.state(Status.STATE.FAILED);
+                schema.messages(schema.messages() + "\nException:" + ex);
+            }
+        }
+
+        private static boolean hasChanged(final Schema existing, final Schema needs) {
+            return !existing.getSchema().equals(needs.getSchema());
         }
     }
 
@@ -157,12 +162,12 @@ public final class SchemaChangeSetCalculators {
         @Override
         public Collection<Schema> calculate(
                 final Collection<Schema> existing, final Collection<Schema> required) {
-            return required.stream()
+            final var diff = ChangeSetDiff.of(existing, required, Schema::subject);
+            return diff.missing().stream()
                     .filter(
                             schema ->
-                                    !existing.contains(schema)
-                                            && (schema.state().equals(Status.STATE.READ)
-                                                    || schema.state().equals(Status.STATE.CREATE)))
+                                    schema.state().equals(Status.STATE.READ)
+                                            || schema.state().equals(Status.STATE.CREATE))
                     .map(schema -> schema.state(Status.STATE.CREATE))
                     .peek(schema -> schema.messages(schema.messages() + "\n Create"))
                     .collect(Collectors.toList());
@@ -215,11 +220,27 @@ public final class SchemaChangeSetCalculators {
          */
         public ChangeSetCalculator build(
                 final boolean cleanUnspecified, final SchemaRegistryClient client) {
+            return build(cleanUnspecified, client, SchemaCompatibility.asRead());
+        }
+
+        /**
+         * build it
+         *
+         * @param cleanUnspecified - cleanup
+         * @param client sr client, for compatibility checks that cannot be made locally
+         * @param compatibility - local compatibility checks
+         * @return required calculator
+         */
+        public ChangeSetCalculator build(
+                final boolean cleanUnspecified,
+                final SchemaRegistryClient client,
+                final SchemaCompatibility compatibility) {
             if (cleanUnspecified) {
                 return new CleanUnspecifiedCalculator();
 
             } else {
-                return new Collective(new UpdateCalculator(client), new CreateCalculator());
+                return new Collective(
+                        new UpdateCalculator(client, compatibility), new CreateCalculator());
             }
         }
     }
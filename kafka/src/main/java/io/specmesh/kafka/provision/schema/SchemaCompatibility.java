@@ -0,0 +1,126 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision.schema;
+
+import io.confluent.kafka.schemaregistry.CompatibilityLevel;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner.Schema;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Offline compatibility checking, so an update can be assessed without a registry round trip.
+ *
+ * <p>The proposed schema is tested with the schema provider's own checker, under the
+ * compatibility level read alongside the subject, or the level supplied for the subject if none
+ * was read. Non-transitive levels are tested against the latest version; transitive levels against
+ * every version, which the reader fetches for subjects at such a level. If the level is unknown,
+ * or a transitive subject's earlier versions were not read and the latest is compatible, the
+ * result is undecided and the caller should ask the registry.
+ */
+public final class SchemaCompatibility {
+
+    private final Function<String, Optional<CompatibilityLevel>> levels;
+
+    /**
+     * @param levels compatibility level per subject, used where none was read with the subject
+     */
+    public SchemaCompatibility(final Function<String, Optional<CompatibilityLevel>> levels) {
+        this.levels = levels;
+    }
+
+    /**
+     * Checker that relies on the level and versions read with each subject
+     *
+     * @return checker
+     */
+    public static SchemaCompatibility asRead() {
+        return new SchemaCompatibility(subject -> Optional.empty());
+    }
+
+    /**
+     * Check a proposed schema against the existing subject
+     *
+     * @param existing the subject as read from the registry
+     * @param proposed the schema to register
+     * @return incompatibilities found, empty if compatible, or {@code Optional.empty()} if this
+     *     could not be decided locally
+     */
+    public Optional<List<String>> check(final Schema existing, final ParsedSchema proposed) {
+        final var level =
+                Optional.ofNullable(existing.compatibility())
+                        .or(() -> levels.apply(existing.subject()));
+        if (level.isEmpty() || existing.schemas() == null || existing.schemas().isEmpty()) {
+            return Optional.empty();
+        }
+        if (level.get() == CompatibilityLevel.NONE) {
+            return Optional.of(List.of());
+        }
+
+        final List<ParsedSchema> against = new ArrayList<>();
+        against.add(existing.getSchema());
+        final boolean allVersions =
+                !transitive(level.get())
+                        || existing.history() != null
+                        || Integer.valueOf(1).equals(existing.version());
+        if (transitive(level.get()) && existing.history() != null) {
+            against.addAll(existing.history());
+        }
+
+        final List<String> messages = new ArrayList<>();
+        try {
+            for (final ParsedSchema version : against) {
+                if (backward(level.get())) {
+                    messages.addAll(proposed.isBackwardCompatible(version));
+                }
+                if (forward(level.get())) {
+                    messages.addAll(version.isBackwardCompatible(proposed));
+                }
+            }
+        } catch (RuntimeException e) {
+            // e.g. references the registry would resolve but were not read
+            return Optional.empty();
+        }
+
+        if (messages.isEmpty() && !allVersions) {
+            return Optional.empty();
+        }
+        return Optional.of(messages);
+    }
+
+    private static boolean backward(final CompatibilityLevel level) {
+        return level == CompatibilityLevel.BACKWARD
+                || level == CompatibilityLevel.BACKWARD_TRANSITIVE
+                || level == CompatibilityLevel.FULL
+                || level == CompatibilityLevel.FULL_TRANSITIVE;
+    }
+
+    private static boolean forward(final CompatibilityLevel level) {
+        return level == CompatibilityLevel.FORWARD
+                || level == CompatibilityLevel.FORWARD_TRANSITIVE
+                || level == CompatibilityLevel.FULL
+                || level == CompatibilityLevel.FULL_TRANSITIVE;
+    }
+
+    static boolean transitive(final CompatibilityLevel level) {
+        return level == CompatibilityLevel.BACKWARD_TRANSITIVE
+                || level == CompatibilityLevel.FORWARD_TRANSITIVE
+                || level == CompatibilityLevel.FULL_TRANSITIVE;
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision.schema;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference;
+import io.confluent.kafka.schemaregistry.json.JsonSchema;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import io.specmesh.kafka.provision.StateFiles;
+import io.specmesh.kafka.provision.Status;
+import io.specmesh.kafka.provision.TaskGraph;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner.Schema;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner.SchemaProvisioningException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * Subject to schema fingerprint, with the id and version registered, as of the last successful
+ * apply.
+ *
+ * <p>A subject whose local fingerprint matches the ledger is confirmed with one {@code
+ * getLatestSchemaMetadata} call; if the registry's latest id and version are still those recorded
+ * the subject is skipped entirely, without reading it back or testing compatibility. The
+ * fingerprint covers the schema's type, canonical form and references, including the content of
+ * every resolved reference, so editing a referenced file invalidates each schema that uses it.
+ *
+ * <p>The ledger is only a cache: a missing or unreadable file, or any disagreement with the
+ * registry, falls back to the full read and diff.
+ */
+@SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "entries are immutable once stored")
+public final class SchemaLedger {
+
+    private static final ObjectMapper MAPPER =
+            new ObjectMapper()
+                    .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                    .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                    .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final Set<Status.STATE> APPLIED =
+            Set.of(Status.STATE.CREATED, Status.STATE.UPDATED);
+
+    private final Path path;
+    private final Map<String, Entry> entries;
+
+    private SchemaLedger(final Path path, final Map<String, Entry> entries) {
+        this.path = path;
+        this.entries = entries;
+    }
+
+    /**
+     * Load the ledger, or start an empty one if the file does not exist or can not be read
+     *
+     * @param path - ledger file, written by {@link #save()}
+     * @return the ledger
+     */
+    public static SchemaLedger load(final Path path) {
+        if (!Files.exists(path)) {
+            return new SchemaLedger(path, new TreeMap<>());
+        }
+        try {
+            final Map<String, Entry> entries =
+                    MAPPER.readValue(path.toFile(), new TypeReference<TreeMap<String, Entry>>() {});
+            return new SchemaLedger(path, entries);
+        } catch (IOException e) {
+            // only a cache, rebuilt by the next successful apply
+            return new SchemaLedger(path, new TreeMap<>());
+        }
+    }
+
+    /**
+     * Fingerprint of a schema and everything it references
+     *
+     * @param schema - the parsed schema
+     * @return hex encoded sha-256
+     */
+    public static String fingerprint(final ParsedSchema schema) {
+        final var content = new StringBuilder();
+        content.append(schema.schemaType()).append('\n').append(schema.canonicalString());
+        for (final SchemaReference ref : schema.references()) {
+            content.append('\n').append(ref.getName()).append('\n').append(ref.getSubject());
+        }
+        new TreeMap<>(resolvedReferences(schema))
+                .forEach((name, ref) -> content.append('\n').append(name).append('\n').append(ref));
+        return StateFiles.sha256(content.toString());
+    }
+
+    /**
+     * The entry for a subject
+     *
+     * @param subject - the subject
+     * @return the entry, if the subject was applied by an earlier run
+     */
+    public synchronized Optional<Entry> entry(final String subject) {
+        return Optional.ofNullable(entries.get(subject));
+    }
+
+    /**
+     * Subjects unchanged since the last apply. Each candidate costs one metadata call, made
+     * concurrently up to {@code parallelism}. A subject the registry can not confirm is not
+     * returned.
+     *
+     * @param required - schemas from the spec
+     * @param client - the client for the schema registry
+     * @param parallelism - max concurrent metadata calls
+     * @return subjects that can be skipped
+     */
+    public Set<String> unchanged(
+            final Collection<Schema> required,
+            final SchemaRegistryClient client,
+            final int parallelism) {
+        final var graph = new TaskGraph("sr-ledger", parallelism);
+        final var checks =
+                required.stream()
+                        .filter(this::matches)
+                        .collect(
+                                Collectors.toMap(
+                                        Schema::subject,
+                                        schema ->
+                                                graph.add(
+                                                        schema.subject(),
+                                                        () -> confirmed(schema.subject(), client)),
+                                        (first, second) -> first));
+        graph.run();
+        return checks.entrySet().stream()
+                .filter(check -> check.getValue().result())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Record the outcome of an apply. Subjects created or updated are recorded with the id they
+     * were registered with, subjects found unchanged with the version read, and failed subjects
+     * are forgotten.
+     *
+     * @param required - the schemas that were provisioned, not including those skipped
+     * @param results - status of each change
+     * @param existing - the subjects as read from the registry
+     */
+    public synchronized void record(
+            final Collection<Schema> required,
+            final Collection<Schema> results,
+            final Collection<Schema> existing) {
+        final Map<String, Schema> changed = bySubject(results);
+        final Map<String, Schema> read = bySubject(existing);
+        for (final Schema schema : required) {
+            final var result = changed.get(schema.subject());
+            final var current = read.get(schema.subject());
+            if (result != null && APPLIED.contains(result.state()) && result.id() != null) {
+                entries.put(
+                        schema.subject(),
+                        new Entry(fingerprint(schema.getSchema()), result.id(), null));
+            } else if (result == null
+                    && current != null
+                    && current.state() == Status.STATE.READ
+                    && current.version() != null) {
+                entries.put(
+                        schema.subject(),
+                        new Entry(fingerprint(schema.getSchema()), null, current.version()));
+            } else {
+                entries.remove(schema.subject());
+            }
+        }
+    }
+
+    /**
+     * Write the ledger, replacing the file atomically
+     *
+     * @throws SchemaProvisioningException if the file can not be written
+     */
+    public synchronized void save() {
+        try {
+            StateFiles.writeAtomically(MAPPER, path, entries);
+        } catch (IOException e) {
+            throw new SchemaProvisioningException("Failed to write schema ledger:" + path, e);
+        }
+    }
+
+    private synchronized boolean matches(final Schema schema) {
+        final var entry = entries.get(schema.subject());
+        return entry != null
+                && schema.schemas() != null
+                && entry.fingerprint.equals(fingerprint(schema.getSchema()));
+    }
+
+    private boolean confirmed(final String subject, final SchemaRegistryClient client) {
+        final var entry = entry(subject);
+        try {
+            final SchemaMetadata latest = client.getLatestSchemaMetadata(subject);
+            return entry.map(e -> e.matches(latest)).orElse(false);
+        } catch (Exception e) {
+            // e.g. subject deleted since, let the full diff decide
+            return false;
+        }
+    }
+
+    private static Map<String, Schema> bySubject(final Collection<Schema> schemas) {
+        return schemas.stream()
+                .collect(
+                        Collectors.toMap(
+                                Schema::subject, Function.identity(), (first, second) -> first));
+    }
+
+    private static Map<String, String> resolvedReferences(final ParsedSchema schema) {
+        if (schema instanceof AvroSchema) {
+            return ((AvroSchema) schema).resolvedReferences();
+        }
+        if (schema instanceof ProtobufSchema) {
+            return ((ProtobufSchema) schema).resolvedReferences();
+        }
+        if (schema instanceof JsonSchema) {
+            return ((JsonSchema) schema).resolvedReferences();
+        }
+        return Map.of();
+    }
+
+    /** What was applied for a subject */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Accessors(fluent = true)
+    @SuppressFBWarnings
+    public static final class Entry {
+        /** fingerprint of the schema as applied */
+        private String fingerprint;
+        /** id it was registered with, null if it was found already registered */
+        private Integer id;
+        /** version read from the registry, null if it was registered by the run */
+        private Integer version;
+
+        private boolean matches(final SchemaMetadata latest) {
+            return (id != null || version != null)
+                    && (id == null || id == latest.getId())
+                    && (version == null || version == latest.getVersion());
+        }
+    }
+}
@@ -24,53 +24,34 @@ import static io.specmesh.kafka.provision.Status.STATE.UPDATED;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 import io.specmesh.kafka.provision.ProvisioningException;
 import io.specmesh.kafka.provision.Status.STATE;
+import io.specmesh.kafka.provision.TaskGraph;
 import io.specmesh.kafka.provision.schema.SchemaProvisioner.Schema;
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /** Mutators for mutating Schemas */
 public final class SchemaMutators {
 
     public static final String DEFAULT_EVOLUTION = "FORWARD_TRANSITIVE";
 
+    public static final int DEFAULT_PARALLELISM = 8;
+
     /** defensive */
     private SchemaMutators() {}
 
-    /** Collection based */
-    public static final class CollectiveMutator implements SchemaMutator {
-
-        private final Stream<SchemaMutator> mutators;
-
-        /**
-         * iterate over the writers
-         *
-         * @param mutators to iterate
-         */
-        private CollectiveMutator(final SchemaMutator... mutators) {
-            this.mutators = Arrays.stream(mutators);
-        }
-
-        /**
-         * writes updates
-         *
-         * @param schemas to write
-         * @return updated status
-         */
-        @Override
-        public Collection<Schema> mutate(final Collection<Schema> schemas) {
-            return this.mutators
-                    .map(mutator -> mutator.mutate(schemas))
-                    .flatMap(Collection::stream)
-                    .collect(Collectors.toList());
-        }
-    }
-
     /** Remove unspecified */
     public static final class CleanUnspecifiedMutator implements SchemaMutator {
 
@@ -125,102 +106,243 @@ public final class SchemaMutators {
         }
     }
 
-    /** Updates */
-    public static final class UpdateMutator implements SchemaMutator {
+    /**
+     * Registers creates and updates in reference order. Subjects referenced by other subjects in
+     * the same change set are registered first; subjects with no outstanding references are
+     * registered concurrently, up to the configured parallelism. Wall-clock time therefore follows
+     * the depth of the reference graph rather than the number of subjects.
+     *
+     * <p>References to subjects outside the change set are assumed to exist already. A subject
+     * whose referenced subject fails, or that is part of a reference cycle, is marked FAILED
+     * without being registered.
+     */
+    public static final class ReferenceOrderedMutator implements SchemaMutator {
 
         private final SchemaRegistryClient client;
+        private final int parallelism;
 
-        @SuppressFBWarnings(
-                value = "EI_EXPOSE_REP2",
-                justification = "client passed as param to prevent API pollution")
-        public UpdateMutator(final SchemaRegistryClient client) {
+        /**
+         * defensive
+         *
+         * @param client - cluster connection
+         * @param parallelism - max concurrent registrations
+         */
+        private ReferenceOrderedMutator(final SchemaRegistryClient client, final int parallelism) {
             this.client = client;
+            this.parallelism = Math.max(1, parallelism);
         }
 
         /**
-         * Write updated schemas
+         * Register CREATE and UPDATE schemas, changing status to CREATED, UPDATED or FAILED
          *
          * @param schemas to write
-         * @return updated set of schemas
+         * @return the schemas written, in the order given
          */
         @Override
         public Collection<Schema> mutate(final Collection<Schema> schemas) {
-            return schemas.stream()
-                    .filter(schema -> schema.state().equals(STATE.UPDATE))
-                    .peek(
+            final List<Schema> toWrite =
+                    schemas.stream()
+                            .filter(
+                                    schema ->
+                                            schema.state().equals(STATE.CREATE)
+                                                    || schema.state().equals(STATE.UPDATE))
+                            .collect(Collectors.toList());
+            if (toWrite.isEmpty()) {
+                return toWrite;
+            }
+
+            final var graph = SubjectGraph.of(toWrite);
+            final var tasks = new TaskGraph("sr-writer", parallelism);
+            final Map<Schema, TaskGraph.Task<?>> added = new IdentityHashMap<>();
+            graph.ordered()
+                    .forEach(
                             schema -> {
-                                try {
-                                    final var schemaId =
-                                            client.register(schema.subject(), schema.getSchema());
-                                    schema.state(UPDATED);
-                                    schema.messages(
-                                            "Subject:"
-                                                    + schema.subject()
-                                                    + " Updated with id: "
-                                                    + schemaId);
-                                } catch (IOException | RestClientException e) {
-                                    schema.exception(
-                                            new ProvisioningException(
-                                                    "Failed to update schema:" + schema.subject(),
-                                                    e));
-                                    schema.state(FAILED);
-                                }
-                            })
-                    .collect(Collectors.toList());
+                                final var refs = graph.references(schema);
+                                final var dependsOn =
+                                        refs.stream()
+                                                .map(added::get)
+                                                .toArray(TaskGraph.Task<?>[]::new);
+                                added.put(
+                                        schema,
+                                        tasks.add(
+                                                schema.subject(),
+                                                () -> write(schema, refs),
+                                                dependsOn));
+                            });
+            tasks.run();
+
+            graph.cyclic()
+                    .forEach(
+                            schema -> {
+                                schema.exception(
+                                        new ProvisioningException(
+                                                "Cyclic schema reference: " + schema.subject()));
+                                schema.state(FAILED);
+                            });
+            return toWrite;
         }
-    }
 
-    /** Mutate Schemas */
-    public static final class WriteMutator implements SchemaMutator {
+        private Schema write(final Schema schema, final List<Schema> references) {
+            final var failedRef =
+                    references.stream().filter(ref -> ref.state().equals(FAILED)).findFirst();
+            if (failedRef.isPresent()) {
+                schema.exception(
+                        new ProvisioningException(
+                                "Referenced subject failed: " + failedRef.get().subject()));
+                schema.state(FAILED);
+            } else if (schema.state().equals(STATE.CREATE)) {
+                create(client, schema);
+            } else {
+                update(client, schema);
+            }
+            return schema;
+        }
+    }
 
-        private final SchemaRegistryClient client;
+    /**
+     * Which schemas in a change set reference which, ordered with Kahn's algorithm so each schema
+     * comes after those it references.
+     */
+    static final class SubjectGraph {
+
+        private final Map<Schema, List<Schema>> references;
+        private final List<Schema> ordered;
+        private final List<Schema> cyclic;
+
+        private SubjectGraph(
+                final Map<Schema, List<Schema>> references,
+                final List<Schema> ordered,
+                final List<Schema> cyclic) {
+            this.references = references;
+            this.ordered = ordered;
+            this.cyclic = cyclic;
+        }
 
         /**
-         * defensive
+         * Build the graph
          *
-         * @param client - cluster connection
+         * @param schemas - the change set
+         * @return the graph
          */
-        private WriteMutator(final SchemaRegistryClient client) {
-            this.client = client;
+        static SubjectGraph of(final List<Schema> schemas) {
+            final Map<String, List<Schema>> bySubject = new HashMap<>();
+            schemas.forEach(
+                    schema ->
+                            bySubject
+                                    .computeIfAbsent(schema.subject(), k -> new ArrayList<>())
+                                    .add(schema));
+
+            final Map<Schema, List<Schema>> references = new IdentityHashMap<>();
+            final Map<Schema, List<Schema>> referencedBy = new IdentityHashMap<>();
+            final Map<Schema, Integer> outstanding = new IdentityHashMap<>();
+            for (final Schema schema : schemas) {
+                final List<Schema> refs =
+                        referencedSubjects(schema).stream()
+                                .filter(subject -> !subject.equals(schema.subject()))
+                                .map(bySubject::get)
+                                .filter(Objects::nonNull)
+                                .flatMap(List::stream)
+                                .distinct()
+                                .collect(Collectors.toList());
+                references.put(schema, refs);
+                outstanding.put(schema, refs.size());
+                refs.forEach(
+                        ref ->
+                                referencedBy
+                                        .computeIfAbsent(ref, k -> new ArrayList<>())
+                                        .add(schema));
+            }
+
+            final Deque<Schema> ready =
+                    schemas.stream()
+                            .filter(schema -> outstanding.get(schema) == 0)
+                            .collect(Collectors.toCollection(ArrayDeque::new));
+            final List<Schema> ordered = new ArrayList<>(schemas.size());
+            while (!ready.isEmpty()) {
+                final Schema next = ready.poll();
+                ordered.add(next);
+                referencedBy
+                        .getOrDefault(next, List.of())
+                        .forEach(
+                                dependent -> {
+                                    if (outstanding.merge(dependent, -1, Integer::sum) == 0) {
+                                        ready.add(dependent);
+                                    }
+                                });
+            }
+
+            final List<Schema> cyclic =
+                    schemas.stream()
+                            .filter(schema -> outstanding.get(schema) > 0)
+                            .collect(Collectors.toList());
+            return new SubjectGraph(references, ordered, cyclic);
         }
 
         /**
-         * Write the set of schemas and change status to CREATED
-         *
-         * @param schemas to write
-         * @return set of schemas with CREATE or FAILED + Exception
+         * @return schemas that can be registered, each after those it references
          */
-        @Override
-        public Collection<Schema> mutate(final Collection<Schema> schemas) {
+        List<Schema> ordered() {
+            return ordered;
+        }
 
-            return schemas.stream()
-                    .filter(schema -> schema.state().equals(STATE.CREATE))
-                    .peek(
-                            schema -> {
-                                try {
-                                    final var schemaId =
-                                            client.register(schema.subject(), schema.getSchema());
-                                    client.updateCompatibility(schema.subject(), DEFAULT_EVOLUTION);
-                                    schema.messages(
-                                            "Subject:"
-                                                    + schema.subject()
-                                                    + "Created with id: "
-                                                    + schemaId
-                                                    + ", evolution set to:"
-                                                    + DEFAULT_EVOLUTION);
-                                    schema.state(CREATED);
-                                } catch (IOException | RestClientException e) {
-                                    schema.exception(
-                                            new ProvisioningException(
-                                                    "Failed to write schema:" + schema.subject(),
-                                                    e));
-                                    schema.state(FAILED);
-                                }
-                            })
+        /**
+         * @return schemas that (transitively) reference themselves, so cannot be registered
+         */
+        List<Schema> cyclic() {
+            return cyclic;
+        }
+
+        /**
+         * @param schema - a schema in the graph
+         * @return schemas in the change set that the schema references
+         */
+        List<Schema> references(final Schema schema) {
+            return references.getOrDefault(schema, List.of());
+        }
+
+        private static List<String> referencedSubjects(final Schema schema) {
+            if (schema.schemas() == null || schema.schemas().isEmpty()) {
+                return List.of();
+            }
+            return schema.getSchema().references().stream()
+                    .map(SchemaReference::getSubject)
                     .collect(Collectors.toList());
         }
     }
 
+    private static void create(final SchemaRegistryClient client, final Schema schema) {
+        try {
+            final var schemaId = client.register(schema.subject(), schema.getSchema());
+            schema.id(schemaId);
+            client.updateCompatibility(schema.subject(), DEFAULT_EVOLUTION);
+            schema.messages(
+                    "Subject:"
+                            + schema.subject()
+                            + "Created with id: "
+                            + schemaId
+                            + ", evolution set to:"
+                            + DEFAULT_EVOLUTION);
+            schema.state(CREATED);
+        } catch (IOException | RestClientException e) {
+            schema.exception(
+                    new ProvisioningException("Failed to write schema:" + schema.subject(), e));
+            schema.state(FAILED);
+        }
+    }
+
+    private static void update(final SchemaRegistryClient client, final Schema schema) {
+        try {
+            final var schemaId = client.register(schema.subject(), schema.getSchema());
+            schema.id(schemaId);
+            schema.state(UPDATED);
+            schema.messages("Subject:" + schema.subject() + " Updated with id: " + schemaId);
+        } catch (IOException | RestClientException e) {
+            schema.exception(
+                    new ProvisioningException("Failed to update schema:" + schema.subject(), e));
+            schema.state(FAILED);
+        }
+    }
+
     /** Do nothing mutator */
     public static final class NoopSchemaMutator implements SchemaMutator {
 
@@ -264,6 +386,7 @@ public final class SchemaMutators {
         private SchemaRegistryClient client;
         private boolean dryRun;
         private boolean cleanUnspecified;
+        private int parallelism = DEFAULT_PARALLELISM;
 
         /** defensive */
         private SchemaMutatorBuilder() {}
@@ -310,6 +433,17 @@ public final class SchemaMutators {
             return this;
         }
 
+        /**
+         * Max subjects registered at once
+         *
+         * @param parallelism - concurrent registrations
+         * @return builder
+         */
+        public SchemaMutatorBuilder parallelism(final int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
         /**
          * build it
          *
@@ -321,7 +455,7 @@ public final class SchemaMutators {
             } else if (dryRun) {
                 return new NoopSchemaMutator();
             } else {
-                return new CollectiveMutator(new UpdateMutator(client), new WriteMutator(client));
+                return new ReferenceOrderedMutator(client, parallelism);
             }
         }
     }
@@ -20,6 +20,7 @@ import static io.specmesh.kafka.provision.Status.STATE.CREATE;
 import static io.specmesh.kafka.provision.Status.STATE.FAILED;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.confluent.kafka.schemaregistry.CompatibilityLevel;
 import io.confluent.kafka.schemaregistry.ParsedSchema;
 import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
@@ -31,8 +32,8 @@ import io.specmesh.kafka.provision.ProvisioningException;
 import io.specmesh.kafka.provision.Status;
 import io.specmesh.kafka.provision.WithState;
 import io.specmesh.kafka.provision.schema.SchemaReaders.SchemaReader;
-import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -66,19 +67,242 @@ public final class SchemaProvisioner {
             final KafkaApiSpec apiSpec,
             final String baseResourcePath,
             final SchemaRegistryClient client) {
+        return provision(dryRun, cleanUnspecified, apiSpec, workspace(baseResourcePath), client);
+    }
 
-        final var reader = reader(client);
+    /**
+     * Provision schemas to Schema Registry, parsing them in a workspace shared with other runs
+     *
+     * @param dryRun for mode of operation
+     * @param cleanUnspecified for cleanup operations
+     * @param apiSpec the api spec
+     * @param workspace parsed schemas under the schema path
+     * @param client the client for the schema registry
+     * @return status of actions
+     */
+    public static Collection<Schema> provision(
+            final boolean dryRun,
+            final boolean cleanUnspecified,
+            final KafkaApiSpec apiSpec,
+            final SchemaWorkspace workspace,
+            final SchemaRegistryClient client) {
+
+        return provision(
+                dryRun, cleanUnspecified, apiSpec, workspace, client, read(apiSpec, client));
+    }
 
-        final var existing = reader.read(apiSpec.id());
+    /**
+     * Provision schemas against subjects already read, e.g. from a snapshot shared by many
+     * domains
+     *
+     * @param dryRun for mode of operation
+     * @param cleanUnspecified for cleanup operations
+     * @param apiSpec the api spec
+     * @param baseResourcePath the path under which external schemas are stored.
+     * @param client the client for the schema registry
+     * @param read the domain's subjects as read from the registry
+     * @return status of actions
+     */
+    public static Collection<Schema> provision(
+            final boolean dryRun,
+            final boolean cleanUnspecified,
+            final KafkaApiSpec apiSpec,
+            final String baseResourcePath,
+            final SchemaRegistryClient client,
+            final Collection<Schema> read) {
+        return provision(
+                dryRun, cleanUnspecified, apiSpec, workspace(baseResourcePath), client, read);
+    }
+
+    /**
+     * Provision schemas against subjects already read, parsing them in a workspace shared with
+     * the other domains of the run
+     *
+     * @param dryRun for mode of operation
+     * @param cleanUnspecified for cleanup operations
+     * @param apiSpec the api spec
+     * @param workspace parsed schemas under the schema path
+     * @param client the client for the schema registry
+     * @param read the domain's subjects as read from the registry
+     * @return status of actions
+     */
+    public static Collection<Schema> provision(
+            final boolean dryRun,
+            final boolean cleanUnspecified,
+            final KafkaApiSpec apiSpec,
+            final SchemaWorkspace workspace,
+            final SchemaRegistryClient client,
+            final Collection<Schema> read) {
+        return provision(dryRun, cleanUnspecified, loadRequired(apiSpec, workspace), client, read);
+    }
 
-        final var required = requiredSchemas(apiSpec, baseResourcePath);
+    /**
+     * Provision schemas, skipping subjects the ledger shows are unchanged since the last apply.
+     * Only the remaining subjects are read from the registry, and the ledger is updated and saved
+     * once they are applied. The ledger is not used to skip subjects when cleaning, as that needs
+     * every subject under the domain.
+     *
+     * @param dryRun for mode of operation
+     * @param cleanUnspecified for cleanup operations
+     * @param apiSpec the api spec
+     * @param baseResourcePath the path under which external schemas are stored.
+     * @param client the client for the schema registry
+     * @param ledger fingerprints of the schemas applied by earlier runs
+     * @return status of actions, not including skipped subjects
+     */
+    public static Collection<Schema> provision(
+            final boolean dryRun,
+            final boolean cleanUnspecified,
+            final KafkaApiSpec apiSpec,
+            final String baseResourcePath,
+            final SchemaRegistryClient client,
+            final SchemaLedger ledger) {
+        return provision(
+                dryRun, cleanUnspecified, apiSpec, workspace(baseResourcePath), client, ledger);
+    }
+
+    /**
+     * Provision schemas, skipping subjects the ledger shows are unchanged since the last apply,
+     * parsing them in a workspace shared with other runs
+     *
+     * @param dryRun for mode of operation
+     * @param cleanUnspecified for cleanup operations
+     * @param apiSpec the api spec
+     * @param workspace parsed schemas under the schema path
+     * @param client the client for the schema registry
+     * @param ledger fingerprints of the schemas applied by earlier runs
+     * @return status of actions, not including skipped subjects
+     */
+    public static Collection<Schema> provision(
+            final boolean dryRun,
+            final boolean cleanUnspecified,
+            final KafkaApiSpec apiSpec,
+            final SchemaWorkspace workspace,
+            final SchemaRegistryClient client,
+            final SchemaLedger ledger) {
+
+        final var required = loadRequired(apiSpec, workspace);
+        if (cleanUnspecified) {
+            final var read = read(apiSpec, client);
+            final var results = provision(dryRun, true, required, client, read);
+            if (!dryRun) {
+                ledger.record(required, results, read);
+                ledger.save();
+            }
+            return results;
+        }
+
+        final var unchanged =
+                ledger.unchanged(required, client, SchemaMutators.DEFAULT_PARALLELISM);
+        final var pending =
+                required.stream()
+                        .filter(schema -> !unchanged.contains(schema.subject))
+                        .collect(Collectors.toList());
+        final var read =
+                reader(client)
+                        .readSubjects(
+                                pending.stream().map(Schema::subject).collect(Collectors.toList()));
+        final var results = provision(dryRun, false, pending, client, read);
+        if (!dryRun) {
+            ledger.record(pending, results, read);
+            ledger.save();
+        }
+        return results;
+    }
+
+    private static List<Schema> loadRequired(
+            final KafkaApiSpec apiSpec, final SchemaWorkspace workspace) {
+        final var required = requiredSchemas(apiSpec, workspace);
 
         if (required.stream().anyMatch(schema -> schema.state.equals(FAILED))) {
             throw new SchemaProvisioningException("Required Schemas Failed to load:" + required);
         }
+        return required;
+    }
+
+    private static Collection<Schema> provision(
+            final boolean dryRun,
+            final boolean cleanUnspecified,
+            final List<Schema> required,
+            final SchemaRegistryClient client,
+            final Collection<Schema> read) {
+
+        // subjects that could not be read are reported as failed and left out of the diff
+        final var unreadable =
+                read.stream()
+                        .filter(schema -> schema.state.equals(FAILED))
+                        .collect(Collectors.toMap(Schema::subject, schema -> schema));
+        final var existing =
+                read.stream()
+                        .filter(schema -> !unreadable.containsKey(schema.subject))
+                        .collect(Collectors.toList());
+        final var requiredReadable =
+                required.stream()
+                        .filter(schema -> !unreadable.containsKey(schema.subject))
+                        .collect(Collectors.toList());
 
-        final var schemas = calculator(client, cleanUnspecified).calculate(existing, required);
-        return mutator(dryRun, cleanUnspecified, client).mutate(schemas);
+        final var schemas = changeSet(cleanUnspecified, existing, requiredReadable, client);
+        final var results =
+                new ArrayList<>(mutator(dryRun, cleanUnspecified, client).mutate(schemas));
+        results.addAll(unreadable.values());
+        return results;
+    }
+
+    /**
+     * Read the domain's subjects from the registry
+     *
+     * @param apiSpec the api spec
+     * @param client the client for the schema registry
+     * @return existing schemas, FAILED for subjects that could not be read
+     */
+    public static Collection<Schema> read(
+            final KafkaApiSpec apiSpec, final SchemaRegistryClient client) {
+        return reader(client).read(apiSpec.id());
+    }
+
+    /**
+     * Read the subjects of several domains from the registry in one pass
+     *
+     * @param domainIds the domains, used as subject prefixes
+     * @param client the client for the schema registry
+     * @return existing schemas, FAILED for subjects that could not be read
+     */
+    public static Collection<Schema> read(
+            final Collection<String> domainIds, final SchemaRegistryClient client) {
+        return reader(client).read(domainIds);
+    }
+
+    /**
+     * Calculate the change set. Updates are compatibility tested against the registry, nothing
+     * is written.
+     *
+     * @param cleanUnspecified for cleanup operations
+     * @param existing schemas read from the registry
+     * @param required schemas from the spec
+     * @param client the client for the schema registry
+     * @return schemas flagged with the action to take
+     */
+    public static Collection<Schema> changeSet(
+            final boolean cleanUnspecified,
+            final Collection<Schema> existing,
+            final Collection<Schema> required,
+            final SchemaRegistryClient client) {
+        return calculator(client, cleanUnspecified).calculate(existing, required);
+    }
+
+    /**
+     * Apply a previously calculated change set
+     *
+     * @param cleanUnspecified whether the change set removes unwanted subjects
+     * @param changeSet schemas flagged with the action to take
+     * @param client the client for the schema registry
+     * @return status of actions
+     */
+    public static Collection<Schema> apply(
+            final boolean cleanUnspecified,
+            final Collection<Schema> changeSet,
+            final SchemaRegistryClient client) {
+        return mutator(false, cleanUnspecified, client).mutate(changeSet);
     }
 
     /**
@@ -111,21 +335,45 @@ public final class SchemaProvisioner {
     }
 
     /**
-     * schemas from the api
+     * schemas from the api, parsed in a workspace scoped to this call
      *
      * @param apiSpec - spec
      * @param baseResourcePath file path
      * @return list of schemas
      */
-    private static List<Schema> requiredSchemas(
+    public static List<Schema> requiredSchemas(
             final KafkaApiSpec apiSpec, final String baseResourcePath) {
+        return requiredSchemas(apiSpec, workspace(baseResourcePath));
+    }
+
+    /**
+     * A new workspace for a schema path, to share between the specs of one run
+     *
+     * @param baseResourcePath the path under which external schemas are stored
+     * @return the workspace
+     */
+    public static SchemaWorkspace workspace(final String baseResourcePath) {
+        // a spec without schema refs may be provisioned without a schema path
+        return SchemaWorkspace.of(
+                baseResourcePath == null ? Paths.get("") : Paths.get(baseResourcePath));
+    }
+
+    /**
+     * schemas from the api, sharing parsed files with other specs loaded into the workspace
+     *
+     * @param apiSpec - spec
+     * @param workspace - parsed schemas under the schema path
+     * @return list of schemas
+     */
+    public static List<Schema> requiredSchemas(
+            final KafkaApiSpec apiSpec, final SchemaWorkspace workspace) {
         return apiSpec.listDomainOwnedTopics().stream()
-                .flatMap(topic -> topicSchemas(apiSpec, baseResourcePath, topic.name()))
+                .flatMap(topic -> topicSchemas(apiSpec, workspace, topic.name()))
                 .collect(Collectors.toList());
     }
 
     private static Stream<Schema> topicSchemas(
-            final KafkaApiSpec apiSpec, final String baseResourcePath, final String topicName) {
+            final KafkaApiSpec apiSpec, final SchemaWorkspace workspace, final String topicName) {
         return apiSpec.ownedTopicSchemas(topicName).stream()
                 .flatMap(
                         si ->
@@ -138,7 +386,7 @@ public final class SchemaProvisioner {
                                                                         "key",
                                                                         schemaRef,
                                                                         si,
-                                                                        baseResourcePath,
+                                                                        workspace,
                                                                         topicName)),
                                         si.value()
                                                 .schemaRef()
@@ -148,7 +396,7 @@ public final class SchemaProvisioner {
                                                                         "value",
                                                                         schemaRef,
                                                                         si,
-                                                                        baseResourcePath,
+                                                                        workspace,
                                                                         topicName))))
                 .flatMap(Optional::stream);
     }
@@ -157,13 +405,11 @@ public final class SchemaProvisioner {
             final String partName,
             final String schemaRef,
             final SchemaInfo si,
-            final String baseResourcePath,
+            final SchemaWorkspace workspace,
             final String topicName) {
         final Schema.SchemaBuilder builder = Schema.builder();
         try {
-            final Path schemaPath = Paths.get(baseResourcePath, schemaRef);
-            final Collection<ParsedSchema> schemas =
-                    new SchemaReaders.FileSystemSchemaReader().readLocal(schemaPath);
+            final Collection<ParsedSchema> schemas = workspace.load(schemaRef);
 
             builder.schemas(schemas)
                     .type(schemaRef)
@@ -263,6 +509,18 @@ public final class SchemaProvisioner {
         private Exception exception;
         @Builder.Default private String messages = "";
 
+        /** registry version of the subject's latest schema, where known */
+        private Integer version;
+
+        /** registry id the schema was registered with by this run, where known */
+        private Integer id;
+
+        /** compatibility level the subject is checked under, where read from the registry */
+        private CompatibilityLevel compatibility;
+
+        /** earlier versions, oldest first, read only for subjects at a transitive level */
+        private List<ParsedSchema> history;
+
         Collection<ParsedSchema> schemas;
 
         public Schema exception(final Exception exception) {
@@ -16,15 +16,11 @@
 
 package io.specmesh.kafka.provision.schema;
 
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.confluent.kafka.schemaregistry.CompatibilityLevel;
 import io.confluent.kafka.schemaregistry.ParsedSchema;
 import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
-import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 import io.confluent.kafka.schemaregistry.json.JsonSchema;
 import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
@@ -32,163 +28,269 @@ import io.specmesh.kafka.provision.Status;
 import io.specmesh.kafka.provision.schema.SchemaProvisioner.Schema;
 import io.specmesh.kafka.provision.schema.SchemaProvisioner.SchemaProvisioningException;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import lombok.Data;
 import lombok.experimental.Accessors;
 
 /** Readers for reading Schemas */
 public final class SchemaReaders {
-    private static final ObjectMapper objectMapper = new ObjectMapper();
 
-    static {
-        objectMapper.configure(JsonParser.Feature.ALLOW_COMMENTS, true);
-    }
+    /** concurrent subject fetches against the registry */
+    public static final int DEFAULT_PARALLELISM = 8;
+
+    private static final int SUBJECT_NOT_FOUND = 40401;
+    private static final int SUBJECT_LEVEL_NOT_CONFIGURED = 40408;
 
     /** defensive */
     private SchemaReaders() {}
 
+    /**
+     * Reads a single schema file. References are resolved transitively, via a {@link
+     * SchemaWorkspace} of the file's directory held by this reader, so repeat reads through the
+     * same reader are served from its cache.
+     */
     public static final class FileSystemSchemaReader {
 
-        public Collection<ParsedSchema> readLocal(final Path filePath) {
-            try {
-                final var schemaContent = Files.readString(filePath);
-                final var results = new ArrayList<ParsedSchema>();
-
-                final String filename =
-                        Optional.ofNullable(filePath.getFileName())
-                                .map(Objects::toString)
-                                .orElse("");
-                if (filename.endsWith(".avsc")) {
-                    final var refs = resolveReferencesFor(filePath, schemaContent);
-                    results.add(
-                            new AvroSchema(
-                                    schemaContent, refs.references, refs.resolvedReferences, -1));
-                } else if (filename.endsWith(".yml")) {
-                    results.add(new JsonSchema(schemaContent));
-                } else if (filename.endsWith(".proto")) {
-                    results.add(new ProtobufSchema(schemaContent));
-                } else {
-                    throw new UnsupportedOperationException("Unsupported schema file: " + filePath);
-                }
+        private final Map<Path, SchemaWorkspace> workspaces = new ConcurrentHashMap<>();
 
-                return results;
-            } catch (Exception ex) {
-                throw new SchemaProvisioningException(
-                        "Failed to load: " + filePath + " from: " + filePath.toAbsolutePath(), ex);
-            }
-        }
-
-        /**
-         * Avro schema reference resolution
-         *
-         * @param filePath
-         * @param schemaContent
-         * @return
-         */
-        private SchemaReferences resolveReferencesFor(
-                final Path filePath, final String schemaContent) {
-            try {
-                final SchemaReferences results = new SchemaReferences();
-                final var refs = findJsonNodes(objectMapper.readTree(schemaContent), "subject");
-                final var parent = filePath.toFile().getParent();
-                refs.forEach(ref -> results.add(parent, ref));
-                return results;
-            } catch (JsonProcessingException e) {
-                throw new SchemaProvisioningException(
-                        "Cannot resolve SchemaReferences for:" + filePath, e);
-            }
-        }
-
-        private List<JsonNode> findJsonNodes(final JsonNode node, final String searchFor) {
-            if (node.has(searchFor)) {
-                return List.of(node);
-            }
-            // Recursively traverse child nodes
-            final var results = new ArrayList<JsonNode>();
-            if (node.isArray()) {
-                for (JsonNode child : node) {
-                    results.addAll(findJsonNodes(child, searchFor));
-                }
-                return results;
-            } else if (node.isObject()) {
-                for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
-                    results.addAll(findJsonNodes(it.next().getValue(), searchFor));
-                }
-            }
-            return results;
+        public Collection<ParsedSchema> readLocal(final Path filePath) {
+            final Path dir =
+                    Optional.ofNullable(filePath.toAbsolutePath().getParent())
+                            .orElse(filePath.toAbsolutePath());
+            return workspaces.computeIfAbsent(dir, SchemaWorkspace::of).load(filePath);
         }
     }
-    /** Read Schemas from registry for given prefix */
+
+    /**
+     * Read Schemas from registry for given prefix. Subjects are fetched concurrently, up to the
+     * configured parallelism. Each subject's latest version is requested along with its
+     * compatibility level, and its earlier versions only if that level is transitive, so updates
+     * can be checked locally. A subject that cannot be fetched is returned with state FAILED
+     * rather than failing the whole read.
+     */
     public static final class SrSchemaReader implements SchemaReader {
 
         private final SchemaRegistryClient client;
+        private final int parallelism;
+        private final AtomicReference<Optional<CompatibilityLevel>> globalLevel =
+                new AtomicReference<>();
+        private volatile ReadStats stats = new ReadStats(0, 0, 0, 0, 0);
 
         /**
          * defensive
          *
          * @param client - cluster connection
+         * @param parallelism - max concurrent subject fetches
          */
-        private SrSchemaReader(final SchemaRegistryClient client) {
+        private SrSchemaReader(final SchemaRegistryClient client, final int parallelism) {
             this.client = client;
+            this.parallelism = Math.max(1, parallelism);
         }
 
         /**
          * Read set of schemas for subject
          *
          * @param prefix to filter against
-         * @return found acls with status set to READ
+         * @return found schemas with status set to READ, or FAILED if the subject was unreadable
          */
         @Override
         public Collection<Schema> read(final String prefix) {
 
+            final Collection<String> subjects;
             try {
-                final var subjects = client.getAllSubjectsByPrefix(prefix);
-                final var schemas =
-                        subjects.stream()
-                                .collect(
-                                        Collectors.toMap(
-                                                subject -> subject,
-                                                subject -> {
-                                                    try {
-                                                        return client.getSchemas(
-                                                                subject, false, true);
-                                                    } catch (IOException | RestClientException e) {
-                                                        throw new SchemaProvisioningException(
-                                                                "Failed to load schemas", e);
-                                                    }
-                                                }));
-
-                return schemas.entrySet().stream()
-                        .filter(entry -> !entry.getValue().isEmpty())
-                        .map(
-                                entry ->
-                                        Schema.builder()
-                                                .subject(entry.getKey())
-                                                .type(entry.getValue().get(0).schemaType())
-                                                .schemas(
-                                                        resolvePayload(
-                                                                entry.getValue()
-                                                                        .get(0)
-                                                                        .schemaType(),
-                                                                entry.getValue()
-                                                                        .get(0)
-                                                                        .canonicalString()))
-                                                .state(Status.STATE.READ)
-                                                .build())
-                        .collect(Collectors.toList());
+                subjects = client.getAllSubjectsByPrefix(prefix);
             } catch (RestClientException | IOException e) {
                 throw new SchemaProvisioningException("Failed to read schemas for:" + prefix, e);
             }
+            return fetchAll(subjects, prefix);
+        }
+
+        /**
+         * Read schemas for several prefixes, listing subjects once and sharing the fetch pool
+         *
+         * @param prefixes to filter against
+         * @return found schemas with status set to READ, or FAILED if the subject was unreadable
+         */
+        @Override
+        public Collection<Schema> read(final Collection<String> prefixes) {
+            final Collection<String> subjects;
+            try {
+                subjects =
+                        client.getAllSubjects().stream()
+                                .filter(subject -> prefixes.stream().anyMatch(subject::startsWith))
+                                .collect(Collectors.toList());
+            } catch (RestClientException | IOException e) {
+                throw new SchemaProvisioningException("Failed to read schemas for:" + prefixes, e);
+            }
+            return fetchAll(subjects, "mesh");
+        }
+
+        /**
+         * Read named subjects only, without listing the registry
+         *
+         * @param subjects to read
+         * @return found schemas with status set to READ, or FAILED if the subject was unreadable.
+         *     Subjects that do not exist are not returned
+         */
+        @Override
+        public Collection<Schema> readSubjects(final Collection<String> subjects) {
+            return fetchAll(subjects, "subjects");
+        }
+
+        private Collection<Schema> fetchAll(
+                final Collection<String> subjects, final String prefix) {
+            final var started = System.nanoTime();
+            final var threads = new AtomicInteger();
+            final var executor =
+                    Executors.newFixedThreadPool(
+                            Math.max(1, Math.min(parallelism, subjects.size())),
+                            runnable -> {
+                                final var thread =
+                                        new Thread(
+                                                runnable,
+                                                "sr-reader-"
+                                                        + prefix
+                                                        + "-"
+                                                        + threads.incrementAndGet());
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+            try {
+                final var fetches =
+                        subjects.stream()
+                                .map(
+                                        subject ->
+                                                CompletableFuture.supplyAsync(
+                                                        () -> fetch(subject), executor))
+                                .collect(Collectors.toList());
+
+                final var fetched =
+                        fetches.stream().map(CompletableFuture::join).collect(Collectors.toList());
+
+                stats = ReadStats.of(fetched, System.nanoTime() - started);
+
+                return fetched.stream()
+                        .map(Fetched::schema)
+                        .flatMap(Optional::stream)
+                        .collect(Collectors.toList());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        /**
+         * Timings of the most recent read
+         *
+         * @return stats
+         */
+        public ReadStats stats() {
+            return stats;
+        }
+
+        private Fetched fetch(final String subject) {
+            final var started = System.nanoTime();
+            try {
+                final var schemas = client.getSchemas(subject, false, true);
+                final Optional<Schema> schema =
+                        schemas.isEmpty()
+                                ? Optional.empty()
+                                : Optional.of(read(subject, schemas.get(0)));
+                return new Fetched(schema, System.nanoTime() - started, false);
+            } catch (Exception e) {
+                final var failed =
+                        Schema.builder()
+                                .subject(subject)
+                                .state(Status.STATE.FAILED)
+                                .messages("\nFailed to read existing subject")
+                                .build()
+                                .exception(
+                                        new SchemaProvisioningException(
+                                                "Failed to load schemas for:" + subject, e));
+                return new Fetched(Optional.of(failed), System.nanoTime() - started, true);
+            }
+        }
+
+        private Schema read(final String subject, final ParsedSchema latest) {
+            final var level = level(subject);
+            return Schema.builder()
+                    .subject(subject)
+                    .type(latest.schemaType())
+                    .version(latest.version())
+                    .schemas(resolvePayload(latest.schemaType(), latest.canonicalString()))
+                    .compatibility(level.orElse(null))
+                    .history(
+                            level.isPresent()
+                                            && SchemaCompatibility.transitive(level.get())
+                                            && latest.version() != null
+                                            && latest.version() > 1
+                                    ? history(subject, latest.version())
+                                    : null)
+                    .state(Status.STATE.READ)
+                    .build();
+        }
+
+        /**
+         * The subject's compatibility level, or the registry's global level if the subject has
+         * none. The global level is read at most once per reader.
+         */
+        private Optional<CompatibilityLevel> level(final String subject) {
+            try {
+                return level(client.getCompatibility(subject));
+            } catch (RestClientException e) {
+                if (e.getErrorCode() != SUBJECT_LEVEL_NOT_CONFIGURED
+                        && e.getErrorCode() != SUBJECT_NOT_FOUND) {
+                    return Optional.empty();
+                }
+            } catch (IOException e) {
+                return Optional.empty();
+            }
+            return globalLevel.updateAndGet(
+                    level -> {
+                        if (level != null) {
+                            return level;
+                        }
+                        try {
+                            return level(client.getCompatibility(null));
+                        } catch (IOException | RestClientException e) {
+                            return Optional.empty();
+                        }
+                    });
+        }
+
+        private static Optional<CompatibilityLevel> level(final String name) {
+            return Optional.ofNullable(name).map(CompatibilityLevel::forName);
+        }
+
+        /**
+         * Versions before the latest, oldest first, or null if any could not be read, leaving
+         * the compatibility check to the registry.
+         */
+        private List<ParsedSchema> history(final String subject, final int latest) {
+            try {
+                final List<ParsedSchema> history = new ArrayList<>();
+                for (final int version : client.getAllVersions(subject)) {
+                    if (version < latest) {
+                        final var registered = client.getByVersion(subject, version, false);
+                        history.add(
+                                parsedSchema(registered.getSchemaType(), registered.getSchema()));
+                    }
+                }
+                return history;
+            } catch (IOException | RestClientException | RuntimeException e) {
+                return null;
+            }
         }
 
         private List<ParsedSchema> resolvePayload(final String type, final String content) {
@@ -207,6 +309,49 @@ public final class SchemaReaders {
             }
             return null;
         }
+
+        /** Result of fetching one subject */
+        private static final class Fetched {
+            private final Optional<Schema> schema;
+            private final long nanos;
+            private final boolean failed;
+
+            Fetched(final Optional<Schema> schema, final long nanos, final boolean failed) {
+                this.schema = schema;
+                this.nanos = nanos;
+                this.failed = failed;
+            }
+
+            Optional<Schema> schema() {
+                return schema;
+            }
+        }
+    }
+
+    /** Fetch timings for a registry read */
+    @Data
+    @Accessors(fluent = true)
+    public static final class ReadStats {
+        /** subjects fetched */
+        private final int subjects;
+        /** subjects that failed */
+        private final int failures;
+        /** wall clock time for the whole read */
+        private final long wallMillis;
+        /** sum of the individual fetch times */
+        private final long totalFetchMillis;
+        /** slowest single fetch */
+        private final long maxFetchMillis;
+
+        private static ReadStats of(final List<SrSchemaReader.Fetched> fetched, final long wall) {
+            return new ReadStats(
+                    fetched.size(),
+                    (int) fetched.stream().filter(f -> f.failed).count(),
+                    TimeUnit.NANOSECONDS.toMillis(wall),
+                    TimeUnit.NANOSECONDS.toMillis(fetched.stream().mapToLong(f -> f.nanos).sum()),
+                    TimeUnit.NANOSECONDS.toMillis(
+                            fetched.stream().mapToLong(f -> f.nanos).max().orElse(0)));
+        }
     }
 
     /** Read Acls API */
@@ -218,6 +363,22 @@ public final class SchemaReaders {
          * @return updated status of acls
          */
         Collection<Schema> read(String prefix);
+
+        /**
+         * read schemas for several prefixes in one pass
+         *
+         * @param prefixes to read
+         * @return schemas whose subject starts with any prefix
+         */
+        Collection<Schema> read(Collection<String> prefixes);
+
+        /**
+         * read the named subjects
+         *
+         * @param subjects to read
+         * @return schemas of those subjects that exist
+         */
+        Collection<Schema> readSubjects(Collection<String> subjects);
     }
 
     /**
@@ -234,6 +395,7 @@ public final class SchemaReaders {
     public static final class SchemaReaderBuilder {
 
         private SchemaRegistryClient srClient;
+        private int parallelism = DEFAULT_PARALLELISM;
 
         /** defensive */
         private SchemaReaderBuilder() {}
@@ -253,38 +415,24 @@ public final class SchemaReaders {
             return this;
         }
 
+        /**
+         * max subjects fetched concurrently
+         *
+         * @param parallelism - concurrent fetches
+         * @return builder
+         */
+        public SchemaReaderBuilder parallelism(final int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
         /**
          * build it
          *
          * @return the specified reader impl
          */
         public SchemaReader build() {
-            return new SrSchemaReader(srClient);
-        }
-    }
-
-    @SuppressFBWarnings(
-            value = "EI_EXPOSE_REP",
-            justification = "refs passed as param to prevent API pollution")
-    @Data
-    @Accessors(fluent = true)
-    public static class SchemaReferences {
-        final List<SchemaReference> references = new ArrayList<>();
-        final Map<String, String> resolvedReferences = new HashMap<>();
-
-        public void add(final String path, final JsonNode ref) {
-            try {
-                references.add(
-                        new SchemaReference(
-                                ref.get("name").asText(), ref.get("subject").asText(), -1));
-
-                resolvedReferences.put(
-                        ref.get("subject").asText(),
-                        Files.readString(Path.of(path, ref.get("subject").asText() + ".avsc")));
-            } catch (IOException e) {
-                throw new SchemaProvisioningException(
-                        "Cannot construct AVRO SchemaReference from:" + ref, e);
-            }
+            return new SrSchemaReader(srClient, parallelism);
         }
     }
 }
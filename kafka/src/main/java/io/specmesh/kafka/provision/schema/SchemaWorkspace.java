@@ -0,0 +1,343 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision.schema;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference;
+import io.confluent.kafka.schemaregistry.json.JsonSchema;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner.SchemaProvisioningException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed schemas under a schema path, with their references resolved transitively.
+ *
+ * <p>A workspace lives for one provisioning run. Within it each file is read and parsed once, and
+ * the resulting {@link ParsedSchema} is shared by every topic, subject and referencing schema that
+ * names it, for as long as the file is unchanged. A schema is re-parsed only if it, or a file it
+ * references directly or indirectly, has been modified since it was parsed. Nothing is cached
+ * beyond the workspace, so long-lived processes do not accumulate parsed schemas.
+ *
+ * <p>References are found as follows:
+ *
+ * <ul>
+ *   <li>Avro: fields carrying a {@code subject}, resolved to {@code <subject>.avsc} beside the
+ *       referencing file
+ *   <li>Protobuf: {@code import} statements, resolved against the schema path then beside the
+ *       importing file. Well known {@code google/protobuf} and {@code confluent} imports are built
+ *       in and not resolved
+ *   <li>JSON: {@code $ref}s to other files, resolved beside the referencing file. Local ({@code
+ *       #...}) and absolute URL refs are left to the schema library
+ * </ul>
+ *
+ * Protobuf and JSON references use the referenced file name, without extension, as the subject.
+ */
+public final class SchemaWorkspace {
+
+    private static final ObjectMapper OBJECT_MAPPER =
+            new ObjectMapper().configure(JsonParser.Feature.ALLOW_COMMENTS, true);
+
+    private static final Pattern PROTO_IMPORT =
+            Pattern.compile(
+                    "^\\s*import\\s+(?:public\\s+|weak\\s+)?\"([^\"]+)\"\\s*;", Pattern.MULTILINE);
+
+    private final Path root;
+    private final Map<Path, Entry> entries = new HashMap<>();
+    private final AtomicInteger parses = new AtomicInteger();
+
+    SchemaWorkspace(final Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    /**
+     * A new, empty workspace for a schema path
+     *
+     * @param root the schema path
+     * @return the workspace
+     */
+    public static SchemaWorkspace of(final Path root) {
+        return new SchemaWorkspace(root);
+    }
+
+    /**
+     * Load a schema referenced from a spec
+     *
+     * @param schemaRef path of the schema, relative to the schema path
+     * @return the parsed schema, with its references resolved
+     */
+    public Collection<ParsedSchema> load(final String schemaRef) {
+        return load(Paths.get(root.toString(), schemaRef));
+    }
+
+    /**
+     * Load a schema file
+     *
+     * @param file the schema file
+     * @return the parsed schema, with its references resolved
+     */
+    public synchronized Collection<ParsedSchema> load(final Path file) {
+        try {
+            return entry(file.toAbsolutePath().normalize(), new ArrayDeque<>()).schemas;
+        } catch (SchemaProvisioningException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new SchemaProvisioningException(
+                    "Failed to load: " + file + " from: " + file.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * @return number of files parsed by this workspace, for tests
+     */
+    int parses() {
+        return parses.get();
+    }
+
+    private Entry entry(final Path file, final Deque<Path> loading) {
+        final Entry cached = entries.get(file);
+        if (cached != null && cached.fresh()) {
+            return cached;
+        }
+        if (loading.contains(file)) {
+            throw new SchemaProvisioningException("Cyclic schema reference: " + loading);
+        }
+
+        loading.push(file);
+        try {
+            final String content = Files.readString(file);
+            final Type type = Type.of(file);
+            final List<SchemaReference> references = new ArrayList<>();
+            final LinkedHashMap<String, String> resolved = new LinkedHashMap<>();
+            final Map<Path, String> stamps = new HashMap<>();
+            stamps.put(file, stamp(file));
+
+            for (final Ref ref : type.references(this, file, content)) {
+                final Entry child = entry(ref.file, loading);
+                references.add(new SchemaReference(ref.name, ref.subject, -1));
+                // dependencies first: Avro parses resolved references in iteration order
+                child.resolved.forEach(resolved::putIfAbsent);
+                resolved.putIfAbsent(ref.key, child.content);
+                stamps.putAll(child.stamps);
+            }
+
+            final Entry entry =
+                    new Entry(content, type.parse(content, references, resolved), resolved, stamps);
+            parses.incrementAndGet();
+            entries.put(file, entry);
+            return entry;
+        } catch (IOException e) {
+            throw new SchemaProvisioningException(
+                    "Failed to load: " + file + " from: " + loading, e);
+        } finally {
+            loading.pop();
+        }
+    }
+
+    private static String stamp(final Path file) {
+        try {
+            return Files.getLastModifiedTime(file) + ":" + Files.size(file);
+        } catch (IOException e) {
+            return "unreadable";
+        }
+    }
+
+    private static String baseName(final Path file) {
+        final String name = String.valueOf(file.getFileName());
+        final int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private static Path sibling(final Path file, final String name) {
+        return Optional.ofNullable(file.getParent())
+                .map(parent -> parent.resolve(name))
+                .orElse(Paths.get(name))
+                .normalize();
+    }
+
+    private static List<JsonNode> findJsonNodes(final JsonNode node, final String searchFor) {
+        final List<JsonNode> results = new ArrayList<>();
+        if (node.has(searchFor)) {
+            results.add(node);
+            return results;
+        }
+        if (node.isArray()) {
+            node.forEach(child -> results.addAll(findJsonNodes(child, searchFor)));
+        } else if (node.isObject()) {
+            for (Iterator<JsonNode> it = node.elements(); it.hasNext(); ) {
+                results.addAll(findJsonNodes(it.next(), searchFor));
+            }
+        }
+        return results;
+    }
+
+    private static final class Entry {
+        private final String content;
+        private final List<ParsedSchema> schemas;
+        private final Map<String, String> resolved;
+        private final Map<Path, String> stamps;
+
+        Entry(
+                final String content,
+                final ParsedSchema schema,
+                final Map<String, String> resolved,
+                final Map<Path, String> stamps) {
+            this.content = content;
+            this.schemas = List.of(schema);
+            this.resolved = resolved;
+            this.stamps = stamps;
+        }
+
+        boolean fresh() {
+            return stamps.entrySet().stream()
+                    .allMatch(e -> stamp(e.getKey()).equals(e.getValue()));
+        }
+    }
+
+    private static final class Ref {
+        private final String name;
+        private final String subject;
+        private final String key;
+        private final Path file;
+
+        Ref(final String name, final String subject, final String key, final Path file) {
+            this.name = name;
+            this.subject = subject;
+            this.key = key;
+            this.file = file;
+        }
+    }
+
+    private enum Type {
+        AVRO {
+            @Override
+            List<Ref> references(final SchemaWorkspace ws, final Path file, final String content)
+                    throws IOException {
+                final List<Ref> refs = new ArrayList<>();
+                final JsonNode tree = OBJECT_MAPPER.readTree(content);
+                for (final JsonNode ref : findJsonNodes(tree, "subject")) {
+                    final String subject = ref.get("subject").asText();
+                    refs.add(
+                            new Ref(
+                                    ref.get("name").asText(),
+                                    subject,
+                                    subject,
+                                    sibling(file, subject + ".avsc")));
+                }
+                return refs;
+            }
+
+            @Override
+            ParsedSchema parse(
+                    final String content,
+                    final List<SchemaReference> references,
+                    final Map<String, String> resolved) {
+                return new AvroSchema(content, references, resolved, -1);
+            }
+        },
+        PROTOBUF {
+            @Override
+            List<Ref> references(final SchemaWorkspace ws, final Path file, final String content) {
+                final List<Ref> refs = new ArrayList<>();
+                final Matcher matcher = PROTO_IMPORT.matcher(content);
+                while (matcher.find()) {
+                    final String imported = matcher.group(1);
+                    if (imported.startsWith("google/protobuf/")
+                            || imported.startsWith("confluent/")) {
+                        continue;
+                    }
+                    final Path fromRoot = ws.root.resolve(imported).normalize();
+                    final Path target =
+                            Files.exists(fromRoot) ? fromRoot : sibling(file, imported);
+                    refs.add(new Ref(imported, baseName(target), imported, target));
+                }
+                return refs;
+            }
+
+            @Override
+            ParsedSchema parse(
+                    final String content,
+                    final List<SchemaReference> references,
+                    final Map<String, String> resolved) {
+                return new ProtobufSchema(content, references, resolved, null, null);
+            }
+        },
+        JSON {
+            @Override
+            List<Ref> references(final SchemaWorkspace ws, final Path file, final String content)
+                    throws IOException {
+                final List<Ref> refs = new ArrayList<>();
+                final JsonNode tree = OBJECT_MAPPER.readTree(content);
+                for (final JsonNode node : findJsonNodes(tree, "$ref")) {
+                    final String ref = node.get("$ref").asText();
+                    final String location = ref.split("#", 2)[0];
+                    if (location.isEmpty() || location.contains("://")) {
+                        continue;
+                    }
+                    final Path target = sibling(file, location);
+                    refs.add(new Ref(location, baseName(target), location, target));
+                }
+                return refs;
+            }
+
+            @Override
+            ParsedSchema parse(
+                    final String content,
+                    final List<SchemaReference> references,
+                    final Map<String, String> resolved) {
+                return new JsonSchema(content, references, resolved, null);
+            }
+        };
+
+        abstract List<Ref> references(SchemaWorkspace ws, Path file, String content)
+                throws IOException;
+
+        abstract ParsedSchema parse(
+                String content, List<SchemaReference> references, Map<String, String> resolved);
+
+        static Type of(final Path file) {
+            final String name = String.valueOf(file.getFileName());
+            if (name.endsWith(".avsc")) {
+                return AVRO;
+            } else if (name.endsWith(".yml") || name.endsWith(".json")) {
+                return JSON;
+            } else if (name.endsWith(".proto")) {
+                return PROTOBUF;
+            }
+            throw new UnsupportedOperationException("Unsupported schema file: " + file);
+        }
+    }
+}
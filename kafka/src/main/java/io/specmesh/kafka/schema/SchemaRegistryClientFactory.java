@@ -0,0 +1,291 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.schema;
+
+import static java.util.Objects.requireNonNull;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.confluent.kafka.schemaregistry.avro.AvroSchemaProvider;
+import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClientConfig;
+import io.confluent.kafka.schemaregistry.client.rest.RestService;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.confluent.kafka.schemaregistry.json.JsonSchemaProvider;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaProvider;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Creates schema registry clients with tunable caching and, optionally, bounded request
+ * concurrency and request metrics.
+ *
+ * <p>Clients are {@link CachedSchemaRegistryClient}s whose id and schema caches hold {@code
+ * cacheCapacity} entries per map, rather than a handful, so a domain with many subjects does not
+ * evict its own schemas. Lookups of the latest version and of missing subjects or ids are cached
+ * for {@code cacheTtlSeconds}.
+ *
+ * <p>A factory built with {@code maxConcurrentRequests} shares that many request permits between
+ * all of its clients, and one built with {@code recordMetrics} shares one {@link
+ * SchemaRegistryMetrics}; by default neither sits in front of requests. The registry client uses
+ * {@code HttpURLConnection}, whose keep-alive pool is JVM wide and sized by the {@code
+ * http.maxConnections} system property; callers allowing more concurrent requests than that
+ * should raise it themselves.
+ */
+@SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "metrics are shared by design")
+public final class SchemaRegistryClientFactory {
+
+    /** Entries per client cache */
+    public static final int DEFAULT_CACHE_CAPACITY = 1000;
+
+    /** Seconds latest version and missing lookups are cached */
+    public static final int DEFAULT_CACHE_TTL_SECONDS = 60;
+
+    private static final String LATEST_CACHE_TTL = "latest.cache.ttl.sec";
+    private static final String MISSING_ID_CACHE_TTL = "missing.id.cache.ttl.sec";
+    private static final String MISSING_SCHEMA_CACHE_TTL = "missing.schema.cache.ttl.sec";
+
+    private final int cacheCapacity;
+    private final int cacheTtlSeconds;
+    private final Semaphore permits;
+    private final boolean recordMetrics;
+    private final SchemaRegistryMetrics metrics = new SchemaRegistryMetrics();
+
+    private SchemaRegistryClientFactory(
+            final int cacheCapacity,
+            final int cacheTtlSeconds,
+            final int maxConcurrentRequests,
+            final boolean recordMetrics) {
+        this.cacheCapacity = cacheCapacity;
+        this.cacheTtlSeconds = cacheTtlSeconds;
+        this.permits =
+                maxConcurrentRequests > 0 ? new Semaphore(maxConcurrentRequests, true) : null;
+        this.recordMetrics = recordMetrics;
+    }
+
+    /**
+     * berevity
+     *
+     * @return builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The factory used by {@code Clients} and the provisioners when none is supplied: larger
+     * caches, no request limit and no metrics
+     *
+     * @return factory with default settings
+     */
+    public static SchemaRegistryClientFactory defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Create a client
+     *
+     * @param schemaRegistryUrl registry url
+     * @param srApiKey api key, or null if the registry is not secured
+     * @param srApiSecret api secret
+     * @return the client
+     */
+    public SchemaRegistryClient create(
+            final String schemaRegistryUrl, final String srApiKey, final String srApiSecret) {
+        final Map<String, Object> properties = new HashMap<>();
+        if (srApiKey != null && !srApiKey.isBlank()) {
+            properties.put(SchemaRegistryClientConfig.BASIC_AUTH_CREDENTIALS_SOURCE, "USER_INFO");
+            properties.put(
+                    SchemaRegistryClientConfig.USER_INFO_CONFIG, srApiKey + ":" + srApiSecret);
+        }
+        properties.put(LATEST_CACHE_TTL, cacheTtlSeconds);
+        properties.put(MISSING_ID_CACHE_TTL, cacheTtlSeconds);
+        properties.put(MISSING_SCHEMA_CACHE_TTL, cacheTtlSeconds);
+
+        final var url = requireNonNull(schemaRegistryUrl, "schemaRegistryUrl");
+        final var client =
+                new CachedSchemaRegistryClient(
+                        permits == null && !recordMetrics
+                                ? new RestService(url)
+                                : new MeteredRestService(
+                                        url, permits, recordMetrics ? metrics : null),
+                        cacheCapacity,
+                        List.of(
+                                new AvroSchemaProvider(),
+                                new JsonSchemaProvider(),
+                                new ProtobufSchemaProvider()),
+                        properties,
+                        null);
+        return recordMetrics ? counting(client, metrics) : client;
+    }
+
+    /**
+     * Metrics for every client created by this factory, empty unless it was built with {@code
+     * recordMetrics}
+     *
+     * @return live metrics
+     */
+    public SchemaRegistryMetrics metrics() {
+        return metrics;
+    }
+
+    /** Records each client call as a cache hit, if it made no request, or a miss */
+    private static SchemaRegistryClient counting(
+            final SchemaRegistryClient delegate, final SchemaRegistryMetrics metrics) {
+        return (SchemaRegistryClient)
+                Proxy.newProxyInstance(
+                        SchemaRegistryClient.class.getClassLoader(),
+                        new Class<?>[] {SchemaRegistryClient.class},
+                        (proxy, method, args) -> {
+                            if (method.getDeclaringClass() == Object.class) {
+                                return method.invoke(delegate, args);
+                            }
+                            final long before = metrics.requestsOnThread();
+                            try {
+                                return method.invoke(delegate, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            } finally {
+                                metrics.call(
+                                        method.getName(),
+                                        metrics.requestsOnThread() == before);
+                            }
+                        });
+    }
+
+    /** Holds a permit, if limited, while each request is in flight and times it, if metered */
+    private static final class MeteredRestService extends RestService {
+
+        private final Semaphore permits;
+        private final SchemaRegistryMetrics metrics;
+
+        MeteredRestService(
+                final String baseUrl,
+                final Semaphore permits,
+                final SchemaRegistryMetrics metrics) {
+            super(baseUrl);
+            this.permits = permits;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public <T> T httpRequest(
+                final String path,
+                final String method,
+                final byte[] requestBodyData,
+                final Map<String, String> requestProperties,
+                final TypeReference<T> responseFormat)
+                throws IOException, RestClientException {
+            final long started = System.nanoTime();
+            if (permits != null) {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted waiting to call: " + path);
+                }
+            }
+            boolean failed = true;
+            try {
+                final T response =
+                        super.httpRequest(
+                                path, method, requestBodyData, requestProperties, responseFormat);
+                failed = false;
+                return response;
+            } finally {
+                if (permits != null) {
+                    permits.release();
+                }
+                if (metrics != null) {
+                    metrics.request(method, path, System.nanoTime() - started, failed);
+                }
+            }
+        }
+    }
+
+    /** builder */
+    public static final class Builder {
+
+        private int cacheCapacity = DEFAULT_CACHE_CAPACITY;
+        private int cacheTtlSeconds = DEFAULT_CACHE_TTL_SECONDS;
+        private int maxConcurrentRequests;
+        private boolean recordMetrics;
+
+        private Builder() {}
+
+        /**
+         * entries per client cache
+         *
+         * @param cacheCapacity - capacity
+         * @return builder
+         */
+        public Builder cacheCapacity(final int cacheCapacity) {
+            this.cacheCapacity = Math.max(1, cacheCapacity);
+            return this;
+        }
+
+        /**
+         * how long latest version and missing lookups are cached
+         *
+         * @param cacheTtlSeconds - ttl, 0 to not cache them
+         * @return builder
+         */
+        public Builder cacheTtlSeconds(final int cacheTtlSeconds) {
+            this.cacheTtlSeconds = Math.max(0, cacheTtlSeconds);
+            return this;
+        }
+
+        /**
+         * requests in flight at once, across all clients of the factory
+         *
+         * @param maxConcurrentRequests - max requests, 0 for no limit
+         * @return builder
+         */
+        public Builder maxConcurrentRequests(final int maxConcurrentRequests) {
+            this.maxConcurrentRequests = Math.max(0, maxConcurrentRequests);
+            return this;
+        }
+
+        /**
+         * record request latency and cache hits in the factory's metrics
+         *
+         * @param recordMetrics - true to record
+         * @return builder
+         */
+        public Builder recordMetrics(final boolean recordMetrics) {
+            this.recordMetrics = recordMetrics;
+            return this;
+        }
+
+        /**
+         * build it
+         *
+         * @return the factory
+         */
+        public SchemaRegistryClientFactory build() {
+            return new SchemaRegistryClientFactory(
+                    cacheCapacity, cacheTtlSeconds, maxConcurrentRequests, recordMetrics);
+        }
+    }
+}
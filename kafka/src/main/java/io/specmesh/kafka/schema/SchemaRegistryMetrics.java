@@ -0,0 +1,166 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.schema;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * Request latency per registry endpoint, and cache hits per client method, for the clients
+ * created by a {@link SchemaRegistryClientFactory}.
+ *
+ * <p>Endpoints are keyed by HTTP method and path template, e.g. {@code GET
+ * /subjects/{subject}/versions/{version}}. A client call counts as a cache hit when it completes
+ * without making any HTTP request on the calling thread.
+ */
+public final class SchemaRegistryMetrics {
+
+    private static final Pattern[] SEGMENTS = {
+        Pattern.compile("/subjects/[^/]+"),
+        Pattern.compile("/versions/[^/]+"),
+        Pattern.compile("/ids/[^/]+"),
+        Pattern.compile("/config/[^/]+"),
+        Pattern.compile("/mode/[^/]+")
+    };
+
+    private static final String[] TEMPLATES = {
+        "/subjects/{subject}",
+        "/versions/{version}",
+        "/ids/{id}",
+        "/config/{subject}",
+        "/mode/{subject}"
+    };
+
+    private final ConcurrentMap<String, Timer> endpoints = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Calls> calls = new ConcurrentHashMap<>();
+    private final ThreadLocal<long[]> requestsOnThread =
+            ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * Latency per endpoint
+     *
+     * @return stats keyed by method and path template
+     */
+    public Map<String, EndpointStats> endpoints() {
+        final Map<String, EndpointStats> stats = new TreeMap<>();
+        endpoints.forEach((endpoint, timer) -> stats.put(endpoint, timer.stats()));
+        return stats;
+    }
+
+    /**
+     * Cache hits per client method
+     *
+     * @return stats keyed by method name
+     */
+    public Map<String, CacheStats> calls() {
+        final Map<String, CacheStats> stats = new TreeMap<>();
+        calls.forEach(
+                (method, count) ->
+                        stats.put(method, new CacheStats(count.hits.sum(), count.misses.sum())));
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaRegistryMetrics{endpoints=" + endpoints() + ", calls=" + calls() + "}";
+    }
+
+    void request(final String method, final String path, final long nanos, final boolean failed) {
+        requestsOnThread.get()[0]++;
+        endpoints.computeIfAbsent(endpoint(method, path), k -> new Timer()).record(nanos, failed);
+    }
+
+    long requestsOnThread() {
+        return requestsOnThread.get()[0];
+    }
+
+    void call(final String method, final boolean hit) {
+        final var count = calls.computeIfAbsent(method, k -> new Calls());
+        (hit ? count.hits : count.misses).increment();
+    }
+
+    static String endpoint(final String method, final String path) {
+        final int query = path.indexOf('?');
+        String template = query < 0 ? path : path.substring(0, query);
+        for (int i = 0; i < SEGMENTS.length; i++) {
+            template = SEGMENTS[i].matcher(template).replaceAll(TEMPLATES[i]);
+        }
+        return method + " " + template;
+    }
+
+    /** Requests made to one endpoint */
+    @Data
+    @Accessors(fluent = true)
+    public static final class EndpointStats {
+        /** requests made */
+        private final long requests;
+        /** requests that failed, including not found responses */
+        private final long errors;
+        /** mean latency, including time queued for a request permit */
+        private final long meanMillis;
+        /** slowest request */
+        private final long maxMillis;
+    }
+
+    /** Calls made to one client method */
+    @Data
+    @Accessors(fluent = true)
+    public static final class CacheStats {
+        /** calls answered from the client's caches */
+        private final long hits;
+        /** calls that went to the registry */
+        private final long misses;
+    }
+
+    private static final class Timer {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void record(final long nanos, final boolean failed) {
+            requests.increment();
+            if (failed) {
+                errors.increment();
+            }
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        EndpointStats stats() {
+            final long count = requests.sum();
+            return new EndpointStats(
+                    count,
+                    errors.sum(),
+                    count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.sum() / count),
+                    TimeUnit.NANOSECONDS.toMillis(maxNanos.get()));
+        }
+    }
+
+    private static final class Calls {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+    }
+}
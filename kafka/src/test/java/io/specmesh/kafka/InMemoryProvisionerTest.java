@@ -0,0 +1,201 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.specmesh.apiparser.model.ApiSpec;
+import io.specmesh.apiparser.model.Bindings;
+import io.specmesh.apiparser.model.Channel;
+import io.specmesh.apiparser.model.KafkaBinding;
+import io.specmesh.kafka.provision.Provisioner;
+import io.specmesh.kafka.provision.ProvisioningException;
+import io.specmesh.kafka.provision.Status;
+import io.specmesh.kafka.provision.TopicProvisioner;
+import io.specmesh.test.TestSpecLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.acl.AclBindingFilter;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class InMemoryProvisionerTest {
+
+    private static final KafkaApiSpec API_SPEC =
+            TestSpecLoader.loadFromClassPath("provisioner-functional-test-api.yaml");
+
+    private static final int SCALE_TOPICS = 50_000;
+
+    @RegisterExtension
+    private static final InMemoryKafkaEnvironment KAFKA_ENV =
+            InMemoryKafkaEnvironment.builder().build();
+
+    @Test
+    @Order(1)
+    void shouldProvisionSpec() throws Exception {
+        // When:
+        final Status status = provision(false);
+
+        // Then:
+        status.check();
+        assertThat(
+                status.topics().stream().allMatch(t -> t.state() == Status.STATE.CREATED),
+                is(true));
+        try (Admin admin = KAFKA_ENV.adminClient()) {
+            assertThat(
+                    admin.listTopics().names().get(),
+                    is(
+                            API_SPEC.listDomainOwnedTopics().stream()
+                                    .map(NewTopic::name)
+                                    .collect(Collectors.toSet())));
+            assertThat(
+                    admin.describeAcls(AclBindingFilter.ANY).values().get().size(),
+                    is(API_SPEC.requiredAcls().size()));
+        }
+        assertThat(KAFKA_ENV.srClient().getAllSubjects().isEmpty(), is(false));
+    }
+
+    @Test
+    @Order(2)
+    void shouldFindNothingToDoOnSecondRun() {
+        // When:
+        final Status status = provision(true);
+
+        // Then:
+        status.check();
+        assertThat(
+                status.topics().stream()
+                        .filter(t -> t.state() != Status.STATE.READ)
+                        .collect(Collectors.toList()),
+                is(empty()));
+        assertThat(
+                status.acls().stream()
+                        .filter(a -> a.state() != Status.STATE.READ)
+                        .collect(Collectors.toList()),
+                is(empty()));
+    }
+
+    @Test
+    @Order(3)
+    void shouldNotPlanAgainstUnreadableSubject(@TempDir final Path dir) throws Exception {
+        // Given:
+        final var subject = KAFKA_ENV.srClient().getAllSubjects().iterator().next();
+        final var srClient = spy(KAFKA_ENV.srClient());
+        doThrow(new RestClientException("boom", 500, 50001))
+                .when(srClient)
+                .getSchemas(subject, false, true);
+        final var plan = dir.resolve("plan.json");
+
+        // When:
+        final Exception e =
+                assertThrows(
+                        ProvisioningException.class,
+                        () ->
+                                Provisioner.builder()
+                                        .apiSpec(API_SPEC)
+                                        .schemaPath("./build/resources/test")
+                                        .adminClient(KAFKA_ENV.adminClient())
+                                        .schemaRegistryClient(srClient)
+                                        .planOut(plan.toString())
+                                        .build()
+                                        .provision());
+
+        // Then:
+        assertThat(e.getMessage(), containsString(subject));
+        assertThat(Files.exists(plan), is(false));
+    }
+
+    @Test
+    @Order(4)
+    @Timeout(value = 120, unit = TimeUnit.SECONDS)
+    void shouldProvisionFiftyThousandTopics() {
+        // Given:
+        final var spec = scaleSpec();
+
+        // When:
+        try (Admin admin = KAFKA_ENV.adminClient()) {
+            TopicProvisioner.provision(false, false, spec, admin);
+        }
+
+        // Then:
+        assertThat(KAFKA_ENV.cluster().topicCount(), is(SCALE_TOPICS + 2));
+        try (Admin admin = KAFKA_ENV.adminClient()) {
+            assertThat(
+                    TopicProvisioner.provision(true, false, spec, admin).stream()
+                            .filter(t -> t.state() != Status.STATE.READ)
+                            .collect(Collectors.toList()),
+                    is(empty()));
+        }
+    }
+
+    private static Status provision(final boolean dryRun) {
+        return Provisioner.builder()
+                .apiSpec(API_SPEC)
+                .schemaPath("./build/resources/test")
+                .adminClient(KAFKA_ENV.adminClient())
+                .schemaRegistryClient(KAFKA_ENV.srClient())
+                .dryRun(dryRun)
+                .build()
+                .provision();
+    }
+
+    private static KafkaApiSpec scaleSpec() {
+        final Map<String, Channel> channels = new LinkedHashMap<>();
+        IntStream.range(0, SCALE_TOPICS)
+                .forEach(
+                        i ->
+                                channels.put(
+                                        "scale.test._public.topic_" + i,
+                                        Channel.builder()
+                                                .bindings(
+                                                        Bindings.builder()
+                                                                .kafka(
+                                                                        KafkaBinding.builder()
+                                                                                .partitions(1)
+                                                                                .replicas(1)
+                                                                                .build())
+                                                                .build())
+                                                .build()));
+        return new KafkaApiSpec(
+                ApiSpec.builder()
+                        .id("urn:scale.test")
+                        .version("1")
+                        .asyncapi("2.5.0")
+                        .channels(channels)
+                        .build());
+    }
+}
@@ -20,6 +20,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import io.specmesh.apiparser.model.SchemaInfo;
 import io.specmesh.test.TestSpecLoader;
@@ -118,6 +120,17 @@ public class KafkaAPISpecTest {
         assertThat(newTopics, hasSize(3));
     }
 
+    @Test
+    public void shouldMemoizeDerivedViews() {
+        assertThat(
+                API_SPEC.listDomainOwnedTopics(),
+                is(sameInstance(API_SPEC.listDomainOwnedTopics())));
+        assertThat(API_SPEC.requiredAcls("bob"), is(sameInstance(API_SPEC.requiredAcls("bob"))));
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> API_SPEC.requiredAcls().remove(API_SPEC.requiredAcls().iterator().next()));
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {"bob", ""})
     public void shouldGenerateAclToAllowAnyOneToConsumePublicTopics(final String username) {
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.specmesh.kafka;
+
+import static org.apache.kafka.common.acl.AclOperation.ALL;
+import static org.apache.kafka.common.acl.AclOperation.IDEMPOTENT_WRITE;
+import static org.apache.kafka.common.acl.AclPermissionType.ALLOW;
+import static org.apache.kafka.common.resource.PatternType.LITERAL;
+import static org.apache.kafka.common.resource.PatternType.PREFIXED;
+import static org.apache.kafka.common.resource.Resource.CLUSTER_NAME;
+import static org.apache.kafka.common.resource.ResourceType.CLUSTER;
+import static org.apache.kafka.common.resource.ResourceType.GROUP;
+import static org.apache.kafka.common.resource.ResourceType.TRANSACTIONAL_ID;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.specmesh.kafka.provision.AclProvisioner;
+import io.specmesh.kafka.provision.Status;
+import io.specmesh.kafka.provision.TopicProvisioner;
+import io.specmesh.kafka.provision.TopicProvisioner.Topic;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner;
+import io.specmesh.test.TestSpecLoader;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.ConfigEntry;
+import org.apache.kafka.common.TopicCollection;
+import org.apache.kafka.common.acl.AccessControlEntry;
+import org.apache.kafka.common.acl.AclBinding;
+import org.apache.kafka.common.acl.AclBindingFilter;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.resource.ResourcePattern;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+/**
+ * The core cases of {@link ProvisionerFreshStartFunctionalTest}, run against an {@link
+ * InMemoryKafkaEnvironment}: dry runs then applies of topics, ACLs and schemas on an empty cluster
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ProvisionerFreshStartInMemoryTest {
+
+    private static final KafkaApiSpec API_SPEC =
+            TestSpecLoader.loadFromClassPath("provisioner-functional-test-api.yaml");
+    private static final String USER_SIGNED_UP = "simple.provision_demo._public.user_signed_up";
+    private static final String USER_INFO = "simple.provision_demo._protected.user_info";
+
+    @RegisterExtension
+    private static final InMemoryKafkaEnvironment KAFKA_ENV =
+            InMemoryKafkaEnvironment.builder()
+                    .withKafkaAcls(aclsForOtherDomain("some.other.domain.root"))
+                    .withKafkaAcls(aclsForOtherDomain("london.hammersmith.transport"))
+                    .build();
+
+    @Test
+    @Order(1)
+    void shouldDryRunTopicsFromEmptyCluster() throws ExecutionException, InterruptedException {
+        try (Admin adminClient = KAFKA_ENV.adminClient()) {
+
+            final var changeset = TopicProvisioner.provision(true, false, API_SPEC, adminClient);
+
+            assertThat(
+                    changeset.stream().map(Topic::name).collect(Collectors.toSet()),
+                    is(containsInAnyOrder(USER_SIGNED_UP, USER_INFO)));
+            assertThat(count(changeset, Status.STATE.CREATE), is(2L));
+            assertThat(topic(changeset, USER_SIGNED_UP).partitions(), is(10));
+            assertThat(
+                    topic(changeset, USER_SIGNED_UP).config().get(TopicConfig.RETENTION_MS_CONFIG),
+                    is("3600000"));
+            assertThat(adminClient.listTopics().names().get(), is(Set.of()));
+        }
+    }
+
+    @Test
+    @Order(2)
+    void shouldDryRunACLsFromEmptyCluster() {
+        try (Admin adminClient = KAFKA_ENV.adminClient()) {
+
+            final var changeset =
+                    AclProvisioner.provision(true, false, API_SPEC, API_SPEC.id(), adminClient);
+
+            assertThat(
+                    changeset.stream().filter(acl -> acl.state() == Status.STATE.CREATE).count(),
+                    is(12L));
+            assertThat(
+                    changeset.stream().filter(acl -> acl.name().contains("TOPIC")).count(),
+                    is(8L));
+        }
+    }
+
+    @Test
+    @Order(3)
+    void shouldDryRunSchemasFromEmptyCluster() throws RestClientException, IOException {
+        final var srClient = KAFKA_ENV.srClient();
+
+        final var changeset =
+                SchemaProvisioner.provision(
+                        true, false, API_SPEC, "./build/resources/test", srClient);
+
+        assertThat(
+                changeset.stream().filter(s -> s.state() == Status.STATE.CREATE).count(),
+                is(3L));
+        assertThat(srClient.getAllSubjects(), is(hasSize(0)));
+    }
+
+    @Test
+    @Order(4)
+    void shouldProvisionTopicsFromEmptyCluster() throws ExecutionException, InterruptedException {
+        try (Admin adminClient = KAFKA_ENV.adminClient()) {
+
+            final var changeset = TopicProvisioner.provision(false, false, API_SPEC, adminClient);
+
+            assertThat(count(changeset, Status.STATE.CREATED), is(2L));
+
+            final var userSignedUp =
+                    adminClient
+                            .describeTopics(TopicCollection.ofTopicNames(List.of(USER_SIGNED_UP)))
+                            .topicNameValues()
+                            .get(USER_SIGNED_UP)
+                            .get();
+            assertThat(userSignedUp.partitions(), is(hasSize(10)));
+            assertThat(userSignedUp.partitions().get(0).replicas(), is(hasSize(1)));
+
+            final var resource = new ConfigResource(ConfigResource.Type.TOPIC, USER_SIGNED_UP);
+            final var config =
+                    adminClient.describeConfigs(List.of(resource)).all().get().get(resource);
+            assertThat(
+                    config.get(TopicConfig.CLEANUP_POLICY_CONFIG).value(),
+                    is(TopicConfig.CLEANUP_POLICY_DELETE));
+            assertThat(config.get(TopicConfig.RETENTION_MS_CONFIG).value(), is("3600000"));
+            assertThat(
+                    config.get(TopicConfig.RETENTION_MS_CONFIG).source(),
+                    is(ConfigEntry.ConfigSource.DYNAMIC_TOPIC_CONFIG));
+            assertThat(
+                    config.get(TopicConfig.SEGMENT_BYTES_CONFIG).source(),
+                    is(ConfigEntry.ConfigSource.DEFAULT_CONFIG));
+        }
+    }
+
+    @Test
+    @Order(5)
+    void shouldDoRealACLsFromEmptyCluster() throws ExecutionException, InterruptedException {
+        try (Admin adminClient = KAFKA_ENV.adminClient()) {
+
+            final var changeset =
+                    AclProvisioner.provision(false, false, API_SPEC, API_SPEC.id(), adminClient);
+
+            assertThat(
+                    changeset.stream().filter(acl -> acl.state() == Status.STATE.CREATED).count(),
+                    is(12L));
+
+            final var provisionDemoBindings =
+                    adminClient.describeAcls(AclBindingFilter.ANY).values().get().stream()
+                            .filter(binding -> binding.toString().contains("provision_demo"))
+                            .collect(Collectors.toList());
+            assertThat(
+                    provisionDemoBindings.stream()
+                            .filter(binding -> binding.toString().contains("TOPIC"))
+                            .count(),
+                    is(8L));
+            assertThat(
+                    provisionDemoBindings.stream()
+                            .filter(binding -> binding.toString().contains("TRANSACTIONAL_ID"))
+                            .count(),
+                    is(2L));
+        }
+    }
+
+    @Test
+    @Order(6)
+    void shouldPublishSchemasFromEmptyCluster() throws RestClientException, IOException {
+        final var srClient = KAFKA_ENV.srClient();
+
+        final var changeset =
+                SchemaProvisioner.provision(
+                        false, false, API_SPEC, "./build/resources/test", srClient);
+
+        assertThat(
+                changeset.stream().filter(s -> s.state() == Status.STATE.CREATED).count(),
+                is(3L));
+        assertThat(
+                srClient.getSchemas("simple", false, false).stream()
+                        .map(ParsedSchema::name)
+                        .collect(Collectors.toSet()),
+                is(
+                        containsInAnyOrder(
+                                "io.specmesh.kafka.schema.UserInfo",
+                                "simple.provision_demo._public.user_signed_up_value.key.UserSignedUpKey",
+                                "simple.provision_demo._public.user_signed_up_value.UserSignedUp")));
+    }
+
+    private static long count(final Collection<Topic> changeset, final Status.STATE state) {
+        return changeset.stream().filter(topic -> topic.state() == state).count();
+    }
+
+    private static Topic topic(final Collection<Topic> changeset, final String name) {
+        return changeset.stream().filter(topic -> topic.name().equals(name)).findFirst().get();
+    }
+
+    private static Set<AclBinding> aclsForOtherDomain(final String domainId) {
+        final String principal = "User:" + domainId;
+        return Set.of(
+                new AclBinding(
+                        new ResourcePattern(CLUSTER, CLUSTER_NAME, LITERAL),
+                        new AccessControlEntry(principal, "*", IDEMPOTENT_WRITE, ALLOW)),
+                new AclBinding(
+                        new ResourcePattern(GROUP, domainId, LITERAL),
+                        new AccessControlEntry(principal, "*", ALL, ALLOW)),
+                new AclBinding(
+                        new ResourcePattern(TRANSACTIONAL_ID, domainId, PREFIXED),
+                        new AccessControlEntry(principal, "*", ALL, ALLOW)));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.admin;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+import io.specmesh.kafka.admin.CapacityForecaster.TopicRetention;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.clients.admin.LogDirDescription;
+import org.apache.kafka.clients.admin.ReplicaInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+class CapacityForecasterTest {
+
+    private static final TopicPartition TP = new TopicPartition("orders", 0);
+
+    @Test
+    void shouldProjectFromRetentionTimeAndWarnOnHeadroom() {
+        // Given: 100 records retained in 10_000 bytes, 50 more records in 10s
+        final var earlier = report(10_000, 0, 100, 1_000_000);
+        final var later = report(10_000, 50, 150, 1_000_000);
+        final var retention =
+                Map.of("orders", TopicRetention.from(Map.of("retention.ms", "3600000"), 1, 1));
+
+        // When:
+        final var forecast = CapacityForecaster.forecast(retention, earlier, later, 10, 0.2);
+
+        // Then: 5 records/s x 100 bytes x 3600s
+        final var topic = forecast.topics().get("orders");
+        assertThat(topic.ingressRecordsPerSecond(), is(5.0));
+        assertThat(topic.projectedBytes(), is(1_800_000L));
+        assertThat(topic.boundBy(), is("retention.ms"));
+        assertThat(forecast.brokers(), is(Map.of(1, 1_800_000L)));
+        assertThat(forecast.warnings(), hasSize(1));
+        assertThat(forecast.warnings().get(0), startsWith("broker 1 projected 1800000"));
+    }
+
+    @Test
+    void shouldCapAtRetentionBytesAndFlagUnbounded() {
+        // Given:
+        final var earlier = report(10_000, 0, 100, 0);
+        final var later = report(10_000, 50, 150, 0);
+
+        // When:
+        final var capped =
+                CapacityForecaster.forecast(
+                        Map.of(
+                                "orders",
+                                TopicRetention.from(
+                                        Map.of("retention.ms", "-1", "retention.bytes", "4096"),
+                                        3,
+                                        2)),
+                        earlier,
+                        later,
+                        10,
+                        0.2);
+        final var unbounded =
+                CapacityForecaster.forecast(
+                        Map.of("orders", TopicRetention.from(Map.of("retention.ms", "-1"), 1, 1)),
+                        earlier,
+                        later,
+                        10,
+                        0.2);
+
+        // Then:
+        assertThat(capped.topics().get("orders").projectedBytes(), is(4096L * 3 * 2));
+        assertThat(capped.warnings(), is(List.of()));
+        assertThat(
+                unbounded.topics().get("orders").projectedBytes(),
+                is(CapacityForecaster.UNBOUNDED));
+        assertThat(unbounded.warnings(), contains(startsWith("topic orders has unlimited")));
+    }
+
+    @Test
+    void shouldPreferMeasuredRateAndCountOtherDataAgainstHeadroom() {
+        // Given: 490_000 bytes on the broker's disk are not the projected topic's
+        final var earlier = report(10_000, 0, 100, 1_000_000, 500_000);
+        final var later = report(10_000, 50, 150, 1_000_000, 500_000);
+        final var retention =
+                Map.of("orders", TopicRetention.from(Map.of("retention.ms", "3600000"), 1, 1));
+
+        // When:
+        final var forecast =
+                CapacityForecaster.forecast(
+                        retention, Map.of("orders", 1.0), earlier, later, 10, 0.2);
+
+        // Then: 1 record/s x 100 bytes x 3600s, under the 800_000 limit on its own
+        assertThat(forecast.topics().get("orders").projectedBytes(), is(360_000L));
+        assertThat(
+                forecast.warnings(),
+                contains(startsWith("broker 1 projected 360000 bytes plus 490000 bytes")));
+    }
+
+    private static StorageReport report(
+            final long bytes, final long start, final long end, final long capacity) {
+        return report(bytes, start, end, capacity, 0);
+    }
+
+    private static StorageReport report(
+            final long bytes,
+            final long start,
+            final long end,
+            final long capacity,
+            final long usable) {
+        final var report = new StorageReport(List.of("orders"));
+        final var logDir =
+                capacity > 0
+                        ? new LogDirDescription(
+                                null,
+                                Map.of(TP, new ReplicaInfo(bytes, 0, false)),
+                                capacity,
+                                usable)
+                        : new LogDirDescription(null, Map.of(TP, new ReplicaInfo(bytes, 0, false)));
+        report.addLogDirs(1, Map.of("/data", logDir));
+        report.addOffsets(TP, start, end);
+        return report;
+    }
+}
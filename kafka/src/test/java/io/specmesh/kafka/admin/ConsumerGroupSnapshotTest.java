@@ -0,0 +1,188 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.admin;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.clients.admin.MemberAssignment;
+import org.apache.kafka.clients.admin.MemberDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.ConsumerGroupState;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+class ConsumerGroupSnapshotTest {
+
+    private static final Node COORDINATOR = new Node(1, "localhost", 9092);
+
+    @Test
+    void shouldAnswerPrefixQueriesFromIndex() {
+        // Given:
+        final var snapshot =
+                ConsumerGroupSnapshot.of(
+                        List.of(group("g1", "acme._public.a"), group("g2", "other._public.b")),
+                        Map.of(
+                                "g1",
+                                Map.of(
+                                        new TopicPartition("acme._public.a", 0),
+                                        new OffsetAndMetadata(10),
+                                        new TopicPartition("acme._public.a", 1),
+                                        new OffsetAndMetadata(5)),
+                                "g2",
+                                Map.of(
+                                        new TopicPartition("other._public.b", 0),
+                                        new OffsetAndMetadata(7))),
+                        Map.of(),
+                        0L);
+
+        // When:
+        final var groups = snapshot.groupsForTopicPrefix("acme");
+
+        // Then:
+        assertThat(groups, hasSize(1));
+        assertThat(groups.get(0).id(), is("g1"));
+        assertThat(groups.get(0).members(), hasSize(1));
+        assertThat(groups.get(0).partitions(), hasSize(2));
+        assertThat(groups.get(0).offsetTotal(), is(15L));
+        assertThat(snapshot.groupsForTopicPrefix("nope"), is(empty()));
+    }
+
+    @Test
+    void shouldReportNoPartitionsWhenOffsetsDoNotMatchPrefix() {
+        // Given:
+        final var snapshot =
+                ConsumerGroupSnapshot.of(
+                        List.of(group("g1", "acme._public.a")),
+                        Map.of(
+                                "g1",
+                                Map.of(
+                                        new TopicPartition("elsewhere", 0),
+                                        new OffsetAndMetadata(3))),
+                        Map.of(),
+                        0L);
+
+        // When:
+        final var groups = snapshot.groupsForTopicPrefix("acme");
+
+        // Then:
+        assertThat(groups, hasSize(1));
+        assertThat(groups.get(0).partitions(), is(empty()));
+        assertThat(groups.get(0).offsetTotal(), is(0L));
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void shouldScaleWithGroupsPlusTopics() {
+        // Given:
+        final int count = 5_000;
+        final var descriptions = new ArrayList<ConsumerGroupDescription>();
+        final var offsets = new HashMap<String, Map<TopicPartition, OffsetAndMetadata>>();
+        for (int i = 0; i < count; i++) {
+            final var topic = "topic-" + i;
+            descriptions.add(group("group-" + i, topic));
+            offsets.put(
+                    "group-" + i,
+                    Map.of(new TopicPartition(topic, 0), new OffsetAndMetadata(1)));
+        }
+        final var snapshot = ConsumerGroupSnapshot.of(descriptions, offsets, Map.of(), 0L);
+
+        // When:
+        final var matched =
+                descriptions.stream()
+                        .map(d -> snapshot.groupsForTopicPrefix(topicOf(d)).get(0).id())
+                        .collect(Collectors.toList());
+
+        // Then:
+        assertThat(matched, hasSize(count));
+        assertThat(snapshot.groupsForTopicPrefix("topic-42"), hasSize(111));
+        assertThat(snapshot.groupsForTopicPrefix("topic-4999").get(0).id(), is("group-4999"));
+        assertThat(
+                ConsumerGroupSnapshot.of(List.of(), Map.of(), Map.of(), 0L)
+                        .groupsForTopicPrefix(""),
+                is(empty()));
+        assertThat(
+                snapshot.groupsForTopicPrefix("topic-1234").stream()
+                        .map(SmAdminClient.ConsumerGroup::id)
+                        .collect(Collectors.toList()),
+                contains("group-1234"));
+    }
+
+    @Test
+    void shouldJoinCommittedWithLogEndOffsetsToEstimateCatchUp() {
+        // Given:
+        final var tp0 = new TopicPartition("acme._public.a", 0);
+        final var tp1 = new TopicPartition("acme._public.a", 1);
+        final var groups = List.of(group("g1", "acme._public.a"));
+        final var earlier =
+                ConsumerGroupSnapshot.of(
+                        groups,
+                        Map.of("g1", Map.of(tp0, committed(100), tp1, committed(0))),
+                        Map.of(tp0, 1_000L, tp1, 10L),
+                        1_000L);
+        final var later =
+                ConsumerGroupSnapshot.of(
+                        groups,
+                        Map.of("g1", Map.of(tp0, committed(400), tp1, committed(10))),
+                        Map.of(tp0, 1_100L, tp1, 10L),
+                        11_000L);
+
+        // When:
+        final var group = later.groupsForTopicPrefix("acme", earlier).get(0);
+
+        // Then: lag 700, consumed 310 and produced 100 in 10s, so closing at 21/s
+        assertThat(group.lag(), is(700L));
+        assertThat(group.lagByTopic(), is(Map.of("acme._public.a", 700L)));
+        assertThat(group.consumptionRate(), is(31.0));
+        assertThat(group.catchUpSeconds(), is(700 / 21.0));
+        assertThat(later.groupsForTopicPrefix("acme").get(0).catchUpSeconds(), is(nullValue()));
+    }
+
+    private static OffsetAndMetadata committed(final long offset) {
+        return new OffsetAndMetadata(offset);
+    }
+
+    private static String topicOf(final ConsumerGroupDescription description) {
+        final var member = description.members().iterator().next();
+        return member.assignment().topicPartitions().iterator().next().topic();
+    }
+
+    private static ConsumerGroupDescription group(final String id, final String topic) {
+        final var member =
+                new MemberDescription(
+                        id + "-member",
+                        id + "-client",
+                        "/127.0.0.1",
+                        new MemberAssignment(Set.of(new TopicPartition(topic, 0))));
+        return new ConsumerGroupDescription(
+                id, false, List.of(member), "range", ConsumerGroupState.STABLE, COORDINATOR);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.admin;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SampleStoreTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @TempDir Path dir;
+
+    @Test
+    void shouldQueryTimeWindowForTopic() throws Exception {
+        // Given:
+        try (var store = SampleStore.open(dir.resolve("samples"), 100)) {
+            for (int i = 0; i < 10; i++) {
+                store.append("a", 0, i * 1000L, 0, i * 10L, i * HOUR);
+                store.append("b", 0, 1, 0, 1, i * HOUR);
+            }
+
+            // When:
+            final List<Long> seen = new ArrayList<>();
+            store.forEach("a", 3 * HOUR, 6 * HOUR, (p, bytes, start, end, ts) -> seen.add(ts));
+
+            // Then:
+            assertThat(seen, contains(3 * HOUR, 4 * HOUR, 5 * HOUR));
+            final var growth = store.growth("a", 0, 10 * HOUR);
+            assertThat(growth.partitions(), is(1));
+            assertThat(growth.bytesPerSecond(), is(9000 / (9 * 3600.0)));
+            assertThat(growth.recordsPerSecond(), is(90 / (9 * 3600.0)));
+        }
+    }
+
+    @Test
+    void shouldOverwriteOldestAndSurviveReopen() throws Exception {
+        // Given:
+        final var file = dir.resolve("ring");
+        try (var store = SampleStore.open(file, 4)) {
+            for (int i = 0; i < 6; i++) {
+                store.append("a", i % 2, i, 0, i, i);
+            }
+        }
+
+        // When:
+        try (var store = SampleStore.open(file, 999)) {
+            final List<Long> seen = new ArrayList<>();
+            store.forEach("a", 0, Long.MAX_VALUE, (p, bytes, start, end, ts) -> seen.add(ts));
+
+            // Then:
+            assertThat(store.size(), is(4L));
+            assertThat(seen, contains(2L, 3L, 4L, 5L));
+        }
+    }
+
+    @Test
+    void shouldAppendEveryPartitionOfReport() throws Exception {
+        // Given:
+        final var earlier = new StorageReport(List.of("a"));
+        earlier.addOffsets(new TopicPartition("a", 0), 0, 10);
+        earlier.addOffsets(new TopicPartition("a", 1), 0, 20);
+        final var later = new StorageReport(List.of("a"));
+        later.addOffsets(new TopicPartition("a", 0), 0, 110);
+        later.addOffsets(new TopicPartition("a", 1), 0, 20);
+
+        try (var store = SampleStore.open(dir.resolve("reports"), 10)) {
+            // When:
+            store.append(earlier, 0);
+            store.append(later, 10_000);
+
+            // Then:
+            assertThat(store.size(), is(4L));
+            final var growth = store.growth("a", 0, Long.MAX_VALUE);
+            assertThat(growth.partitions(), is(2));
+            assertThat(growth.recordsPerSecond(), is(10.0));
+        }
+    }
+
+    @Test
+    void shouldRejectOutOfOrderSamples() throws Exception {
+        try (var store = SampleStore.open(dir.resolve("ordered"), 10)) {
+            store.append("a", 0, 0, 0, 0, 100);
+            assertThrows(IllegalArgumentException.class, () -> store.append("a", 0, 0, 0, 0, 99));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.admin;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.clients.admin.LogDirDescription;
+import org.apache.kafka.clients.admin.ReplicaInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+class StorageReportTest {
+
+    @Test
+    void shouldAggregateBytesPerTopicPartitionBrokerAndLogDir() {
+        // Given:
+        final var a0 = new TopicPartition("a", 0);
+        final var a1 = new TopicPartition("a", 1);
+        final var other = new TopicPartition("other", 0);
+        final var report = new StorageReport(List.of("a", "missing"));
+
+        // When:
+        report.addLogDirs(1, Map.of("/d1", logDir(Map.of(a0, 100L, a1, 50L, other, 999L))));
+        report.addLogDirs(2, Map.of("/d1", logDir(Map.of(a0, 100L))));
+        report.addOffsets(a0, 10, 30);
+        report.addOffsets(a1, 0, 5);
+
+        // Then:
+        final var a = report.topic("a");
+        assertThat(a.bytes(), is(250L));
+        assertThat(a.offsetTotal(), is(25L));
+        assertThat(a.bytesByPartition(), is(Map.of(0, 200L, 1, 50L)));
+        assertThat(a.startOffsetByPartition(), is(Map.of(0, 10L, 1, 0L)));
+        assertThat(a.endOffsetByPartition(), is(Map.of(0, 30L, 1, 5L)));
+        assertThat(a.bytesByBroker(), is(Map.of(1, 150L, 2, 100L)));
+        assertThat(a.bytesByLogDir(), is(Map.of("1:/d1", 150L, "2:/d1", 100L)));
+        assertThat(report.brokerUsed(), is(Map.of(1, 1149L, 2, 100L)));
+        assertThat(report.topic("missing").bytes(), is(0L));
+        assertThat(report.topic("other").bytes(), is(0L));
+    }
+
+    private static LogDirDescription logDir(final Map<TopicPartition, Long> sizes) {
+        final var replicas = new HashMap<TopicPartition, ReplicaInfo>();
+        sizes.forEach((tp, size) -> replicas.put(tp, new ReplicaInfo(size, 0, false)));
+        return new LogDirDescription(null, replicas);
+    }
+}
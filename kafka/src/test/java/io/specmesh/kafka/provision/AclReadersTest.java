@@ -0,0 +1,160 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.specmesh.kafka.provision.AclProvisioner.Acl;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.DescribeAclsResult;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.acl.AccessControlEntry;
+import org.apache.kafka.common.acl.AccessControlEntryFilter;
+import org.apache.kafka.common.acl.AclBinding;
+import org.apache.kafka.common.acl.AclBindingFilter;
+import org.apache.kafka.common.acl.AclOperation;
+import org.apache.kafka.common.acl.AclPermissionType;
+import org.apache.kafka.common.resource.PatternType;
+import org.apache.kafka.common.resource.ResourcePattern;
+import org.apache.kafka.common.resource.ResourcePatternFilter;
+import org.apache.kafka.common.resource.ResourceType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AclReadersTest {
+
+    private static final String DOMAIN = "acme.domain";
+
+    @Mock Admin adminClient;
+    @Mock DescribeAclsResult describeResult;
+
+    @Test
+    void shouldReadUsingTargetedFiltersAndMergeResults() {
+        // Given:
+        final var owned = binding(DOMAIN + "._public", "User:" + DOMAIN);
+        final var removed = binding(DOMAIN + "._private.old", "User:" + DOMAIN);
+        final var departed = binding(DOMAIN + "._protected.x", "User:left.the.spec");
+        final var unrelated = binding("other.domain", "User:other");
+
+        when(describeResult.values())
+                .thenReturn(
+                        KafkaFuture.completedFuture(
+                                List.of(owned, removed, departed, unrelated)));
+        when(adminClient.describeAcls(any(AclBindingFilter.class))).thenReturn(describeResult);
+
+        final var reader = AclReaders.AclReaderBuilder.builder().adminClient(adminClient).build();
+
+        // When:
+        final Collection<Acl> existing = reader.read(DOMAIN, List.of(acl(owned)));
+
+        // Then:
+        verify(adminClient, never()).describeAcls(AclBindingFilter.ANY);
+        final var topics = new ResourcePatternFilter(ResourceType.TOPIC, null, PatternType.ANY);
+        verify(adminClient)
+                .describeAcls(new AclBindingFilter(topics, AccessControlEntryFilter.ANY));
+        assertThat(
+                existing.stream().map(Acl::aclBinding).collect(Collectors.toList()),
+                containsInAnyOrder(owned, removed, departed));
+    }
+
+    @Test
+    void shouldOnlyLookUpRequiredBindingsWhenNotCleaning() {
+        // Given:
+        final var owned = binding(DOMAIN + "._public", "User:" + DOMAIN);
+        final var cluster =
+                new AclBinding(
+                        new ResourcePattern(
+                                ResourceType.CLUSTER, "kafka-cluster", PatternType.LITERAL),
+                        new AccessControlEntry(
+                                "User:" + DOMAIN,
+                                "*",
+                                AclOperation.IDEMPOTENT_WRITE,
+                                AclPermissionType.ALLOW));
+        when(describeResult.values()).thenReturn(KafkaFuture.completedFuture(List.of(owned)));
+        when(adminClient.describeAcls(any(AclBindingFilter.class))).thenReturn(describeResult);
+
+        final var reader =
+                AclReaders.AclReaderBuilder.builder()
+                        .adminClient(adminClient)
+                        .unspecified(false)
+                        .build();
+
+        // When:
+        final Collection<Acl> existing = reader.read(DOMAIN, List.of(acl(owned), acl(cluster)));
+
+        // Then:
+        final var sent = ArgumentCaptor.forClass(AclBindingFilter.class);
+        verify(adminClient, times(6)).describeAcls(sent.capture());
+        assertThat(
+                sent.getAllValues(),
+                containsInAnyOrder(
+                        exact(owned.pattern()),
+                        exact(cluster.pattern()),
+                        exact(
+                                new ResourcePattern(
+                                        ResourceType.GROUP, DOMAIN, PatternType.PREFIXED)),
+                        exact(
+                                new ResourcePattern(
+                                        ResourceType.TOPIC, DOMAIN, PatternType.PREFIXED)),
+                        exact(
+                                new ResourcePattern(
+                                        ResourceType.TRANSACTIONAL_ID,
+                                        DOMAIN,
+                                        PatternType.PREFIXED)),
+                        new AclBindingFilter(
+                                ResourcePatternFilter.ANY,
+                                new AccessControlEntryFilter(
+                                        "User:" + DOMAIN,
+                                        null,
+                                        AclOperation.ANY,
+                                        AclPermissionType.ANY))));
+        assertThat(
+                existing.stream().map(Acl::aclBinding).collect(Collectors.toList()),
+                containsInAnyOrder(owned));
+    }
+
+    private static AclBindingFilter exact(final ResourcePattern pattern) {
+        return new AclBindingFilter(pattern.toFilter(), AccessControlEntryFilter.ANY);
+    }
+
+    private static Acl acl(final AclBinding binding) {
+        return Acl.builder()
+                .name(binding.toString())
+                .aclBinding(binding)
+                .state(Status.STATE.CREATE)
+                .build();
+    }
+
+    private static AclBinding binding(final String name, final String principal) {
+        return new AclBinding(
+                new ResourcePattern(ResourceType.TOPIC, name, PatternType.PREFIXED),
+                new AccessControlEntry(principal, "*", AclOperation.READ, AclPermissionType.ALLOW));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import io.specmesh.kafka.provision.TopicProvisioner.Topic;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+class ChangeSetDiffTest {
+
+    private static final int LARGE = 100_000;
+
+    @Test
+    void shouldFindMissingChangedAndUnspecified() {
+        // Given:
+        final var existing = List.of(topic("a", 1), topic("b", 1), topic("c", 1));
+        final var required = List.of(topic("b", 1), topic("c", 3), topic("d", 1));
+
+        // When:
+        final var diff = ChangeSetDiff.of(existing, required, Topic::name);
+
+        // Then:
+        assertThat(names(diff.missing()), contains("d"));
+        assertThat(names(diff.unspecified()), contains("a"));
+        assertThat(
+                names(diff.changed((was, now) -> now.partitions() != was.partitions())),
+                contains("c"));
+        assertThat(diff.existing(topic("b", 5)).partitions(), is(1));
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void shouldCalculateLargeTopicChangeSetInLinearTime() {
+        // Given:
+        final var existing = topics(0, LARGE);
+        final var required = topics(LARGE / 2, LARGE + LARGE / 2);
+
+        // When:
+        final var changes =
+                TopicChangeSetCalculators.ChangeSetBuilder.builder()
+                        .build(false)
+                        .calculate(existing, required);
+        final var unspecified =
+                TopicChangeSetCalculators.ChangeSetBuilder.builder()
+                        .build(true)
+                        .calculate(existing, required);
+
+        // Then:
+        assertThat(changes, hasSize(LARGE / 2));
+        assertThat(unspecified, hasSize(LARGE / 2));
+    }
+
+    private static List<Topic> topics(final int from, final int to) {
+        return IntStream.range(from, to)
+                .mapToObj(i -> topic("topic-" + i, 1))
+                .collect(Collectors.toList());
+    }
+
+    private static Topic topic(final String name, final int partitions) {
+        return Topic.builder().name(name).partitions(partitions).build();
+    }
+
+    private static List<String> names(final List<Topic> topics) {
+        return topics.stream().map(Topic::name).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.specmesh.kafka.provision.AclProvisioner.Acl;
+import io.specmesh.kafka.provision.TopicProvisioner.Topic;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.DescribeAclsResult;
+import org.apache.kafka.clients.admin.DescribeConfigsResult;
+import org.apache.kafka.clients.admin.DescribeTopicsResult;
+import org.apache.kafka.clients.admin.ListTopicsResult;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.admin.TopicListing;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.Uuid;
+import org.apache.kafka.common.acl.AccessControlEntry;
+import org.apache.kafka.common.acl.AclBinding;
+import org.apache.kafka.common.acl.AclBindingFilter;
+import org.apache.kafka.common.acl.AclOperation;
+import org.apache.kafka.common.acl.AclPermissionType;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.resource.PatternType;
+import org.apache.kafka.common.resource.ResourcePattern;
+import org.apache.kafka.common.resource.ResourceType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterSnapshotTest {
+
+    private static final String DOMAIN_A = "acme.a";
+    private static final String DOMAIN_B = "acme.b";
+    private static final List<String> TOPICS =
+            List.of(DOMAIN_A + ".t1", DOMAIN_B + ".t1", DOMAIN_B + ".t2");
+
+    @Mock Admin adminClient;
+    @Mock ListTopicsResult listResult;
+    @Mock DescribeTopicsResult describeResult;
+    @Mock DescribeConfigsResult configsResult;
+    @Mock DescribeAclsResult aclsResult;
+
+    @BeforeEach
+    void setUp() {
+        final var node = new Node(1, "localhost", 9092);
+        final var listings =
+                List.of(
+                        listing(DOMAIN_A + ".t1"),
+                        listing(DOMAIN_B + ".t1"),
+                        listing(DOMAIN_B + ".t2"),
+                        listing("other.t1"));
+        when(listResult.listings()).thenReturn(KafkaFuture.completedFuture(listings));
+        when(adminClient.listTopics()).thenReturn(listResult);
+
+        final Map<String, KafkaFuture<TopicDescription>> descriptions =
+                TOPICS.stream()
+                        .collect(
+                                Collectors.toMap(
+                                        Function.identity(),
+                                        name ->
+                                                KafkaFuture.completedFuture(
+                                                        new TopicDescription(
+                                                                name,
+                                                                false,
+                                                                List.of(
+                                                                        new TopicPartitionInfo(
+                                                                                0,
+                                                                                node,
+                                                                                List.of(node),
+                                                                                List.of(node)))))));
+        when(describeResult.topicNameValues()).thenReturn(descriptions);
+        when(adminClient.describeTopics(anyCollection())).thenReturn(describeResult);
+
+        final Map<ConfigResource, Config> configs =
+                TOPICS.stream()
+                        .collect(
+                                Collectors.toMap(
+                                        name ->
+                                                new ConfigResource(
+                                                        ConfigResource.Type.TOPIC, name),
+                                        name -> new Config(List.of())));
+        when(configsResult.all()).thenReturn(KafkaFuture.completedFuture(configs));
+        when(adminClient.describeConfigs(anyCollection())).thenReturn(configsResult);
+
+        when(aclsResult.values())
+                .thenReturn(
+                        KafkaFuture.completedFuture(
+                                List.of(binding(DOMAIN_A), binding(DOMAIN_B))));
+        when(adminClient.describeAcls(any(AclBindingFilter.class))).thenReturn(aclsResult);
+    }
+
+    @Test
+    void shouldReadOnceAndViewPerDomain() {
+        // When:
+        final var snapshot =
+                ClusterSnapshot.read(adminClient, null, List.of(DOMAIN_A, DOMAIN_B), true);
+
+        // Then:
+        verify(adminClient, times(1)).listTopics();
+        verify(adminClient, times(1)).describeAcls(AclBindingFilter.ANY);
+        assertThat(names(snapshot.topics(DOMAIN_A)), contains(DOMAIN_A + ".t1"));
+        assertThat(names(snapshot.topics(DOMAIN_B)), contains(DOMAIN_B + ".t1", DOMAIN_B + ".t2"));
+        assertThat(
+                snapshot.acls(DOMAIN_B, List.of()).stream()
+                        .map(Acl::aclBinding)
+                        .collect(Collectors.toList()),
+                contains(binding(DOMAIN_B)));
+    }
+
+    @Test
+    void shouldHandOutCopies() {
+        // Given:
+        final var snapshot = ClusterSnapshot.read(adminClient, null, List.of(DOMAIN_A), true);
+
+        // When:
+        snapshot.topics(DOMAIN_A).get(0).state(Status.STATE.DELETE);
+
+        // Then:
+        assertThat(snapshot.topics(DOMAIN_A).get(0).state(), is(Status.STATE.READ));
+    }
+
+    private static TopicListing listing(final String name) {
+        return new TopicListing(name, Uuid.randomUuid(), false);
+    }
+
+    private static AclBinding binding(final String domain) {
+        return new AclBinding(
+                new ResourcePattern(ResourceType.TOPIC, domain, PatternType.PREFIXED),
+                new AccessControlEntry(
+                        "User:" + domain, "*", AclOperation.READ, AclPermissionType.ALLOW));
+    }
+
+    private static List<String> names(final List<Topic> topics) {
+        return topics.stream().map(Topic::name).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.specmesh.kafka.KafkaApiSpec;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+
+class EnvironmentProvisionerTest {
+
+    private static final KafkaApiSpec API_SPEC =
+            KafkaApiSpec.loadFromClassPath(
+                    "provisioner-functional-test-api.yaml",
+                    EnvironmentProvisionerTest.class.getClassLoader());
+
+    @Test
+    void shouldProvisionEachNamedEnvironmentWithItsOwnCluster() {
+        // Given:
+        final Map<String, Provisioner> seen = new ConcurrentHashMap<>();
+        final var provisioner =
+                EnvironmentProvisioner.builder()
+                        .catalogue(catalogue("staging", "prod", "dev"))
+                        .apiSpec(API_SPEC)
+                        .build();
+
+        // When:
+        final var results =
+                provisioner.provision(
+                        p -> {
+                            seen.put(p.brokerUrl(), p);
+                            return Status.builder().build();
+                        });
+
+        // Then:
+        assertThat(results.keySet(), contains("prod", "staging"));
+        assertThat(seen.keySet(), is(Set.of("prod:9092", "staging:9092")));
+        assertThat(seen.get("prod:9092").schemaRegistryUrl(), is("http://prod:8081"));
+        assertThat(
+                seen.get("prod:9092").apiSpec().listDomainOwnedTopics(),
+                is(API_SPEC.listDomainOwnedTopics()));
+        assertThat(seen.get("prod:9092").schemaWorkspace(), is(notNullValue()));
+        assertThat(
+                seen.get("prod:9092").schemaWorkspace(),
+                is(sameInstance(seen.get("staging:9092").schemaWorkspace())));
+    }
+
+    @Test
+    void shouldOnlyProvisionChannelsListingTheEnvironment() {
+        // Given:
+        final Map<String, Provisioner> seen = new ConcurrentHashMap<>();
+        final var provisioner =
+                EnvironmentProvisioner.builder()
+                        .catalogue(catalogue("dev"))
+                        .apiSpec(API_SPEC)
+                        .envs(List.of("dev"))
+                        .build();
+
+        // When:
+        provisioner.provision(
+                p -> {
+                    seen.put(p.brokerUrl(), p);
+                    return Status.builder().build();
+                });
+
+        // Then:
+        assertThat(seen.get("dev:9092").apiSpec().listDomainOwnedTopics(), is(empty()));
+    }
+
+    @Test
+    void shouldProvisionEveryCataloguedEnvironmentWhenSpecNamesNone() {
+        // Given:
+        final var provisioner =
+                EnvironmentProvisioner.builder()
+                        .catalogue(catalogue("dev", "prod"))
+                        .apiSpec(
+                                KafkaApiSpec.loadFromClassPath(
+                                        "bigdatalondon-api.yaml",
+                                        EnvironmentProvisionerTest.class.getClassLoader()))
+                        .build();
+
+        // When:
+        final var results = provisioner.provision(p -> Status.builder().build());
+
+        // Then:
+        assertThat(results.keySet(), contains("dev", "prod"));
+    }
+
+    @Test
+    void shouldThrowWhenThereIsNoEnvironmentToProvision() {
+        // Given:
+        final var provisioner =
+                EnvironmentProvisioner.builder()
+                        .catalogue(catalogue())
+                        .apiSpec(
+                                KafkaApiSpec.loadFromClassPath(
+                                        "bigdatalondon-api.yaml",
+                                        EnvironmentProvisionerTest.class.getClassLoader()))
+                        .build();
+
+        // When:
+        final var e =
+                assertThrows(
+                        IllegalStateException.class,
+                        () -> provisioner.provision(p -> Status.builder().build()));
+
+        // Then:
+        assertThat(e.getMessage(), containsString("No environments to provision"));
+    }
+
+    @Test
+    void shouldIsolateFailuresPerEnvironment() {
+        // Given:
+        final var provisioner =
+                EnvironmentProvisioner.builder()
+                        .catalogue(catalogue("staging"))
+                        .apiSpec(API_SPEC)
+                        .build();
+
+        // When:
+        final var results = provisioner.provision(p -> Status.builder().build());
+
+        // Then:
+        assertThat(results.get("staging").failed(), is(false));
+        assertThat(results.get("prod").failed(), is(true));
+        assertThat(
+                results.get("prod").exception().getCause().getMessage(),
+                containsString("Environment is not catalogued:prod"));
+    }
+
+    private static EnvironmentCatalogue catalogue(final String... envs) {
+        final var properties = new Properties();
+        for (final String env : envs) {
+            properties.setProperty("env." + env + ".bootstrap-server", env + ":9092");
+            properties.setProperty("env." + env + ".schema-registry", "http://" + env + ":8081");
+        }
+        return EnvironmentCatalogue.of(properties);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+import io.specmesh.kafka.provision.TopicProvisioner.Topic;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ProvisionJournalTest {
+
+    private static final String DOMAIN = "simple.provision_demo";
+
+    @TempDir private Path dir;
+
+    @Test
+    void shouldReturnOnlyIncompleteIntentsOnResume() throws Exception {
+        // Given:
+        final var path = dir.resolve("journal");
+        final var topics = topics(5);
+        try (var journal = ProvisionJournal.create(path, DOMAIN, false, 2)) {
+            journal.intendTopics(topics);
+            topics.get(0).state(Status.STATE.CREATED);
+            topics.get(1).state(Status.STATE.FAILED);
+            topics.get(2).state(Status.STATE.CREATED);
+            journal.completeTopics(topics.subList(0, 3));
+        }
+
+        // When:
+        try (var resumed = ProvisionJournal.resume(path, 2)) {
+
+            // Then:
+            assertThat(resumed.domainId(), is(DOMAIN));
+            assertThat(resumed.cleanUnspecified(), is(false));
+            assertThat(
+                    names(resumed.outstandingTopics()),
+                    contains(DOMAIN + ".t1", DOMAIN + ".t3", DOMAIN + ".t4"));
+            assertThat(resumed.outstandingTopics().get(0).state(), is(Status.STATE.CREATE));
+        }
+    }
+
+    @Test
+    void shouldIgnoreTornLastLine() throws Exception {
+        // Given:
+        final var path = dir.resolve("journal");
+        try (var journal = ProvisionJournal.create(path, DOMAIN, false, 100)) {
+            journal.intendTopics(topics(2));
+        }
+        Files.write(
+                path,
+                "{\"type\":\"DONE\",\"kind\":\"topic\",\"key\":\"simple"
+                        .getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        // When:
+        try (var resumed = ProvisionJournal.resume(path, 100)) {
+            resumed.confirm(ProvisionJournal.TOPIC, DOMAIN + ".t0", Status.STATE.CREATED);
+        }
+
+        // Then:
+        try (var reread = ProvisionJournal.resume(path, 100)) {
+            assertThat(names(reread.outstandingTopics()), contains(DOMAIN + ".t1"));
+        }
+    }
+
+    @Test
+    void shouldReadWithoutChangingFile() throws Exception {
+        // Given:
+        final var path = dir.resolve("journal");
+        try (var journal = ProvisionJournal.create(path, DOMAIN, false, 100)) {
+            journal.intendTopics(topics(2));
+        }
+        Files.write(
+                path,
+                "{\"type\":\"DONE\"".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        final var before = Files.readAllBytes(path);
+
+        // When:
+        try (var read = ProvisionJournal.read(path)) {
+
+            // Then:
+            assertThat(names(read.outstandingTopics()), contains(DOMAIN + ".t0", DOMAIN + ".t1"));
+        }
+        assertThat(Files.readAllBytes(path), is(before));
+    }
+
+    @Test
+    void shouldBeCompleteWhenEverythingDone() {
+        // Given:
+        final var path = dir.resolve("journal");
+        final var topics = topics(3);
+        try (var journal = ProvisionJournal.create(path, DOMAIN, true, 1)) {
+            journal.intendTopics(topics);
+            topics.forEach(topic -> topic.state(Status.STATE.DELETED));
+            journal.completeTopics(topics);
+
+            // Then:
+            assertThat(journal.isComplete(), is(true));
+            assertThat(journal.outstandingTopics(), is(empty()));
+        }
+    }
+
+    private static List<Topic> topics(final int count) {
+        return IntStream.range(0, count)
+                .mapToObj(
+                        i ->
+                                Topic.builder()
+                                        .name(DOMAIN + ".t" + i)
+                                        .state(Status.STATE.CREATE)
+                                        .partitions(1)
+                                        .replication((short) 1)
+                                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> names(final List<Topic> topics) {
+        return topics.stream().map(Topic::name).collect(Collectors.toList());
+    }
+}
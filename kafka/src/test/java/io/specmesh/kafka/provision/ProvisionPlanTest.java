@@ -0,0 +1,199 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.specmesh.kafka.provision.AclProvisioner.Acl;
+import io.specmesh.kafka.provision.TopicProvisioner.Topic;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner.Schema;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.common.acl.AccessControlEntry;
+import org.apache.kafka.common.acl.AclBinding;
+import org.apache.kafka.common.acl.AclOperation;
+import org.apache.kafka.common.acl.AclPermissionType;
+import org.apache.kafka.common.resource.PatternType;
+import org.apache.kafka.common.resource.ResourcePattern;
+import org.apache.kafka.common.resource.ResourceType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ProvisionPlanTest {
+
+    private static final String DOMAIN = "simple.provision_demo";
+    private static final String TOPIC = DOMAIN + "._public.user_signed_up";
+    private static final String SUBJECT = TOPIC + "-value";
+
+    @TempDir private Path dir;
+
+    @Test
+    void shouldRoundTripChangeSet() {
+        // Given:
+        final var plan =
+                ProvisionPlan.of(DOMAIN, false)
+                        .withTopics(List.of(topic(1)), List.of(update(topic(3))))
+                        .withAcls(List.of(), List.of(acl()))
+                        .withSchemas(List.of(), List.of(schema("string")));
+
+        // When:
+        plan.write(dir.resolve("plan.json"));
+        final var read = ProvisionPlan.read(dir.resolve("plan.json"));
+
+        // Then:
+        final var topics = read.topicChangeSet(List.of(topic(1)));
+        assertThat(topics, hasSize(1));
+        assertThat(topics.get(0).name(), is(TOPIC));
+        assertThat(topics.get(0).state(), is(Status.STATE.UPDATE));
+        assertThat(topics.get(0).partitions(), is(3));
+        assertThat(topics.get(0).config(), is(Map.of("retention.ms", "1000")));
+
+        final var acls = read.aclChangeSet(List.of());
+        assertThat(acls, hasSize(1));
+        assertThat(acls.get(0).aclBinding(), is(acl().aclBinding()));
+        assertThat(acls.get(0).state(), is(Status.STATE.CREATE));
+
+        final var schemas = read.schemaChangeSet(List.of(), List.of(schema("string")));
+        assertThat(schemas, hasSize(1));
+        assertThat(schemas.get(0).subject(), is(SUBJECT));
+        assertThat(schemas.get(0).getSchema().canonicalString(), is("\"string\""));
+        assertThat(read.hasAcls(), is(true));
+        assertThat(read.hasSchemas(), is(true));
+    }
+
+    @Test
+    void shouldRefuseIfTopicsDrifted() {
+        // Given:
+        final var plan =
+                ProvisionPlan.of(DOMAIN, false)
+                        .withTopics(List.of(topic(1)), List.of(update(topic(3))));
+
+        // When:
+        final var e =
+                assertThrows(
+                        ProvisioningException.class, () -> plan.topicChangeSet(List.of(topic(2))));
+
+        // Then:
+        assertThat(e.getMessage(), containsString("topic state has changed"));
+    }
+
+    @Test
+    void shouldRefuseIfLocalSchemaChanged() {
+        // Given:
+        final var plan =
+                ProvisionPlan.of(DOMAIN, false)
+                        .withSchemas(List.of(), List.of(schema("string")));
+
+        // When:
+        final var e =
+                assertThrows(
+                        ProvisioningException.class,
+                        () -> plan.schemaChangeSet(List.of(), List.of(schema("long"))));
+
+        // Then:
+        assertThat(e.getMessage(), containsString("Local schema for subject:" + SUBJECT));
+    }
+
+    @Test
+    void shouldAcceptSubjectDeclaredTwiceWithSameSchema() {
+        // Given:
+        final var plan =
+                ProvisionPlan.of(DOMAIN, false)
+                        .withSchemas(List.of(), List.of(schema("string")));
+
+        // When:
+        final var schemas =
+                plan.schemaChangeSet(List.of(), List.of(schema("string"), schema("string")));
+
+        // Then:
+        assertThat(schemas, hasSize(1));
+    }
+
+    @Test
+    void shouldRefuseSubjectDeclaredTwiceWithDifferentSchemas() {
+        // Given:
+        final var plan =
+                ProvisionPlan.of(DOMAIN, false)
+                        .withSchemas(List.of(), List.of(schema("string")));
+
+        // When:
+        final var e =
+                assertThrows(
+                        ProvisioningException.class,
+                        () ->
+                                plan.schemaChangeSet(
+                                        List.of(), List.of(schema("string"), schema("long"))));
+
+        // Then:
+        assertThat(e.getMessage(), containsString("Subject:" + SUBJECT + " is declared with"));
+    }
+
+    @Test
+    void shouldIgnoreReadOrderWhenFingerprinting() {
+        final var a = topic(1);
+        final var b = Topic.builder().name(TOPIC + "2").partitions(1).build();
+
+        assertThat(
+                ProvisionPlan.topicFingerprint(List.of(a, b)),
+                is(ProvisionPlan.topicFingerprint(List.of(b, a))));
+    }
+
+    private static Topic topic(final int partitions) {
+        return Topic.builder()
+                .name(TOPIC)
+                .state(Status.STATE.READ)
+                .partitions(partitions)
+                .replication((short) 1)
+                .config(Map.of("retention.ms", "1000"))
+                .build();
+    }
+
+    private static Topic update(final Topic topic) {
+        return topic.state(Status.STATE.UPDATE);
+    }
+
+    private static Acl acl() {
+        final var binding =
+                new AclBinding(
+                        new ResourcePattern(ResourceType.TOPIC, DOMAIN, PatternType.PREFIXED),
+                        new AccessControlEntry(
+                                "User:" + DOMAIN,
+                                "*",
+                                AclOperation.READ,
+                                AclPermissionType.ALLOW));
+        return Acl.builder()
+                .name(binding.toString())
+                .aclBinding(binding)
+                .state(Status.STATE.CREATE)
+                .build();
+    }
+
+    private static Schema schema(final String type) {
+        return Schema.builder()
+                .subject(SUBJECT)
+                .type("/schema/user_signed_up.avsc")
+                .state(Status.STATE.CREATE)
+                .schemas(List.of(new AvroSchema("\"" + type + "\"")))
+                .build();
+    }
+}
@@ -30,11 +30,16 @@ import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.withSettings;
 
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 import io.specmesh.kafka.KafkaApiSpec;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner;
+import java.nio.file.Path;
+import java.util.List;
 import org.apache.kafka.clients.admin.Admin;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Answers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -48,6 +53,8 @@ class ProvisionerTest {
 
     private static final String DOMAIN_ID = "mktx.something";
 
+    @TempDir Path dir;
+
     @Mock private Provisioner.AdminFactory adminFactory;
     @Mock private Provisioner.SrClientFactory srClientFactory;
     @Mock private Provisioner.SpecLoader specLoader;
@@ -133,6 +140,34 @@ class ProvisionerTest {
         assertThat(e.getMessage(), is("Please set a schema registry url"));
     }
 
+    @Test
+    void shouldThrowIfPlanIsBothWrittenAndApplied() {
+        // Given:
+        final Provisioner provisioner =
+                minimalBuilder().planOut("plan.json").applyPlan("plan.json").build();
+
+        // When:
+        final Exception e =
+                assertThrows(
+                        IllegalStateException.class,
+                        () ->
+                                provisioner.provision(
+                                        adminFactory,
+                                        srClientFactory,
+                                        specLoader,
+                                        topicProvisioner,
+                                        schemaProvisioner,
+                                        aclProvisioner));
+
+        // Then:
+        assertThat(
+                e.getMessage(),
+                is(
+                        "Please set only one of resume, applyPlan and planOut."
+                                + " resume:false applyPlan:plan.json planOut:plan.json"));
+        verify(adminFactory, never()).adminClient(any(), any(), any());
+    }
+
     @Test
     void shouldNotThrowIfSchemaRegistryUrlNotProvidedWhenSchemasAreDisabled() {
         // Given:
@@ -209,8 +244,7 @@ class ProvisionerTest {
         verify(topicProvisioner).provision(anyBoolean(), anyBoolean(), eq(explicitSpec), any());
         verify(schemaProvisioner)
                 .provision(anyBoolean(), anyBoolean(), eq(explicitSpec), any(), any());
-        verify(aclProvisioner)
-                .provision(anyBoolean(), anyBoolean(), eq(explicitSpec), any(), any());
+        verify(aclProvisioner).changeSet(anyBoolean(), eq(explicitSpec), any(), any());
         verify(explicitSpec.apiSpec()).validate();
     }
 
@@ -235,7 +269,8 @@ class ProvisionerTest {
 
         verify(topicProvisioner).provision(false, false, spec, adminClient);
         verify(schemaProvisioner).provision(false, false, spec, null, srClient);
-        verify(aclProvisioner).provision(false, false, spec, DOMAIN_ID, adminClient);
+        verify(aclProvisioner).changeSet(false, spec, DOMAIN_ID, adminClient);
+        verify(aclProvisioner).apply(eq(false), eq(false), any(), eq(adminClient));
     }
 
     @Test
@@ -290,7 +325,8 @@ class ProvisionerTest {
                 aclProvisioner);
 
         // Then:
-        verify(aclProvisioner, never()).provision(anyBoolean(), anyBoolean(), any(), any(), any());
+        verify(aclProvisioner, never()).changeSet(anyBoolean(), any(), any(), any());
+        verify(aclProvisioner, never()).apply(anyBoolean(), anyBoolean(), any(), any());
     }
 
     @Test
@@ -312,6 +348,32 @@ class ProvisionerTest {
                 .provision(anyBoolean(), anyBoolean(), any(), any(), any());
     }
 
+    @Test
+    void shouldNotApplyAclsIfTopicsThrow() {
+        // Given:
+        final Provisioner provisioner = minimalBuilder().build();
+        when(topicProvisioner.provision(anyBoolean(), anyBoolean(), any(), any()))
+                .thenThrow(new ProvisioningException("boom"));
+
+        // When:
+        final Exception e =
+                assertThrows(
+                        ProvisioningException.class,
+                        () ->
+                                provisioner.provision(
+                                        adminFactory,
+                                        srClientFactory,
+                                        specLoader,
+                                        topicProvisioner,
+                                        schemaProvisioner,
+                                        aclProvisioner));
+
+        // Then:
+        assertThat(e.getMessage(), is("boom"));
+        verify(aclProvisioner).changeSet(anyBoolean(), any(), any(), any());
+        verify(aclProvisioner, never()).apply(anyBoolean(), anyBoolean(), any(), any());
+    }
+
     @Test
     void shouldSupportDryRun() {
         // Given:
@@ -329,7 +391,7 @@ class ProvisionerTest {
         // Then:
         verify(topicProvisioner).provision(eq(true), anyBoolean(), any(), any());
         verify(schemaProvisioner).provision(eq(true), anyBoolean(), any(), any(), any());
-        verify(aclProvisioner).provision(eq(true), anyBoolean(), any(), any(), any());
+        verify(aclProvisioner).apply(eq(true), anyBoolean(), any(), any());
     }
 
     @Test
@@ -349,7 +411,8 @@ class ProvisionerTest {
         // Then:
         verify(topicProvisioner).provision(anyBoolean(), eq(true), any(), any());
         verify(schemaProvisioner).provision(anyBoolean(), eq(true), any(), any(), any());
-        verify(aclProvisioner).provision(anyBoolean(), eq(true), any(), any(), any());
+        verify(aclProvisioner).changeSet(eq(true), any(), any(), any());
+        verify(aclProvisioner).apply(anyBoolean(), eq(true), any(), any());
     }
 
     @Test
@@ -386,7 +449,7 @@ class ProvisionerTest {
                 aclProvisioner);
 
         // Then:
-        verify(aclProvisioner).provision(anyBoolean(), anyBoolean(), any(), eq("bob"), any());
+        verify(aclProvisioner).changeSet(anyBoolean(), any(), eq("bob"), any());
     }
 
     @Test
@@ -424,7 +487,8 @@ class ProvisionerTest {
 
         // Then:
         verify(topicProvisioner).provision(anyBoolean(), anyBoolean(), any(), eq(userAdmin));
-        verify(aclProvisioner).provision(anyBoolean(), anyBoolean(), any(), any(), eq(userAdmin));
+        verify(aclProvisioner).changeSet(anyBoolean(), any(), any(), eq(userAdmin));
+        verify(aclProvisioner).apply(anyBoolean(), anyBoolean(), any(), eq(userAdmin));
     }
 
     @Test
@@ -560,6 +624,44 @@ class ProvisionerTest {
         verify(client).close();
     }
 
+    @Test
+    void shouldConfirmJournalledSubjectDeleteThatCompleted() throws Exception {
+        // Given:
+        final var journalPath = dir.resolve("journal");
+        try (var journal = ProvisionJournal.create(journalPath, DOMAIN_ID, true, 1)) {
+            journal.intendSchemas(
+                    List.of(
+                            SchemaProvisioner.Schema.builder()
+                                    .subject("gone-value")
+                                    .type("AVRO")
+                                    .state(Status.STATE.DELETE)
+                                    .build()));
+        }
+        when(srClient.getAllVersions("gone-value"))
+                .thenThrow(new RestClientException("Subject not found", 404, 40401));
+        final Provisioner provisioner =
+                minimalBuilder()
+                        .resume(true)
+                        .journalPath(journalPath.toString())
+                        .aclDisabled(true)
+                        .dryRun(true)
+                        .build();
+
+        // When:
+        final Status status =
+                provisioner.provision(
+                        adminFactory,
+                        srClientFactory,
+                        specLoader,
+                        topicProvisioner,
+                        schemaProvisioner,
+                        aclProvisioner);
+
+        // Then:
+        verify(srClient).getAllVersions("gone-value");
+        assertThat(status.schemas(), is(List.of()));
+    }
+
     private static Provisioner.ProvisionerBuilder minimalBuilder() {
         return Provisioner.builder()
                 .brokerUrl("kafka-url")
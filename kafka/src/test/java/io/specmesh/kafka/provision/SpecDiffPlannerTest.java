@@ -0,0 +1,71 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import io.specmesh.kafka.KafkaApiSpec;
+import io.specmesh.test.TestSpecLoader;
+import org.junit.jupiter.api.Test;
+
+class SpecDiffPlannerTest {
+
+    private static final String SCHEMA_PATH = "./build/resources/test";
+    private static final String USER_SIGNED_UP = "simple.provision_demo._public.user_signed_up";
+
+    private static final KafkaApiSpec API_SPEC =
+            TestSpecLoader.loadFromClassPath("provisioner-functional-test-api.yaml");
+
+    private static final KafkaApiSpec API_UPDATE_SPEC =
+            TestSpecLoader.loadFromClassPath("provisioner-update-functional-test-api.yaml");
+
+    @Test
+    void shouldFindNothingBetweenIdenticalSpecs() {
+        // When:
+        final var diff = SpecDiffPlanner.plan(API_SPEC, SCHEMA_PATH, API_SPEC, SCHEMA_PATH);
+
+        // Then:
+        assertThat(diff.isEmpty(), is(true));
+    }
+
+    @Test
+    void shouldDiffTopicsAclsAndSchemasOffline() {
+        // When:
+        final var diff =
+                SpecDiffPlanner.plan(API_SPEC, SCHEMA_PATH, API_UPDATE_SPEC, SCHEMA_PATH);
+
+        // Then:
+        assertThat(diff.createTopics(), is(empty()));
+        assertThat(diff.deleteTopics(), is(empty()));
+        assertThat(diff.updateTopics(), hasSize(1));
+        final var topic = diff.updateTopics().get(0);
+        assertThat(topic.name(), is(USER_SIGNED_UP));
+        assertThat(topic.state(), is(Status.STATE.UPDATE));
+        assertThat(topic.messages(), containsString("Update partitions:10 -> 99"));
+        assertThat(
+                topic.messages(), containsString("Update config retention.ms:3600000 -> 999000"));
+
+        assertThat(diff.createAcls().isEmpty(), is(false));
+        assertThat(diff.changedSubjects(), contains(USER_SIGNED_UP + "-value"));
+        assertThat(diff.changedTopics(), contains(USER_SIGNED_UP));
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StateFilesTest {
+
+    @TempDir Path dir;
+
+    @Test
+    void shouldReplaceFileWithoutLeavingTmpFile() throws Exception {
+        // Given:
+        final var mapper = new ObjectMapper();
+        final var path = dir.resolve("state.json");
+        Files.writeString(path, "old");
+
+        // When:
+        StateFiles.writeAtomically(mapper, path, Map.of("a", 1));
+
+        // Then:
+        assertThat(mapper.readValue(path.toFile(), Map.class), is(Map.of("a", 1)));
+        assertThat(Files.exists(dir.resolve("state.json.tmp")), is(false));
+    }
+
+    @Test
+    void shouldHexEncodeSha256() {
+        assertThat(
+                StateFiles.sha256("abc"),
+                is("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad"));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+class TaskGraphTest {
+
+    @Test
+    @Timeout(value = 30, unit = TimeUnit.SECONDS)
+    void shouldRunIndependentTasksConcurrently() {
+        // Given: two tasks that can only finish if they overlap
+        final var latch = new CountDownLatch(2);
+        final var graph = new TaskGraph("test", 2);
+        final var a = graph.add("a", () -> meet(latch, "a"));
+        final var b = graph.add("b", () -> meet(latch, "b"));
+
+        // When:
+        graph.run();
+
+        // Then:
+        assertThat(a.result(), is("a"));
+        assertThat(b.result(), is("b"));
+    }
+
+    @Test
+    void shouldRunDependentTaskAfterItsDependencies() {
+        // Given:
+        final List<String> order = new CopyOnWriteArrayList<>();
+        final var graph = new TaskGraph("test", 2);
+        final var first = graph.add("first", () -> order.add("first"));
+        graph.add("second", () -> order.add("second"), first);
+
+        // When:
+        graph.run();
+
+        // Then:
+        assertThat(order, contains("first", "second"));
+    }
+
+    @Test
+    void shouldSkipDependentsAndThrowFirstFailure() {
+        // Given:
+        final var dependentRan = new AtomicBoolean();
+        final var graph = new TaskGraph("test", 2);
+        final TaskGraph.Task<String> failing =
+                graph.add(
+                        "failing",
+                        () -> {
+                            throw new IllegalStateException("boom");
+                        });
+        graph.add("dependent", () -> dependentRan.getAndSet(true), failing);
+
+        // When:
+        final var e = assertThrows(IllegalStateException.class, graph::run);
+
+        // Then:
+        assertThat(e.getMessage(), is("boom"));
+        assertThat(dependentRan.get(), is(false));
+    }
+
+    private static String meet(final CountDownLatch latch, final String result) {
+        latch.countDown();
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        return result;
+    }
+}
@@ -17,25 +17,36 @@
 package io.specmesh.kafka.provision;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.any;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.specmesh.kafka.provision.TopicMutators.UpdateMutator;
 import io.specmesh.kafka.provision.TopicProvisioner.Topic;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AlterConfigsResult;
 import org.apache.kafka.clients.admin.CreatePartitionsResult;
+import org.apache.kafka.clients.admin.CreateTopicsResult;
 import org.apache.kafka.clients.admin.DescribeTopicsResult;
 import org.apache.kafka.clients.admin.TopicDescription;
 import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.Node;
 import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.config.ConfigResource;
 import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.errors.PolicyViolationException;
+import org.apache.kafka.common.errors.ThrottlingQuotaExceededException;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -46,24 +57,24 @@ import org.mockito.junit.jupiter.MockitoExtension;
 class TopicMutatorsTest {
 
     @Mock Admin client;
-    @Mock KafkaFuture<TopicDescription> descriptionFuture;
-    @Mock KafkaFuture<Void> createPartitionsFuture;
+    @Mock DescribeTopicsResult describeResult;
+    @Mock CreatePartitionsResult createPartitionsResult;
+    @Mock AlterConfigsResult alterConfigsResult;
+    @Mock CreateTopicsResult createTopicsResult;
 
     @Test
-    void shouldWriteUpdatesForRetentionChange() throws Exception {
+    void shouldWriteUpdatesForRetentionChange() {
         final var topicWriter = new UpdateMutator(client);
 
-        // Mock hell - crappy admin api
-        when(descriptionFuture.get(Provisioner.REQUEST_TIMEOUT, TimeUnit.SECONDS))
-                .thenReturn(getTopicDescription());
-
-        final var describeResult = mock(DescribeTopicsResult.class);
-
         // test value of existing topic
-        when(describeResult.topicNameValues()).thenReturn(Map.of("test", descriptionFuture));
-
+        when(describeResult.topicNameValues())
+                .thenReturn(Map.of("test", KafkaFuture.completedFuture(getTopicDescription())));
         when(client.describeTopics(List.of("test"))).thenReturn(describeResult);
 
+        when(alterConfigsResult.values())
+                .thenReturn(Map.of(resource("test"), KafkaFuture.<Void>completedFuture(null)));
+        when(client.incrementalAlterConfigs(any(), any())).thenReturn(alterConfigsResult);
+
         // test
         final var updates =
                 List.of(
@@ -80,27 +91,20 @@ class TopicMutatorsTest {
         assertThat(next.state(), is(Status.STATE.UPDATED));
         assertThat(next.messages(), is(containsString(TopicConfig.RETENTION_MS_CONFIG)));
         assertThat(next.config().get(TopicConfig.RETENTION_MS_CONFIG), is("1000"));
+        verify(client, never()).createPartitions(any(), any());
     }
 
     @Test
-    void shouldWriteUpdatesToPartitionsWhenLarger() throws Exception {
+    void shouldWriteUpdatesToPartitionsWhenLarger() {
         final var topicWriter = new UpdateMutator(client);
 
-        // Mock hell - crappy admin api
-        when(descriptionFuture.get(Provisioner.REQUEST_TIMEOUT, TimeUnit.SECONDS))
-                .thenReturn(getTopicDescription());
-
-        final var describeResult = mock(DescribeTopicsResult.class);
-
         // test value of existing topic
-        when(describeResult.topicNameValues()).thenReturn(Map.of("test", descriptionFuture));
-
+        when(describeResult.topicNameValues())
+                .thenReturn(Map.of("test", KafkaFuture.completedFuture(getTopicDescription())));
         when(client.describeTopics(List.of("test"))).thenReturn(describeResult);
 
-        final var createPartitionsResult = mock(CreatePartitionsResult.class);
-        when(createPartitionsResult.all()).thenReturn(createPartitionsFuture);
-        when(createPartitionsFuture.get(Provisioner.REQUEST_TIMEOUT, TimeUnit.SECONDS))
-                .thenReturn(null);
+        when(createPartitionsResult.values())
+                .thenReturn(Map.of("test", KafkaFuture.<Void>completedFuture(null)));
         when(client.createPartitions(any(), any())).thenReturn(createPartitionsResult);
 
         // test
@@ -118,6 +122,125 @@ class TopicMutatorsTest {
         assertThat(next.state(), is(Status.STATE.UPDATED));
         assertThat(next.messages(), is(containsString("Updated partitionCount")));
         assertThat(next.partitions(), is(999));
+        verify(client, never()).incrementalAlterConfigs(any(), any());
+    }
+
+    @Test
+    void shouldBatchUpdatesAndReportPerTopicFailures() {
+        final var topicWriter = new UpdateMutator(client);
+
+        // Given:
+        final var failed = new KafkaFutureImpl<Void>();
+        failed.completeExceptionally(new PolicyViolationException("nope"));
+
+        when(describeResult.topicNameValues())
+                .thenReturn(
+                        Map.of(
+                                "good", KafkaFuture.completedFuture(getTopicDescription()),
+                                "bad", KafkaFuture.completedFuture(getTopicDescription())));
+        when(client.describeTopics(List.of("good", "bad"))).thenReturn(describeResult);
+        when(alterConfigsResult.values())
+                .thenReturn(
+                        Map.of(
+                                resource("good"), KafkaFuture.<Void>completedFuture(null),
+                                resource("bad"), failed));
+        when(client.incrementalAlterConfigs(any(), any())).thenReturn(alterConfigsResult);
+
+        // When:
+        final var updated =
+                topicWriter.mutate(List.of(retentionUpdate("good"), retentionUpdate("bad")));
+
+        // Then:
+        verify(client, times(1)).incrementalAlterConfigs(any(), any());
+        final var states = updated.stream().collect(Collectors.toMap(Topic::name, Topic::state));
+        assertThat(states.get("good"), is(Status.STATE.UPDATED));
+        assertThat(states.get("bad"), is(Status.STATE.FAILED));
+    }
+
+    @Test
+    void shouldCreateTopicsInChunksWithPerTopicResults() {
+        // Given:
+        final var exists = new KafkaFutureImpl<Void>();
+        exists.completeExceptionally(new TopicExistsException("exists"));
+        when(createTopicsResult.values())
+                .thenReturn(
+                        Map.of("a", done(), "b", exists),
+                        Map.of("c", done(), "d", done()),
+                        Map.of("e", done()));
+        when(client.createTopics(any(), any())).thenReturn(createTopicsResult);
+
+        final var chunks = new ArrayList<List<String>>();
+        final var mutator =
+                TopicMutators.TopicMutatorBuilder.builder()
+                        .adminClient(client)
+                        .createChunkSize(2)
+                        .onCreated(
+                                topics ->
+                                        chunks.add(
+                                                topics.stream()
+                                                        .map(Topic::name)
+                                                        .collect(Collectors.toList())))
+                        .build();
+
+        // When:
+        final var created =
+                mutator.mutate(
+                        List.of(create("a"), create("b"), create("c"), create("d"), create("e")));
+
+        // Then:
+        verify(client, times(3)).createTopics(any(), any());
+        final var states = created.stream().collect(Collectors.toMap(Topic::name, Topic::state));
+        assertThat(states.get("a"), is(Status.STATE.CREATED));
+        assertThat(states.get("b"), is(Status.STATE.FAILED));
+        assertThat(states.get("e"), is(Status.STATE.CREATED));
+        assertThat(chunks, contains(List.of("a"), List.of("c", "d"), List.of("e")));
+    }
+
+    @Test
+    void shouldRetryThrottledTopicCreation() {
+        // Given:
+        final var throttled = new KafkaFutureImpl<Void>();
+        throttled.completeExceptionally(new ThrottlingQuotaExceededException(1, "slow down"));
+        when(createTopicsResult.values())
+                .thenReturn(Map.of("a", done(), "b", throttled), Map.of("b", done()));
+        when(client.createTopics(any(), any())).thenReturn(createTopicsResult);
+
+        final var mutator = TopicMutators.TopicMutatorBuilder.builder().adminClient(client).build();
+
+        // When:
+        final var created = mutator.mutate(List.of(create("a"), create("b")));
+
+        // Then:
+        verify(client, times(2)).createTopics(any(), any());
+        assertThat(
+                created.stream().allMatch(topic -> topic.state() == Status.STATE.CREATED),
+                is(true));
+    }
+
+    private static KafkaFuture<Void> done() {
+        return KafkaFuture.completedFuture(null);
+    }
+
+    private static Topic create(final String name) {
+        return Topic.builder()
+                .name(name)
+                .state(Status.STATE.CREATE)
+                .partitions(1)
+                .replication((short) 1)
+                .build();
+    }
+
+    private static Topic retentionUpdate(final String name) {
+        return Topic.builder()
+                .name(name)
+                .state(Status.STATE.UPDATE)
+                .partitions(1)
+                .config(Map.of(TopicConfig.RETENTION_MS_CONFIG, "1000"))
+                .build();
+    }
+
+    private static ConfigResource resource(final String name) {
+        return new ConfigResource(ConfigResource.Type.TOPIC, name);
     }
 
     private static TopicDescription getTopicDescription() {
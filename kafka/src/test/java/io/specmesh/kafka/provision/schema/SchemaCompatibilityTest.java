@@ -0,0 +1,196 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision.schema;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.confluent.kafka.schemaregistry.CompatibilityLevel;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.specmesh.kafka.provision.Status;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner.Schema;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SchemaCompatibilityTest {
+
+    private static final AvroSchema V1 = avro("");
+    private static final AvroSchema WITH_DEFAULT =
+            avro(",{\"name\":\"note\",\"type\":\"string\",\"default\":\"\"}");
+    private static final AvroSchema WITHOUT_DEFAULT =
+            avro(",{\"name\":\"note\",\"type\":\"string\"}");
+    private static final AvroSchema INT_NOTE = avro(",{\"name\":\"note\",\"type\":\"int\"}");
+
+    @Mock SchemaRegistryClient client;
+
+    @Test
+    void shouldDecideNonTransitiveLevelsLocally() {
+        // Given:
+        final var compatibility = at(CompatibilityLevel.BACKWARD);
+
+        // Then:
+        assertThat(compatibility.check(existing(V1, 7), WITH_DEFAULT), is(Optional.of(List.of())));
+        assertThat(compatibility.check(existing(V1, 7), WITHOUT_DEFAULT).get(), is(not(empty())));
+    }
+
+    @Test
+    void shouldOnlyDecideTransitiveLevelsAgainstFirstVersion() {
+        // Given:
+        final var compatibility = at(CompatibilityLevel.FULL_TRANSITIVE);
+
+        // Then:
+        assertThat(compatibility.check(existing(V1, 1), WITH_DEFAULT), is(Optional.of(List.of())));
+        assertThat(compatibility.check(existing(V1, 3), WITH_DEFAULT), is(Optional.empty()));
+        assertThat(compatibility.check(existing(V1, null), WITH_DEFAULT), is(Optional.empty()));
+        assertThat(compatibility.check(existing(V1, 3), WITHOUT_DEFAULT).get(), is(not(empty())));
+    }
+
+    @Test
+    void shouldNotDecideWithoutLevel() {
+        // Given:
+        final var compatibility = new SchemaCompatibility(subject -> Optional.empty());
+
+        // Then:
+        assertThat(compatibility.check(existing(V1, 1), WITH_DEFAULT), is(Optional.empty()));
+    }
+
+    @Test
+    void shouldNotAskRegistryWhenCompatibleLocally() throws Exception {
+        // Given:
+        final var calculator =
+                SchemaChangeSetCalculators.builder()
+                        .build(false, client, at(CompatibilityLevel.FORWARD));
+
+        // When:
+        final var changes =
+                calculator.calculate(List.of(existing(V1, 2)), List.of(required(WITH_DEFAULT)));
+
+        // Then:
+        assertThat(changes.iterator().next().state(), is(Status.STATE.UPDATE));
+        verify(client, never()).testCompatibilityVerbose(anyString(), any(ParsedSchema.class));
+    }
+
+    @Test
+    void shouldFailBreakingChangeDecidedLocally() throws Exception {
+        // Given:
+        final var calculator =
+                SchemaChangeSetCalculators.builder()
+                        .build(false, client, at(CompatibilityLevel.BACKWARD));
+
+        // When:
+        final var changes =
+                calculator.calculate(List.of(existing(V1, 2)), List.of(required(WITHOUT_DEFAULT)));
+
+        // Then:
+        assertThat(changes.iterator().next().state(), is(Status.STATE.FAILED));
+        verify(client, never()).testCompatibilityVerbose(anyString(), any(ParsedSchema.class));
+    }
+
+    @Test
+    void shouldAskRegistryWhenUndecidedLocally() throws Exception {
+        // Given:
+        when(client.testCompatibilityVerbose("subject", WITH_DEFAULT))
+                .thenReturn(List.of("incompatible with version 1"));
+        final var calculator =
+                SchemaChangeSetCalculators.builder()
+                        .build(false, client, at(CompatibilityLevel.BACKWARD_TRANSITIVE));
+
+        // When:
+        final var changes =
+                calculator.calculate(List.of(existing(V1, 3)), List.of(required(WITH_DEFAULT)));
+
+        // Then:
+        assertThat(changes.iterator().next().state(), is(Status.STATE.FAILED));
+    }
+
+    @Test
+    void shouldDecideTransitiveLevelsAgainstEveryVersionRead() {
+        // Given:
+        final var compatibility = SchemaCompatibility.asRead();
+        final var required = avro(",{\"name\":\"note\",\"type\":\"string\",\"default\":\"x\"}");
+
+        // Then:
+        assertThat(
+                compatibility.check(
+                        transitive(WITH_DEFAULT, List.of(V1, WITH_DEFAULT)), required),
+                is(Optional.of(List.of())));
+        assertThat(
+                compatibility.check(transitive(V1, List.of(INT_NOTE)), WITH_DEFAULT).get(),
+                is(not(empty())));
+    }
+
+    @Test
+    void shouldPreferLevelReadWithSubject() {
+        // Given:
+        final var compatibility = at(CompatibilityLevel.NONE);
+        final var existing = existing(V1, 7).compatibility(CompatibilityLevel.BACKWARD);
+
+        // Then:
+        assertThat(compatibility.check(existing, WITHOUT_DEFAULT).get(), is(not(empty())));
+    }
+
+    private static SchemaCompatibility at(final CompatibilityLevel level) {
+        return new SchemaCompatibility(subject -> Optional.of(level));
+    }
+
+    private static Schema existing(final ParsedSchema schema, final Integer version) {
+        return Schema.builder()
+                .subject("subject")
+                .type("AVRO")
+                .state(Status.STATE.READ)
+                .version(version)
+                .schemas(List.of(schema))
+                .build();
+    }
+
+    private static Schema transitive(final ParsedSchema latest, final List<ParsedSchema> history) {
+        return existing(latest, history.size() + 1)
+                .compatibility(CompatibilityLevel.FULL_TRANSITIVE)
+                .history(history);
+    }
+
+    private static Schema required(final ParsedSchema schema) {
+        return Schema.builder()
+                .subject("subject")
+                .type("AVRO")
+                .state(Status.STATE.CREATE)
+                .schemas(List.of(schema))
+                .build();
+    }
+
+    private static AvroSchema avro(final String extraFields) {
+        return new AvroSchema(
+                "{\"type\":\"record\",\"name\":\"Thing\",\"fields\":["
+                        + "{\"name\":\"id\",\"type\":\"int\"}"
+                        + extraFields
+                        + "]}");
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision.schema;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.when;
+
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.specmesh.kafka.provision.Status;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner.Schema;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SchemaLedgerTest {
+
+    private static final String HEADER =
+            "{\"type\":\"record\",\"name\":\"Header\",\"namespace\":\"acme\","
+                    + "\"fields\":[{\"name\":\"id\",\"type\":\"string\"}]}";
+
+    private static final String TRADE =
+            "{\"type\":\"record\",\"name\":\"Trade\",\"namespace\":\"acme\","
+                    + "\"fields\":[{\"name\":\"header\",\"type\":\"acme.Header\"}]}";
+
+    private static final String HEADER_V2 =
+            HEADER.replace("]}", ",{\"name\":\"at\",\"type\":\"long\",\"default\":0}]}");
+
+    @Mock SchemaRegistryClient client;
+    @TempDir private Path dir;
+
+    @Test
+    void shouldChangeFingerprintWhenReferencedSchemaChanges() {
+        // Given:
+        final var refs = List.of(new SchemaReference("acme.Header", "acme.Header", -1));
+        final var before = new AvroSchema(TRADE, refs, Map.of("acme.Header", HEADER), -1);
+        final var after = new AvroSchema(TRADE, refs, Map.of("acme.Header", HEADER_V2), -1);
+
+        // Then:
+        assertThat(SchemaLedger.fingerprint(before), is(not(SchemaLedger.fingerprint(after))));
+        assertThat(
+                SchemaLedger.fingerprint(before),
+                is(
+                        SchemaLedger.fingerprint(
+                                new AvroSchema(TRADE, refs, Map.of("acme.Header", HEADER), -1))));
+    }
+
+    @Test
+    void shouldSkipSubjectsConfirmedByRegistryAfterReload() throws Exception {
+        // Given:
+        final var file = dir.resolve("ledger.json");
+        final var created = required("created", HEADER);
+        final var unchanged = required("unchanged", HEADER);
+        final var ledger = SchemaLedger.load(file);
+        ledger.record(
+                List.of(created, unchanged),
+                List.of(applied("created", 11)),
+                List.of(read("unchanged", 4)));
+        ledger.save();
+
+        when(client.getLatestSchemaMetadata("created")).thenReturn(new SchemaMetadata(11, 2, ""));
+        when(client.getLatestSchemaMetadata("unchanged"))
+                .thenReturn(new SchemaMetadata(7, 4, ""));
+
+        // When:
+        final var skipped =
+                SchemaLedger.load(file).unchanged(List.of(created, unchanged), client, 2);
+
+        // Then:
+        assertThat(skipped, containsInAnyOrder("created", "unchanged"));
+    }
+
+    @Test
+    void shouldNotSkipWhenRegistryOrSchemaDisagrees() throws Exception {
+        // Given:
+        final var moved = required("moved", HEADER);
+        final var deleted = required("deleted", HEADER);
+        final var edited = required("edited", HEADER);
+        final var ledger = SchemaLedger.load(dir.resolve("ledger.json"));
+        ledger.record(
+                List.of(moved, deleted, edited),
+                List.of(applied("moved", 11), applied("deleted", 12), applied("edited", 13)),
+                List.of());
+
+        when(client.getLatestSchemaMetadata("moved")).thenReturn(new SchemaMetadata(20, 3, ""));
+        when(client.getLatestSchemaMetadata("deleted"))
+                .thenThrow(new RestClientException("not found", 404, 40401));
+
+        // When:
+        final var skipped =
+                ledger.unchanged(
+                        List.of(moved, deleted, required("edited", HEADER_V2)), client, 2);
+
+        // Then:
+        assertThat(skipped, is(empty()));
+    }
+
+    @Test
+    void shouldStartEmptyFromUnreadableFile() throws Exception {
+        // Given:
+        final var file = Files.writeString(dir.resolve("ledger.json"), "not json");
+
+        // Then:
+        assertThat(SchemaLedger.load(file).entry("any").isPresent(), is(false));
+    }
+
+    private static Schema required(final String subject, final String avro) {
+        return Schema.builder()
+                .subject(subject)
+                .state(Status.STATE.CREATE)
+                .schemas(List.of(new AvroSchema(avro)))
+                .build();
+    }
+
+    private static Schema applied(final String subject, final int id) {
+        return Schema.builder().subject(subject).state(Status.STATE.CREATED).id(id).build();
+    }
+
+    private static Schema read(final String subject, final int version) {
+        return Schema.builder().subject(subject).state(Status.STATE.READ).version(version).build();
+    }
+}
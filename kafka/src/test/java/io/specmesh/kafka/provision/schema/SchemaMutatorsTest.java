@@ -0,0 +1,123 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision.schema;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.specmesh.kafka.provision.Status;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner.Schema;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SchemaMutatorsTest {
+
+    @Mock SchemaRegistryClient client;
+
+    @Test
+    void shouldRegisterReferencedSubjectsFirst() throws Exception {
+        // Given:
+        final var trade = schema("trade", Status.STATE.CREATE, "currency", "party");
+        final var currency = schema("currency", Status.STATE.UPDATE, "iso");
+        final var party = schema("party", Status.STATE.CREATE);
+        final var iso = schema("iso", Status.STATE.CREATE);
+
+        // When:
+        final var result = mutator().mutate(List.of(trade, currency, party, iso));
+
+        // Then:
+        assertThat(
+                result.stream().map(Schema::subject).collect(Collectors.toList()),
+                contains("trade", "currency", "party", "iso"));
+        assertThat(trade.state(), is(Status.STATE.CREATED));
+        assertThat(currency.state(), is(Status.STATE.UPDATED));
+
+        final var order = inOrder(client);
+        order.verify(client).register(eq("iso"), any(ParsedSchema.class));
+        order.verify(client).register(eq("currency"), any(ParsedSchema.class));
+        order.verify(client).register(eq("trade"), any(ParsedSchema.class));
+    }
+
+    @Test
+    void shouldNotRegisterSubjectWhoseReferenceFailed() throws Exception {
+        // Given:
+        final var trade = schema("trade", Status.STATE.CREATE, "currency");
+        final var currency = schema("currency", Status.STATE.CREATE);
+        when(client.register(eq("currency"), any(ParsedSchema.class)))
+                .thenThrow(new RestClientException("incompatible", 409, 409));
+
+        // When:
+        mutator().mutate(List.of(trade, currency));
+
+        // Then:
+        assertThat(currency.state(), is(Status.STATE.FAILED));
+        assertThat(trade.state(), is(Status.STATE.FAILED));
+        verify(client, never()).register(eq("trade"), any(ParsedSchema.class));
+    }
+
+    @Test
+    void shouldFailCyclicReferencesAndRegisterTheRest() throws Exception {
+        // Given:
+        final var a = schema("a", Status.STATE.CREATE, "b");
+        final var b = schema("b", Status.STATE.CREATE, "a");
+        final var c = schema("c", Status.STATE.CREATE, "external");
+
+        // When:
+        mutator().mutate(List.of(a, b, c));
+
+        // Then:
+        assertThat(a.state(), is(Status.STATE.FAILED));
+        assertThat(b.state(), is(Status.STATE.FAILED));
+        assertThat(c.state(), is(Status.STATE.CREATED));
+        verify(client, never()).register(eq("a"), any(ParsedSchema.class));
+        verify(client).updateCompatibility(eq("c"), anyString());
+    }
+
+    private SchemaMutators.SchemaMutator mutator() {
+        return SchemaMutators.builder().schemaRegistryClient(client).parallelism(4).build();
+    }
+
+    private static Schema schema(
+            final String subject, final Status.STATE state, final String... references) {
+        final var parsed = mock(ParsedSchema.class);
+        when(parsed.references())
+                .thenReturn(
+                        Arrays.stream(references)
+                                .map(ref -> new SchemaReference(ref, ref, -1))
+                                .collect(Collectors.toList()));
+        return Schema.builder().subject(subject).state(state).schemas(List.of(parsed)).build();
+    }
+}
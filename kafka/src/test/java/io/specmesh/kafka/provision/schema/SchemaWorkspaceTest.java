@@ -0,0 +1,178 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision.schema;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner.SchemaProvisioningException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.avro.Schema;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SchemaWorkspaceTest {
+
+    private static final String HEADER =
+            "{\"type\":\"record\",\"name\":\"Header\",\"namespace\":\"acme.common\","
+                    + "\"fields\":[{\"name\":\"id\",\"type\":\"string\"}]}";
+
+    private static final String ENVELOPE =
+            "{\"type\":\"record\",\"name\":\"Envelope\",\"namespace\":\"acme.common\","
+                    + "\"fields\":[{\"name\":\"header\",\"type\":\"acme.common.Header\","
+                    + "\"subject\":\"acme.common.Header\"}]}";
+
+    @TempDir private Path dir;
+
+    @Test
+    void shouldResolveAvroReferencesTransitivelyAndParseEachFileOnce() throws Exception {
+        // Given:
+        write("acme.common.Header.avsc", HEADER);
+        write("acme.common.Envelope.avsc", ENVELOPE);
+        write("trade.avsc", event("Trade"));
+        write("order.avsc", event("Order"));
+        final var workspace = new SchemaWorkspace(dir);
+
+        // When:
+        final ParsedSchema trade = workspace.load("trade.avsc").iterator().next();
+        final ParsedSchema order = workspace.load("order.avsc").iterator().next();
+        final ParsedSchema again = workspace.load("/trade.avsc").iterator().next();
+
+        // Then:
+        assertThat(workspace.parses(), is(4));
+        assertThat(again, is(sameInstance(trade)));
+        assertThat(
+                ((Schema) trade.rawSchema()).getField("envelope").schema().getFullName(),
+                is("acme.common.Envelope"));
+        assertThat(subjects(trade), contains("acme.common.Envelope"));
+        assertThat(subjects(order), contains("acme.common.Envelope"));
+        assertThat(
+                workspace.load("acme.common.Envelope.avsc").iterator().next().references().size(),
+                is(1));
+    }
+
+    @Test
+    void shouldReparseWhenReferencedFileChanges() throws Exception {
+        // Given:
+        write("acme.common.Header.avsc", HEADER);
+        write("acme.common.Envelope.avsc", ENVELOPE);
+        write("trade.avsc", event("Trade"));
+        final var workspace = new SchemaWorkspace(dir);
+        final var first = workspace.load("trade.avsc").iterator().next();
+
+        // When:
+        final var header = write("acme.common.Header.avsc", HEADER.replace("\"id\"", "\"key\""));
+        Files.setLastModifiedTime(header, FileTime.from(Instant.now().plusSeconds(60)));
+        final var second = workspace.load("trade.avsc").iterator().next();
+
+        // Then:
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(workspace.parses(), is(6));
+    }
+
+    @Test
+    void shouldResolveProtobufImports() throws Exception {
+        // Given:
+        write(
+                "acme/common/header.proto",
+                "syntax = \"proto3\";\npackage acme.common;\nmessage Header { string id = 1; }\n");
+        write(
+                "trade.proto",
+                "syntax = \"proto3\";\n"
+                        + "package acme.trading;\n"
+                        + "import \"acme/common/header.proto\";\n"
+                        + "import \"google/protobuf/timestamp.proto\";\n"
+                        + "message Trade {\n"
+                        + "  acme.common.Header header = 1;\n"
+                        + "  google.protobuf.Timestamp at = 2;\n"
+                        + "}\n");
+        final var workspace = new SchemaWorkspace(dir);
+
+        // When:
+        final var trade = workspace.load("trade.proto").iterator().next();
+
+        // Then:
+        assertThat(subjects(trade), contains("header"));
+        assertThat(trade.references().get(0).getName(), is("acme/common/header.proto"));
+        assertThat(workspace.parses(), is(2));
+    }
+
+    @Test
+    void shouldResolveJsonSchemaFileRefs() throws Exception {
+        // Given:
+        write(
+                "header.json",
+                "{\"$schema\":\"http://json-schema.org/draft-07/schema#\",\"type\":\"object\","
+                        + "\"properties\":{\"id\":{\"type\":\"string\"}}}");
+        write(
+                "trade.yml",
+                "{\"$schema\":\"http://json-schema.org/draft-07/schema#\",\"type\":\"object\","
+                        + "\"definitions\":{\"id\":{\"type\":\"string\"}},"
+                        + "\"properties\":{\"header\":{\"$ref\":\"header.json\"},"
+                        + "\"id\":{\"$ref\":\"#/definitions/id\"}}}");
+        final var workspace = new SchemaWorkspace(dir);
+
+        // When:
+        final var trade = workspace.load("trade.yml").iterator().next();
+
+        // Then:
+        assertThat(subjects(trade), contains("header"));
+        assertThat(workspace.parses(), is(2));
+    }
+
+    @Test
+    void shouldRejectCyclicReferences() throws Exception {
+        // Given:
+        write("a.json", "{\"type\":\"object\",\"properties\":{\"b\":{\"$ref\":\"b.json\"}}}");
+        write("b.json", "{\"type\":\"object\",\"properties\":{\"a\":{\"$ref\":\"a.json\"}}}");
+        final var workspace = new SchemaWorkspace(dir);
+
+        // Then:
+        assertThrows(SchemaProvisioningException.class, () -> workspace.load("a.json"));
+    }
+
+    private Path write(final String name, final String content) throws Exception {
+        final var file = dir.resolve(name);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, content);
+    }
+
+    private static String event(final String name) {
+        return "{\"type\":\"record\",\"name\":\""
+                + name
+                + "\",\"namespace\":\"acme.trading\",\"fields\":["
+                + "{\"name\":\"envelope\",\"type\":\"acme.common.Envelope\","
+                + "\"subject\":\"acme.common.Envelope\"}]}";
+    }
+
+    private static List<String> subjects(final ParsedSchema schema) {
+        return schema.references().stream()
+                .map(SchemaReference::getSubject)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.provision.schema;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.confluent.kafka.schemaregistry.CompatibilityLevel;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.specmesh.kafka.provision.Status;
+import io.specmesh.kafka.provision.schema.SchemaProvisioner.Schema;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SrSchemaReaderTest {
+
+    private static final String SCHEMA =
+            "{\"type\":\"record\",\"name\":\"Thing\",\"fields\":[{\"name\":\"id\",\"type\":\"int\"}]}";
+
+    @Mock SchemaRegistryClient client;
+
+    @Test
+    void shouldReportPerSubjectFailuresAsData() throws Exception {
+        // Given:
+        when(client.getAllSubjectsByPrefix("domain")).thenReturn(List.of("a", "b", "c"));
+        when(client.getSchemas("a", false, true)).thenReturn(List.of(new AvroSchema(SCHEMA)));
+        when(client.getSchemas("b", false, true))
+                .thenThrow(new RestClientException("boom", 500, 50001));
+        when(client.getSchemas("c", false, true)).thenReturn(List.of(new AvroSchema(SCHEMA)));
+
+        final var reader =
+                (SchemaReaders.SrSchemaReader)
+                        SchemaReaders.builder().schemaRegistryClient(client).parallelism(2).build();
+
+        // When:
+        final var schemas = reader.read("domain");
+
+        // Then:
+        final var states =
+                schemas.stream().collect(Collectors.toMap(Schema::subject, Schema::state));
+        assertThat(states.get("a"), is(Status.STATE.READ));
+        assertThat(states.get("b"), is(Status.STATE.FAILED));
+        assertThat(states.get("c"), is(Status.STATE.READ));
+        assertThat(reader.stats().subjects(), is(3));
+        assertThat(reader.stats().failures(), is(1));
+    }
+
+    @Test
+    void shouldReadLevelAndEarlierVersionsOfTransitiveSubjects() throws Exception {
+        // Given:
+        when(client.getSchemas("a", false, true))
+                .thenReturn(List.of(new AvroSchema(SCHEMA, List.of(), Map.of(), 3)));
+        when(client.getSchemas("b", false, true))
+                .thenReturn(List.of(new AvroSchema(SCHEMA, List.of(), Map.of(), 2)));
+        when(client.getCompatibility("a")).thenReturn("FULL_TRANSITIVE");
+        when(client.getCompatibility("b"))
+                .thenThrow(new RestClientException("not configured", 404, 40408));
+        when(client.getCompatibility(null)).thenReturn("BACKWARD");
+        when(client.getAllVersions("a")).thenReturn(List.of(1, 2, 3));
+        when(client.getByVersion("a", 1, false)).thenReturn(registered("a", 1));
+        when(client.getByVersion("a", 2, false)).thenReturn(registered("a", 2));
+
+        final var reader = SchemaReaders.builder().schemaRegistryClient(client).build();
+
+        // When:
+        final var schemas =
+                reader.readSubjects(List.of("a", "b")).stream()
+                        .collect(Collectors.toMap(Schema::subject, schema -> schema));
+
+        // Then:
+        assertThat(schemas.get("a").compatibility(), is(CompatibilityLevel.FULL_TRANSITIVE));
+        assertThat(schemas.get("a").history(), hasSize(2));
+        assertThat(schemas.get("b").compatibility(), is(CompatibilityLevel.BACKWARD));
+        assertThat(schemas.get("b").history(), is(nullValue()));
+        verify(client, never()).getAllVersions("b");
+    }
+
+    private static io.confluent.kafka.schemaregistry.client.rest.entities.Schema registered(
+            final String subject, final int version) {
+        return new io.confluent.kafka.schemaregistry.client.rest.entities.Schema(
+                subject, version, version, "AVRO", List.of(), SCHEMA);
+    }
+}
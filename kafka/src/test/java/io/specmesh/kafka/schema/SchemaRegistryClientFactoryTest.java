@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023 SpecMesh Contributors (https://github.com/specmesh)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.specmesh.kafka.schema;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sun.net.httpserver.HttpServer;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SchemaRegistryClientFactoryTest {
+
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(
+                "/schemas/ids/",
+                exchange -> {
+                    final boolean known = exchange.getRequestURI().getPath().endsWith("/7");
+                    final byte[] body =
+                            (known
+                                            ? "{\"schema\":\"\\\"string\\\"\"}"
+                                            : "{\"error_code\":40403,\"message\":\"not found\"}")
+                                    .getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().add("Content-Type", "application/json");
+                    exchange.sendResponseHeaders(known ? 200 : 404, body.length);
+                    exchange.getResponseBody().write(body);
+                    exchange.close();
+                });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldRecordRequestsAndCacheHits() throws Exception {
+        // Given:
+        final var factory =
+                SchemaRegistryClientFactory.builder()
+                        .maxConcurrentRequests(2)
+                        .recordMetrics(true)
+                        .build();
+        final var client = factory.create(url(), null, null);
+
+        // When:
+        client.getSchemaById(7);
+        client.getSchemaById(7);
+        assertThrows(RestClientException.class, () -> client.getSchemaById(8));
+
+        // Then:
+        final var endpoint = factory.metrics().endpoints().get("GET /schemas/ids/{id}");
+        assertThat(endpoint.requests(), is(2L));
+        assertThat(endpoint.errors(), is(1L));
+        final var calls = factory.metrics().calls().get("getSchemaById");
+        assertThat(calls.hits(), is(1L));
+        assertThat(calls.misses(), is(2L));
+    }
+
+    @Test
+    void shouldNotRecordUnlessAskedTo() throws Exception {
+        // Given:
+        final var factory = SchemaRegistryClientFactory.defaults();
+        final var client = factory.create(url(), null, null);
+
+        // When:
+        client.getSchemaById(7);
+
+        // Then:
+        assertThat(factory.metrics().endpoints().isEmpty(), is(true));
+        assertThat(factory.metrics().calls().isEmpty(), is(true));
+    }
+
+    @Test
+    void shouldTemplateEndpoints() {
+        assertThat(
+                SchemaRegistryMetrics.endpoint(
+                        "GET", "/subjects/acme.trade-value/versions/latest?deleted=false"),
+                is("GET /subjects/{subject}/versions/{version}"));
+        assertThat(
+                SchemaRegistryMetrics.endpoint("POST", "/compatibility/subjects/x/versions/3"),
+                is("POST /compatibility/subjects/{subject}/versions/{version}"));
+        assertThat(
+                SchemaRegistryMetrics.endpoint("PUT", "/config/acme.trade-value"),
+                is("PUT /config/{subject}"));
+        assertThat(SchemaRegistryMetrics.endpoint("GET", "/subjects"), is("GET /subjects"));
+    }
+
+    private String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+}
@@ -22,6 +22,9 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.specmesh.apiparser.AsyncApiParser;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -84,6 +87,38 @@ public class ApiSpec {
                                 LinkedHashMap::new));
     }
 
+    /**
+     * @return every environment named by a channel's kafka binding
+     */
+    public Set<String> environments() {
+        return channels.values().stream()
+                .map(Channel::bindings)
+                .filter(Objects::nonNull)
+                .map(Bindings::kafka)
+                .filter(Objects::nonNull)
+                .flatMap(kafka -> kafka.envs().stream())
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * @param env environment name
+     * @return a copy of this spec holding only the channels that apply to the env
+     */
+    public ApiSpec forEnvironment(final String env) {
+        return new ApiSpec(
+                id,
+                version,
+                asyncapi,
+                channels.entrySet().stream()
+                        .filter(e -> e.getValue().inEnvironment(env))
+                        .collect(
+                                Collectors.toMap(
+                                        Map.Entry::getKey,
+                                        Map.Entry::getValue,
+                                        (k, v) -> k,
+                                        LinkedHashMap::new)));
+    }
+
     private String getCanonical(final String id, final String channelName, final boolean publish) {
         // legacy and deprecated
         if (channelName.startsWith("/")) {
@@ -42,6 +42,18 @@ public class Channel {
 
     @JsonProperty Operation subscribe;
 
+    /**
+     * @param env environment name
+     * @return true if the channel's kafka binding lists the env, or lists none, meaning all envs
+     */
+    public boolean inEnvironment(final String env) {
+        if (bindings == null || bindings.kafka() == null) {
+            return true;
+        }
+        final var envs = bindings.kafka().envs();
+        return envs.isEmpty() || envs.contains(env);
+    }
+
     public void validate() {
         if (this.bindings != null) {
             this.bindings.validate();
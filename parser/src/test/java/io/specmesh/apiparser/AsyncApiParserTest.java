@@ -17,6 +17,7 @@
 package io.specmesh.apiparser;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -53,6 +54,17 @@ public class AsyncApiParserTest {
                 hasItem("london.hammersmith.transport._public.tube"));
     }
 
+    @Test
+    public void shouldKeepOnlyChannelsForEnvironment() {
+        assertThat(API_SPEC.environments(), contains("prod", "staging"));
+        assertThat(
+                API_SPEC.forEnvironment("prod").channels().keySet(),
+                is(API_SPEC.channels().keySet()));
+        assertThat(
+                API_SPEC.forEnvironment("dev").channels().keySet(),
+                contains("london.hammersmith.transport._public.tube"));
+    }
+
     @Test
     public void shouldReturnKafkaBindingsForCreation() {
         final Map<String, Channel> channelsMap = API_SPEC.channels();
@@ -24,4 +24,4 @@
  */
 rootProject.name = "specmesh-build"
 
-include("cli", "parser", "kafka", "kafka-test")
\ No newline at end of file
+include("cli", "parser", "kafka", "kafka-test", "jmh")
\ No newline at end of file